@@ -0,0 +1,138 @@
+package org.pac4j.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.val;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH results (JSON format) with baseline results (JSON format): a benchmark regresses if its score
+ * or its normalized allocation rate (<code>-prof gc</code>) is worse than the baseline one beyond a threshold.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+public class BaselineComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    /**
+     * Allocation differences below this number of bytes per operation are considered as noise.
+     */
+    private static final double ALLOCATION_NOISE = 16.0;
+
+    private final double scoreThreshold;
+
+    private final double allocationThreshold;
+
+    private final List<String> regressions = new ArrayList<>();
+
+    private final List<String> report = new ArrayList<>();
+
+    /**
+     * Define the comparison.
+     *
+     * @param scoreThreshold the tolerated score degradation (0.1 for 10%)
+     * @param allocationThreshold the tolerated allocation increase (0.1 for 10%)
+     */
+    public BaselineComparison(final double scoreThreshold, final double allocationThreshold) {
+        this.scoreThreshold = scoreThreshold;
+        this.allocationThreshold = allocationThreshold;
+    }
+
+    /**
+     * Compare JMH JSON results files.
+     *
+     * @param baseline the baseline results
+     * @param current the current results
+     * @return this comparison
+     * @throws IOException if a file cannot be read
+     */
+    public BaselineComparison compare(final File baseline, final File current) throws IOException {
+        val mapper = new ObjectMapper();
+        return compare(mapper.readTree(baseline), mapper.readTree(current));
+    }
+
+    /**
+     * Compare JMH JSON results.
+     *
+     * @param baseline the baseline results
+     * @param current the current results
+     * @return this comparison
+     */
+    public BaselineComparison compare(final JsonNode baseline, final JsonNode current) {
+        val baselineResults = index(baseline);
+        for (val entry : index(current).entrySet()) {
+            val key = entry.getKey();
+            val result = entry.getValue();
+            val reference = baselineResults.get(key);
+            if (reference == null) {
+                report.add(String.format("%s: %.3f %s (no baseline)", key, result.score, result.unit));
+                continue;
+            }
+
+            val scoreChange = (result.score - reference.score) / reference.score;
+            val scoreRegression = result.higherIsBetter ? -scoreChange > scoreThreshold : scoreChange > scoreThreshold;
+            report.add(String.format("%s: %.3f -> %.3f %s (%+.1f%%)%s", key, reference.score, result.score, result.unit,
+                scoreChange * 100, scoreRegression ? " REGRESSION" : ""));
+            if (scoreRegression) {
+                regressions.add(key + " score");
+            }
+
+            if (reference.allocation != null && result.allocation != null) {
+                val delta = result.allocation - reference.allocation;
+                val allocationRegression = delta > ALLOCATION_NOISE && delta > reference.allocation * allocationThreshold;
+                report.add(String.format("%s: %.1f -> %.1f B/op allocated%s", key, reference.allocation, result.allocation,
+                    allocationRegression ? " REGRESSION" : ""));
+                if (allocationRegression) {
+                    regressions.add(key + " allocation");
+                }
+            }
+        }
+        return this;
+    }
+
+    public boolean hasRegressions() {
+        return !regressions.isEmpty();
+    }
+
+    private static Map<String, Result> index(final JsonNode results) {
+        final Map<String, Result> indexed = new LinkedHashMap<>();
+        for (val node : results) {
+            val key = new StringBuilder(node.path("benchmark").asText());
+            val params = node.path("params");
+            if (params.isObject()) {
+                final Map<String, String> sortedParams = new TreeMap<>();
+                params.fields().forEachRemaining(e -> sortedParams.put(e.getKey(), e.getValue().asText()));
+                key.append(sortedParams);
+            }
+            val mode = node.path("mode").asText();
+            key.append(" [").append(mode).append(']');
+
+            val primary = node.path("primaryMetric");
+            Double allocation = null;
+            val secondaries = node.path("secondaryMetrics").fields();
+            while (secondaries.hasNext()) {
+                val metric = secondaries.next();
+                // older JMH versions prefix the profiler metrics with a middle dot
+                if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                    allocation = metric.getValue().path("score").asDouble();
+                }
+            }
+            indexed.put(key.toString(), new Result(primary.path("score").asDouble(), primary.path("scoreUnit").asText(),
+                "thrpt".equals(mode), allocation));
+        }
+        return indexed;
+    }
+
+    private record Result(double score, String unit, boolean higherIsBetter, Double allocation) {}
+}
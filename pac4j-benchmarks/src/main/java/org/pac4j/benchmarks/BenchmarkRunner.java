@@ -0,0 +1,66 @@
+package org.pac4j.benchmarks;
+
+import lombok.val;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * <p>Runs the benchmarks with the GC profiler and saves the results in JSON.</p>
+ *
+ * <p>If a baseline is provided, the results are compared to it and the process exits with the status 1 in case of regression,
+ * so that a release can be gated on the benchmark results:</p>
+ *
+ * <pre>java -cp pac4j-benchmarks.jar org.pac4j.benchmarks.BenchmarkRunner -output current.json -baseline baseline.json
+ *   -threshold 10 -allocationThreshold 5 JwtBenchmark SecurityLogic</pre>
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(final String[] args) throws Exception {
+        var output = "pac4j-benchmarks.json";
+        String baseline = null;
+        var threshold = 10.0;
+        var allocationThreshold = 5.0;
+        val builder = new OptionsBuilder();
+        var hasInclude = false;
+
+        for (var i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-output" -> output = args[++i];
+                case "-baseline" -> baseline = args[++i];
+                case "-threshold" -> threshold = Double.parseDouble(args[++i]);
+                case "-allocationThreshold" -> allocationThreshold = Double.parseDouble(args[++i]);
+                default -> {
+                    builder.include(args[i]);
+                    hasInclude = true;
+                }
+            }
+        }
+        if (!hasInclude) {
+            builder.include("org\\.pac4j\\.benchmarks\\..*");
+        }
+
+        builder.addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(output);
+        new Runner(builder.build()).run();
+
+        if (baseline != null) {
+            val comparison = new BaselineComparison(threshold / 100, allocationThreshold / 100)
+                .compare(new File(baseline), new File(output));
+            comparison.getReport().forEach(System.out::println);
+            if (comparison.hasRegressions()) {
+                System.out.println("Regressions: " + comparison.getRegressions());
+                System.exit(1);
+            }
+        }
+    }
+}
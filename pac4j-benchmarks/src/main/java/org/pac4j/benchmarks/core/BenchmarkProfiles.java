@@ -0,0 +1,52 @@
+package org.pac4j.benchmarks.core;
+
+import lombok.val;
+import org.pac4j.core.profile.CommonProfile;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds realistic user profiles for the benchmarks.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class BenchmarkProfiles {
+
+    private BenchmarkProfiles() {}
+
+    /**
+     * Build a profile with the common attributes and a number of custom attributes.
+     *
+     * @param id the identifier
+     * @param nbCustomAttributes the number of custom attributes
+     * @return the profile
+     */
+    public static CommonProfile build(final String id, final int nbCustomAttributes) {
+        val profile = new CommonProfile();
+        profile.setId(id);
+        profile.setClientName("BenchmarkClient");
+        profile.addAttribute("email", id + "@example.org");
+        profile.addAttribute("first_name", "John");
+        profile.addAttribute("family_name", "Doe");
+        profile.addAttribute("display_name", "John Doe");
+        profile.addAttribute("locale", Locale.FRANCE);
+        profile.addAttribute("picture_url", URI.create("https://example.org/pictures/" + id));
+        profile.addAttribute("profile_url", URI.create("https://example.org/users/" + id));
+        profile.addAttribute("location", "Paris, France");
+        for (var i = 0; i < nbCustomAttributes; i++) {
+            switch (i % 4) {
+                case 0 -> profile.addAttribute("attribute" + i, "value" + i);
+                case 1 -> profile.addAttribute("attribute" + i, (long) i);
+                case 2 -> profile.addAttribute("attribute" + i, new Date(1_600_000_000_000L + i));
+                default -> profile.addAttribute("attribute" + i, List.of("group" + i, "group" + (i + 1)));
+            }
+        }
+        profile.addRoles(List.of("ROLE_USER", "ROLE_ADMIN"));
+        profile.addAuthenticationAttribute("auth_time", 1_600_000_000L);
+        return profile;
+    }
+}
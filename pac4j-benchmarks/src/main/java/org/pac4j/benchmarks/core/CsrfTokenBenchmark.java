@@ -0,0 +1,93 @@
+package org.pac4j.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.authorization.authorizer.CsrfAuthorizer;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.matching.matcher.csrf.CsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.SignedCsrfTokenGenerator;
+import org.pac4j.core.util.Pac4jConstants;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generation and the check of a CSRF token with the {@link DefaultCsrfTokenGenerator} (tokens saved in session)
+ * and the {@link SignedCsrfTokenGenerator} (stateless tokens), with a session store serializing its values
+ * (like a remote session backend). The session reads and writes per operation are reported as secondary results.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsrfTokenBenchmark {
+
+    @Param({"session", "signed"})
+    private String mode;
+
+    private CsrfTokenGenerator generator;
+
+    private CsrfAuthorizer authorizer;
+
+    private SerializingSessionStore sessionStore;
+
+    /**
+     * The session operations, reported per operation.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class SessionOperations {
+
+        public long sessionReads;
+
+        public long sessionWrites;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sessionReads = 0;
+            sessionWrites = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        if ("signed".equals(mode)) {
+            final SignedCsrfTokenGenerator signedGenerator = new SignedCsrfTokenGenerator("12345678901234567890123456789012");
+            generator = signedGenerator;
+            authorizer = new CsrfAuthorizer(signedGenerator);
+        } else {
+            generator = new DefaultCsrfTokenGenerator();
+            authorizer = new CsrfAuthorizer();
+        }
+        sessionStore = new SerializingSessionStore();
+        sessionStore.getSessionId(MockWebContext.create(), true);
+    }
+
+    @Benchmark
+    public Object generateToken(final SessionOperations operations) {
+        final int reads = sessionStore.getNbReads();
+        final int writes = sessionStore.getNbWrites();
+        final String token = generator.get(MockWebContext.create(), sessionStore);
+        operations.sessionReads += sessionStore.getNbReads() - reads;
+        operations.sessionWrites += sessionStore.getNbWrites() - writes;
+        return token;
+    }
+
+    @Benchmark
+    public boolean generateAndCheckToken(final SessionOperations operations) {
+        final int reads = sessionStore.getNbReads();
+        final int writes = sessionStore.getNbWrites();
+        final String token = generator.get(MockWebContext.create(), sessionStore);
+        final MockWebContext context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter(Pac4jConstants.CSRF_TOKEN, token);
+        final boolean authorized = authorizer.isAuthorized(context, sessionStore, null);
+        operations.sessionReads += sessionStore.getNbReads() - reads;
+        operations.sessionWrites += sessionStore.getNbWrites() - writes;
+        return authorized;
+    }
+}
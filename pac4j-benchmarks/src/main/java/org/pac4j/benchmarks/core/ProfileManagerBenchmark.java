@@ -0,0 +1,59 @@
+package org.pac4j.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the loading and saving of the user profiles by the {@link ProfileManager}
+ * with a session store serializing its values (like a remote session backend).
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfileManagerBenchmark {
+
+    @Param({"10", "50"})
+    private int nbAttributes;
+
+    private CommonProfile profile;
+
+    private SerializingSessionStore sessionStore;
+
+    private MockWebContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        profile = BenchmarkProfiles.build("user", nbAttributes);
+        sessionStore = new SerializingSessionStore();
+        new ProfileManager(MockWebContext.create(), sessionStore).save(true, profile, false);
+    }
+
+    @Setup(Level.Invocation)
+    public void newRequest() {
+        context = MockWebContext.create();
+    }
+
+    @Benchmark
+    public Object loadProfiles() {
+        final ProfileManager manager = new ProfileManager(context, sessionStore);
+        manager.isAuthenticated();
+        return manager.getProfiles();
+    }
+
+    @Benchmark
+    public Object saveAndReloadProfile() {
+        final ProfileManager manager = new ProfileManager(context, sessionStore);
+        manager.save(true, profile, true);
+        return manager.getProfiles();
+    }
+}
@@ -0,0 +1,41 @@
+package org.pac4j.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.util.generator.SecureRandomTokenGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generation of random tokens from concatenated {@link UUID}s (previous implementation, one shared
+ * <code>SecureRandom</code>) and by the {@link SecureRandomTokenGenerator} (one DRBG per thread, bytes drawn in bulk).
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class RandomTokenBenchmark {
+
+    @Param({"10", "32", "50"})
+    private int size;
+
+    @Benchmark
+    public String uuidBased() {
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < size) {
+            builder.append(UUID.randomUUID().toString().replace("-", ""));
+        }
+        return builder.substring(0, size);
+    }
+
+    @Benchmark
+    public String secureRandomTokenGenerator() {
+        return SecureRandomTokenGenerator.generateHex(size);
+    }
+}
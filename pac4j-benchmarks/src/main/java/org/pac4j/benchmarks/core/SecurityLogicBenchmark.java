@@ -0,0 +1,103 @@
+package org.pac4j.benchmarks.core;
+
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.MockDirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.engine.DefaultSecurityLogic;
+import org.pac4j.core.engine.SecurityGrantedAccessAdapter;
+import org.pac4j.core.engine.SecurityRoute;
+import org.pac4j.core.profile.CommonProfile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link DefaultSecurityLogic} with route definitions resolved on each request
+ * or compiled once into a {@link SecurityRoute}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityLogicBenchmark {
+
+    private static final int NB_ELEMENTS = 30;
+
+    private static final FrameworkParameters PARAMETERS = new FrameworkParameters() {};
+
+    private final ThreadLocal<MockWebContext> currentContext = new ThreadLocal<>();
+
+    private final ThreadLocal<MockSessionStore> currentSessionStore = new ThreadLocal<>();
+
+    private Config config;
+
+    private DefaultSecurityLogic logic;
+
+    private SecurityGrantedAccessAdapter adapter;
+
+    private SecurityRoute route;
+
+    @Param({"client7,client21", "client12"})
+    private String clients;
+
+    @Param({"authorizer3,authorizer17"})
+    private String authorizers;
+
+    @Param({"securityheaders,matcher5", "+matcher11"})
+    private String matchers;
+
+    @Setup
+    public void setUp() {
+        final List<Client> allClients = new ArrayList<>();
+        for (var i = 0; i < NB_ELEMENTS; i++) {
+            val profile = new CommonProfile();
+            profile.setId("user" + i);
+            allClients.add(new MockDirectClient("client" + i, Optional.of(new MockCredentials()), profile));
+        }
+        config = new Config(allClients);
+        for (var i = 0; i < NB_ELEMENTS; i++) {
+            config.addAuthorizer("authorizer" + i, (context, sessionStore, profiles) -> true);
+            config.addMatcher("matcher" + i, (context, sessionStore) -> true);
+        }
+        config.setWebContextFactory(p -> currentContext.get());
+        config.setSessionStoreFactory(p -> currentSessionStore.get());
+        config.setHttpActionAdapter((action, context) -> action);
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+
+        logic = new DefaultSecurityLogic();
+        adapter = (context, sessionStore, profiles) -> profiles;
+        route = config.getSecurityRoute(logic, clients, authorizers, matchers);
+    }
+
+    private void newRequest() {
+        currentContext.set(MockWebContext.create());
+        currentSessionStore.set(new MockSessionStore());
+    }
+
+    @Benchmark
+    public void resolvedOnEachRequest(final Blackhole blackhole) {
+        newRequest();
+        blackhole.consume(logic.perform(config, adapter, clients, authorizers, matchers, PARAMETERS));
+    }
+
+    @Benchmark
+    public void compiledRoute(final Blackhole blackhole) {
+        newRequest();
+        blackhole.consume(logic.perform(config, adapter, route, PARAMETERS));
+    }
+}
@@ -0,0 +1,97 @@
+package org.pac4j.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.adapter.FrameworkAdapter;
+import org.pac4j.core.client.MockDirectClient;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.FrameworkParameters;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.engine.DefaultSecurityLogic;
+import org.pac4j.core.engine.SecurityGrantedAccessAdapter;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.Pac4jConstants;
+
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the main flows of the {@link DefaultSecurityLogic}: authentication by a direct client,
+ * redirection to the identity provider for an indirect client and access with a profile already in session.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityLogicFlowBenchmark {
+
+    private static final String DIRECT = "DirectClient";
+
+    private static final String INDIRECT = "IndirectClient";
+
+    private static final FrameworkParameters PARAMETERS = new FrameworkParameters() {};
+
+    private Config config;
+
+    private DefaultSecurityLogic logic;
+
+    private SecurityGrantedAccessAdapter adapter;
+
+    private MockWebContext context;
+
+    private SessionStore sessionStore;
+
+    private CommonProfile profile;
+
+    @Setup
+    public void setUp() {
+        profile = BenchmarkProfiles.build("user", 10);
+        profile.setClientName(INDIRECT);
+        config = new Config("https://example.org/callback",
+            new MockDirectClient(DIRECT, Optional.of(new MockCredentials()), profile),
+            new MockIndirectClient(INDIRECT, new FoundAction("https://idp.example.org/login"),
+                Optional.of(new MockCredentials()), profile));
+        config.setWebContextFactory(p -> context);
+        config.setSessionStoreFactory(p -> sessionStore);
+        config.setHttpActionAdapter((action, ctx) -> action);
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+
+        logic = new DefaultSecurityLogic();
+        adapter = (ctx, store, profiles) -> profiles;
+    }
+
+    @Setup(Level.Invocation)
+    public void newRequest() {
+        context = MockWebContext.create().setFullRequestURL("https://example.org/protected?id=1");
+        sessionStore = new MockSessionStore();
+    }
+
+    @Benchmark
+    public Object directClientAuthentication() {
+        return logic.perform(config, adapter, DIRECT, null, null, PARAMETERS);
+    }
+
+    @Benchmark
+    public Object indirectClientRedirection() {
+        return logic.perform(config, adapter, INDIRECT, null, null, PARAMETERS);
+    }
+
+    @Benchmark
+    public Object indirectClientAuthenticatedInSession() {
+        final LinkedHashMap<String, UserProfile> profiles = new LinkedHashMap<>();
+        profiles.put(INDIRECT, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        return logic.perform(config, adapter, INDIRECT, null, "none", PARAMETERS);
+    }
+}
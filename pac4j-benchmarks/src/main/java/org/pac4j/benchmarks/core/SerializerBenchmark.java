@@ -0,0 +1,76 @@
+package org.pac4j.benchmarks.core;
+
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.serializer.BinaryProfileSerializer;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.JsonSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of a user profile. The serialized size (in bytes) is reported as a secondary result
+ * of the round trip.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"java", "json", "binary"})
+    private String serializerType;
+
+    @Param({"10", "50"})
+    private int nbAttributes;
+
+    private Serializer serializer;
+
+    private CommonProfile profile;
+
+    private byte[] serialized;
+
+    /**
+     * The serialized size.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+
+        public long serializedBytes;
+    }
+
+    @Setup
+    public void setUp() {
+        serializer = switch (serializerType) {
+            case "json" -> new JsonSerializer(CommonProfile.class);
+            case "binary" -> new BinaryProfileSerializer();
+            default -> new JavaSerializer();
+        };
+        profile = BenchmarkProfiles.build("user", nbAttributes);
+        serialized = serializer.serializeToBytes(profile);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serializeToBytes(profile);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserializeFromBytes(serialized);
+    }
+
+    @Benchmark
+    public Object roundTrip(final Size size) {
+        final byte[] bytes = serializer.serializeToBytes(profile);
+        size.serializedBytes = bytes.length;
+        return serializer.deserializeFromBytes(bytes);
+    }
+}
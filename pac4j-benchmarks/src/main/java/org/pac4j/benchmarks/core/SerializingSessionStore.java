@@ -0,0 +1,94 @@
+package org.pac4j.benchmarks.core;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A map-backed session store which serializes its values, like a remote session backend (Redis, JDBC...) would do.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public class SerializingSessionStore implements SessionStore {
+
+    private final Map<String, byte[]> store = new HashMap<>();
+
+    private final Serializer serializer;
+
+    private final AtomicInteger nbReads = new AtomicInteger();
+
+    private final AtomicInteger nbWrites = new AtomicInteger();
+
+    private String id;
+
+    public SerializingSessionStore() {
+        this(new JavaSerializer());
+    }
+
+    public SerializingSessionStore(final Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        if (createSession && id == null) {
+            id = "session" + System.nanoTime();
+        }
+        return Optional.ofNullable(id);
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        nbReads.incrementAndGet();
+        final byte[] value = store.get(key);
+        return value == null ? Optional.empty() : Optional.ofNullable(serializer.deserializeFromBytes(value));
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        nbWrites.incrementAndGet();
+        getSessionId(context, true);
+        if (value == null) {
+            store.remove(key);
+        } else {
+            store.put(key, serializer.serializeToBytes(value));
+        }
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        store.clear();
+        id = null;
+        return true;
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        return false;
+    }
+
+    public int getNbReads() {
+        return nbReads.get();
+    }
+
+    public int getNbWrites() {
+        return nbWrites.get();
+    }
+}
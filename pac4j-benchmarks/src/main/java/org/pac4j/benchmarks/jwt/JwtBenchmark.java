@@ -0,0 +1,107 @@
+package org.pac4j.benchmarks.jwt;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.benchmarks.core.BenchmarkProfiles;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.jwt.config.encryption.ECEncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.RSAEncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+import org.pac4j.jwt.config.signature.ECSignatureConfiguration;
+import org.pac4j.jwt.config.signature.RSASignatureConfiguration;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+import org.pac4j.jwt.config.signature.SignatureConfiguration;
+import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+import org.pac4j.jwt.profile.JwtGenerator;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the generation (signature and encryption) and the validation of JWT
+ * by the {@link JwtGenerator} and the {@link JwtAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    @Param({"RS256", "ES256", "HS256"})
+    private String signature;
+
+    @Param({"none", "RSA", "EC", "secret"})
+    private String encryption;
+
+    private CommonProfile profile;
+
+    private JwtGenerator generator;
+
+    private JwtAuthenticator authenticator;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        profile = BenchmarkProfiles.build("user", 10);
+        val signatureConfiguration = buildSignatureConfiguration();
+        val encryptionConfiguration = buildEncryptionConfiguration();
+        if (encryptionConfiguration != null) {
+            generator = new JwtGenerator(signatureConfiguration, encryptionConfiguration);
+            authenticator = new JwtAuthenticator(signatureConfiguration, encryptionConfiguration);
+        } else {
+            generator = new JwtGenerator(signatureConfiguration);
+            authenticator = new JwtAuthenticator(signatureConfiguration);
+        }
+        token = generator.generate(profile);
+    }
+
+    private SignatureConfiguration buildSignatureConfiguration() throws NoSuchAlgorithmException {
+        return switch (signature) {
+            case "RS256" -> new RSASignatureConfiguration(generateKeyPair("RSA", 2048), JWSAlgorithm.RS256);
+            case "ES256" -> new ECSignatureConfiguration(generateKeyPair("EC", 256), JWSAlgorithm.ES256);
+            default -> new SecretSignatureConfiguration(SECRET, JWSAlgorithm.HS256);
+        };
+    }
+
+    private EncryptionConfiguration buildEncryptionConfiguration() throws NoSuchAlgorithmException {
+        return switch (encryption) {
+            case "RSA" -> new RSAEncryptionConfiguration(generateKeyPair("RSA", 2048), JWEAlgorithm.RSA_OAEP_256,
+                EncryptionMethod.A256GCM);
+            case "EC" -> new ECEncryptionConfiguration(generateKeyPair("EC", 256), JWEAlgorithm.ECDH_ES_A256KW,
+                EncryptionMethod.A256GCM);
+            case "secret" -> new SecretEncryptionConfiguration(SECRET, JWEAlgorithm.DIR, EncryptionMethod.A256GCM);
+            default -> null;
+        };
+    }
+
+    private static KeyPair generateKeyPair(final String algorithm, final int size) throws NoSuchAlgorithmException {
+        val keyGen = KeyPairGenerator.getInstance(algorithm);
+        keyGen.initialize(size);
+        return keyGen.generateKeyPair();
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate(profile);
+    }
+
+    @Benchmark
+    public Object validate() {
+        return authenticator.validate(new TokenCredentials(token), null, null);
+    }
+}
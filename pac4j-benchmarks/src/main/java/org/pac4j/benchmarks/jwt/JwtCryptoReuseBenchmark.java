@@ -0,0 +1,111 @@
+package org.pac4j.benchmarks.jwt;
+
+import com.nimbusds.jose.EncryptionMethod;
+import com.nimbusds.jose.JWEAlgorithm;
+import com.nimbusds.jose.JWSAlgorithm;
+import lombok.val;
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.benchmarks.core.BenchmarkProfiles;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.jwt.config.encryption.AbstractEncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.RSAEncryptionConfiguration;
+import org.pac4j.jwt.config.signature.AbstractSignatureConfiguration;
+import org.pac4j.jwt.config.signature.ECSignatureConfiguration;
+import org.pac4j.jwt.config.signature.RSASignatureConfiguration;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+import org.pac4j.jwt.profile.JwtGenerator;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the generation and the validation of JWT when the signers, verifiers, encrypters and decrypters
+ * are reused by the configurations (<code>reuse=true</code>) or re-built for each operation (<code>reuse=false</code>,
+ * the former behavior). Run it with <code>-prof gc</code> to compare the allocations.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtCryptoReuseBenchmark {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    @Param({"RS256", "ES256", "HS256"})
+    private String signature;
+
+    @Param({"false", "true"})
+    private boolean encrypted;
+
+    @Param({"true", "false"})
+    private boolean reuse;
+
+    private CommonProfile profile;
+
+    private AbstractSignatureConfiguration signatureConfiguration;
+
+    private AbstractEncryptionConfiguration encryptionConfiguration;
+
+    private JwtGenerator generator;
+
+    private JwtAuthenticator authenticator;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        profile = BenchmarkProfiles.build("user", 10);
+        signatureConfiguration = switch (signature) {
+            case "RS256" -> new RSASignatureConfiguration(generateKeyPair("RSA", 2048), JWSAlgorithm.RS256);
+            case "ES256" -> new ECSignatureConfiguration(generateKeyPair("EC", 256), JWSAlgorithm.ES256);
+            default -> new SecretSignatureConfiguration(SECRET, JWSAlgorithm.HS256);
+        };
+        if (encrypted) {
+            encryptionConfiguration = new RSAEncryptionConfiguration(generateKeyPair("RSA", 2048), JWEAlgorithm.RSA_OAEP_256,
+                EncryptionMethod.A256GCM);
+            generator = new JwtGenerator(signatureConfiguration, encryptionConfiguration);
+            authenticator = new JwtAuthenticator(signatureConfiguration, encryptionConfiguration);
+        } else {
+            generator = new JwtGenerator(signatureConfiguration);
+            authenticator = new JwtAuthenticator(signatureConfiguration);
+        }
+        token = generator.generate(profile);
+    }
+
+    private static KeyPair generateKeyPair(final String algorithm, final int size) throws NoSuchAlgorithmException {
+        val keyGen = KeyPairGenerator.getInstance(algorithm);
+        keyGen.initialize(size);
+        return keyGen.generateKeyPair();
+    }
+
+    private void discardCryptoObjects() {
+        if (!reuse) {
+            // setting the algorithm discards the cached signer/verifier and encrypter/decrypter
+            signatureConfiguration.setAlgorithm(signatureConfiguration.getAlgorithm());
+            if (encryptionConfiguration != null) {
+                encryptionConfiguration.setAlgorithm(encryptionConfiguration.getAlgorithm());
+            }
+        }
+    }
+
+    @Benchmark
+    public String generate() {
+        discardCryptoObjects();
+        return generator.generate(profile);
+    }
+
+    @Benchmark
+    public Object validate() {
+        discardCryptoObjects();
+        return authenticator.validate(new TokenCredentials(token), null, null);
+    }
+}
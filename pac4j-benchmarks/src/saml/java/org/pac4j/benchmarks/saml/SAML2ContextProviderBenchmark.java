@@ -0,0 +1,119 @@
+package org.pac4j.benchmarks.saml;
+
+import lombok.val;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import net.shibboleth.shared.xml.SerializeSupport;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.logout.handler.LogoutHandler;
+import org.pac4j.saml.client.SAML2Client;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.context.SAML2ContextProvider;
+import org.pac4j.saml.util.Configuration;
+import org.pac4j.saml.util.SAML2Utils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.w3c.dom.Element;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Benchmarks the {@link SAML2ContextProvider#buildContext} method with a federation metadata file of about 200 KB
+ * (the TestShib metadata with duplicated entities): the former implementation (a new chaining metadata resolver
+ * for each entity lookup) against the current one (chaining resolver and descriptors kept until the metadata change).
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SAML2ContextProviderBenchmark {
+
+    private static final int FEDERATION_SIZE = 200 * 1024;
+
+    private SAML2Client client;
+
+    @Setup
+    public void setUp() throws Exception {
+        val directory = Files.createTempDirectory("pac4j-saml-benchmark").toFile();
+        val metadata = new File(directory, "federation-metadata.xml");
+        Files.writeString(metadata.toPath(), buildFederationMetadata(), StandardCharsets.UTF_8);
+
+        val configuration = new SAML2Configuration(new FileSystemResource(new File(directory, "samlKeystore.jks")),
+            "pac4j-demo-passwd", "pac4j-demo-passwd", new FileSystemResource(metadata));
+        configuration.setIdentityProviderEntityId("https://idp.testshib.org/idp/shibboleth");
+        configuration.setServiceProviderEntityId("urn:mace:saml:pac4j.org");
+        configuration.setForceServiceProviderMetadataGeneration(true);
+        configuration.setForceKeystoreGeneration(true);
+        configuration.setLogoutHandler(mock(LogoutHandler.class));
+        configuration.setServiceProviderMetadataResource(new FileSystemResource(new File(directory, "sp-metadata.xml")));
+        client = new SAML2Client(configuration);
+        client.setCallbackUrl("https://www.pac4j.org/callback");
+        client.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.destroy();
+    }
+
+    /**
+     * Duplicate the entities of the TestShib metadata (with new entity identifiers) up to the federation size.
+     */
+    private static String buildFederationMetadata() throws Exception {
+        try (val input = new ClassPathResource("testshib-providers.xml").getInputStream()) {
+            val document = Configuration.getParserPool().parse(input);
+            val root = document.getDocumentElement();
+            val entities = root.getElementsByTagNameNS(SAMLConstants.SAML20MD_NS, "EntityDescriptor");
+            val templates = new Element[entities.getLength()];
+            for (var i = 0; i < templates.length; i++) {
+                templates[i] = (Element) entities.item(i);
+            }
+            var xml = SerializeSupport.nodeToString(root);
+            for (var i = 0; xml.length() < FEDERATION_SIZE; i++) {
+                for (val template : templates) {
+                    val copy = (Element) template.cloneNode(true);
+                    copy.setAttribute("entityID", template.getAttribute("entityID") + "/" + i);
+                    root.appendChild(copy);
+                }
+                xml = SerializeSupport.nodeToString(root);
+            }
+            return xml;
+        }
+    }
+
+    @Benchmark
+    public Object legacyBuildContext() throws Exception {
+        val context = client.getContextProvider().buildServiceProviderContext(client, MockWebContext.create(),
+            new MockSessionStore());
+        legacyResolve(client.getServiceProviderMetadataResolver().getEntityId(), SPSSODescriptor.DEFAULT_ELEMENT_NAME);
+        legacyResolve(client.getIdentityProviderMetadataResolver().getEntityId(), IDPSSODescriptor.DEFAULT_ELEMENT_NAME);
+        return context;
+    }
+
+    @Benchmark
+    public Object buildContext() {
+        return client.getContextProvider().buildContext(client, MockWebContext.create(), new MockSessionStore());
+    }
+
+    private Object legacyResolve(final String entityId, final QName elementName) throws Exception {
+        val entityDescriptor = SAML2Utils.buildChainingMetadataResolver(client.getIdentityProviderMetadataResolver(),
+            client.getServiceProviderMetadataResolver()).resolveSingle(new CriteriaSet(new EntityIdCriterion(entityId)));
+        return entityDescriptor.getRoleDescriptors(elementName, SAMLConstants.SAML20P_NS).get(0);
+    }
+}
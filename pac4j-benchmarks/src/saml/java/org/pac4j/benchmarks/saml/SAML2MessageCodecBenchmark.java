@@ -0,0 +1,116 @@
+package org.pac4j.benchmarks.saml;
+
+import lombok.val;
+import net.shibboleth.shared.codec.Base64Support;
+import net.shibboleth.shared.xml.SerializeSupport;
+import org.opensaml.core.xml.XMLObject;
+import org.opensaml.core.xml.util.XMLObjectSupport;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.saml.transport.Pac4jHTTPPostDecoder;
+import org.pac4j.saml.util.Configuration;
+import org.pac4j.saml.util.SAML2MessageBuffer;
+import org.springframework.core.io.ClassPathResource;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the decoding and encoding of large SAML responses (an assertion with many attributes, like the ones
+ * of the federations, from 100 to 500 KB) for the HTTP-POST binding: the former implementation (Base64 string,
+ * byte array, XML string) against the streaming one (Base64 decoded into and encoded from the pooled
+ * {@link SAML2MessageBuffer}s). Run it with the <code>-prof gc</code> JMH option to compare the allocation
+ * per message (<code>gc.alloc.rate.norm</code>).
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SAML2MessageCodecBenchmark {
+
+    @Param({"100", "500"})
+    private int messageSizeInKb;
+
+    private XMLObject message;
+
+    private Element element;
+
+    private String encodedMessage;
+
+    @Setup
+    public void setUp() throws Exception {
+        val xml = buildLargeResponse(messageSizeInKb * 1024);
+        message = XMLObjectSupport.unmarshallFromInputStream(Configuration.getParserPool(),
+            new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        element = XMLObjectSupport.marshall(message);
+        encodedMessage = Base64Support.encode(xml.getBytes(StandardCharsets.UTF_8), Base64Support.CHUNKED);
+    }
+
+    /**
+     * Duplicate the attributes of the sample response (with new names) up to the message size.
+     */
+    private static String buildLargeResponse(final int size) throws Exception {
+        try (val input = new ClassPathResource("sample_authn_response.xml").getInputStream()) {
+            val document = Configuration.getParserPool().parse(input);
+            val statement = (Element) document.getElementsByTagNameNS(SAMLConstants.SAML20_NS, "AttributeStatement").item(0);
+            val attributes = statement.getElementsByTagNameNS(SAMLConstants.SAML20_NS, "Attribute");
+            val templates = new Element[attributes.getLength()];
+            for (var i = 0; i < templates.length; i++) {
+                templates[i] = (Element) attributes.item(i);
+            }
+            var xml = SerializeSupport.nodeToString(document);
+            for (var i = 0; xml.length() < size; i++) {
+                for (val template : templates) {
+                    val copy = (Element) template.cloneNode(true);
+                    copy.setAttribute("Name", template.getAttribute("Name") + "-" + i);
+                    statement.appendChild(copy);
+                }
+                xml = SerializeSupport.nodeToString(document);
+            }
+            return xml;
+        }
+    }
+
+    @Benchmark
+    public Object legacyPostDecode() throws Exception {
+        val decodedBytes = Base64Support.decode(encodedMessage);
+        return XMLObjectSupport.unmarshallFromInputStream(Configuration.getParserPool(), new ByteArrayInputStream(decodedBytes));
+    }
+
+    @Benchmark
+    public Object postDecode() throws Exception {
+        val context = MockWebContext.create().setRequestMethod(HttpConstants.HTTP_METHOD.POST.name())
+            .addRequestParameter("SAMLResponse", encodedMessage);
+        val decoder = new Pac4jHTTPPostDecoder(context);
+        decoder.setParserPool(Configuration.getParserPool());
+        decoder.initialize();
+        decoder.decode();
+        return decoder.getMessageContext().getMessage();
+    }
+
+    @Benchmark
+    public String legacyPostEncode() throws Exception {
+        val messageXML = SerializeSupport.nodeToString(element);
+        return Base64Support.encode(messageXML.getBytes(StandardCharsets.UTF_8), Base64Support.UNCHUNKED);
+    }
+
+    @Benchmark
+    public String postEncode() throws Exception {
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            try (val out = Base64.getEncoder().wrap(buffer.asOutputStream())) {
+                SerializeSupport.writeNode(element, out);
+            }
+            return buffer.toString(StandardCharsets.US_ASCII);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.pac4j.benchmarks.saml;
+
+import lombok.val;
+import net.shibboleth.shared.codec.Base64Support;
+import net.shibboleth.shared.xml.SerializeSupport;
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.saml.transport.DeflateSupport;
+import org.pac4j.saml.util.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.w3c.dom.Element;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Benchmarks the DEFLATE encoding and decoding of the HTTP-Redirect binding: the former implementation
+ * (one deflater/inflater and intermediate strings per message) against the pooled {@link DeflateSupport}.
+ * Run it with the <code>-prof gc</code> JMH option to compare the allocation per message
+ * (<code>gc.alloc.rate.norm</code>).
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SAML2RedirectDeflateBenchmark {
+
+    private Element element;
+
+    private byte[] deflated;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (val input = new ClassPathResource("sample_authn_response.xml").getInputStream()) {
+            element = Configuration.getParserPool().parse(input).getDocumentElement();
+        }
+        deflated = Base64.getDecoder().decode(DeflateSupport.deflateAndBase64Encode(element));
+    }
+
+    @Benchmark
+    public String legacyDeflate() throws Exception {
+        val messageStr = SerializeSupport.nodeToString(element);
+        val bytesOut = new ByteArrayOutputStream();
+        val deflaterStream = new DeflaterOutputStream(bytesOut, new Deflater(Deflater.DEFLATED, true));
+        deflaterStream.write(messageStr.getBytes(StandardCharsets.UTF_8));
+        deflaterStream.finish();
+        return Base64Support.encode(bytesOut.toByteArray(), Base64Support.UNCHUNKED);
+    }
+
+    @Benchmark
+    public String pooledDeflate() throws Exception {
+        return DeflateSupport.deflateAndBase64Encode(element);
+    }
+
+    @Benchmark
+    public Object legacyInflate() throws Exception {
+        val baos = new ByteArrayOutputStream();
+        try (val iis = new InflaterInputStream(new ByteArrayInputStream(deflated), new Inflater(true))) {
+            val buffer = new byte[1000];
+            int length;
+            while ((length = iis.read(buffer)) > 0) {
+                baos.write(buffer, 0, length);
+            }
+        }
+        val decodedBytes = baos.toByteArray();
+        return new ByteArrayInputStream(decodedBytes);
+    }
+
+    @Benchmark
+    public Object pooledInflate() throws Exception {
+        return DeflateSupport.inflate(deflated, true);
+    }
+}
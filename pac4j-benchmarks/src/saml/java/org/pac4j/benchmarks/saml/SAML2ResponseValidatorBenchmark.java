@@ -0,0 +1,127 @@
+package org.pac4j.benchmarks.saml;
+
+import lombok.val;
+import org.opensaml.core.xml.util.XMLObjectSupport;
+import org.opensaml.saml.saml2.core.Response;
+import org.opensaml.saml.saml2.core.SubjectConfirmation;
+import org.opensaml.saml.saml2.metadata.Endpoint;
+import org.opensaml.saml.saml2.metadata.SPSSODescriptor;
+import org.opensaml.storage.ReplayCache;
+import org.opensaml.xmlsec.signature.Signature;
+import org.opensaml.xmlsec.signature.support.SignatureTrustEngine;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import org.openjdk.jmh.annotations.*;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.logout.handler.LogoutHandler;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.context.SAML2MessageContext;
+import org.pac4j.saml.sso.impl.SAML2AuthnResponseValidator;
+import org.pac4j.saml.util.Configuration;
+import org.pac4j.saml.util.ExcludingParametersURIComparator;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Benchmarks the parsing and the validation of a SAML response by the {@link SAML2AuthnResponseValidator}.
+ * The signature trust engine trusts all signatures: the cryptographic costs are not measured.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SAML2ResponseValidatorBenchmark {
+
+    private static final String SP_ENTITY_ID = "https://auth.izslt.it";
+
+    private static final String ACS_LOCATION = "https://auth.izslt.it/cas/login?client_name=idptest";
+
+    private byte[] responseBytes;
+
+    private SAML2Configuration configuration;
+
+    private SAML2AuthnResponseValidator validator;
+
+    private SPSSODescriptor roleDescriptor;
+
+    private Endpoint endpoint;
+
+    @Setup
+    public void setUp() throws Exception {
+        val directory = Files.createTempDirectory("pac4j-saml-benchmark").toFile();
+        configuration = new SAML2Configuration(new FileSystemResource(new File(directory, "samlKeystore.jks")),
+            "pac4j-demo-passwd", "pac4j-demo-passwd", new ClassPathResource("testshib-providers.xml"));
+        configuration.setMaximumAuthenticationLifetime(3600);
+        configuration.setServiceProviderEntityId("urn:mace:saml:pac4j.org");
+        configuration.setForceServiceProviderMetadataGeneration(true);
+        configuration.setForceKeystoreGeneration(true);
+        configuration.setLogoutHandler(mock(LogoutHandler.class));
+        configuration.setServiceProviderMetadataResource(new FileSystemResource(new File(directory, "sp-metadata.xml")));
+        configuration.setUriComparator(new ExcludingParametersURIComparator());
+
+        try (val input = new ClassPathResource("sample_authn_response.xml").getInputStream()) {
+            responseBytes = input.readAllBytes();
+        }
+
+        val engine = mock(SignatureTrustEngine.class);
+        when(engine.validate(any(Signature.class), any(CriteriaSet.class))).thenReturn(true);
+        final ReplayCache replayCache = (context, key, expires) -> true;
+        validator = new SAML2AuthnResponseValidator(() -> engine, null, () -> replayCache, configuration);
+
+        roleDescriptor = mock(SPSSODescriptor.class);
+        when(roleDescriptor.getWantAssertionsSigned()).thenReturn(false);
+        endpoint = mock(Endpoint.class);
+        when(endpoint.getLocation()).thenReturn(ACS_LOCATION);
+    }
+
+    private Response parseResponse() throws Exception {
+        final Response response;
+        try (val input = new ByteArrayInputStream(responseBytes)) {
+            response = (Response) XMLObjectSupport.unmarshallFromInputStream(Configuration.getParserPool(), input);
+        }
+        val now = Instant.now();
+        response.setIssueInstant(now);
+        response.setInResponseTo(null);
+        for (val assertion : response.getAssertions()) {
+            assertion.setIssueInstant(now);
+            val confirmation = assertion.getSubject().getSubjectConfirmations().get(0);
+            confirmation.setMethod(SubjectConfirmation.METHOD_BEARER);
+            confirmation.getSubjectConfirmationData().setNotOnOrAfter(now.plusSeconds(60));
+            confirmation.getSubjectConfirmationData().setInResponseTo(null);
+            assertion.getConditions().setNotOnOrAfter(now.plusSeconds(60));
+            assertion.getAuthnStatements().forEach(statement -> statement.setAuthnInstant(now));
+        }
+        return response;
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return parseResponse();
+    }
+
+    @Benchmark
+    public Object parseAndValidate() throws Exception {
+        val context = new SAML2MessageContext();
+        context.setWebContext(MockWebContext.create());
+        context.setSaml2Configuration(configuration);
+        context.getMessageContext().setMessage(parseResponse());
+        context.getSAMLSelfEntityContext().setEntityId(SP_ENTITY_ID);
+        context.getSAMLSelfMetadataContext().setRoleDescriptor(roleDescriptor);
+        context.getSAMLEndpointContext().setEndpoint(endpoint);
+        return validator.validate(context);
+    }
+}
@@ -0,0 +1,64 @@
+package org.pac4j.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.val;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BaselineComparison}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class BaselineComparisonTests {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static JsonNode results(final String mode, final double score, final double allocation) throws Exception {
+        return MAPPER.readTree("[{\"benchmark\":\"org.pac4j.Bench.run\",\"mode\":\"" + mode + "\","
+            + "\"params\":{\"b\":\"2\",\"a\":\"1\"},"
+            + "\"primaryMetric\":{\"score\":" + score + ",\"scoreUnit\":\"ops/ms\"},"
+            + "\"secondaryMetrics\":{\"·gc.alloc.rate.norm\":{\"score\":" + allocation + "}}}]");
+    }
+
+    @Test
+    public void testNoRegression() throws Exception {
+        val comparison = new BaselineComparison(0.1, 0.05)
+            .compare(results("thrpt", 1000, 1000), results("thrpt", 950, 1010));
+        assertFalse(comparison.hasRegressions());
+        assertEquals(2, comparison.getReport().size());
+    }
+
+    @Test
+    public void testThroughputRegression() throws Exception {
+        val comparison = new BaselineComparison(0.1, 0.05)
+            .compare(results("thrpt", 1000, 1000), results("thrpt", 800, 1000));
+        assertEquals(1, comparison.getRegressions().size());
+        assertEquals("org.pac4j.Bench.run{a=1, b=2} [thrpt] score", comparison.getRegressions().get(0));
+    }
+
+    @Test
+    public void testAverageTimeRegression() throws Exception {
+        val comparison = new BaselineComparison(0.1, 0.05)
+            .compare(results("avgt", 10, 1000), results("avgt", 12, 1000));
+        assertTrue(comparison.hasRegressions());
+    }
+
+    @Test
+    public void testAllocationRegression() throws Exception {
+        val comparison = new BaselineComparison(0.1, 0.05)
+            .compare(results("thrpt", 1000, 1000), results("thrpt", 1000, 1100));
+        assertEquals(1, comparison.getRegressions().size());
+        assertTrue(comparison.getRegressions().get(0).endsWith("allocation"));
+    }
+
+    @Test
+    public void testAllocationNoise() throws Exception {
+        val comparison = new BaselineComparison(0.1, 0.05)
+            .compare(results("thrpt", 1000, 100), results("thrpt", 1000, 112));
+        assertFalse(comparison.hasRegressions());
+    }
+}
@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.matching.matcher.csrf.CsrfTokenValidator;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 
@@ -18,6 +19,9 @@ import static org.pac4j.core.context.WebContextHelper.*;
 /**
  * Authorizer that checks CSRF tokens.
  *
+ * The tokens are compared to the ones saved in session, unless a {@link CsrfTokenValidator} is defined
+ * (like the {@link org.pac4j.core.matching.matcher.csrf.SignedCsrfTokenGenerator}, which does not require any session access).
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -33,9 +37,15 @@ public class CsrfAuthorizer implements Authorizer {
 
     private boolean checkAllRequests = false;
 
+    private CsrfTokenValidator csrfTokenValidator;
+
     public CsrfAuthorizer() {
     }
 
+    public CsrfAuthorizer(final CsrfTokenValidator csrfTokenValidator) {
+        this.csrfTokenValidator = csrfTokenValidator;
+    }
+
     public CsrfAuthorizer(final String parameterName, final String headerName) {
         this.parameterName = parameterName;
         this.headerName = headerName;
@@ -54,6 +64,11 @@ public class CsrfAuthorizer implements Authorizer {
             val headerToken = context.getRequestHeader(headerName).orElse(null);
             LOGGER.debug("parameterToken: {}", parameterToken);
             LOGGER.debug("headerToken: {}", headerToken);
+            if (csrfTokenValidator != null) {
+                // both tokens are always checked
+                return csrfTokenValidator.isValid(context, sessionStore, parameterToken)
+                    | csrfTokenValidator.isValid(context, sessionStore, headerToken);
+            }
             val sessionPreviousToken = sessionStore.get(context, Pac4jConstants.PREVIOUS_CSRF_TOKEN);
             val sessionToken = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN);
             val sessionDate = sessionStore.get(context, Pac4jConstants.CSRF_TOKEN_EXPIRATION_DATE);
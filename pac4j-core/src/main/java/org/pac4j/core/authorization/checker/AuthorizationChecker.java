@@ -4,6 +4,7 @@ import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.engine.SecurityRoute;
 import org.pac4j.core.profile.UserProfile;
 
 import java.util.List;
@@ -31,4 +32,31 @@ public interface AuthorizationChecker {
      */
     boolean isAuthorized(WebContext context, SessionStore sessionStore, List<UserProfile> profiles, String authorizerNames,
                          Map<String, Authorizer> authorizersMap, List<Client> clients);
+
+    /**
+     * Resolve once the authorizers for the authorizer names (<code>null</code> if this checker cannot compile them).
+     *
+     * @param authorizerNames the authorizers
+     * @param authorizersMap the map of authorizers
+     * @return the resolved authorizers
+     */
+    default Authorizer[] compile(final String authorizerNames, final Map<String, Authorizer> authorizersMap) {
+        return null;
+    }
+
+    /**
+     * Check whether the user is authorized for a security route.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the profile
+     * @param route the security route
+     * @param authorizersMap the map of authorizers
+     * @param clients the clients
+     * @return whether the user is authorized.
+     */
+    default boolean isRouteAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                      final SecurityRoute route, final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
+        return isAuthorized(context, sessionStore, profiles, route.getAuthorizerNames(), authorizersMap, clients);
+    }
 }
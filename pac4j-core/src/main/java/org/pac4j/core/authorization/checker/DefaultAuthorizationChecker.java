@@ -8,6 +8,7 @@ import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.client.direct.AnonymousClient;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.engine.SecurityRoute;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 
@@ -40,6 +41,37 @@ public class DefaultAuthorizationChecker implements AuthorizationChecker {
         return isAuthorized(context, sessionStore, profiles, authorizers);
     }
 
+    @Override
+    public Authorizer[] compile(final String authorizersValue, final Map<String, Authorizer> authorizersMap) {
+        final List<Authorizer> authorizers;
+        if (isBlank(authorizersValue)) {
+            authorizers = new ArrayList<>();
+        } else if (authorizersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            authorizers = computeAuthorizersFromNames(substringAfter(authorizersValue, Pac4jConstants.ADD_ELEMENT), authorizersMap);
+        } else {
+            authorizers = computeAuthorizersFromNames(authorizersValue, authorizersMap);
+        }
+        return authorizers.toArray(new Authorizer[0]);
+    }
+
+    @Override
+    public boolean isRouteAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles,
+                                     final SecurityRoute route, final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
+        val compiledAuthorizers = route.getResolvedAuthorizers();
+        if (compiledAuthorizers == null) {
+            return isAuthorized(context, sessionStore, profiles, route.getAuthorizerNames(), authorizersMap, clients);
+        }
+
+        val authorizersValue = route.getAuthorizerNames();
+        if (isBlank(authorizersValue) || authorizersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            // the default authorizers depend on the current clients
+            val authorizers = computeDefaultAuthorizers(context, profiles, clients, authorizersMap);
+            authorizers.addAll(compiledAuthorizers);
+            return isAuthorized(context, sessionStore, profiles, authorizers);
+        }
+        return isAuthorized(context, sessionStore, profiles, compiledAuthorizers);
+    }
+
     protected List<Authorizer> computeAuthorizers(final WebContext context, final List<UserProfile> profiles, final String authorizersValue,
                                                   final Map<String, Authorizer> authorizersMap, final List<Client> clients) {
         final List<Authorizer> authorizers;
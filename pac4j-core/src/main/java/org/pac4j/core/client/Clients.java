@@ -1,5 +1,6 @@
 package org.pac4j.core.client;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -14,6 +15,7 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
@@ -47,6 +49,9 @@ public class Clients extends InitializableObject {
 
     private String defaultSecurityClients;
 
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger generation = new AtomicInteger(0);
+
     public Clients() {
     }
 
@@ -112,6 +117,7 @@ public class Clients extends InitializableObject {
             }
         }
         this.oldClientsHash = this.clients.hashCode();
+        this.generation.incrementAndGet();
     }
 
     /**
@@ -140,6 +146,15 @@ public class Clients extends InitializableObject {
         return getClients();
     }
 
+    /**
+     * Return the generation of the clients: it changes each time the clients are (re-)initialized.
+     *
+     * @return the generation of the clients
+     */
+    public int getGeneration() {
+        return generation.get();
+    }
+
     public void addClient(final Client client) {
         this.clients.add(client);
     }
@@ -3,6 +3,7 @@ package org.pac4j.core.client.finder;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.engine.SecurityRoute;
 
 import java.util.List;
 
@@ -16,4 +17,27 @@ import java.util.List;
 public interface ClientFinder {
 
     List<Client> find(Clients clients, WebContext context, String clientNames);
+
+    /**
+     * Resolve once the clients for the client names (<code>null</code> if this finder cannot compile them).
+     *
+     * @param clients the clients
+     * @param clientNames the client names
+     * @return the resolved clients
+     */
+    default Client[] compile(final Clients clients, final String clientNames) {
+        return null;
+    }
+
+    /**
+     * Find the clients for a security route.
+     *
+     * @param clients the clients
+     * @param context the web context
+     * @param route the security route
+     * @return the found clients
+     */
+    default List<Client> findRouteClients(final Clients clients, final WebContext context, final SecurityRoute route) {
+        return find(clients, context, route.getClientNames());
+    }
 }
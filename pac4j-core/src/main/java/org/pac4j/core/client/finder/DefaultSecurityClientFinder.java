@@ -7,6 +7,7 @@ import lombok.val;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.engine.SecurityRoute;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 
@@ -32,20 +33,7 @@ public class DefaultSecurityClientFinder implements ClientFinder {
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
         final List<Client> result = new ArrayList<>();
 
-        var securityClientNames = clientNames;
-        // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
-        // we check the nullity and not the blankness to allow the blank string to mean no client
-        // so no clients parameter -> use the default security ones; clients=blank string -> no clients defined
-        LOGGER.debug("Provided clientNames: {}", securityClientNames);
-        if (securityClientNames == null) {
-            securityClientNames = clients.getDefaultSecurityClients();
-            LOGGER.debug("Default security clients: {}", securityClientNames);
-            // still no clients defined and we only have one client, use it
-            if (securityClientNames == null && clients.findAllClients().size() == 1) {
-                securityClientNames = clients.getClients().get(0).getName();
-                LOGGER.debug("Only client: {}", securityClientNames);
-            }
-        }
+        val securityClientNames = computeSecurityClientNames(clients, clientNames);
 
         if (CommonHelper.isNotBlank(securityClientNames)) {
             val names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR));
@@ -69,16 +57,95 @@ public class DefaultSecurityClientFinder implements ClientFinder {
                 }
             } else {
                 // no client provided, return all
-                for (val name : names) {
-                    // from its name
-                    val client = clients.findClient(name);
-                    if (client.isPresent()) {
-                        result.add(client.get());
+                result.addAll(resolveClients(clients, names));
+            }
+        }
+        LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
+        return result;
+    }
+
+    @Override
+    public Client[] compile(final Clients clients, final String clientNames) {
+        val securityClientNames = computeSecurityClientNames(clients, clientNames);
+        if (CommonHelper.isNotBlank(securityClientNames)) {
+            val names = Arrays.asList(securityClientNames.split(Pac4jConstants.ELEMENT_SEPARATOR));
+            return resolveClients(clients, names).toArray(new Client[0]);
+        }
+        return new Client[0];
+    }
+
+    @Override
+    public List<Client> findRouteClients(final Clients clients, final WebContext context, final SecurityRoute route) {
+        val compiledClients = route.getResolvedClients();
+        if (compiledClients == null) {
+            return find(clients, context, route.getClientNames());
+        }
+
+        final List<Client> result;
+        if (compiledClients.isEmpty()) {
+            result = new ArrayList<>();
+        } else {
+            val clientOnRequest = context.getRequestParameter(clientNameParameter);
+            LOGGER.debug("clientNameOnRequest: {}", clientOnRequest);
+            if (clientOnRequest.isPresent()) {
+                // the client provided on the request must be one of the compiled clients
+                result = new ArrayList<>(1);
+                val nameOnRequest = clientOnRequest.get();
+                for (val client : compiledClients) {
+                    if (CommonHelper.areEqualsIgnoreCaseAndTrim(client.getName(), nameOnRequest)) {
+                        result.add(client);
+                        break;
                     }
                 }
+            } else {
+                result = new ArrayList<>(compiledClients);
+            }
+        }
+        LOGGER.debug("result: {}", result);
+        return result;
+    }
+
+    /**
+     * Compute the names of the clients to use to secure the URL.
+     *
+     * @param clients the clients
+     * @param clientNames the provided client names
+     * @return the security client names
+     */
+    protected String computeSecurityClientNames(final Clients clients, final String clientNames) {
+        var securityClientNames = clientNames;
+        // we don't have defined clients to secure the URL, use the general default security ones from the Clients if they exist
+        // we check the nullity and not the blankness to allow the blank string to mean no client
+        // so no clients parameter -> use the default security ones; clients=blank string -> no clients defined
+        LOGGER.debug("Provided clientNames: {}", securityClientNames);
+        if (securityClientNames == null) {
+            securityClientNames = clients.getDefaultSecurityClients();
+            LOGGER.debug("Default security clients: {}", securityClientNames);
+            // still no clients defined and we only have one client, use it
+            if (securityClientNames == null && clients.findAllClients().size() == 1) {
+                securityClientNames = clients.getClients().get(0).getName();
+                LOGGER.debug("Only client: {}", securityClientNames);
+            }
+        }
+        return securityClientNames;
+    }
+
+    /**
+     * Resolve the clients from their names.
+     *
+     * @param clients the clients
+     * @param names the client names
+     * @return the found clients
+     */
+    protected List<Client> resolveClients(final Clients clients, final List<String> names) {
+        final List<Client> result = new ArrayList<>();
+        for (val name : names) {
+            // from its name
+            val client = clients.findClient(name);
+            if (client.isPresent()) {
+                result.add(client.get());
             }
         }
-        LOGGER.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
         return result;
     }
 }
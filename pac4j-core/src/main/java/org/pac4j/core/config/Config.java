@@ -1,10 +1,11 @@
 package org.pac4j.core.config;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.With;
 import lombok.experimental.Accessors;
+import lombok.val;
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
@@ -16,9 +17,12 @@ import org.pac4j.core.matching.matcher.Matcher;
 import org.pac4j.core.profile.factory.ProfileManagerFactory;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The configuration with clients, authorizers, matchers, etc.
@@ -29,7 +33,6 @@ import java.util.Map;
 @Setter
 @Getter
 @With
-@AllArgsConstructor
 @Accessors(chain = true)
 public class Config {
 
@@ -53,8 +56,45 @@ public class Config {
 
     private HttpActionAdapter httpActionAdapter;
 
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger generation = new AtomicInteger(0);
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, SecurityRoute> securityRoutes = new ConcurrentHashMap<>();
+
     public Config() {}
 
+    /**
+     * Define all the properties of the configuration (also used by the <code>with</code> methods). The authorizers
+     * and matchers maps are copied, as by their setters.
+     *
+     * @param clients the clients
+     * @param authorizers the authorizers
+     * @param matchers the matchers
+     * @param securityLogic the security logic
+     * @param callbackLogic the callback logic
+     * @param logoutLogic the logout logic
+     * @param webContextFactory the web context factory
+     * @param sessionStoreFactory the session store factory
+     * @param profileManagerFactory the profile manager factory
+     * @param httpActionAdapter the HTTP action adapter
+     */
+    public Config(final Clients clients, final Map<String, Authorizer> authorizers, final Map<String, Matcher> matchers,
+                  final SecurityLogic securityLogic, final CallbackLogic callbackLogic, final LogoutLogic logoutLogic,
+                  final WebContextFactory webContextFactory, final SessionStoreFactory sessionStoreFactory,
+                  final ProfileManagerFactory profileManagerFactory, final HttpActionAdapter httpActionAdapter) {
+        this.clients = clients;
+        this.authorizers = authorizers != null ? new HashMap<>(authorizers) : new HashMap<>();
+        this.matchers = matchers != null ? new HashMap<>(matchers) : new HashMap<>();
+        this.securityLogic = securityLogic;
+        this.callbackLogic = callbackLogic;
+        this.logoutLogic = logoutLogic;
+        this.webContextFactory = webContextFactory;
+        this.sessionStoreFactory = sessionStoreFactory;
+        this.profileManagerFactory = profileManagerFactory;
+        this.httpActionAdapter = httpActionAdapter;
+    }
+
     public Config(final Client client) {
         this.clients = new Clients(client);
     }
@@ -114,48 +154,119 @@ public class Config {
 
     public Config setClients(final Clients clients) {
         this.clients = clients;
+        generation.incrementAndGet();
         return this;
     }
 
     public Config addClient(final Client client) {
         this.clients.addClient(client);
+        generation.incrementAndGet();
         return this;
     }
 
     public Config setAuthorizer(final Authorizer authorizer) {
         CommonHelper.assertNotNull("authorizer", authorizer);
         this.authorizers.put(authorizer.getClass().getSimpleName(), authorizer);
+        generation.incrementAndGet();
         return this;
     }
 
+    /**
+     * Define the authorizers (the map is copied: use {@link #addAuthorizer(String, Authorizer)} to add an authorizer later).
+     *
+     * @param authorizers the authorizers
+     * @return this configuration
+     */
     public Config setAuthorizers(final Map<String, Authorizer> authorizers) {
         CommonHelper.assertNotNull("authorizers", authorizers);
-        this.authorizers = authorizers;
+        this.authorizers = new HashMap<>(authorizers);
+        generation.incrementAndGet();
         return this;
     }
 
     public Config addAuthorizer(final String name, final Authorizer authorizer) {
         authorizers.put(name, authorizer);
+        generation.incrementAndGet();
         return this;
     }
 
     public Config setMatcher(final Matcher matcher) {
         CommonHelper.assertNotNull("matcher", matcher);
         this.matchers.put(matcher.getClass().getSimpleName(), matcher);
+        generation.incrementAndGet();
         return this;
     }
 
+    /**
+     * Define the matchers (the map is copied: use {@link #addMatcher(String, Matcher)} to add a matcher later).
+     *
+     * @param matchers the matchers
+     * @return this configuration
+     */
     public Config setMatchers(final Map<String, Matcher> matchers) {
         CommonHelper.assertNotNull("matchers", matchers);
-        this.matchers = matchers;
+        this.matchers = new HashMap<>(matchers);
+        generation.incrementAndGet();
         return this;
     }
 
     public Config addMatcher(final String name, final Matcher matcher) {
         matchers.put(name, matcher);
+        generation.incrementAndGet();
         return this;
     }
 
+    /**
+     * Return the authorizers, as a read-only view (so that all the changes go through the setters and update the generation).
+     *
+     * @return the authorizers
+     */
+    public Map<String, Authorizer> getAuthorizers() {
+        return Collections.unmodifiableMap(authorizers);
+    }
+
+    /**
+     * Return the matchers, as a read-only view (so that all the changes go through the setters and update the generation).
+     *
+     * @return the matchers
+     */
+    public Map<String, Matcher> getMatchers() {
+        return Collections.unmodifiableMap(matchers);
+    }
+
+    /**
+     * Return the generation of the configuration: it changes each time the clients, authorizers or matchers are redefined.
+     *
+     * @return the generation of the configuration
+     */
+    public int getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Return the security route compiled for these clients, authorizers and matchers (compiling it if necessary).
+     *
+     * @param securityLogic the security logic used to compile the route
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @return the security route
+     */
+    public SecurityRoute getSecurityRoute(final SecurityLogic securityLogic, final String clients, final String authorizers,
+                                          final String matchers) {
+        CommonHelper.assertNotNull("securityLogic", securityLogic);
+        if (this.clients != null) {
+            this.clients.init();
+        }
+        val key = SecurityRoute.key(clients, authorizers, matchers);
+        var route = securityRoutes.get(key);
+        if (route == null || !route.isUpToDate(this)) {
+            route = securityLogic.compile(this, clients, authorizers, matchers);
+            securityRoutes.put(key, route);
+        }
+        return route;
+    }
+
     public Config setSecurityLogic(final SecurityLogic securityLogic) {
         this.securityLogic = securityLogic;
         return this;
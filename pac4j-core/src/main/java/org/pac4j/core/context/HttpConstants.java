@@ -58,6 +58,20 @@ public interface HttpConstants {
 
     String CONTENT_TYPE_HEADER = "Content-Type";
 
+    String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+    String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+
+    String ETAG_HEADER = "ETag";
+
+    String LAST_MODIFIED_HEADER = "Last-Modified";
+
+    String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+    String IF_MODIFIED_SINCE_HEADER = "If-Modified-Since";
+
+    String VARY_HEADER = "Vary";
+
     String HTML_CONTENT_TYPE = "text/html; charset=utf-8";
 
     String AJAX_HEADER_VALUE = "XMLHttpRequest";
@@ -1,7 +1,12 @@
 package org.pac4j.core.context;
 
+import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
@@ -174,6 +179,32 @@ public interface WebContext {
         throw new TechnicalException("Operation not supported");
     }
 
+    /**
+     * Gets the content body of the original request as a read-only buffer.
+     *
+     * The implementations read the content once, up to a maximum size, and {@link #getRequestContent()} is a view
+     * over the same bytes.
+     *
+     * @return the request content
+     * @since 6.0.0
+     */
+    default ByteBuffer getRequestContentBuffer() {
+        return ByteBuffer.wrap(getRequestContent().getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the content body of the original request as a stream, to parse it incrementally.
+     *
+     * @return the request content
+     * @since 6.0.0
+     */
+    default InputStream getRequestContentStream() {
+        val buffer = getRequestContentBuffer();
+        val bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new ByteArrayInputStream(bytes);
+    }
+
     /**
      * Get the protocol version.
      *
@@ -1,8 +1,12 @@
 package org.pac4j.core.context;
 
 import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -174,4 +178,35 @@ public final class WebContextHelper implements HttpConstants {
         }
         return value;
     }
+
+    /**
+     * Read the request content, up to a maximum size.
+     *
+     * @param in the request content stream
+     * @param contentLength the announced content length (negative if unknown)
+     * @param maxSize the maximum size of the content (in bytes)
+     * @return the request content
+     * @throws IOException if the content cannot be read
+     */
+    public static byte[] readRequestContent(final InputStream in, final long contentLength, final int maxSize)
+        throws IOException {
+        if (contentLength > maxSize) {
+            throw new TechnicalException("The request content (" + contentLength + " bytes) exceeds the maximum size: " + maxSize);
+        }
+        if (in == null) {
+            return new byte[0];
+        }
+        val out = new ByteArrayOutputStream(contentLength >= 0 ? (int) contentLength : Math.min(maxSize, 1024));
+        val buffer = new byte[Math.min(maxSize + 1, 8192)];
+        var total = 0;
+        int n;
+        while ((n = in.read(buffer, 0, Math.min(buffer.length, maxSize + 1 - total))) > 0) {
+            total += n;
+            if (total > maxSize) {
+                throw new TechnicalException("The request content exceeds the maximum size: " + maxSize);
+            }
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
 }
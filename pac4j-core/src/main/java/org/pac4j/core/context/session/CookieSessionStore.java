@@ -0,0 +1,536 @@
+package org.pac4j.core.context.session;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.generator.SecureRandomTokenGenerator;
+import org.pac4j.core.util.serializer.BinaryProfileSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Session store keeping the data in cookies (no server-side session): the attributes are serialized (and compressed),
+ * encrypted with AES-GCM and split across several cookies (<code>pac4jSession0</code>, <code>pac4jSession1</code>...)
+ * when they exceed the {@link #maxCookieSize}.
+ *
+ * The first of the {@link #secrets} encrypts the data, all of them can decrypt it (key rotation). The AES keys are derived
+ * from the secrets with PBKDF2, which must be at least {@link #MIN_SECRET_LENGTH} characters long. The cookies are only
+ * written when the attributes change (or after half of the {@link #timeout} to extend the session) and the data expire
+ * {@link #timeout} seconds after they have been written.
+ *
+ * Between {@link #deferWrites(WebContext)} and {@link #flushWrites(WebContext)} (called by the security, callback and
+ * logout logics), the changes are only recorded and the cookies are written once, when the writes are flushed.
+ *
+ * The back channel logout requires a {@link #revokedSessions} store shared by all the nodes: the identifiers of the
+ * logged out sessions are saved in it and these sessions are then ignored.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString(exclude = "secrets")
+public class CookieSessionStore extends InitializableObject implements SessionStore {
+
+    private static final String REQUEST_ATTRIBUTE = "pac4jCookieSessionData";
+
+    private static final int VERSION = 1;
+
+    private static final int KEY_ID_SIZE = 4;
+
+    private static final int IV_SIZE = 12;
+
+    private static final int TAG_SIZE = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** The minimum length of the secrets. */
+    public static final int MIN_SECRET_LENGTH = 32;
+
+    private static final byte[] KEY_SALT = "pac4jCookieSessionStore".getBytes(StandardCharsets.UTF_8);
+
+    private static final int KEY_ITERATIONS = 100_000;
+
+    private static final int KEY_SIZE = 256;
+
+    /**
+     * The encryption secrets: the first one encrypts, all of them decrypt.
+     */
+    private List<String> secrets = new ArrayList<>();
+
+    private String cookieName = "pac4jSession";
+
+    /**
+     * The maximum size of the value of each cookie.
+     */
+    private int maxCookieSize = 3800;
+
+    private int maxCookies = 10;
+
+    /**
+     * The validity of the data after they have been written (in seconds, 0 for no expiration).
+     */
+    private int timeout = 8 * 60 * 60;
+
+    private String domain;
+
+    private String path = "/";
+
+    private boolean secure = true;
+
+    private boolean httpOnly = true;
+
+    private String sameSitePolicy = "Lax";
+
+    /**
+     * The maximum age of the cookies (in seconds, -1 for browser session cookies).
+     */
+    private int maxAge = -1;
+
+    private Serializer serializer = new BinaryProfileSerializer();
+
+    /**
+     * The identifiers of the revoked sessions (for the back channel logout).
+     */
+    private Store<String, Object> revokedSessions;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Map<Integer, SecretKeySpec> keys;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int encryptionKeyId;
+
+    public CookieSessionStore() {}
+
+    public CookieSessionStore(final String... secrets) {
+        this.secrets = Arrays.asList(secrets);
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("secrets", this.secrets);
+        CommonHelper.assertTrue(!this.secrets.isEmpty(), "secrets cannot be empty");
+        CommonHelper.assertNotBlank("cookieName", this.cookieName);
+        CommonHelper.assertNotNull("serializer", this.serializer);
+        CommonHelper.assertTrue(this.maxCookieSize > 0, "maxCookieSize must be greater than zero");
+        CommonHelper.assertTrue(this.maxCookies > 0, "maxCookies must be greater than zero");
+
+        final Map<Integer, SecretKeySpec> newKeys = new HashMap<>();
+        for (val secret : secrets) {
+            CommonHelper.assertNotBlank("secret", secret);
+            CommonHelper.assertTrue(secret.length() >= MIN_SECRET_LENGTH,
+                "secrets must be at least " + MIN_SECRET_LENGTH + " characters long");
+            val key = deriveKey(secret);
+            val keyId = ByteBuffer.wrap(sha256(key)).getInt();
+            if (newKeys.isEmpty()) {
+                encryptionKeyId = keyId;
+            }
+            newKeys.putIfAbsent(keyId, new SecretKeySpec(key, "AES"));
+        }
+        keys = newKeys;
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        val data = getData(context);
+        if (data.id == null && createSession) {
+            data.id = SecureRandomTokenGenerator.generate(32);
+            LOGGER.debug("Created session: {}", data.id);
+            update(context, data);
+        }
+        return Optional.ofNullable(data.id);
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        return Optional.ofNullable(getData(context).attributes.get(key));
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        val data = getData(context);
+        if (value == null) {
+            if (data.attributes.remove(key) == null) {
+                return;
+            }
+        } else {
+            data.attributes.put(key, value);
+        }
+        if (data.id == null) {
+            data.id = SecureRandomTokenGenerator.generate(32);
+        }
+        update(context, data);
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        val data = getData(context);
+        if (data.id != null && revokedSessions != null) {
+            revoke(data.id);
+        }
+        data.id = null;
+        data.attributes.clear();
+        update(context, data);
+        return true;
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        if (revokedSessions == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(getData(context).id);
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        if (revokedSessions == null || trackableSession == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new RevocableSession((String) trackableSession));
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        val data = getData(context);
+        val previousId = data.id;
+        if (previousId != null && revokedSessions != null) {
+            revoke(previousId);
+        }
+        data.id = SecureRandomTokenGenerator.generate(32);
+        LOGGER.debug("Renewed session: {} -> {}", previousId, data.id);
+        update(context, data);
+        return true;
+    }
+
+    @Override
+    public void deferWrites(final WebContext context) {
+        getData(context, true);
+    }
+
+    @Override
+    public void flushWrites(final WebContext context) {
+        val optData = context.getRequestAttribute(REQUEST_ATTRIBUTE);
+        if (optData.isPresent()) {
+            val data = (SessionData) optData.get();
+            data.deferred = false;
+            flush(context, data);
+        }
+    }
+
+    /**
+     * Revoke a session (the cookies of this session are then ignored).
+     *
+     * @param sessionId the session identifier
+     */
+    public void revoke(final String sessionId) {
+        CommonHelper.assertNotNull("revokedSessions", revokedSessions);
+        LOGGER.debug("Revoke session: {}", sessionId);
+        revokedSessions.set(sessionId, Boolean.TRUE);
+    }
+
+    protected SessionData getData(final WebContext context) {
+        return getData(context, false);
+    }
+
+    private SessionData getData(final WebContext context, final boolean deferWrites) {
+        init();
+
+        val optData = context.getRequestAttribute(REQUEST_ATTRIBUTE);
+        if (optData.isPresent()) {
+            val data = (SessionData) optData.get();
+            data.deferred |= deferWrites;
+            return data;
+        }
+        val data = read(context);
+        data.deferred = deferWrites;
+        context.setRequestAttribute(REQUEST_ATTRIBUTE, data);
+        if (timeout > 0 && data.id != null && data.writtenAt + timeout * 500L < System.currentTimeMillis()) {
+            LOGGER.debug("Extend session: {}", data.id);
+            data.content = null;
+            update(context, data);
+        }
+        return data;
+    }
+
+    /**
+     * Record a change of the session data: the cookies are written now or when the deferred writes are flushed.
+     *
+     * @param context the web context
+     * @param data the session data
+     */
+    protected void update(final WebContext context, final SessionData data) {
+        data.dirty = true;
+        if (!data.deferred) {
+            flush(context, data);
+        }
+    }
+
+    private void flush(final WebContext context, final SessionData data) {
+        if (data.dirty) {
+            // cleared first so that a failed write is not retried on the error path
+            data.dirty = false;
+            write(context, data);
+        }
+    }
+
+    protected SessionData read(final WebContext context) {
+        final Map<String, String> values = new HashMap<>();
+        for (val cookie : context.getRequestCookies()) {
+            if (cookie.getName().startsWith(cookieName)) {
+                values.put(cookie.getName(), cookie.getValue());
+            }
+        }
+        val data = new SessionData();
+        val value = new StringBuilder();
+        String chunk;
+        while ((chunk = values.get(cookieName + data.requestCookies)) != null) {
+            value.append(chunk);
+            data.requestCookies++;
+        }
+        if (value.length() == 0) {
+            return data;
+        }
+
+        try {
+            val plaintext = ByteBuffer.wrap(decrypt(value.toString()));
+            val writtenAt = plaintext.getLong();
+            val serialized = Arrays.copyOfRange(plaintext.array(), plaintext.position(), plaintext.limit());
+            val content = (List<Object>) serializer.deserializeFromBytes(serialized);
+            val id = (String) content.get(0);
+            if (timeout > 0 && writtenAt + timeout * 1000L < System.currentTimeMillis()) {
+                LOGGER.debug("Expired session: {}", id);
+            } else if (id != null && revokedSessions != null && revokedSessions.get(id).isPresent()) {
+                LOGGER.debug("Revoked session: {}", id);
+            } else {
+                data.id = id;
+                data.attributes.putAll((Map<String, Object>) content.get(1));
+                data.content = serialized;
+                data.writtenAt = writtenAt;
+            }
+        } catch (final RuntimeException | GeneralSecurityException e) {
+            LOGGER.warn("Cannot read the session cookies: {}", e.getMessage());
+            LOGGER.debug("Cannot read the session cookies", e);
+        }
+        return data;
+    }
+
+    protected void write(final WebContext context, final SessionData data) {
+        String value;
+        if (data.id == null && data.attributes.isEmpty()) {
+            if (data.requestCookies == 0 && data.responseCookies == 0) {
+                return;
+            }
+            data.content = null;
+            value = null;
+        } else {
+            val content = new ArrayList<Object>(2);
+            content.add(data.id);
+            content.add(new LinkedHashMap<>(data.attributes));
+            val bytes = serializer.serializeToBytes(content);
+            if (bytes == null) {
+                throw new TechnicalException("Cannot serialize the session attributes: " + data.attributes.keySet());
+            }
+            if (Arrays.equals(bytes, data.content)) {
+                LOGGER.debug("Session unchanged: {}", data.id);
+                return;
+            }
+            data.content = bytes;
+            data.writtenAt = System.currentTimeMillis();
+            value = encrypt(ByteBuffer.allocate(Long.BYTES + bytes.length).putLong(data.writtenAt).put(bytes).array());
+        }
+
+        val nbCookies = value == null ? 0 : (value.length() + maxCookieSize - 1) / maxCookieSize;
+        if (nbCookies > maxCookies) {
+            throw new TechnicalException("The session is too large (" + value.length() + " characters) to be saved in "
+                + maxCookies + " cookies");
+        }
+        for (var i = 0; i < nbCookies; i++) {
+            val chunk = value.substring(i * maxCookieSize, Math.min(value.length(), (i + 1) * maxCookieSize));
+            context.addResponseCookie(buildCookie(cookieName + i, chunk, maxAge));
+        }
+        // remove the cookies which are no longer used
+        for (var i = nbCookies; i < Math.max(data.requestCookies, data.responseCookies); i++) {
+            context.addResponseCookie(buildCookie(cookieName + i, "", 0));
+        }
+        data.responseCookies = nbCookies;
+        LOGGER.debug("Session saved in {} cookie(s)", nbCookies);
+    }
+
+    protected Cookie buildCookie(final String name, final String value, final int age) {
+        val cookie = new Cookie(name, value);
+        if (CommonHelper.isNotBlank(domain)) {
+            cookie.setDomain(domain);
+        }
+        cookie.setPath(path);
+        cookie.setSecure(secure);
+        cookie.setHttpOnly(httpOnly);
+        cookie.setMaxAge(age);
+        if (CommonHelper.isNotBlank(sameSitePolicy)) {
+            cookie.setSameSitePolicy(sameSitePolicy);
+        }
+        return cookie;
+    }
+
+    protected String encrypt(final byte[] plaintext) {
+        try {
+            val iv = new byte[IV_SIZE];
+            RANDOM.nextBytes(iv);
+            val cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, keys.get(encryptionKeyId), new GCMParameterSpec(TAG_SIZE, iv));
+            cipher.updateAAD(cookieName.getBytes(StandardCharsets.UTF_8));
+            val ciphertext = cipher.doFinal(plaintext);
+            val buffer = ByteBuffer.allocate(1 + KEY_ID_SIZE + IV_SIZE + ciphertext.length)
+                .put((byte) VERSION)
+                .putInt(encryptionKeyId)
+                .put(iv)
+                .put(ciphertext);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    protected byte[] decrypt(final String value) throws GeneralSecurityException {
+        val buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(value));
+        if (buffer.remaining() < 1 + KEY_ID_SIZE + IV_SIZE || buffer.get() != VERSION) {
+            throw new GeneralSecurityException("Invalid session cookie");
+        }
+        val key = keys.get(buffer.getInt());
+        if (key == null) {
+            throw new GeneralSecurityException("Unknown encryption key");
+        }
+        val iv = new byte[IV_SIZE];
+        buffer.get(iv);
+        val cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE, iv));
+        cipher.updateAAD(cookieName.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(buffer.array(), buffer.position(), buffer.remaining());
+    }
+
+    private static byte[] deriveKey(final String secret) {
+        try {
+            val spec = new PBEKeySpec(secret.toCharArray(), KEY_SALT, KEY_ITERATIONS, KEY_SIZE);
+            try {
+                return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+            } finally {
+                spec.clearPassword();
+            }
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private static byte[] sha256(final byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * The session data of the current request.
+     */
+    protected static class SessionData {
+
+        private String id;
+
+        private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+        private byte[] content;
+
+        private long writtenAt;
+
+        private int requestCookies;
+
+        private int responseCookies;
+
+        private boolean dirty;
+
+        private boolean deferred;
+    }
+
+    /**
+     * A session tracked for the back channel logout: any update revokes it.
+     */
+    protected class RevocableSession implements SessionStore {
+
+        private final String sessionId;
+
+        protected RevocableSession(final String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+            return Optional.of(sessionId);
+        }
+
+        @Override
+        public Optional<Object> get(final WebContext context, final String key) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void set(final WebContext context, final String key, final Object value) {
+            revoke(sessionId);
+        }
+
+        @Override
+        public boolean destroySession(final WebContext context) {
+            revoke(sessionId);
+            return true;
+        }
+
+        @Override
+        public Optional<Object> getTrackableSession(final WebContext context) {
+            return Optional.of(sessionId);
+        }
+
+        @Override
+        public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+            return CookieSessionStore.this.buildFromTrackableSession(context, trackableSession);
+        }
+
+        @Override
+        public boolean renewSession(final WebContext context) {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "RevocableSession(" + sessionId + ")";
+        }
+    }
+}
@@ -70,4 +70,19 @@ public interface SessionStore {
      * @return whether the session store has renewed the session
      */
     boolean renewSession(WebContext context);
+
+    /**
+     * Defer the writes of the session until {@link #flushWrites(WebContext)} is called,
+     * for the stores which write the whole session on each change.
+     *
+     * @param context the web context
+     */
+    default void deferWrites(WebContext context) {}
+
+    /**
+     * Write the deferred changes of the session.
+     *
+     * @param context the web context
+     */
+    default void flushWrites(WebContext context) {}
 }
@@ -1,5 +1,6 @@
 package org.pac4j.core.credentials.authenticator;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -10,6 +11,7 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.SingleFlightLoader;
 import org.pac4j.core.store.Store;
 import org.pac4j.core.util.InitializableObject;
 
@@ -19,6 +21,10 @@ import java.util.concurrent.TimeUnit;
 /**
  * An authenticator that caches the result of an authentication based on the credentials.
  *
+ * The concurrent requests for the same credentials missing from the cache wait for a single call to the delegate.
+ * The cached profiles can be reloaded before they expire ({@link #refreshAfter}) and the failures can be cached
+ * for a short time ({@link #failureTimeout}), see {@link SingleFlightLoader}.
+ *
  * Add the <code>guava</code> dependency to use this class.
  *
  * @author Misagh Moayyed
@@ -35,8 +41,23 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
     private int timeout;
     private TimeUnit timeUnit;
 
+    /**
+     * The age of a cached profile after which it is reloaded by the next request (in seconds, 0 to disable).
+     */
+    private int refreshAfter;
+
+    /**
+     * How long a failure of the delegate is cached (in seconds, 0 to disable).
+     */
+    private int failureTimeout;
+
     private Store<Credentials, UserProfile> store;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final SingleFlightLoader<Credentials, UserProfile> loader = new SingleFlightLoader<>();
+
     public LocalCachingAuthenticator() {}
 
     public LocalCachingAuthenticator(final Authenticator delegate, final Store<Credentials, UserProfile> store) {
@@ -56,17 +77,17 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
     public Optional<Credentials> validate(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
         init();
 
-        var optProfile = this.store.get(credentials);
-        if (optProfile.isEmpty()) {
+        val optProfile = loader.get(store, credentials, () -> {
             LOGGER.debug("No cached credentials found. Delegating authentication to {}...", delegate);
             delegate.validate(credentials, context, sessionStore);
             val profile = credentials.getUserProfile();
             LOGGER.debug("Caching credential. Using profile {}...", profile);
-            store.set(credentials, profile);
-        } else {
-            credentials.setUserProfile(optProfile.get());
-            LOGGER.debug("Found cached credential. Using cached profile {}...", optProfile.get());
-        }
+            return Optional.ofNullable(profile);
+        });
+        optProfile.ifPresent(profile -> {
+            credentials.setUserProfile(profile);
+            LOGGER.debug("Using profile {}...", profile);
+        });
 
         return Optional.of(credentials);
     }
@@ -76,6 +97,8 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
         if (this.store == null) {
             this.store = new GuavaStore<>(cacheSize, timeout, timeUnit);
         }
+        loader.setRefreshAfter(refreshAfter);
+        loader.setFailureTimeout(failureTimeout);
 
         if (delegate instanceof InitializableObject initializableObject) {
             initializableObject.init(forceReinit);
@@ -84,9 +107,34 @@ public class LocalCachingAuthenticator extends InitializableObject implements Au
 
     public void removeFromCache(final Credentials credentials) {
         this.store.remove(credentials);
+        loader.forget(credentials);
     }
 
     public boolean isCached(final Credentials credentials) {
         return this.store.get(credentials).isPresent();
     }
+
+    public long getHits() {
+        return loader.getHits();
+    }
+
+    public long getMisses() {
+        return loader.getMisses();
+    }
+
+    public long getLoads() {
+        return loader.getLoads();
+    }
+
+    public long getLoadTime() {
+        return loader.getLoadTime();
+    }
+
+    public long getCoalescedWaits() {
+        return loader.getCoalescedWaits();
+    }
+
+    public long getFailureHits() {
+        return loader.getFailureHits();
+    }
 }
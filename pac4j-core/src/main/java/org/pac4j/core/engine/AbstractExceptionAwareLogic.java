@@ -5,6 +5,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.util.CommonHelper;
@@ -52,6 +53,18 @@ public abstract class AbstractExceptionAwareLogic {
         }
     }
 
+    /**
+     * Write the deferred changes of the session (if any) before the response is sent.
+     *
+     * @param sessionStore the session store
+     * @param context the web context
+     */
+    protected void flushSessionWrites(final SessionStore sessionStore, final WebContext context) {
+        if (sessionStore != null && context != null) {
+            sessionStore.flushWrites(context);
+        }
+    }
+
     /**
      * Wrap an Exception into a RuntimeException.
      *
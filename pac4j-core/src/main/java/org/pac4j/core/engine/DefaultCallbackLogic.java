@@ -58,10 +58,13 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
         assertNotNull("httpActionAdapter", httpActionAdapter);
 
         HttpAction action;
+        SessionStore sessionStore = null;
         try {
             assertNotNull("config.getSessionStoreFactory()", config.getSessionStoreFactory());
-            val sessionStore = config.getSessionStoreFactory().newSessionStore(parameters);
+            sessionStore = config.getSessionStoreFactory().newSessionStore(parameters);
             assertNotNull("sessionStore", sessionStore);
+            // the changes of the session are written once, before the response
+            sessionStore.deferWrites(context);
             val profileManagerFactory = config.getProfileManagerFactory();
             assertNotNull("profileManagerFactory", profileManagerFactory);
 
@@ -104,8 +107,10 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             }
 
             action = redirectToOriginallyRequestedUrl(context, sessionStore, defaultUrl);
+            sessionStore.flushWrites(context);
 
         } catch (final RuntimeException e) {
+            flushSessionWrites(sessionStore, context);
             return handleException(e, httpActionAdapter, context);
         }
 
@@ -56,10 +56,13 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
         assertNotNull("httpActionAdapter", httpActionAdapter);
 
         HttpAction action;
+        SessionStore sessionStore = null;
         try {
             assertNotNull("config.getSessionStoreFactory()", config.getSessionStoreFactory());
-            val sessionStore = config.getSessionStoreFactory().newSessionStore(parameters);
+            sessionStore = config.getSessionStoreFactory().newSessionStore(parameters);
             assertNotNull("sessionStore", sessionStore);
+            // the changes of the session are written once, before the response
+            sessionStore.deferWrites(context);
             val profileManagerFactory = config.getProfileManagerFactory();
             assertNotNull("profileManagerFactory", profileManagerFactory);
 
@@ -140,8 +143,10 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
                     }
                 }
             }
+            sessionStore.flushWrites(context);
 
         } catch (final RuntimeException e) {
+            flushSessionWrites(sessionStore, context);
             return handleException(e, httpActionAdapter, context);
         }
 
@@ -48,6 +48,9 @@ import static org.pac4j.core.util.CommonHelper.*;
  * <p>Finally, if the user is not authenticated (no profile), he is redirected to the appropriate identity provider
  * if the first defined client is an indirect one in the <code>clients</code> configuration. Otherwise, a 401 error page is displayed.</p>
  *
+ * <p>The <code>clients</code>, <code>authorizers</code> and <code>matchers</code> are compiled once into a {@link SecurityRoute}
+ * (cached by the {@link Config} until its clients, authorizers or matchers change) to avoid resolving them on each request.</p>
+ *
  * @author Jerome Leleu
  * @since 1.9.0
  */
@@ -74,6 +77,29 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
     public Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
                           final String clients, final String authorizers, final String matchers, final FrameworkParameters parameters) {
 
+        return perform(config, securityGrantedAccessAdapter, new SecurityRoute(clients, authorizers, matchers), parameters);
+    }
+
+    @Override
+    public SecurityRoute compile(final Config config, final String clients, final String authorizers, final String matchers) {
+        assertNotNull("config", config);
+        assertNotNull("clientFinder", clientFinder);
+        assertNotNull("authorizationChecker", authorizationChecker);
+        assertNotNull("matchingChecker", matchingChecker);
+        val configClients = config.getClients();
+        assertNotNull("configClients", configClients);
+        configClients.init();
+
+        val route = new SecurityRoute(clients, authorizers, matchers, config, clientFinder.compile(configClients, clients),
+            authorizationChecker.compile(authorizers, config.getAuthorizers()), matchingChecker.compile(matchers, config.getMatchers()));
+        LOGGER.debug("Compiled security route: {}", route);
+        return route;
+    }
+
+    @Override
+    public Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                          final SecurityRoute securityRoute, final FrameworkParameters parameters) {
+
         LOGGER.debug("=== SECURITY ===");
 
         // checks
@@ -85,10 +111,13 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
         assertNotNull("httpActionAdapter", httpActionAdapter);
 
         HttpAction action;
+        SessionStore sessionStore = null;
         try {
             assertNotNull("config.getSessionStoreFactory()", config.getSessionStoreFactory());
-            val sessionStore = config.getSessionStoreFactory().newSessionStore(parameters);
+            sessionStore = config.getSessionStoreFactory().newSessionStore(parameters);
             assertNotNull("sessionStore", sessionStore);
+            // the changes of the session are written once, before the response
+            sessionStore.deferWrites(context);
             val profileManagerFactory = config.getProfileManagerFactory();
             assertNotNull("profileManagerFactory", profileManagerFactory);
 
@@ -99,13 +128,23 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             val configClients = config.getClients();
             assertNotNull("configClients", configClients);
 
+            // the route is compiled (or re-compiled if the configuration has changed) and cached by the configuration
+            var route = securityRoute;
+            assertNotNull("securityRoute", route);
+            configClients.init();
+            if (!route.isUpToDate(config)) {
+                LOGGER.debug("Uncompiled or outdated security route: {}", route);
+                route = config.getSecurityRoute(this, route.getClientNames(), route.getAuthorizerNames(), route.getMatcherNames());
+            }
+            val authorizers = route.getAuthorizerNames();
+
             // logic
             LOGGER.debug("url: {}", context.getFullRequestURL());
-            LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
-            val currentClients = clientFinder.find(configClients, context, clients);
+            LOGGER.debug("clients: {} | matchers: {}", route.getClientNames(), route.getMatcherNames());
+            val currentClients = clientFinder.findRouteClients(configClients, context, route);
             LOGGER.debug("currentClients: {}", currentClients);
 
-            if (matchingChecker.matches(context, sessionStore, matchers, config.getMatchers(), currentClients)) {
+            if (matchingChecker.matchesRoute(context, sessionStore, route, config.getMatchers(), currentClients)) {
 
                 val manager = profileManagerFactory.apply(context, sessionStore);
                 manager.setConfig(config);
@@ -117,30 +156,38 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // no profile and some current clients
                 if (isEmpty(profiles) && isNotEmpty(currentClients)) {
                     var updated = false;
-                    // loop on all clients searching direct ones to perform authentication
-                    for (val currentClient : currentClients) {
-                        if (currentClient instanceof DirectClient directClient) {
-                            LOGGER.debug("Performing authentication for direct client: {}", currentClient);
-
-                            val credentials = currentClient.getCredentials(context, sessionStore, profileManagerFactory);
-                            LOGGER.debug("credentials: {}", credentials);
-                            if (credentials.isPresent()) {
-                                val optProfile =
-                                    currentClient.getUserProfile(credentials.get(), context, sessionStore);
-                                LOGGER.debug("profile: {}", optProfile);
-                                if (optProfile.isPresent()) {
-                                    val profile = optProfile.get();
-                                    val saveProfileInSession = directClient.getSaveProfileInSession(context, profile);
-                                    val multiProfile = directClient.isMultiProfile(context, profile);
-                                    LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
-                                    manager.save(saveProfileInSession, profile, multiProfile);
-                                    updated = true;
-                                    if (!multiProfile) {
-                                        break;
+                    // a single session write for all the authenticated direct clients
+                    manager.setDeferSessionWrites(true);
+                    try {
+                        // loop on all clients searching direct ones to perform authentication
+                        for (val currentClient : currentClients) {
+                            if (currentClient instanceof DirectClient directClient) {
+                                LOGGER.debug("Performing authentication for direct client: {}", currentClient);
+
+                                val credentials = currentClient.getCredentials(context, sessionStore, profileManagerFactory);
+                                LOGGER.debug("credentials: {}", credentials);
+                                if (credentials.isPresent()) {
+                                    val optProfile =
+                                        currentClient.getUserProfile(credentials.get(), context, sessionStore);
+                                    LOGGER.debug("profile: {}", optProfile);
+                                    if (optProfile.isPresent()) {
+                                        val profile = optProfile.get();
+                                        val saveProfileInSession = directClient.getSaveProfileInSession(context, profile);
+                                        val multiProfile = directClient.isMultiProfile(context, profile);
+                                        LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
+                                        manager.save(saveProfileInSession, profile, multiProfile);
+                                        updated = true;
+                                        if (!multiProfile) {
+                                            break;
+                                        }
                                     }
                                 }
                             }
                         }
+                    } finally {
+                        // the profiles saved before a failure are also written
+                        manager.setDeferSessionWrites(false);
+                        manager.flushSessionWrites();
                     }
                     if (updated) {
                         profiles = loadProfiles(manager, context, sessionStore, currentClients);
@@ -151,9 +198,10 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // we have profile(s) -> check authorizations; otherwise, redirect to identity provider or 401
                 if (isNotEmpty(profiles)) {
                     LOGGER.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(context, sessionStore, profiles,
-                                                          authorizers, config.getAuthorizers(), currentClients)) {
+                    if (authorizationChecker.isRouteAuthorized(context, sessionStore, profiles,
+                                                               route, config.getAuthorizers(), currentClients)) {
                         LOGGER.debug("authenticated and authorized -> grant access");
+                        sessionStore.flushWrites(context);
                         return securityGrantedAccessAdapter.adapt(context, sessionStore, profiles);
                     } else {
                         LOGGER.debug("forbidden");
@@ -173,10 +221,13 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 LOGGER.debug("no matching for this request -> grant access");
+                sessionStore.flushWrites(context);
                 return securityGrantedAccessAdapter.adapt(context, sessionStore, Collections.emptyList());
             }
+            sessionStore.flushWrites(context);
 
         } catch (final Exception e) {
+            flushSessionWrites(sessionStore, context);
             return handleException(e, httpActionAdapter, context);
         }
 
@@ -25,4 +25,32 @@ public interface SecurityLogic {
      */
     Object perform(Config config, SecurityGrantedAccessAdapter securityGrantedAccessAdapter, String clients,
                    String authorizers, String matchers, FrameworkParameters parameters);
+
+    /**
+     * Compile a security route for the configuration.
+     *
+     * @param config the configuration
+     * @param clients the defined clients
+     * @param authorizers the defined authorizers
+     * @param matchers the defined matchers
+     * @return the security route
+     */
+    default SecurityRoute compile(final Config config, final String clients, final String authorizers, final String matchers) {
+        return new SecurityRoute(clients, authorizers, matchers);
+    }
+
+    /**
+     * Perform the security logic for a security route.
+     *
+     * @param config the configuration
+     * @param securityGrantedAccessAdapter the success adapter
+     * @param route the security route
+     * @param parameters framework parameters
+     * @return the resulting action of the security
+     */
+    default Object perform(final Config config, final SecurityGrantedAccessAdapter securityGrantedAccessAdapter,
+                           final SecurityRoute route, final FrameworkParameters parameters) {
+        return perform(config, securityGrantedAccessAdapter, route.getClientNames(), route.getAuthorizerNames(),
+            route.getMatcherNames(), parameters);
+    }
 }
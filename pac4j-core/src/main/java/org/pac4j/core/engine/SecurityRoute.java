@@ -0,0 +1,158 @@
+package org.pac4j.core.engine;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.client.Client;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.matching.matcher.Matcher;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>A security route: the <code>clients</code>, <code>authorizers</code> and <code>matchers</code> configuration
+ * of a protected URL, resolved once against a {@link Config}.</p>
+ *
+ * <p>The resolved clients, authorizers and matchers are read-only lists, <code>null</code> if the route has not been compiled
+ * (the names are then resolved on each request).</p>
+ *
+ * <p>A compiled route is only valid for the {@link Config} it has been compiled for and as long as
+ * the clients, authorizers and matchers of this configuration have not changed.</p>
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@ToString(of = {"clientNames", "authorizerNames", "matcherNames"})
+public final class SecurityRoute {
+
+    private final String clientNames;
+
+    private final String authorizerNames;
+
+    private final String matcherNames;
+
+    @Getter(AccessLevel.NONE)
+    private final Config config;
+
+    @Getter(AccessLevel.NONE)
+    private final Clients clients;
+
+    @Getter(AccessLevel.NONE)
+    private final int clientsGeneration;
+
+    @Getter(AccessLevel.NONE)
+    private final int configGeneration;
+
+    private final List<Client> resolvedClients;
+
+    private final List<Authorizer> resolvedAuthorizers;
+
+    private final List<Matcher> resolvedMatchers;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, List<Matcher>> defaultMatchers = new ConcurrentHashMap<>(4);
+
+    /**
+     * Define a route which is not compiled.
+     *
+     * @param clientNames the clients
+     * @param authorizerNames the authorizers
+     * @param matcherNames the matchers
+     */
+    public SecurityRoute(final String clientNames, final String authorizerNames, final String matcherNames) {
+        this(clientNames, authorizerNames, matcherNames, null, null, null, null);
+    }
+
+    /**
+     * Define a route compiled for a configuration.
+     *
+     * @param clientNames the clients
+     * @param authorizerNames the authorizers
+     * @param matcherNames the matchers
+     * @param config the configuration
+     * @param resolvedClients the resolved clients (<code>null</code> if not compiled)
+     * @param resolvedAuthorizers the resolved authorizers (<code>null</code> if not compiled)
+     * @param resolvedMatchers the resolved matchers (<code>null</code> if not compiled)
+     */
+    public SecurityRoute(final String clientNames, final String authorizerNames, final String matcherNames, final Config config,
+                         final Client[] resolvedClients, final Authorizer[] resolvedAuthorizers, final Matcher[] resolvedMatchers) {
+        this.clientNames = clientNames;
+        this.authorizerNames = authorizerNames;
+        this.matcherNames = matcherNames;
+        this.config = config;
+        if (config != null) {
+            val configClients = config.getClients();
+            this.clients = configClients;
+            this.clientsGeneration = configClients != null ? configClients.getGeneration() : 0;
+            this.configGeneration = config.getGeneration();
+        } else {
+            this.clients = null;
+            this.clientsGeneration = 0;
+            this.configGeneration = 0;
+        }
+        this.resolvedClients = readOnlyCopy(resolvedClients);
+        this.resolvedAuthorizers = readOnlyCopy(resolvedAuthorizers);
+        this.resolvedMatchers = readOnlyCopy(resolvedMatchers);
+    }
+
+    private static <T> List<T> readOnlyCopy(final T[] elements) {
+        return elements != null ? Collections.unmodifiableList(Arrays.asList(elements.clone())) : null;
+    }
+
+    /**
+     * Whether the route has been compiled for a configuration.
+     *
+     * @return whether the route has been compiled
+     */
+    public boolean isCompiled() {
+        return config != null;
+    }
+
+    /**
+     * Whether the route has been compiled and can still be used for this configuration.
+     * The clients must have been (re-)initialized before this check.
+     *
+     * @param config the configuration
+     * @return whether the route is up to date
+     */
+    public boolean isUpToDate(final Config config) {
+        if (this.config == null || this.config != config) {
+            return false;
+        }
+        val configClients = config.getClients();
+        return configClients == this.clients && configClients != null && configClients.getGeneration() == clientsGeneration
+            && config.getGeneration() == configGeneration;
+    }
+
+    /**
+     * Return the default matchers for the computed default matcher names, resolving them only once.
+     *
+     * @param names the default matcher names
+     * @param resolver the way to resolve the matcher names
+     * @return the default matchers (read-only)
+     */
+    public List<Matcher> getDefaultMatchers(final String names, final Function<String, List<Matcher>> resolver) {
+        return defaultMatchers.computeIfAbsent(names, n -> Collections.unmodifiableList(resolver.apply(n)));
+    }
+
+    /**
+     * Build the key of a route (to cache it).
+     *
+     * @param clientNames the clients
+     * @param authorizerNames the authorizers
+     * @param matcherNames the matchers
+     * @return the key
+     */
+    public static String key(final String clientNames, final String authorizerNames, final String matcherNames) {
+        return clientNames + '\u0000' + authorizerNames + '\u0000' + matcherNames;
+    }
+}
@@ -7,6 +7,7 @@ import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.engine.SecurityRoute;
 import org.pac4j.core.matching.matcher.*;
 import org.pac4j.core.matching.matcher.csrf.CsrfTokenGeneratorMatcher;
 import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
@@ -59,6 +60,40 @@ public class DefaultMatchingChecker implements MatchingChecker {
         return matches(context, sessionStore, matchers);
     }
 
+    @Override
+    public Matcher[] compile(final String matchersValue, final Map<String, Matcher> matchersMap) {
+        final List<Matcher> matchers;
+        if (isBlank(matchersValue)) {
+            matchers = new ArrayList<>();
+        } else if (matchersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            matchers = computeMatchersFromNames(substringAfter(matchersValue, Pac4jConstants.ADD_ELEMENT), matchersMap);
+        } else {
+            matchers = computeMatchersFromNames(matchersValue, matchersMap);
+        }
+        return matchers.toArray(new Matcher[0]);
+    }
+
+    @Override
+    public boolean matchesRoute(final WebContext context, final SessionStore sessionStore, final SecurityRoute route,
+                                final Map<String, Matcher> matchersMap, final List<Client> clients) {
+        val compiledMatchers = route.getResolvedMatchers();
+        if (compiledMatchers == null) {
+            return matches(context, sessionStore, route.getMatcherNames(), matchersMap, clients);
+        }
+
+        val matchersValue = route.getMatcherNames();
+        if (isBlank(matchersValue) || matchersValue.trim().startsWith(Pac4jConstants.ADD_ELEMENT)) {
+            // the default matchers depend on the request: only their resolution is cached
+            val defaultMatcherNames = computeDefaultMatcherNames(context, sessionStore, clients, matchersMap);
+            val defaultMatchers = route.getDefaultMatchers(defaultMatcherNames,
+                names -> computeMatchersFromNames(names, matchersMap));
+            if (!matches(context, sessionStore, defaultMatchers)) {
+                return false;
+            }
+        }
+        return matches(context, sessionStore, compiledMatchers);
+    }
+
     protected List<Matcher> computeMatchers(final WebContext context, final SessionStore sessionStore, final String matchersValue,
                                             final Map<String, Matcher> matchersMap, final List<Client> clients) {
         String matcherNames;
@@ -3,6 +3,7 @@ package org.pac4j.core.matching.checker;
 import org.pac4j.core.client.Client;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.engine.SecurityRoute;
 import org.pac4j.core.matching.matcher.Matcher;
 
 import java.util.List;
@@ -29,4 +30,30 @@ public interface MatchingChecker {
      */
     boolean matches(WebContext context, SessionStore sessionStore, String matcherNames,
                     Map<String, Matcher> matchersMap, List<Client> clients);
+
+    /**
+     * Resolve once the matchers for the matcher names (<code>null</code> if this checker cannot compile them).
+     *
+     * @param matcherNames the matchers
+     * @param matchersMap the map of matchers
+     * @return the resolved matchers
+     */
+    default Matcher[] compile(final String matcherNames, final Map<String, Matcher> matchersMap) {
+        return null;
+    }
+
+    /**
+     * Check if the web context matches for a security route.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param route the security route
+     * @param matchersMap the map of matchers
+     * @param clients the clients
+     * @return whether the web context matches
+     */
+    default boolean matchesRoute(final WebContext context, final SessionStore sessionStore, final SecurityRoute route,
+                                 final Map<String, Matcher> matchersMap, final List<Client> clients) {
+        return matches(context, sessionStore, route.getMatcherNames(), matchersMap, clients);
+    }
 }
@@ -0,0 +1,24 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+
+/**
+ * CSRF token validator.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@FunctionalInterface
+public interface CsrfTokenValidator {
+
+    /**
+     * Check whether the CSRF token sent by the user is valid.
+     *
+     * @param context the current web context
+     * @param sessionStore the session store
+     * @param token the CSRF token sent (may be <code>null</code>)
+     * @return whether the CSRF token is valid
+     */
+    boolean isValid(WebContext context, SessionStore sessionStore, String token);
+}
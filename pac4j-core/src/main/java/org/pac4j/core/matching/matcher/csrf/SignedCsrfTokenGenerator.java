@@ -0,0 +1,182 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stateless CSRF token generator and validator: the token is signed (HMAC) with a key bound to the session identifier
+ * and embeds its expiration date, so that no session attribute is read or written.
+ *
+ * The signing key is derived from the {@link #secret} and rotated every {@link #keyRotationInSeconds} seconds:
+ * the tokens signed with the current or the previous key are accepted.
+ * To be used both by the {@link CsrfTokenGeneratorMatcher} and the
+ * {@link org.pac4j.core.authorization.authorizer.CsrfAuthorizer}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString(exclude = "secret")
+public class SignedCsrfTokenGenerator extends InitializableObject implements CsrfTokenGenerator, CsrfTokenValidator {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int NONCE_SIZE = 16;
+
+    private static final int MAC_SIZE = 32;
+
+    private static final int TOKEN_SIZE = 2 * Long.BYTES + NONCE_SIZE + MAC_SIZE;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(ALGORITHM);
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    });
+
+    private String secret;
+
+    // 4 hours
+    private int ttlInSeconds = 4*60*60;
+
+    // 1 day
+    private int keyRotationInSeconds = 24*60*60;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<Long, SecretKeySpec> keys = new ConcurrentHashMap<>();
+
+    public SignedCsrfTokenGenerator() {}
+
+    public SignedCsrfTokenGenerator(final String secret) {
+        this.secret = secret;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("secret", this.secret);
+        CommonHelper.assertTrue(this.ttlInSeconds > 0, "ttlInSeconds must be greater than zero");
+        CommonHelper.assertTrue(this.keyRotationInSeconds >= this.ttlInSeconds,
+            "keyRotationInSeconds must be greater than or equal to ttlInSeconds");
+        keys.clear();
+    }
+
+    @Override
+    public String get(final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        val sessionId = sessionStore.getSessionId(context, true)
+            .orElseThrow(() -> new TechnicalException("No session identifier: cannot generate a signed CSRF token"));
+        val now = currentTimeMillis();
+        val nonce = new byte[NONCE_SIZE];
+        RANDOM.nextBytes(nonce);
+        val token = ByteBuffer.allocate(TOKEN_SIZE)
+            .putLong(epoch(now))
+            .putLong(now + ttlInSeconds * 1000L)
+            .put(nonce);
+        token.put(sign(sessionId, token.array(), epoch(now)));
+        val value = Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+        LOGGER.debug("generated signed CSRF token: {} for current URL: {}", value, context.getFullRequestURL());
+        return value;
+    }
+
+    @Override
+    public boolean isValid(final WebContext context, final SessionStore sessionStore, final String token) {
+        init();
+
+        if (token == null) {
+            return false;
+        }
+        val sessionId = sessionStore.getSessionId(context, false);
+        if (sessionId.isEmpty()) {
+            LOGGER.debug("No session identifier: the signed CSRF token cannot be checked");
+            return false;
+        }
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.debug("Invalid CSRF token encoding: {}", token);
+            return false;
+        }
+        if (bytes.length != TOKEN_SIZE) {
+            return false;
+        }
+        val buffer = ByteBuffer.wrap(bytes);
+        val epoch = buffer.getLong();
+        val expirationDate = buffer.getLong();
+        val now = currentTimeMillis();
+        val currentEpoch = epoch(now);
+        if (epoch != currentEpoch && epoch != currentEpoch - 1 || expirationDate < now) {
+            LOGGER.debug("Expired CSRF token: {}", token);
+            return false;
+        }
+        val expectedMac = sign(sessionId.get(), bytes, epoch);
+        val mac = new byte[MAC_SIZE];
+        buffer.position(TOKEN_SIZE - MAC_SIZE);
+        buffer.get(mac);
+        return MessageDigest.isEqual(expectedMac, mac);
+    }
+
+    protected byte[] sign(final String sessionId, final byte[] token, final long epoch) {
+        val mac = MAC.get();
+        try {
+            mac.init(key(epoch));
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+        mac.update(sessionId.getBytes(StandardCharsets.UTF_8));
+        mac.update(token, 0, TOKEN_SIZE - MAC_SIZE);
+        return mac.doFinal();
+    }
+
+    protected SecretKeySpec key(final long epoch) {
+        var key = keys.get(epoch);
+        if (key == null) {
+            val mac = MAC.get();
+            try {
+                mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            } catch (final GeneralSecurityException e) {
+                throw new TechnicalException(e);
+            }
+            key = new SecretKeySpec(mac.doFinal(ByteBuffer.allocate(Long.BYTES).putLong(epoch).array()), ALGORITHM);
+            keys.put(epoch, key);
+            // only keep the current and previous keys
+            keys.keySet().removeIf(e -> e < epoch - 1);
+        }
+        return key;
+    }
+
+    protected long epoch(final long time) {
+        return time / (keyRotationInSeconds * 1000L);
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
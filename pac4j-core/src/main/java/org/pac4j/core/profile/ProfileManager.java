@@ -24,6 +24,11 @@ import java.util.Optional;
 /**
  * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
  *
+ * The user profiles are read from the session at most once per request (and cached in a request attribute
+ * shared by all the profile managers of the request). Each save writes the profiles in session (the profiles may have been
+ * updated in place), but the writes can be deferred and coalesced into a single one
+ * ({@link #setDeferSessionWrites(boolean)} and {@link #flushSessionWrites()}).
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -42,6 +47,13 @@ public class ProfileManager {
     @Setter
     protected Config config;
 
+    /**
+     * Whether the writes of the profiles in session are deferred until {@link #flushSessionWrites()} is called.
+     */
+    @Getter
+    @Setter
+    protected boolean deferSessionWrites;
+
     public ProfileManager(final WebContext context, final SessionStore sessionStore) {
         CommonHelper.assertNotNull("context", context);
         CommonHelper.assertNotNull("sessionStore", sessionStore);
@@ -87,11 +99,9 @@ public class ProfileManager {
                 profiles.putAll((Map<String, UserProfile>) requestAttribute);
             });
         if (readFromSession) {
-            this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
-                .ifPresent(sessionAttribute -> {
-                    LOGGER.debug("Retrieved profiles (session): {}", sessionAttribute);
-                    profiles.putAll((Map<String, UserProfile>) sessionAttribute);
-                });
+            val sessionProfiles = readSessionProfiles();
+            LOGGER.debug("Retrieved profiles (session): {}", sessionProfiles);
+            profiles.putAll(sessionProfiles);
         }
 
         removeOrRenewExpiredProfiles(profiles, readFromSession);
@@ -129,6 +139,80 @@ public class ProfileManager {
         }
     }
 
+    /**
+     * Read the profiles from the session or from the request cache if they have already been read.
+     *
+     * @return the profiles saved in session
+     */
+    protected Map<String, UserProfile> readSessionProfiles() {
+        val cache = getSessionCache();
+        if (cache.profiles == null) {
+            cache.reads++;
+            cache.profiles = new LinkedHashMap<>();
+            this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
+                .ifPresent(sessionAttribute -> cache.profiles.putAll((Map<String, UserProfile>) sessionAttribute));
+        }
+        return cache.profiles;
+    }
+
+    /**
+     * Write the profiles in session (or only record them if the session writes are deferred).
+     *
+     * @param profiles the profiles
+     */
+    protected void writeSessionProfiles(final LinkedHashMap<String, UserProfile> profiles) {
+        val cache = getSessionCache();
+        cache.profiles = new LinkedHashMap<>(profiles);
+        cache.written = cache.profiles;
+        if (deferSessionWrites) {
+            cache.pendingWrite = true;
+        } else {
+            cache.writes++;
+            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
+        }
+    }
+
+    /**
+     * Write in session the profiles saved while the session writes were deferred.
+     */
+    public void flushSessionWrites() {
+        val cache = getSessionCache();
+        if (cache.pendingWrite) {
+            cache.pendingWrite = false;
+            cache.writes++;
+            LOGGER.debug("Saving deferred profiles (session): {}", cache.written);
+            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<>(cache.written));
+        }
+    }
+
+    protected SessionCache getSessionCache() {
+        val cache = this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES_SESSION_CACHE);
+        if (cache.isPresent() && cache.get() instanceof SessionCache sessionCache) {
+            return sessionCache;
+        }
+        val newCache = new SessionCache();
+        this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES_SESSION_CACHE, newCache);
+        return newCache;
+    }
+
+    /**
+     * The number of reads of the profiles in session during the current request.
+     *
+     * @return the number of session reads
+     */
+    public int getSessionReads() {
+        return getSessionCache().reads;
+    }
+
+    /**
+     * The number of writes of the profiles in session during the current request.
+     *
+     * @return the number of session writes
+     */
+    public int getSessionWrites() {
+        return getSessionCache().writes;
+    }
+
     /**
      * Remove the current user profile(s).
      */
@@ -136,7 +220,7 @@ public class ProfileManager {
         val sessionExists = sessionStore.getSessionId(context, false).isPresent();
         if (sessionExists) {
             LOGGER.debug("Removing profiles from session");
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
+            writeSessionProfiles(new LinkedHashMap<>());
         }
         LOGGER.debug("Removing profiles from request");
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
@@ -175,7 +259,7 @@ public class ProfileManager {
     protected void saveAll(LinkedHashMap<String, UserProfile> profiles, final boolean saveInSession) {
         if (saveInSession) {
             LOGGER.debug("Saving profiles (session): {}", profiles);
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
+            writeSessionProfiles(profiles);
         }
         LOGGER.debug("Saving profiles (request): {}", profiles);
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, profiles);
@@ -193,4 +277,20 @@ public class ProfileManager {
             throw new TechnicalException(e);
         }
     }
+
+    /**
+     * The profiles saved in session, cached for the current request.
+     */
+    protected static class SessionCache {
+
+        private LinkedHashMap<String, UserProfile> profiles;
+
+        private LinkedHashMap<String, UserProfile> written;
+
+        private boolean pendingWrite;
+
+        private int reads;
+
+        private int writes;
+    }
 }
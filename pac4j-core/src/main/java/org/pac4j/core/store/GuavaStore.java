@@ -2,17 +2,32 @@ package org.pac4j.core.store;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import lombok.val;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.SharedExecutor;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * Store data in a Guava cache.
  *
+ * In addition to the maximum size and the expiration after write, the cache can be bounded by weight
+ * ({@link #maximumWeight} and {@link #weigher}, see {@link SerializedSizeWeigher}), expire the entries after access
+ * ({@link #accessTimeout}) or individually ({@link #expiredPredicate}, like <code>UserProfile::isExpired</code>),
+ * reload the entries asynchronously ({@link #refreshTimeout}, {@link #loader} and {@link #refreshExecutor}, the
+ * {@link SharedExecutor} by default)
+ * and record statistics ({@link #recordStats} and {@link #getStats()}).
+ *
  * Add the <code>guava</code> dependency to use this store.
  *
  * @author Jerome Leleu
@@ -36,6 +51,62 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     @Setter
     private TimeUnit timeUnit;
 
+    /**
+     * The maximum weight of the entries (instead of the maximum number of entries) if strictly positive.
+     */
+    @Getter
+    @Setter
+    private long maximumWeight;
+
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private Weigher<K, O> weigher;
+
+    /**
+     * The expiration after the last access (in {@link #timeUnit}, 0 to disable).
+     */
+    @Getter
+    @Setter
+    private int accessTimeout;
+
+    /**
+     * Whether a value has expired regardless of the timeouts.
+     */
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private Predicate<O> expiredPredicate;
+
+    /**
+     * The age of an entry after which it is reloaded asynchronously by the {@link #loader}
+     * (in {@link #timeUnit}, 0 to disable).
+     */
+    @Getter
+    @Setter
+    private int refreshTimeout;
+
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private Function<K, O> loader;
+
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private Executor refreshExecutor = SharedExecutor.getInstance();
+
+    /**
+     * The number of segments of the cache: a higher value reduces the contention between threads.
+     */
+    @Getter
+    @Setter
+    private int concurrencyLevel = Runtime.getRuntime().availableProcessors();
+
+    @Getter
+    @Setter
+    private boolean recordStats;
+
     public GuavaStore() {}
 
     public GuavaStore(final int size, final int timeout, final TimeUnit timeUnit) {
@@ -46,17 +117,44 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
-        CommonHelper.assertTrue(this.size > 0, "size mut be greater than zero");
+        if (this.maximumWeight > 0) {
+            CommonHelper.assertNotNull("weigher", this.weigher);
+        } else {
+            CommonHelper.assertTrue(this.size > 0, "size mut be greater than zero");
+        }
         CommonHelper.assertTrue(this.timeout >= 0, "timeout must be greater than zero");
         CommonHelper.assertNotNull("timeUnit", this.timeUnit);
 
-        this.cache = CacheBuilder.newBuilder().maximumSize(this.size)
-                .expireAfterWrite(this.timeout, this.timeUnit).build();
+        val builder = CacheBuilder.newBuilder()
+            .concurrencyLevel(Math.max(1, this.concurrencyLevel))
+            .expireAfterWrite(this.timeout, this.timeUnit);
+        if (this.maximumWeight > 0) {
+            builder.maximumWeight(this.maximumWeight).weigher(this.weigher);
+        } else {
+            builder.maximumSize(this.size);
+        }
+        if (this.accessTimeout > 0) {
+            builder.expireAfterAccess(this.accessTimeout, this.timeUnit);
+        }
+        if (this.recordStats) {
+            builder.recordStats();
+        }
+        if (this.refreshTimeout > 0 && this.loader != null) {
+            builder.refreshAfterWrite(this.refreshTimeout, this.timeUnit);
+            this.cache = builder.build(CacheLoader.asyncReloading(CacheLoader.from(this.loader::apply), this.refreshExecutor));
+        } else {
+            this.cache = builder.build();
+        }
     }
 
     @Override
     protected Optional<O> internalGet(final K key) {
-        return Optional.ofNullable(cache.getIfPresent(key));
+        val value = cache.getIfPresent(key);
+        if (value != null && expiredPredicate != null && expiredPredicate.test(value)) {
+            cache.invalidate(key);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(value);
     }
 
     @Override
@@ -68,4 +166,15 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
     protected void internalRemove(final K key) {
         cache.invalidate(key);
     }
+
+    /**
+     * The statistics of the cache (empty if {@link #recordStats} is disabled).
+     *
+     * @return the statistics of the cache
+     */
+    public CacheStats getStats() {
+        init();
+
+        return cache.stats();
+    }
 }
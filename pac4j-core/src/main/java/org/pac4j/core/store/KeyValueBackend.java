@@ -0,0 +1,81 @@
+package org.pac4j.core.store;
+
+import lombok.val;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A remote key-value backend (database, Redis...) storing binary values, used by the {@link KeyValueStore}.
+ *
+ * The bulk operations should be implemented with batches or pipelines: the default implementations call
+ * the single operations one after the other.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public interface KeyValueBackend {
+
+    /**
+     * Get a value.
+     *
+     * @param key the key
+     * @return the value (if it exists and has not expired)
+     */
+    Optional<byte[]> get(String key);
+
+    /**
+     * Set a value.
+     *
+     * @param key the key
+     * @param value the value
+     * @param timeToLive the time to live of the value (in milliseconds, 0 for no expiration)
+     */
+    void set(String key, byte[] value, long timeToLive);
+
+    /**
+     * Remove a value.
+     *
+     * @param key the key
+     */
+    void remove(String key);
+
+    /**
+     * Get several values.
+     *
+     * @param keys the keys
+     * @return the existing values by key
+     */
+    default Map<String, byte[]> getAll(final Collection<String> keys) {
+        final Map<String, byte[]> values = new HashMap<>();
+        for (val key : keys) {
+            get(key).ifPresent(value -> values.put(key, value));
+        }
+        return values;
+    }
+
+    /**
+     * Set several values.
+     *
+     * @param values the values by key
+     * @param timeToLive the time to live of the values (in milliseconds, 0 for no expiration)
+     */
+    default void setAll(final Map<String, byte[]> values, final long timeToLive) {
+        for (val entry : values.entrySet()) {
+            set(entry.getKey(), entry.getValue(), timeToLive);
+        }
+    }
+
+    /**
+     * Remove several values.
+     *
+     * @param keys the keys
+     */
+    default void removeAll(final Collection<String> keys) {
+        for (val key : keys) {
+            remove(key);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.pac4j.core.store;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Store data in a remote {@link KeyValueBackend} shared by all the nodes of a cluster (for the logout handler,
+ * the CAS proxy granting tickets...).
+ *
+ * The values are serialized in binary (with the {@link #serializer}) and kept in a local near cache during
+ * {@link #nearCacheTimeout} seconds to spare remote calls: the changes made by the other nodes are only seen
+ * after this time.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString(exclude = "nearCache")
+public class KeyValueStore<O> extends AbstractStore<String, O> {
+
+    private KeyValueBackend backend;
+
+    private Serializer serializer = new JavaSerializer();
+
+    /**
+     * The prefix of the keys in the backend.
+     */
+    private String keyPrefix = "";
+
+    /**
+     * The time to live of the values (in seconds, 0 for no expiration).
+     */
+    private int timeout;
+
+    /**
+     * How long the values are kept in the local near cache (in seconds, 0 to disable the near cache).
+     */
+    private int nearCacheTimeout = 1;
+
+    /**
+     * The maximum number of values in the near cache.
+     */
+    private int nearCacheSize = 10_000;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, NearCacheEntry<O>> nearCache = new ConcurrentHashMap<>();
+
+    private record NearCacheEntry<O>(O value, long expiresAt) {}
+
+    public KeyValueStore() {}
+
+    public KeyValueStore(final KeyValueBackend backend, final int timeout) {
+        this.backend = backend;
+        this.timeout = timeout;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("backend", this.backend);
+        CommonHelper.assertNotNull("serializer", this.serializer);
+        CommonHelper.assertNotNull("keyPrefix", this.keyPrefix);
+        CommonHelper.assertTrue(this.timeout >= 0, "timeout cannot be negative");
+        nearCache.clear();
+    }
+
+    @Override
+    protected Optional<O> internalGet(final String key) {
+        val cached = getFromNearCache(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        val bytes = backend.get(keyPrefix + key);
+        if (bytes.isPresent()) {
+            val value = deserialize(bytes.get());
+            if (value != null) {
+                putInNearCache(key, value);
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    protected void internalSet(final String key, final O value) {
+        backend.set(keyPrefix + key, serializer.serializeToBytes(value), TimeUnit.SECONDS.toMillis(timeout));
+        putInNearCache(key, value);
+    }
+
+    @Override
+    protected void internalRemove(final String key) {
+        nearCache.remove(key);
+        backend.remove(keyPrefix + key);
+    }
+
+    /**
+     * Get several values with a single call to the backend (for the values which are not in the near cache).
+     *
+     * @param keys the keys
+     * @return the existing values by key
+     */
+    public Map<String, O> getAll(final Collection<String> keys) {
+        init();
+
+        final Map<String, O> values = new LinkedHashMap<>();
+        final Collection<String> missingKeys = new ArrayList<>();
+        for (val key : keys) {
+            CommonHelper.assertNotNull("key", key);
+            val cached = getFromNearCache(key);
+            if (cached != null) {
+                values.put(key, cached);
+            } else {
+                missingKeys.add(keyPrefix + key);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            for (val entry : backend.getAll(missingKeys).entrySet()) {
+                val key = entry.getKey().substring(keyPrefix.length());
+                val value = deserialize(entry.getValue());
+                if (value != null) {
+                    putInNearCache(key, value);
+                    values.put(key, value);
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Set several values with a single call to the backend.
+     *
+     * @param values the values by key
+     */
+    public void setAll(final Map<String, O> values) {
+        init();
+
+        final Map<String, byte[]> serializedValues = new HashMap<>();
+        for (val entry : values.entrySet()) {
+            CommonHelper.assertNotNull("key", entry.getKey());
+            CommonHelper.assertNotNull("value", entry.getValue());
+            serializedValues.put(keyPrefix + entry.getKey(), serializer.serializeToBytes(entry.getValue()));
+        }
+        backend.setAll(serializedValues, TimeUnit.SECONDS.toMillis(timeout));
+        for (val entry : values.entrySet()) {
+            putInNearCache(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Remove several values with a single call to the backend.
+     *
+     * @param keys the keys
+     */
+    public void removeAll(final Collection<String> keys) {
+        init();
+
+        final Collection<String> prefixedKeys = new ArrayList<>();
+        for (val key : keys) {
+            CommonHelper.assertNotNull("key", key);
+            nearCache.remove(key);
+            prefixedKeys.add(keyPrefix + key);
+        }
+        backend.removeAll(prefixedKeys);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected O deserialize(final byte[] bytes) {
+        return (O) serializer.deserializeFromBytes(bytes);
+    }
+
+    protected O getFromNearCache(final String key) {
+        if (nearCacheTimeout > 0) {
+            val entry = nearCache.get(key);
+            if (entry != null) {
+                if (entry.expiresAt() > System.currentTimeMillis()) {
+                    return entry.value();
+                }
+                nearCache.remove(key, entry);
+            }
+        }
+        return null;
+    }
+
+    protected void putInNearCache(final String key, final O value) {
+        if (nearCacheTimeout > 0) {
+            if (nearCache.size() >= nearCacheSize) {
+                val now = System.currentTimeMillis();
+                nearCache.values().removeIf(entry -> entry.expiresAt() <= now);
+                if (nearCache.size() >= nearCacheSize) {
+                    nearCache.clear();
+                }
+            }
+            var lifetime = TimeUnit.SECONDS.toMillis(nearCacheTimeout);
+            if (timeout > 0) {
+                lifetime = Math.min(lifetime, TimeUnit.SECONDS.toMillis(timeout));
+            }
+            nearCache.put(key, new NearCacheEntry<>(value, System.currentTimeMillis() + lifetime));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.pac4j.core.store;
+
+import com.google.common.cache.Weigher;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+
+/**
+ * A weigher estimating the size of an entry by the size of its serialized value (in bytes).
+ *
+ * Add the <code>guava</code> dependency to use this weigher.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString
+public class SerializedSizeWeigher<K, O> implements Weigher<K, O> {
+
+    private Serializer serializer = new JavaSerializer();
+
+    /**
+     * The weight of a value which cannot be serialized.
+     */
+    private int defaultWeight = 1024;
+
+    public SerializedSizeWeigher() {}
+
+    public SerializedSizeWeigher(final Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public int weigh(final K key, final O value) {
+        val bytes = serializer.serializeToBytes(value);
+        return bytes != null ? bytes.length : defaultWeight;
+    }
+}
@@ -0,0 +1,308 @@
+package org.pac4j.core.store;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Loads the missing values of a {@link Store} so that the concurrent misses for the same key wait for a single load
+ * (single-flight) instead of all calling the loader.
+ *
+ * In addition:
+ * <ul>
+ *     <li>if {@link #refreshAfter} is defined, the first request finding a value loaded more than <code>refreshAfter</code>
+ *     seconds reloads it while the concurrent requests still use the cached value (refresh-ahead). The reload runs on the
+ *     thread of this request, as the loader may use the objects of the request (web context, session store...)</li>
+ *     <li>if {@link #failureTimeout} is defined, the failure of a load is remembered and thrown again for the same key
+ *     during <code>failureTimeout</code> seconds instead of calling the loader again (negative caching).</li>
+ * </ul>
+ *
+ * The requests waiting for a failed load and the requests hitting a remembered failure each get their own exception,
+ * wrapping the failure of the load.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString(of = {"refreshAfter", "failureTimeout"})
+public class SingleFlightLoader<K, V> {
+
+    /**
+     * The age of a value after which it is reloaded by the next request (in seconds, 0 to disable the refresh-ahead).
+     */
+    private int refreshAfter;
+
+    /**
+     * How long the failure of a load is remembered (in seconds, 0 to disable the negative caching).
+     */
+    private int failureTimeout;
+
+    /**
+     * The maximum number of keys for which the load times and the failures are tracked.
+     */
+    private int maxTrackedKeys = 10_000;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<K, CompletableFuture<Optional<V>>> inFlightLoads = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<K, Long> loadTimes = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<K, Failure> failures = new ConcurrentHashMap<>();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder hits = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder misses = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder loads = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder loadTime = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder coalescedWaits = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder failureHits = new LongAdder();
+
+    private record Failure(RuntimeException exception, long expiresAt) {}
+
+    /**
+     * Get the value from the store or load it (and save it in the store).
+     *
+     * @param store the store
+     * @param key the key
+     * @param loader the loader of the value
+     * @return the value
+     */
+    public Optional<V> get(final Store<K, V> store, final K key, final Supplier<Optional<V>> loader) {
+        val failure = failures.get(key);
+        if (failure != null) {
+            if (failure.expiresAt() > System.currentTimeMillis()) {
+                failureHits.increment();
+                throw wrapFailure(failure.exception());
+            }
+            failures.remove(key, failure);
+        }
+
+        val cached = store.get(key);
+        if (cached.isPresent()) {
+            hits.increment();
+            if (isRefreshNeeded(key)) {
+                return refresh(store, key, loader, cached);
+            }
+            return cached;
+        }
+
+        misses.increment();
+        val future = new CompletableFuture<Optional<V>>();
+        val inFlightLoad = inFlightLoads.putIfAbsent(key, future);
+        if (inFlightLoad != null) {
+            coalescedWaits.increment();
+            LOGGER.debug("Waiting for the in-flight load of: {}", key);
+            return join(inFlightLoad);
+        }
+        try {
+            // the value may have been loaded by another thread in the meantime
+            val value = store.get(key);
+            if (value.isPresent()) {
+                future.complete(value);
+                return value;
+            }
+            return load(store, key, loader, future);
+        } catch (final RuntimeException e) {
+            rememberFailure(key, e);
+            throw e;
+        } finally {
+            completeAndRemove(key, future);
+        }
+    }
+
+    protected boolean isRefreshNeeded(final K key) {
+        if (refreshAfter <= 0) {
+            return false;
+        }
+        val loadedAt = loadTimes.get(key);
+        return loadedAt != null && System.currentTimeMillis() - loadedAt >= TimeUnit.SECONDS.toMillis(refreshAfter);
+    }
+
+    protected Optional<V> refresh(final Store<K, V> store, final K key, final Supplier<Optional<V>> loader,
+                                  final Optional<V> cached) {
+        val future = new CompletableFuture<Optional<V>>();
+        // a refresh is already in progress: use the cached value
+        if (inFlightLoads.putIfAbsent(key, future) != null) {
+            return cached;
+        }
+        try {
+            LOGGER.debug("Refreshing the value of: {}", key);
+            val value = load(store, key, loader, future);
+            return value.isPresent() ? value : cached;
+        } catch (final RuntimeException e) {
+            // the cached value is still valid until it expires from the store
+            LOGGER.warn("Cannot refresh the value of: {}, keeping the cached value", key, e);
+            return cached;
+        } finally {
+            completeAndRemove(key, future);
+        }
+    }
+
+    protected Optional<V> load(final Store<K, V> store, final K key, final Supplier<Optional<V>> loader,
+                               final CompletableFuture<Optional<V>> future) {
+        val start = System.nanoTime();
+        try {
+            val value = loader.get();
+            if (value.isPresent()) {
+                store.set(key, value.get());
+                rememberLoadTime(key);
+            }
+            future.complete(value);
+            return value;
+        } catch (final RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.increment();
+            loadTime.add(System.nanoTime() - start);
+        }
+    }
+
+    protected Optional<V> join(final CompletableFuture<Optional<V>> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw wrapFailure(runtimeException);
+            }
+            throw new TechnicalException(e.getCause());
+        }
+    }
+
+    /**
+     * Build the exception thrown to a request for the failure of a load shared with other requests
+     * (the credentials exceptions are kept as credentials exceptions).
+     *
+     * @param e the failure of the load
+     * @return the exception for the request
+     */
+    protected RuntimeException wrapFailure(final RuntimeException e) {
+        if (e instanceof CredentialsException) {
+            return new CredentialsException(e.getMessage(), e);
+        }
+        return new TechnicalException(e.getMessage(), e);
+    }
+
+    private void completeAndRemove(final K key, final CompletableFuture<Optional<V>> future) {
+        // never leave the waiting requests blocked, even on an Error
+        if (!future.isDone()) {
+            future.completeExceptionally(new TechnicalException("Cannot load the value of: " + key));
+        }
+        inFlightLoads.remove(key, future);
+    }
+
+    private void rememberLoadTime(final K key) {
+        if (refreshAfter > 0) {
+            if (loadTimes.size() >= maxTrackedKeys) {
+                evictOldest(loadTimes, Long::longValue);
+            }
+            loadTimes.put(key, System.currentTimeMillis());
+        }
+    }
+
+    private void rememberFailure(final K key, final RuntimeException e) {
+        if (failureTimeout > 0) {
+            val now = System.currentTimeMillis();
+            if (failures.size() >= maxTrackedKeys) {
+                failures.values().removeIf(f -> f.expiresAt() <= now);
+                if (failures.size() >= maxTrackedKeys) {
+                    evictOldest(failures, Failure::expiresAt);
+                }
+            }
+            failures.put(key, new Failure(e, now + TimeUnit.SECONDS.toMillis(failureTimeout)));
+        }
+    }
+
+    /**
+     * Remove the oldest tenth of the entries (at least one), so that the eviction cost is spread over many insertions.
+     */
+    private <T> void evictOldest(final Map<K, T> map, final ToLongFunction<T> time) {
+        val entries = new ArrayList<>(map.entrySet());
+        entries.sort((e1, e2) -> Long.compare(time.applyAsLong(e1.getValue()), time.applyAsLong(e2.getValue())));
+        val toEvict = Math.max(1, entries.size() / 10);
+        for (var i = 0; i < toEvict && i < entries.size(); i++) {
+            val entry = entries.get(i);
+            map.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Forget the load time and the failure of a key.
+     *
+     * @param key the key
+     */
+    public void forget(final K key) {
+        loadTimes.remove(key);
+        failures.remove(key);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * The total time spent in the loads (in milliseconds).
+     *
+     * @return the total load time
+     */
+    public long getLoadTime() {
+        return TimeUnit.NANOSECONDS.toMillis(loadTime.sum());
+    }
+
+    public long getCoalescedWaits() {
+        return coalescedWaits.sum();
+    }
+
+    public long getFailureHits() {
+        return failureHits.sum();
+    }
+}
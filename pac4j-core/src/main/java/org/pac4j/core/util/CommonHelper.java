@@ -2,6 +2,7 @@ package org.pac4j.core.util;
 
 import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.generator.SecureRandomTokenGenerator;
 
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Constructor;
@@ -9,9 +10,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -99,6 +102,31 @@ public final class CommonHelper {
         return !isEmpty(coll);
     }
 
+    /**
+     * Split a collection into lists of a maximum size (to send it in batches).
+     *
+     * @param coll a collection
+     * @param size the maximum size of the lists
+     * @param <T> the type of the elements
+     * @return the lists
+     */
+    public static <T> List<List<T>> partition(final Collection<T> coll, final int size) {
+        assertTrue(size > 0, "size must be greater than zero");
+        final List<List<T>> lists = new ArrayList<>();
+        List<T> list = new ArrayList<>();
+        for (val element : coll) {
+            list.add(element);
+            if (list.size() == size) {
+                lists.add(list);
+                list = new ArrayList<>();
+            }
+        }
+        if (!list.isEmpty()) {
+            lists.add(list);
+        }
+        return lists;
+    }
+
     /**
      * Verify that a boolean is true otherwise throw a {@link TechnicalException}.
      *
@@ -197,18 +225,13 @@ public final class CommonHelper {
     }
 
     /**
-     * Return a random string of a certain size.
+     * Return a random string of a certain size (lowercase hexadecimal characters).
      *
      * @param size the size
      * @return the random size
      */
     public static String randomString(final int size) {
-        val builder = new StringBuilder();
-        while (builder.length() < size) {
-            val suffix = java.util.UUID.randomUUID().toString().replace("-", Pac4jConstants.EMPTY_STRING);
-            builder.append(suffix);
-        }
-        return builder.substring(0, size);
+        return SecureRandomTokenGenerator.generateHex(size);
     }
 
     /**
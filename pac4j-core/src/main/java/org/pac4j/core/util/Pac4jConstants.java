@@ -14,6 +14,9 @@ public interface Pac4jConstants {
     /* User profiles object saved in session */
     String USER_PROFILES = "pac4jUserProfiles";
 
+    /* Request cache of the user profiles saved in session */
+    String USER_PROFILES_SESSION_CACHE = "pac4jUserProfilesSessionCache";
+
     /* CSRF token name saved in session */
     String PREVIOUS_CSRF_TOKEN = "pac4jPreviousCsrfToken";
     String CSRF_TOKEN = "pac4jCsrfToken";
@@ -0,0 +1,55 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor shared by the background tasks of pac4j (asynchronous reloads of cache entries, keys...):
+ * a bounded pool of {@link #MAX_THREADS} daemon threads (stopped when idle) with a queue of {@link #QUEUE_SIZE} tasks.
+ *
+ * A task submitted when the queue is full is rejected with a {@link RejectedExecutionException}:
+ * the callers keep their current data and retry later.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SharedExecutor {
+
+    /** The maximum number of threads. */
+    public static final int MAX_THREADS = 4;
+
+    /** The maximum number of waiting tasks. */
+    public static final int QUEUE_SIZE = 1000;
+
+    private static final ExecutorService INSTANCE = build();
+
+    private SharedExecutor() {}
+
+    /**
+     * Return the shared executor (it must not be shut down).
+     *
+     * @return the shared executor
+     */
+    public static ExecutorService getInstance() {
+        return INSTANCE;
+    }
+
+    private static ExecutorService build() {
+        val counter = new AtomicInteger();
+        val executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(QUEUE_SIZE), task -> {
+                val thread = new Thread(task, "pac4j-background-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return Executors.unconfigurableExecutorService(executor);
+    }
+}
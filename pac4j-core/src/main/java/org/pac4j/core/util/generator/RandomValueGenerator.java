@@ -5,7 +5,7 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.util.CommonHelper;
 
 /**
- * Value generator which returns a random value.
+ * Value generator which returns a random value (generated by the {@link SecureRandomTokenGenerator}).
  *
  * @author Jerome Leleu
  * @since 4.0.0
@@ -24,7 +24,7 @@ public class RandomValueGenerator implements ValueGenerator {
 
     @Override
     public String generateValue(final WebContext webContext, final SessionStore sessionStore) {
-        return CommonHelper.randomString(size);
+        return SecureRandomTokenGenerator.generateHex(size);
     }
 
     public int getSize() {
@@ -0,0 +1,521 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.profile.BasicUserProfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary serializer for the user profiles ({@link BasicUserProfile} and its subclasses), the maps of profiles
+ * (like the profiles saved in session) and the common attribute values.
+ *
+ * The profiles are written through their <code>writeExternal</code> / <code>readExternal</code> methods, the attribute names
+ * and the profile class names are interned through a dictionary, the lengths are varints and the <code>String</code>,
+ * <code>Long</code>, <code>Integer</code>, <code>Double</code>, <code>Boolean</code>, <code>Date</code>, <code>URI</code>,
+ * <code>Collection</code> and <code>Map</code> values have fixed type tags. The other values are serialized by the
+ * {@link #javaSerializer} (and its trusted packages and classes), which must also trust the profile classes.
+ *
+ * The serialized values are compressed above the {@link #compressionThreshold}. The profiles are length-prefixed so that
+ * the fields added by newer versions are skipped, while the missing fields are read as <code>null</code>.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Slf4j
+@Getter
+@Setter
+@ToString
+public class BinaryProfileSerializer extends AbstractSerializer {
+
+    private static final int MAGIC = 0xB7;
+
+    private static final int VERSION = 1;
+
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int HEADER_SIZE = 3;
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int LONG = 2;
+    private static final int INTEGER = 3;
+    private static final int TRUE = 4;
+    private static final int FALSE = 5;
+    private static final int DOUBLE = 6;
+    private static final int DATE = 7;
+    private static final int URI_VALUE = 8;
+    private static final int LIST = 9;
+    private static final int SET = 10;
+    private static final int MAP = 11;
+    private static final int PROFILE = 12;
+    private static final int JAVA = 13;
+
+    /**
+     * The predefined names (attribute names, profile class names): only append new names to keep the compatibility.
+     */
+    private static final List<String> DICTIONARY = List.of(
+        "org.pac4j.core.profile.BasicUserProfile", "org.pac4j.core.profile.CommonProfile",
+        "org.pac4j.core.profile.AnonymousProfile", "org.pac4j.oidc.profile.OidcProfile", "org.pac4j.saml.profile.SAML2Profile",
+        "org.pac4j.cas.profile.CasProfile", "org.pac4j.jwt.profile.JwtProfile", "org.pac4j.oauth.profile.OAuth20Profile",
+        "org.pac4j.http.profile.RestProfile",
+        "email", "first_name", "family_name", "display_name", "gender", "locale", "picture_url", "profile_url", "location",
+        "access_token", "id_token", "refresh_token", "token_type", "expiration", "expires_in", "scope",
+        "sub", "iss", "aud", "exp", "iat", "nbf", "jti", "auth_time", "nonce", "acr", "amr", "azp", "sid",
+        "name", "given_name", "middle_name", "nickname", "preferred_username", "picture", "profile", "website",
+        "email_verified", "phone_number", "phone_number_verified", "address", "birthdate", "zoneinfo", "updated_at",
+        "username", "roles", "groups", "memberOf");
+
+    private static final Map<String, Integer> DICTIONARY_INDEXES = new HashMap<>();
+
+    static {
+        for (var i = 0; i < DICTIONARY.size(); i++) {
+            DICTIONARY_INDEXES.put(DICTIONARY.get(i), i);
+        }
+    }
+
+    /**
+     * The size above which the serialized values are compressed (in bytes, 0 to disable the compression).
+     */
+    private int compressionThreshold = 1024;
+
+    /**
+     * The maximum size of a serialized value (in bytes), before and after decompression.
+     */
+    private int maxSize = 1024 * 1024;
+
+    /**
+     * The maximum depth of nested collections, maps and profiles.
+     */
+    private int maxDepth = 32;
+
+    /**
+     * The serializer of the values without type tag. Its trusted packages and classes are also used for the profile classes.
+     */
+    private JavaSerializer javaSerializer = new JavaSerializer();
+
+    @Override
+    protected byte[] internalSerializeToBytes(final Object obj) {
+        try (val output = new Output(new HashMap<>(), 0)) {
+            output.writeValue(obj);
+            var body = output.toByteArray();
+            var flags = 0;
+            if (compressionThreshold > 0 && body.length > compressionThreshold) {
+                val compressed = deflate(body);
+                if (compressed.length < body.length) {
+                    body = compressed;
+                    flags |= FLAG_COMPRESSED;
+                }
+            }
+            val bytes = new byte[HEADER_SIZE + body.length];
+            bytes[0] = (byte) MAGIC;
+            bytes[1] = VERSION;
+            bytes[2] = (byte) flags;
+            System.arraycopy(body, 0, bytes, HEADER_SIZE, body.length);
+            return bytes;
+        } catch (final IOException | RuntimeException e) {
+            LOGGER.warn("cannot binary serialize object", e);
+            return null;
+        }
+    }
+
+    @Override
+    protected Object internalDeserializeFromBytes(final byte[] bytes) {
+        try {
+            if (bytes.length < HEADER_SIZE || (bytes[0] & 0xFF) != MAGIC) {
+                throw new IOException("Not a binary serialized value");
+            }
+            if (bytes[1] > VERSION || bytes[1] < 1) {
+                throw new IOException("Unsupported binary serialization version: " + bytes[1]);
+            }
+            if (bytes.length > maxSize) {
+                throw new IOException("Serialized value too large: " + bytes.length + " bytes");
+            }
+            if ((bytes[2] & FLAG_COMPRESSED) != 0) {
+                val body = inflate(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+                return readFully(body, 0, body.length);
+            }
+            return readFully(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+        } catch (final IOException | ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("cannot binary deserialize object", e);
+            return null;
+        }
+    }
+
+    private Object readFully(final byte[] bytes, final int offset, final int length)
+        throws IOException, ReflectiveOperationException {
+        try (val input = new Input(bytes, offset, length, new ArrayList<>(), 0)) {
+            val value = input.readValue(0);
+            if (input.available() > 0) {
+                throw new IOException("Unexpected trailing bytes");
+            }
+            return value;
+        }
+    }
+
+    protected Class<?> resolveProfileClass(final String className) throws IOException, ClassNotFoundException {
+        val trusted = javaSerializer.getTrustedClasses().stream().anyMatch(c -> c.getName().equals(className))
+            || javaSerializer.getTrustedPackages().stream().anyMatch(className::startsWith);
+        if (!trusted) {
+            throw new IOException("Untrusted profile class: " + className);
+        }
+        var classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = BasicUserProfile.class.getClassLoader();
+        }
+        val clazz = Class.forName(className, false, classLoader);
+        if (!BasicUserProfile.class.isAssignableFrom(clazz)) {
+            throw new IOException("Not a profile class: " + className);
+        }
+        return clazz;
+    }
+
+    private static byte[] deflate(final byte[] bytes) {
+        val deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            val out = new ByteArrayOutputStream(bytes.length / 2);
+            val buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(final byte[] bytes, final int offset, final int length) throws IOException {
+        val inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, offset, length);
+            val out = new ByteArrayOutputStream(length * 4);
+            val buffer = new byte[4096];
+            while (!inflater.finished()) {
+                val n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated compressed value");
+                }
+                if (out.size() + n > maxSize) {
+                    throw new IOException("Decompressed value too large (more than " + maxSize + " bytes)");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * The binary output (also used by the profiles to write their fields).
+     */
+    private final class Output extends DataOutputStream implements ObjectOutput {
+
+        private final Map<String, Integer> names;
+
+        private final int depth;
+
+        private Output(final Map<String, Integer> names, final int depth) {
+            super(new ByteArrayOutputStream());
+            this.names = names;
+            this.depth = depth;
+        }
+
+        private byte[] toByteArray() {
+            return ((ByteArrayOutputStream) out).toByteArray();
+        }
+
+        @Override
+        public void writeObject(final Object obj) throws IOException {
+            writeValue(obj);
+        }
+
+        private void writeValue(final Object value) throws IOException {
+            if (value == null) {
+                write(NULL);
+            } else if (value instanceof String s) {
+                write(STRING);
+                writeString(s);
+            } else if (value.getClass() == Long.class) {
+                write(LONG);
+                writeVarLong(zigzag((Long) value));
+            } else if (value.getClass() == Integer.class) {
+                write(INTEGER);
+                writeVarLong(zigzag((Integer) value));
+            } else if (value instanceof Boolean b) {
+                write(b ? TRUE : FALSE);
+            } else if (value.getClass() == Double.class) {
+                write(DOUBLE);
+                writeDouble((Double) value);
+            } else if (value.getClass() == Date.class) {
+                write(DATE);
+                writeVarLong(zigzag(((Date) value).getTime()));
+            } else if (value instanceof URI uri) {
+                write(URI_VALUE);
+                writeString(uri.toString());
+            } else if (value instanceof BasicUserProfile profile) {
+                checkDepth();
+                // the class name is interned before the names of the fields, in the order of the stream
+                write(PROFILE);
+                writeName(profile.getClass().getName());
+                try (val fields = new Output(names, depth + 1)) {
+                    profile.writeExternal(fields);
+                    val bytes = fields.toByteArray();
+                    writeVarLong(bytes.length);
+                    write(bytes);
+                }
+            } else if (value instanceof Map<?, ?> map && hasStringKeys(map)) {
+                checkDepth();
+                try (val entries = new Output(names, depth + 1)) {
+                    for (val entry : map.entrySet()) {
+                        entries.writeName((String) entry.getKey());
+                        entries.writeValue(entry.getValue());
+                    }
+                    write(MAP);
+                    writeVarLong(map.size());
+                    ((ByteArrayOutputStream) entries.out).writeTo(this);
+                }
+            } else if (value instanceof Collection<?> collection) {
+                checkDepth();
+                try (val elements = new Output(names, depth + 1)) {
+                    for (val element : collection) {
+                        elements.writeValue(element);
+                    }
+                    write(value instanceof Set ? SET : LIST);
+                    writeVarLong(collection.size());
+                    ((ByteArrayOutputStream) elements.out).writeTo(this);
+                }
+            } else {
+                val bytes = javaSerializer.serializeToBytes(value);
+                if (bytes == null) {
+                    throw new IOException("Cannot serialize value of type: " + value.getClass().getName());
+                }
+                write(JAVA);
+                writeVarLong(bytes.length);
+                write(bytes);
+            }
+        }
+
+        private void checkDepth() throws IOException {
+            if (depth >= maxDepth) {
+                throw new IOException("Maximum depth reached: " + maxDepth);
+            }
+        }
+
+        private void writeName(final String name) throws IOException {
+            var index = DICTIONARY_INDEXES.get(name);
+            if (index == null) {
+                index = names.get(name);
+            }
+            if (index != null) {
+                writeVarLong(index + 1L);
+            } else {
+                names.put(name, DICTIONARY.size() + names.size());
+                writeVarLong(0);
+                writeString(name);
+            }
+        }
+
+        private void writeString(final String s) throws IOException {
+            val bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            write(bytes);
+        }
+
+        private void writeVarLong(final long value) throws IOException {
+            var v = value;
+            while ((v & ~0x7FL) != 0) {
+                write((int) (v & 0x7F | 0x80));
+                v >>>= 7;
+            }
+            write((int) v);
+        }
+    }
+
+    /**
+     * The binary input (also used by the profiles to read their fields).
+     */
+    private final class Input extends DataInputStream implements ObjectInput {
+
+        private final List<String> names;
+
+        private final int depth;
+
+        private Input(final byte[] bytes, final int offset, final int length, final List<String> names, final int depth) {
+            super(new ByteArrayInputStream(bytes, offset, length));
+            this.names = names;
+            this.depth = depth;
+        }
+
+        /**
+         * Read a value: <code>null</code> at the end of the profile fields (fields missing in older versions).
+         */
+        @Override
+        public Object readObject() throws IOException {
+            if (available() == 0) {
+                return null;
+            }
+            try {
+                return readValue(depth);
+            } catch (final ReflectiveOperationException e) {
+                throw new IOException(e);
+            }
+        }
+
+        private Object readValue(final int currentDepth) throws IOException, ReflectiveOperationException {
+            val tag = readUnsignedByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString();
+                case LONG:
+                    return unzigzag(readVarLong());
+                case INTEGER:
+                    return (int) unzigzag(readVarLong());
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case DOUBLE:
+                    return readDouble();
+                case DATE:
+                    return new Date(unzigzag(readVarLong()));
+                case URI_VALUE:
+                    return URI.create(readString());
+                case LIST:
+                case SET:
+                    checkDepth(currentDepth);
+                    val size = readSize();
+                    final Collection<Object> collection = tag == SET ? new LinkedHashSet<>() : new ArrayList<>(size);
+                    for (var i = 0; i < size; i++) {
+                        collection.add(readValue(currentDepth + 1));
+                    }
+                    return collection;
+                case MAP:
+                    checkDepth(currentDepth);
+                    val nbEntries = readSize();
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    for (var i = 0; i < nbEntries; i++) {
+                        val key = readName();
+                        map.put(key, readValue(currentDepth + 1));
+                    }
+                    return map;
+                case PROFILE:
+                    checkDepth(currentDepth);
+                    val clazz = resolveProfileClass(readName());
+                    val fields = readNBytes(readSize());
+                    val profile = (BasicUserProfile) clazz.getDeclaredConstructor().newInstance();
+                    try (val fieldsInput = new Input(fields, 0, fields.length, names, currentDepth + 1)) {
+                        profile.readExternal(fieldsInput);
+                        // skip the fields added by newer versions
+                        while (fieldsInput.available() > 0) {
+                            fieldsInput.readValue(currentDepth + 1);
+                        }
+                    }
+                    return profile;
+                case JAVA:
+                    val value = javaSerializer.deserializeFromBytes(readNBytes(readSize()));
+                    if (value == null) {
+                        throw new IOException("Cannot deserialize Java value");
+                    }
+                    return value;
+                default:
+                    throw new IOException("Unknown type tag: " + tag);
+            }
+        }
+
+        private void checkDepth(final int currentDepth) throws IOException {
+            if (currentDepth >= maxDepth) {
+                throw new IOException("Maximum depth reached: " + maxDepth);
+            }
+        }
+
+        private String readName() throws IOException {
+            val index = readVarLong();
+            if (index == 0) {
+                val name = readString();
+                names.add(name);
+                return name;
+            }
+            val i = index - 1;
+            if (i < DICTIONARY.size()) {
+                return DICTIONARY.get((int) i);
+            } else if (i < DICTIONARY.size() + names.size()) {
+                return names.get((int) i - DICTIONARY.size());
+            }
+            throw new IOException("Unknown name index: " + index);
+        }
+
+        private String readString() throws IOException {
+            return new String(readNBytes(readSize()), StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Read a size, which cannot exceed the remaining bytes (each element takes at least one byte).
+         */
+        private int readSize() throws IOException {
+            val size = readVarLong();
+            if (size > available()) {
+                throw new IOException("Invalid size: " + size);
+            }
+            return (int) size;
+        }
+
+        private long readVarLong() throws IOException {
+            var value = 0L;
+            for (var shift = 0; shift < 64; shift += 7) {
+                val b = readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Invalid varint");
+        }
+    }
+
+    private static boolean hasStringKeys(final Map<?, ?> map) {
+        for (val key : map.keySet()) {
+            if (!(key instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long zigzag(final long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(final long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
@@ -10,6 +10,7 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.matching.matcher.csrf.DefaultCsrfTokenGenerator;
+import org.pac4j.core.matching.matcher.csrf.SignedCsrfTokenGenerator;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 
@@ -144,4 +145,20 @@ public final class CsrfAuthorizerTests implements TestsConstants {
         sessionStore.set(context, Pac4jConstants.CSRF_TOKEN_EXPIRATION_DATE, expirationDate);
         Assert.assertFalse(authorizer.isAuthorized(context, sessionStore, null));
     }
+
+    @Test
+    public void testSignedToken() {
+        val generator = new SignedCsrfTokenGenerator(SECRET);
+        final SessionStore sessionStore = new MockSessionStore();
+        val token = generator.get(MockWebContext.create(), sessionStore);
+        authorizer = new CsrfAuthorizer(generator);
+        authorizer.setCheckAllRequests(true);
+        Assert.assertTrue(authorizer.isAuthorized(MockWebContext.create().addRequestHeader(Pac4jConstants.CSRF_TOKEN, token),
+            sessionStore, null));
+        Assert.assertTrue(authorizer.isAuthorized(MockWebContext.create().addRequestParameter(Pac4jConstants.CSRF_TOKEN, token),
+            sessionStore, null));
+        Assert.assertFalse(authorizer.isAuthorized(MockWebContext.create().addRequestParameter(Pac4jConstants.CSRF_TOKEN, VALUE),
+            sessionStore, null));
+        Assert.assertFalse(sessionStore.get(null, Pac4jConstants.PREVIOUS_CSRF_TOKEN).isPresent());
+    }
 }
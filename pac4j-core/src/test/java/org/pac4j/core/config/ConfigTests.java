@@ -8,13 +8,18 @@ import org.pac4j.core.client.MockIndirectClient;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.matching.matcher.CacheControlMatcher;
+import org.pac4j.core.matching.matcher.Matcher;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
 
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests the {@link Config}.
@@ -66,4 +71,40 @@ public final class ConfigTests implements TestsConstants {
         assertEquals(1, config.getMatchers().size());
         assertEquals(matcher, config.getMatchers().get(NAME));
     }
+
+    @Test
+    public void testAuthorizersAndMatchersAreReadOnly() {
+        val config = new Config().addAuthorizer(NAME, new RequireAnyRoleAuthorizer()).addMatcher(NAME, new CacheControlMatcher());
+        val generation = config.getGeneration();
+        assertTrue(TestsHelper.expectException(() -> config.getAuthorizers().put(KEY, new RequireAnyRoleAuthorizer()))
+            instanceof UnsupportedOperationException);
+        assertTrue(TestsHelper.expectException(() -> config.getMatchers().clear()) instanceof UnsupportedOperationException);
+        assertEquals(generation, config.getGeneration());
+    }
+
+    @Test
+    public void testSetAuthorizersAndMatchersCopyTheMaps() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        final Map<String, Matcher> matchers = new HashMap<>();
+        val config = new Config().setAuthorizers(authorizers).setMatchers(matchers);
+        val generation = config.getGeneration();
+        authorizers.put(NAME, new RequireAnyRoleAuthorizer());
+        matchers.put(NAME, new CacheControlMatcher());
+        assertTrue(config.getAuthorizers().isEmpty());
+        assertTrue(config.getMatchers().isEmpty());
+
+        config.addMatcher(NAME, new CacheControlMatcher());
+        assertNotEquals(generation, config.getGeneration());
+    }
+
+    @Test
+    public void testWithAuthorizersAndMatchersCopyTheMaps() {
+        final Map<String, Authorizer> authorizers = new HashMap<>();
+        final Map<String, Matcher> matchers = new HashMap<>();
+        val config = new Config().withAuthorizers(authorizers).withMatchers(matchers);
+        authorizers.put(NAME, new RequireAnyRoleAuthorizer());
+        matchers.put(NAME, new CacheControlMatcher());
+        assertTrue(config.getAuthorizers().isEmpty());
+        assertTrue(config.getMatchers().isEmpty());
+    }
 }
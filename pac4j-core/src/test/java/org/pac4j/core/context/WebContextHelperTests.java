@@ -0,0 +1,54 @@
+package org.pac4j.core.context;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link WebContextHelper}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class WebContextHelperTests implements TestsConstants {
+
+    private static final String CONTENT = "first line\nsecond line\n";
+
+    private static final byte[] CONTENT_BYTES = CONTENT.getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testReadRequestContent() throws IOException {
+        assertArrayEquals(CONTENT_BYTES, WebContextHelper.readRequestContent(new ByteArrayInputStream(CONTENT_BYTES), -1, 100));
+        assertArrayEquals(CONTENT_BYTES, WebContextHelper.readRequestContent(new ByteArrayInputStream(CONTENT_BYTES),
+            CONTENT_BYTES.length, CONTENT_BYTES.length));
+        assertEquals(0, WebContextHelper.readRequestContent(null, -1, 100).length);
+    }
+
+    @Test
+    public void testRequestContentTooLarge() {
+        val e1 = TestsHelper.expectException(() ->
+            WebContextHelper.readRequestContent(new ByteArrayInputStream(CONTENT_BYTES), CONTENT_BYTES.length, 10));
+        assertTrue(e1 instanceof TechnicalException);
+        // wrong content length
+        val e2 = TestsHelper.expectException(() ->
+            WebContextHelper.readRequestContent(new ByteArrayInputStream(CONTENT_BYTES), 5, 10));
+        assertTrue(e2 instanceof TechnicalException);
+    }
+
+    @Test
+    public void testDefaultRequestContentViews() throws IOException {
+        val context = MockWebContext.create();
+        context.setRequestContent(CONTENT);
+        assertEquals(CONTENT_BYTES.length, context.getRequestContentBuffer().remaining());
+        assertTrue(context.getRequestContentBuffer().isReadOnly());
+        assertArrayEquals(CONTENT_BYTES, context.getRequestContentStream().readAllBytes());
+    }
+}
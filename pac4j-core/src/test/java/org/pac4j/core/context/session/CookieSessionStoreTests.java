@@ -0,0 +1,223 @@
+package org.pac4j.core.context.session;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileManager;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CookieSessionStore}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class CookieSessionStoreTests implements TestsConstants {
+
+    private static final String SECRET1 = "a secret for the cookies of the sessions";
+
+    private static final String SECRET2 = "another secret for the cookies of the sessions";
+
+    private final CookieSessionStore sessionStore = new CookieSessionStore(SECRET1);
+
+    private static MockWebContext nextRequest(final MockWebContext previous) {
+        val context = MockWebContext.create();
+        for (val cookie : previous.getResponseCookies()) {
+            context.getRequestCookies().removeIf(c -> c.getName().equals(cookie.getName()));
+            if (cookie.getMaxAge() != 0) {
+                context.getRequestCookies().add(cookie);
+            }
+        }
+        return context;
+    }
+
+    private static List<Cookie> liveCookies(final MockWebContext context) {
+        return context.getResponseCookies().stream().filter(c -> c.getMaxAge() != 0).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testMissingSecrets() {
+        TestsHelper.expectException(() -> new CookieSessionStore().get(MockWebContext.create(), KEY), TechnicalException.class,
+            "secrets cannot be empty");
+    }
+
+    @Test
+    public void testShortSecret() {
+        TestsHelper.expectException(() -> new CookieSessionStore(SECRET).get(MockWebContext.create(), KEY), TechnicalException.class,
+            "secrets must be at least 32 characters long");
+    }
+
+    @Test
+    public void testRoundTrip() {
+        val context = MockWebContext.create();
+        assertTrue(sessionStore.getSessionId(context, false).isEmpty());
+        assertTrue(sessionStore.get(context, KEY).isEmpty());
+        assertTrue(context.getResponseCookies().isEmpty());
+
+        sessionStore.set(context, KEY, VALUE);
+        val sessionId = sessionStore.getSessionId(context, false).get();
+        val cookie = context.getResponseCookies().iterator().next();
+        assertEquals("pac4jSession0", cookie.getName());
+        assertTrue(cookie.isSecure());
+        assertTrue(cookie.isHttpOnly());
+        assertFalse(cookie.getValue().contains(VALUE));
+
+        val context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        assertEquals(sessionId, sessionStore.getSessionId(context2, false).get());
+    }
+
+    @Test
+    public void testWriteOnlyWhenChanged() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        val context2 = nextRequest(context);
+        sessionStore.set(context2, KEY, VALUE);
+        sessionStore.set(context2, NAME, null);
+        assertTrue(context2.getResponseCookies().isEmpty());
+        sessionStore.set(context2, NAME, VALUE);
+        assertEquals(1, context2.getResponseCookies().size());
+    }
+
+    @Test
+    public void testDeferredWrites() {
+        val context = MockWebContext.create();
+        sessionStore.deferWrites(context);
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, NAME, VALUE);
+        sessionStore.renewSession(context);
+        assertTrue(context.getResponseCookies().isEmpty());
+        sessionStore.flushWrites(context);
+        assertEquals(1, context.getResponseCookies().size());
+        sessionStore.flushWrites(context);
+        assertEquals(1, context.getResponseCookies().size());
+
+        val context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        assertEquals(VALUE, sessionStore.get(context2, NAME).get());
+        // not deferred anymore
+        sessionStore.set(context, KEY, null);
+        assertEquals(2, context.getResponseCookies().size());
+    }
+
+    @Test
+    public void testProfiles() {
+        val context = MockWebContext.create();
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(NAME, VALUE);
+        new ProfileManager(context, sessionStore).save(true, profile, false);
+        val restored = new ProfileManager(nextRequest(context), sessionStore).getProfile(CommonProfile.class).get();
+        assertEquals(ID, restored.getId());
+        assertEquals(VALUE, restored.getAttribute(NAME));
+    }
+
+    @Test
+    public void testChunks() {
+        sessionStore.setMaxCookieSize(100);
+        val context = MockWebContext.create();
+        val value = new StringBuilder();
+        for (var i = 0; i < 50; i++) {
+            value.append(i).append(VALUE).append(Integer.toHexString(i * 7919));
+        }
+        sessionStore.set(context, KEY, value.toString());
+        assertTrue(liveCookies(context).size() > 3);
+
+        val context2 = nextRequest(context);
+        assertEquals(value.toString(), sessionStore.get(context2, KEY).get());
+        sessionStore.set(context2, KEY, VALUE);
+        val nbCookies = liveCookies(context2).size();
+        assertTrue(nbCookies < context2.getRequestCookies().size());
+        assertEquals(context2.getRequestCookies().size() - nbCookies,
+            context2.getResponseCookies().stream().filter(c -> c.getMaxAge() == 0).count());
+
+        val context3 = nextRequest(context2);
+        assertEquals(VALUE, sessionStore.get(context3, KEY).get());
+    }
+
+    @Test
+    public void testTooLarge() {
+        sessionStore.setMaxCookieSize(10);
+        sessionStore.setMaxCookies(2);
+        val e = TestsHelper.expectException(() -> sessionStore.set(MockWebContext.create(), KEY, VALUE));
+        assertTrue(e instanceof TechnicalException);
+    }
+
+    @Test
+    public void testKeyRotation() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+
+        val rotated = new CookieSessionStore(SECRET2, SECRET1);
+        assertEquals(VALUE, rotated.get(nextRequest(context), KEY).get());
+        val context2 = nextRequest(context);
+        rotated.set(context2, NAME, VALUE);
+        assertTrue(sessionStore.get(nextRequest(context2), KEY).isEmpty());
+        assertEquals(VALUE, new CookieSessionStore(SECRET2).get(nextRequest(context2), KEY).get());
+    }
+
+    @Test
+    public void testTamperedCookie() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        val cookie = context.getResponseCookies().iterator().next();
+        val value = cookie.getValue();
+        val tampered = value.substring(0, 30) + (value.charAt(30) == 'A' ? 'B' : 'A') + value.substring(31);
+        val context2 = MockWebContext.create();
+        context2.getRequestCookies().add(new Cookie(cookie.getName(), tampered));
+        assertTrue(sessionStore.get(context2, KEY).isEmpty());
+        val context3 = MockWebContext.create();
+        context3.getRequestCookies().add(new Cookie(cookie.getName(), VALUE));
+        assertTrue(sessionStore.get(context3, KEY).isEmpty());
+    }
+
+    @Test
+    public void testExpiration() {
+        sessionStore.setTimeout(1);
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        TestsHelper.wait(1100);
+        assertTrue(sessionStore.get(nextRequest(context), KEY).isEmpty());
+    }
+
+    @Test
+    public void testDestroyAndRenew() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        val context2 = nextRequest(context);
+        val sessionId = sessionStore.getSessionId(context2, false).get();
+        assertTrue(sessionStore.renewSession(context2));
+        assertNotEquals(sessionId, sessionStore.getSessionId(context2, false).get());
+        assertEquals(VALUE, sessionStore.get(nextRequest(context2), KEY).get());
+
+        val context3 = nextRequest(context2);
+        assertTrue(sessionStore.destroySession(context3));
+        assertTrue(liveCookies(context3).isEmpty());
+        assertTrue(sessionStore.get(nextRequest(context3), KEY).isEmpty());
+    }
+
+    @Test
+    public void testBackChannelLogout() {
+        val context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        assertTrue(sessionStore.getTrackableSession(context).isEmpty());
+
+        sessionStore.setRevokedSessions(new GuavaStore<>(100, 60, java.util.concurrent.TimeUnit.SECONDS));
+        val trackableSession = sessionStore.getTrackableSession(context).get();
+        val logoutContext = MockWebContext.create();
+        val trackedStore = sessionStore.buildFromTrackableSession(logoutContext, trackableSession).get();
+        new ProfileManager(logoutContext, trackedStore).removeProfiles();
+
+        assertTrue(sessionStore.get(nextRequest(context), KEY).isEmpty());
+    }
+}
@@ -8,12 +8,18 @@ import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
 import org.pac4j.core.exception.CredentialsException;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsHelper;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Test cases for {@link LocalCachingAuthenticator}.
@@ -137,6 +143,107 @@ public class LocalCachingAuthenticatorTests {
         assertFalse(authenticator.isCached(this.credentials));
     }
 
+    @Test
+    public void testConcurrentMissesCallTheDelegateOnce() throws Exception {
+        val calls = new AtomicInteger();
+        val latch = new CountDownLatch(1);
+        final Authenticator slowDelegate = (credentials, context, sessionStore) -> {
+            calls.incrementAndGet();
+            try {
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+            } catch (final InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            credentials.setUserProfile(new CommonProfile());
+            return Optional.of(credentials);
+        };
+        val authenticator = new LocalCachingAuthenticator(slowDelegate, 10, 10, TimeUnit.SECONDS);
+        authenticator.init();
+
+        val executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Optional<Credentials>>> results = new ArrayList<>();
+            for (var i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> authenticator.validate(new UsernamePasswordCredentials("a", "a"), null, null)));
+            }
+            while (authenticator.getCoalescedWaits() < 3) {
+                Thread.sleep(10);
+            }
+            latch.countDown();
+            for (val result : results) {
+                assertNotNull(result.get(5, TimeUnit.SECONDS).get().getUserProfile());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(4, authenticator.getMisses());
+        assertEquals(1, authenticator.getLoads());
+    }
+
+    @Test
+    public void testFailureIsCached() {
+        val calls = new AtomicInteger();
+        final Authenticator failingDelegate = (credentials, context, sessionStore) -> {
+            calls.incrementAndGet();
+            throw new CredentialsException("fail");
+        };
+        val authenticator = new LocalCachingAuthenticator(failingDelegate, 10, 10, TimeUnit.SECONDS);
+        authenticator.setFailureTimeout(10);
+        authenticator.init();
+
+        for (var i = 0; i < 2; i++) {
+            TestsHelper.expectException(() -> authenticator.validate(this.credentials, null, null), CredentialsException.class, "fail");
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, authenticator.getFailureHits());
+
+        authenticator.removeFromCache(this.credentials);
+        TestsHelper.expectException(() -> authenticator.validate(this.credentials, null, null), CredentialsException.class, "fail");
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCachedFailureIsWrappedPerCaller() {
+        val failure = new CredentialsException("fail");
+        final Authenticator failingDelegate = (credentials, context, sessionStore) -> {
+            throw failure;
+        };
+        val authenticator = new LocalCachingAuthenticator(failingDelegate, 10, 10, TimeUnit.SECONDS);
+        authenticator.setFailureTimeout(10);
+        authenticator.init();
+
+        assertSame(failure, TestsHelper.expectException(() -> authenticator.validate(this.credentials, null, null)));
+        val e1 = TestsHelper.expectException(() -> authenticator.validate(this.credentials, null, null));
+        val e2 = TestsHelper.expectException(() -> authenticator.validate(this.credentials, null, null));
+        assertTrue(e1 instanceof CredentialsException);
+        assertNotSame(e1, e2);
+        assertSame(failure, e1.getCause());
+        assertSame(failure, e2.getCause());
+    }
+
+    @Test
+    public void testRefreshAhead() {
+        val calls = new AtomicInteger();
+        final Authenticator countingDelegate = (credentials, context, sessionStore) -> {
+            val profile = new CommonProfile();
+            profile.setId("" + calls.incrementAndGet());
+            credentials.setUserProfile(profile);
+            return Optional.of(credentials);
+        };
+        val authenticator = new LocalCachingAuthenticator(countingDelegate, 10, 10, TimeUnit.SECONDS);
+        authenticator.setRefreshAfter(1);
+        authenticator.init();
+
+        assertEquals("1", authenticator.validate(this.credentials, null, null).get().getUserProfile().getId());
+        assertEquals("1", authenticator.validate(this.credentials, null, null).get().getUserProfile().getId());
+        TestsHelper.wait(1100);
+        assertEquals("2", authenticator.validate(this.credentials, null, null).get().getUserProfile().getId());
+        assertEquals(2, authenticator.getHits());
+        assertEquals(1, authenticator.getMisses());
+        assertEquals(2, authenticator.getLoads());
+    }
+
     private static class ThrowingAuthenticator implements Authenticator {
 
         @Override
@@ -8,6 +8,7 @@ import org.pac4j.core.client.*;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.FrameworkParameters;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.CookieSessionStore;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.MockCredentials;
@@ -16,11 +17,14 @@ import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.http.StatusAction;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileManager;
+import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
 import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.Assert.*;
@@ -76,6 +80,13 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         logic.perform(config, securityGrantedAccessAdapter, clients, authorizers, matchers, mock(FrameworkParameters.class));
     }
 
+    private void callRoute() {
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+
+        val route = config.getSecurityRoute(logic, clients, authorizers, matchers);
+        logic.perform(config, securityGrantedAccessAdapter, route, mock(FrameworkParameters.class));
+    }
+
     @Test
     public void testNullConfig() {
         config = null;
@@ -233,6 +244,25 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertEquals(0, nbCall);
     }
 
+    @Test
+    public void testDirectClientThrowsAfterMultiProfileSave() {
+        val profile = new CommonProfile();
+        profile.setId(NAME);
+        final DirectClient directClient = new MockDirectClient(NAME, Optional.of(new MockCredentials()), profile);
+        directClient.setMultiProfile(true);
+        directClient.setSaveProfileInSession(true);
+        final DirectClient directClient2 = new MockDirectClient(VALUE, () -> { throw new StatusAction(400); }, new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, directClient, directClient2));
+        final ProfileManager[] manager = new ProfileManager[1];
+        config.setProfileManagerFactory((ctx, store) -> manager[0] = new ProfileManager(ctx, store));
+        clients = NAME + "," + VALUE;
+        call();
+        assertEquals(400, action.getCode());
+        assertFalse(manager[0].isDeferSessionWrites());
+        assertEquals(1, manager[0].getSessionWrites());
+        assertEquals(1, ((Map<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get()).size());
+    }
+
     @Test
     public void testDoubleDirectClientSupportingMultiProfile() {
         val profile = new CommonProfile();
@@ -255,6 +285,25 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         assertTrue(profiles.containsValue(profile2));
     }
 
+    @Test
+    public void testCookieSessionWrittenOnceBeforeGrantingAccess() {
+        sessionStore = new CookieSessionStore(MAC_SECRET);
+        val profile = new CommonProfile();
+        profile.setId(NAME);
+        final DirectClient directClient = new MockDirectClient(NAME, Optional.of(new MockCredentials()), profile);
+        directClient.setSaveProfileInSession(true);
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME;
+        securityGrantedAccessAdapter = (context, sessionStore, profiles) -> {
+            assertEquals(1, this.context.getResponseCookies().size());
+            nbCall++;
+            return null;
+        };
+        call();
+        assertEquals(1, nbCall);
+        assertEquals(1, context.getResponseCookies().size());
+    }
+
     @Test
     public void testDoubleDirectClientChooseDirectClient() {
         val profile = new CommonProfile();
@@ -327,4 +376,118 @@ public final class DefaultSecurityLogicTests implements TestsConstants {
         call();
         assertEquals(401, action.getCode());
     }
+
+    @Test
+    public void testCompiledRouteAlreadyAuthenticatedAndAuthorized() {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        val profiles = new LinkedHashMap<String, CommonProfile>();
+        profiles.put(NAME, profile);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        authorizers = NAME;
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addAuthorizer(NAME, (context, store, prof) -> ID.equals(((CommonProfile) prof.get(0)).getId()));
+        callRoute();
+        assertNull(action);
+        assertEquals(1, nbCall);
+        val route = config.getSecurityRoute(logic, clients, authorizers, matchers);
+        assertTrue(route.isCompiled());
+        assertEquals(1, route.getResolvedClients().size());
+        assertEquals(1, route.getResolvedAuthorizers().size());
+    }
+
+    @Test
+    public void testRouteIsCompiledOnPerform() {
+        val profile = new CommonProfile();
+        profile.setId(NAME);
+        config.setClients(new Clients(CALLBACK_URL, new MockDirectClient(NAME, Optional.of(new MockCredentials()), profile)));
+        clients = NAME;
+        call();
+        assertEquals(1, nbCall);
+        val route = config.getSecurityRoute(logic, clients, authorizers, matchers);
+        call();
+        assertEquals(2, nbCall);
+        assertSame(route, config.getSecurityRoute(logic, clients, authorizers, matchers));
+    }
+
+    @Test
+    public void testCompiledRouteIsReadOnly() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        val route = config.getSecurityRoute(logic, NAME, null, null);
+        assertTrue(TestsHelper.expectException(() -> route.getResolvedClients().clear()) instanceof UnsupportedOperationException);
+        assertTrue(TestsHelper.expectException(() -> route.getResolvedMatchers().clear()) instanceof UnsupportedOperationException);
+        assertEquals(1, route.getResolvedClients().size());
+    }
+
+    @Test
+    public void testCompiledRouteIsCached() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addMatcher(NAME, (context, store) -> true);
+        matchers = NAME;
+        val route = config.getSecurityRoute(logic, NAME, null, matchers);
+        assertSame(route, config.getSecurityRoute(logic, NAME, null, matchers));
+        assertTrue(route.isUpToDate(config));
+    }
+
+    @Test
+    public void testCompiledRouteRecompiledOnMatcherChange() {
+        final IndirectClient indirectClient = new MockIndirectClient(NAME, null, Optional.of(new MockCredentials()), new CommonProfile());
+        config.setClients(new Clients(CALLBACK_URL, indirectClient));
+        config.addMatcher(NAME, (context, store) -> true);
+        matchers = NAME;
+        FrameworkAdapter.INSTANCE.applyDefaultSettingsIfUndefined(config);
+        val route = config.getSecurityRoute(logic, clients, authorizers, matchers);
+        config.addMatcher(NAME, (context, store) -> false);
+        assertFalse(route.isUpToDate(config));
+        logic.perform(config, securityGrantedAccessAdapter, route, mock(FrameworkParameters.class));
+        assertNull(action);
+        assertEquals(1, nbCall);
+    }
+
+    @Test
+    public void testCompiledRouteRecompiledOnClientsChange() {
+        val profile = new CommonProfile();
+        profile.setId(NAME);
+        final DirectClient directClient = new MockDirectClient(NAME, Optional.empty(), profile);
+        config.setClients(new Clients(CALLBACK_URL, directClient));
+        clients = NAME + "," + VALUE;
+        callRoute();
+        assertEquals(401, action.getCode());
+        assertEquals(0, nbCall);
+        val route = config.getSecurityRoute(logic, clients, authorizers, matchers);
+        assertEquals(1, route.getResolvedClients().size());
+
+        val profile2 = new CommonProfile();
+        profile2.setId(VALUE);
+        config.getClients().addClient(new MockDirectClient(VALUE, Optional.of(new MockCredentials()), profile2));
+        action = null;
+        logic.perform(config, securityGrantedAccessAdapter, route, mock(FrameworkParameters.class));
+        assertNull(action);
+        assertEquals(1, nbCall);
+        assertFalse(route.isUpToDate(config));
+        assertEquals(2, config.getSecurityRoute(logic, clients, authorizers, matchers).getResolvedClients().size());
+    }
+
+    @Test
+    public void testCompiledRouteChooseDirectClient() {
+        val profile = new CommonProfile();
+        profile.setId(NAME);
+        val profile2 = new CommonProfile();
+        profile2.setId(VALUE);
+        final DirectClient directClient = new MockDirectClient(NAME, Optional.of(new MockCredentials()), profile);
+        final DirectClient directClient2 = new MockDirectClient(VALUE, Optional.of(new MockCredentials()), profile2);
+        config.setClients(new Clients(CALLBACK_URL, directClient, directClient2));
+        clients = NAME + "," + VALUE;
+        context.addRequestParameter(Pac4jConstants.DEFAULT_FORCE_CLIENT_PARAMETER, VALUE);
+        callRoute();
+        assertEquals(-1, context.getResponseStatus());
+        assertEquals(1, nbCall);
+        val profiles =
+            (LinkedHashMap<String, CommonProfile>) context.getRequestAttribute(Pac4jConstants.USER_PROFILES).get();
+        assertEquals(1, profiles.size());
+        assertTrue(profiles.containsValue(profile2));
+    }
 }
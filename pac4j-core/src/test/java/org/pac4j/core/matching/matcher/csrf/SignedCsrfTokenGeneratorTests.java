@@ -0,0 +1,98 @@
+package org.pac4j.core.matching.matcher.csrf;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SignedCsrfTokenGenerator}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SignedCsrfTokenGeneratorTests implements TestsConstants {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    private final WebContext context = MockWebContext.create();
+
+    private final MockSessionStore sessionStore = new MockSessionStore();
+
+    private long now = 10 * DAY + 1000;
+
+    private final SignedCsrfTokenGenerator generator = new SignedCsrfTokenGenerator(SECRET + SECRET) {
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    };
+
+    @Test
+    public void testMissingSecret() {
+        TestsHelper.expectException(() -> new SignedCsrfTokenGenerator().get(context, sessionStore),
+            TechnicalException.class, "secret cannot be blank");
+    }
+
+    @Test
+    public void testValidTokenWithoutSessionWrite() {
+        val token = generator.get(context, sessionStore);
+        assertNotEquals(token, generator.get(context, sessionStore));
+        assertTrue(generator.isValid(context, sessionStore, token));
+        assertTrue(sessionStore.getSessionId(context, false).isPresent());
+        assertTrue(sessionStore.getTrackableSession(context).map(s -> ((java.util.Map<?, ?>) s).isEmpty()).orElse(false));
+    }
+
+    @Test
+    public void testInvalidTokens() {
+        val token = generator.get(context, sessionStore);
+        assertFalse(generator.isValid(context, sessionStore, null));
+        assertFalse(generator.isValid(context, sessionStore, VALUE));
+        assertFalse(generator.isValid(context, sessionStore, "%%%"));
+        val tampered = token.charAt(20) == 'A' ? "B" : "A";
+        assertFalse(generator.isValid(context, sessionStore, token.substring(0, 20) + tampered + token.substring(21)));
+    }
+
+    @Test
+    public void testOtherSession() {
+        val token = generator.get(context, sessionStore);
+        val otherSessionStore = new MockSessionStore() {
+            {
+                id = ID;
+            }
+        };
+        assertFalse(generator.isValid(context, otherSessionStore, token));
+        assertFalse(generator.isValid(context, new MockSessionStore(), token));
+    }
+
+    @Test
+    public void testOtherSecret() {
+        val token = generator.get(context, sessionStore);
+        assertFalse(new SignedCsrfTokenGenerator(SECRET).isValid(context, sessionStore, token));
+    }
+
+    @Test
+    public void testExpiredToken() {
+        val token = generator.get(context, sessionStore);
+        now += generator.getTtlInSeconds() * 1000L - 1;
+        assertTrue(generator.isValid(context, sessionStore, token));
+        now += 2;
+        assertFalse(generator.isValid(context, sessionStore, token));
+    }
+
+    @Test
+    public void testKeyRotation() {
+        now = 11 * DAY - 1000;
+        val token = generator.get(context, sessionStore);
+        now = 11 * DAY + 1000;
+        // signed with the previous key
+        assertTrue(generator.isValid(context, sessionStore, token));
+        assertNotEquals(token.substring(0, 11), generator.get(context, sessionStore).substring(0, 11));
+    }
+}
@@ -275,4 +275,41 @@ public final class ProfileManagerTests {
         assertEquals(AnonymousProfile.INSTANCE, profileManager.getProfiles().get(0));
         assertFalse(profileManager.isAuthenticated());
     }
+
+    @Test
+    public void testSingleSessionReadPerRequest() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertTrue(profileManager.isAuthenticated());
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertEquals(1, new ProfileManager(context, sessionStore).getProfiles().size());
+        assertEquals(1, profileManager.getSessionReads());
+        assertEquals(0, profileManager.getSessionWrites());
+    }
+
+    @Test
+    public void testSaveAlwaysWritesInSession() {
+        profileManager.save(true, profile1, false);
+        profile1.addAttribute(ID2, ID3);
+        profileManager.save(true, profile1, true);
+        assertEquals(2, profileManager.getSessionWrites());
+        assertEquals(ID3, ((Map<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get())
+            .get(CLIENT1).getAttribute(ID2));
+        profileManager.save(true, profile3, false);
+        assertEquals(3, profileManager.getSessionWrites());
+        assertEquals(profile3, ((Map<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get()).get(CLIENT1));
+    }
+
+    @Test
+    public void testDeferredSessionWrites() {
+        profileManager.setDeferSessionWrites(true);
+        profileManager.save(true, profile1, true);
+        profileManager.save(true, profile2, true);
+        assertFalse(sessionStore.get(context, Pac4jConstants.USER_PROFILES).isPresent());
+        assertEquals(2, profileManager.getProfiles().size());
+        profileManager.flushSessionWrites();
+        profileManager.flushSessionWrites();
+        assertEquals(1, profileManager.getSessionWrites());
+        assertEquals(2, ((Map<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get()).size());
+    }
 }
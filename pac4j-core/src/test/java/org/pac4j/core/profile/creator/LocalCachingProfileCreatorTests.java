@@ -8,12 +8,14 @@ import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.TestsHelper;
 
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -81,4 +83,23 @@ public class LocalCachingProfileCreatorTests {
         assertEquals(profileId3, pc.getStore().get(c1).get().getId());
         assertNotEquals(profileId3, profileId2);
     }
+
+    @Test
+    public void testFailureIsCached() {
+        val calls = new AtomicInteger();
+        final ProfileCreator failingCreator = (credentials, context, sessionStore) -> {
+            calls.incrementAndGet();
+            throw new TechnicalException("down");
+        };
+        val c1 = new TokenCredentials("T1");
+        val pc = new LocalCachingProfileCreator(failingCreator, 10, 10, TimeUnit.SECONDS);
+        pc.setFailureTimeout(10);
+        for (var i = 0; i < 2; i++) {
+            TestsHelper.expectException(() -> pc.create(c1, MockWebContext.create(), new MockSessionStore()),
+                TechnicalException.class, "down");
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, pc.getFailureHits());
+        assertEquals(1, pc.getMisses());
+    }
 }
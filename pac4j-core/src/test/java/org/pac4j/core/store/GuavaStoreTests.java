@@ -6,6 +6,9 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsHelper;
 
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
 
 /**
  * Test {@link GuavaStore}.
@@ -43,4 +46,50 @@ public final class GuavaStoreTests extends AbstractStoreTests<GuavaStore> {
         store.setTimeout(20);
         TestsHelper.expectException(store::init, TechnicalException.class, "timeUnit cannot be null");
     }
+
+    @Test
+    public void testMaximumWeight() {
+        final GuavaStore<String, String> store = new GuavaStore<>(0, 1000, TimeUnit.MILLISECONDS);
+        store.setMaximumWeight(10);
+        store.setWeigher((key, value) -> value.length());
+        store.setConcurrencyLevel(1);
+        store.set(KEY, "0123456789");
+        assertTrue(store.get(KEY).isPresent());
+        store.set(ID, "01234567890");
+        assertFalse(store.get(ID).isPresent());
+    }
+
+    @Test
+    public void testSerializedSizeWeigher() {
+        val weigher = new SerializedSizeWeigher<String, String>();
+        assertTrue(weigher.weigh(KEY, VALUE + VALUE) > weigher.weigh(KEY, VALUE));
+    }
+
+    @Test
+    public void testExpiredPredicate() {
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 1000, TimeUnit.MILLISECONDS);
+        store.setExpiredPredicate(VALUE::equals);
+        store.set(KEY, VALUE);
+        assertFalse(store.get(KEY).isPresent());
+        store.set(KEY, SECRET);
+        assertEquals(SECRET, store.get(KEY).get());
+    }
+
+    @Test
+    public void testRefreshAndStats() {
+        val loads = new AtomicInteger();
+        final GuavaStore<String, String> store = new GuavaStore<>(10, 10, TimeUnit.SECONDS);
+        store.setRefreshTimeout(1);
+        store.setLoader(key -> VALUE + loads.incrementAndGet());
+        store.setRefreshExecutor(Runnable::run);
+        store.setRecordStats(true);
+        store.set(KEY, VALUE);
+        assertEquals(VALUE, store.get(KEY).get());
+        TestsHelper.wait(1100);
+        store.get(KEY);
+        assertEquals(VALUE + "1", store.get(KEY).get());
+        assertFalse(store.get(ID).isPresent());
+        assertEquals(3, store.getStats().hitCount());
+        assertEquals(1, store.getStats().missCount());
+    }
 }
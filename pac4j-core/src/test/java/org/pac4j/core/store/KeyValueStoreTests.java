@@ -0,0 +1,87 @@
+package org.pac4j.core.store;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link KeyValueStore}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class KeyValueStoreTests extends AbstractStoreTests<KeyValueStore<String>> {
+
+    private static final class MapBackend implements KeyValueBackend {
+
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+        private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+
+        private final AtomicInteger gets = new AtomicInteger();
+
+        @Override
+        public Optional<byte[]> get(final String key) {
+            gets.incrementAndGet();
+            val expiresAt = expirations.get(key);
+            if (expiresAt != null && expiresAt <= System.currentTimeMillis()) {
+                remove(key);
+            }
+            return Optional.ofNullable(values.get(key));
+        }
+
+        @Override
+        public void set(final String key, final byte[] value, final long timeToLive) {
+            values.put(key, value);
+            if (timeToLive > 0) {
+                expirations.put(key, System.currentTimeMillis() + timeToLive);
+            }
+        }
+
+        @Override
+        public void remove(final String key) {
+            values.remove(key);
+            expirations.remove(key);
+        }
+    }
+
+    @Override
+    protected KeyValueStore<String> buildStore() {
+        return new KeyValueStore<>(new MapBackend(), 1);
+    }
+
+    @Test
+    public void testNearCache() {
+        val backend = new MapBackend();
+        final KeyValueStore<String> store = new KeyValueStore<>(backend, 0);
+        store.setNearCacheTimeout(10);
+        store.setKeyPrefix("pac4j:");
+        store.set(KEY, VALUE);
+        assertTrue(backend.values.containsKey("pac4j:" + KEY));
+        assertEquals(VALUE, store.get(KEY).get());
+        assertEquals(0, backend.gets.get());
+
+        final KeyValueStore<String> otherNode = new KeyValueStore<>(backend, 0);
+        otherNode.setKeyPrefix("pac4j:");
+        assertEquals(VALUE, otherNode.get(KEY).get());
+        assertEquals(1, backend.gets.get());
+    }
+
+    @Test
+    public void testBulkOperations() {
+        val backend = new MapBackend();
+        final KeyValueStore<String> store = new KeyValueStore<>(backend, 0);
+        store.setNearCacheTimeout(0);
+        store.setAll(Map.of(KEY, VALUE, ID, SECRET));
+        assertEquals(Map.of(KEY, VALUE, ID, SECRET), store.getAll(List.of(KEY, ID, NAME)));
+        store.removeAll(List.of(KEY, ID));
+        assertTrue(store.getAll(List.of(KEY, ID)).isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+package org.pac4j.core.store;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SingleFlightLoader}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SingleFlightLoaderTests {
+
+    @Test
+    public void testOldestLoadTimesAreEvicted() {
+        val store = new GuavaStore<String, String>(100, 10, TimeUnit.SECONDS);
+        val loader = new SingleFlightLoader<String, String>();
+        loader.setRefreshAfter(1);
+        loader.setMaxTrackedKeys(10);
+
+        for (var i = 0; i < 10; i++) {
+            val key = "key" + i;
+            loader.get(store, key, () -> Optional.of(key));
+            TestsHelper.wait(2);
+        }
+        TestsHelper.wait(1100);
+        loader.get(store, "key10", () -> Optional.of("key10"));
+
+        assertFalse(loader.isRefreshNeeded("key0"));
+        for (var i = 1; i < 10; i++) {
+            assertTrue(loader.isRefreshNeeded("key" + i));
+        }
+    }
+
+    @Test
+    public void testRefreshIsDoneOnTheRequestThread() {
+        val store = new GuavaStore<String, String>(10, 10, TimeUnit.SECONDS);
+        val loader = new SingleFlightLoader<String, String>();
+        loader.setRefreshAfter(1);
+        loader.get(store, "key", () -> Optional.of("v1"));
+        TestsHelper.wait(1100);
+
+        val refreshThread = new Thread[1];
+        assertEquals("v2", loader.get(store, "key", () -> {
+            refreshThread[0] = Thread.currentThread();
+            return Optional.of("v2");
+        }).get());
+        assertSame(Thread.currentThread(), refreshThread[0]);
+        assertEquals("v2", loader.get(store, "key", () -> Optional.of("v3")).get());
+    }
+
+    @Test
+    public void testWaitersGetTheirOwnException() throws Exception {
+        val store = new GuavaStore<String, String>(10, 10, TimeUnit.SECONDS);
+        val loader = new SingleFlightLoader<String, String>();
+        val failure = new TechnicalException("down");
+        val latch = new CountDownLatch(1);
+
+        val executor = Executors.newFixedThreadPool(3);
+        try {
+            final List<Future<Exception>> results = new ArrayList<>();
+            for (var i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> TestsHelper.expectException(() -> loader.get(store, "key", () -> {
+                    try {
+                        assertTrue(latch.await(5, TimeUnit.SECONDS));
+                    } catch (final InterruptedException e) {
+                        throw new TechnicalException(e);
+                    }
+                    throw failure;
+                }))));
+            }
+            while (loader.getCoalescedWaits() < 2) {
+                Thread.sleep(10);
+            }
+            latch.countDown();
+
+            final List<Exception> exceptions = new ArrayList<>();
+            for (val result : results) {
+                exceptions.add(result.get(5, TimeUnit.SECONDS));
+            }
+            var wrapped = 0;
+            for (val e : exceptions) {
+                assertEquals("down", e.getMessage());
+                if (e != failure) {
+                    assertSame(failure, e.getCause());
+                    wrapped++;
+                }
+            }
+            assertEquals(2, wrapped);
+            assertNotSame(exceptions.get(0), exceptions.get(1));
+            assertNotSame(exceptions.get(1), exceptions.get(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
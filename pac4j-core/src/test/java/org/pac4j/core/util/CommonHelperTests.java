@@ -180,6 +180,7 @@ public final class CommonHelperTests {
     private void testRandomString(final int size) {
         val s = CommonHelper.randomString(size);
         assertEquals(size, s.length());
+        assertTrue(s.matches("[0-9a-f]*"));
     }
 
     @Test
@@ -211,6 +212,14 @@ public final class CommonHelperTests {
         assertTrue(CommonHelper.isNotEmpty(Arrays.asList(new String[] {VALUE})));
     }
 
+    @Test
+    public void testPartition() {
+        assertEquals(0, CommonHelper.partition(new ArrayList<String>(), 2).size());
+        assertEquals(Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("c")),
+            CommonHelper.partition(Arrays.asList("a", "b", "c"), 2));
+        assertEquals(Arrays.asList(Arrays.asList("a", "b")), CommonHelper.partition(Arrays.asList("a", "b"), 2));
+    }
+
     @Test
     public void testGetConstructorOK() throws Exception {
         var constructor = CommonHelper.getConstructor(CommonProfile.class.getName());
@@ -0,0 +1,24 @@
+package org.pac4j.core.util;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SharedExecutor}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SharedExecutorTests {
+
+    @Test
+    public void testDaemonThreads() throws Exception {
+        val thread = CompletableFuture.supplyAsync(Thread::currentThread, SharedExecutor.getInstance()).get();
+        assertTrue(thread.isDaemon());
+        assertTrue(thread.getName().startsWith("pac4j-background-"));
+    }
+}
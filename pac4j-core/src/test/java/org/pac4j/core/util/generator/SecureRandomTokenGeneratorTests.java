@@ -0,0 +1,86 @@
+package org.pac4j.core.util.generator;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SecureRandomTokenGenerator}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SecureRandomTokenGeneratorTests {
+
+    @Test
+    public void testSizeAndAlphabet() {
+        for (var size = 0; size < 100; size++) {
+            val token = SecureRandomTokenGenerator.generate(size);
+            assertEquals(size, token.length());
+            assertTrue(token.matches("[A-Za-z0-9_-]*"));
+        }
+    }
+
+    @Test
+    public void testHexSizeAndAlphabet() {
+        for (var size = 0; size < 100; size++) {
+            val token = SecureRandomTokenGenerator.generateHex(size);
+            assertEquals(size, token.length());
+            assertTrue(token.matches("[0-9a-f]*"));
+        }
+        final Set<Character> chars = new HashSet<>();
+        for (val c : SecureRandomTokenGenerator.generateHex(10_000).toCharArray()) {
+            chars.add(c);
+        }
+        assertEquals(16, chars.size());
+    }
+
+    @Test
+    public void testNegativeSize() {
+        TestsHelper.expectException(() -> SecureRandomTokenGenerator.generate(-1), TechnicalException.class,
+            "size cannot be negative");
+    }
+
+    @Test
+    public void testAllCharactersUsed() {
+        final Set<Character> chars = new HashSet<>();
+        for (val c : SecureRandomTokenGenerator.generate(10_000).toCharArray()) {
+            chars.add(c);
+        }
+        assertEquals(64, chars.size());
+    }
+
+    @Test
+    public void testUniqueTokensAcrossThreads() throws Exception {
+        final Set<String> tokens = ConcurrentHashMap.newKeySet();
+        val executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (var i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (var j = 0; j < 1000; j++) {
+                        tokens.add(SecureRandomTokenGenerator.generate(16));
+                    }
+                }));
+            }
+            for (val future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(8000, tokens.size());
+    }
+}
@@ -0,0 +1,172 @@
+package org.pac4j.core.util.serializer;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.TestsConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link BinaryProfileSerializer}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class BinaryProfileSerializerTests implements TestsConstants {
+
+    private final BinaryProfileSerializer serializer = new BinaryProfileSerializer();
+
+    /**
+     * A profile class which is not in the dictionary.
+     */
+    public static final class MyProfile extends CommonProfile {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static CommonProfile buildProfile(final int nbAttributes) {
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.setClientName(MY_CLIENT_NAME);
+        profile.setLinkedId(KEY);
+        profile.setRemembered(true);
+        profile.addAttribute("email", EMAIL);
+        profile.addAttribute("picture_url", java.net.URI.create(CALLBACK_URL));
+        profile.addAttribute("locale", Locale.FRANCE);
+        profile.addAttribute("counter", 12345678901L);
+        profile.addAttribute("negative", -5);
+        profile.addAttribute("ratio", 0.5d);
+        profile.addAttribute("enabled", false);
+        profile.addAttribute("date", new Date(1_600_000_000_000L));
+        profile.addAttribute("groups", List.of(NAME, VALUE));
+        profile.addAttribute("tags", Set.of(KEY));
+        profile.addAttribute("nested", Map.of(NAME, List.of(VALUE)));
+        profile.addAttribute("none", null);
+        for (var i = 0; i < nbAttributes; i++) {
+            profile.addAttribute(NAME + i, VALUE + i);
+        }
+        profile.addAuthenticationAttribute("auth_time", 1_600_000_000L);
+        profile.addRole(ROLE);
+        return profile;
+    }
+
+    private static void assertSameProfile(final CommonProfile expected, final Object actual) {
+        val profile = (CommonProfile) actual;
+        assertEquals(expected.getId(), profile.getId());
+        assertEquals(expected.getClientName(), profile.getClientName());
+        assertEquals(expected.getLinkedId(), profile.getLinkedId());
+        assertEquals(expected.isRemembered(), profile.isRemembered());
+        assertEquals(expected.getAttributes(), profile.getAttributes());
+        assertEquals(expected.getAuthenticationAttributes(), profile.getAuthenticationAttributes());
+        assertEquals(expected.getRoles(), profile.getRoles());
+    }
+
+    @Test
+    public void testProfileRoundTrip() {
+        val profile = buildProfile(0);
+        assertSameProfile(profile, serializer.deserializeFromBytes(serializer.serializeToBytes(profile)));
+        assertSameProfile(profile, serializer.deserializeFromString(serializer.serializeToString(profile)));
+    }
+
+    @Test
+    public void testProfilesMapRoundTrip() {
+        final Map<String, UserProfile> profiles = new LinkedHashMap<>();
+        val profile1 = buildProfile(2);
+        val profile2 = buildProfile(3);
+        profile2.setId(VALUE);
+        profiles.put(MY_CLIENT_NAME, profile1);
+        profiles.put(NAME, profile2);
+        val map = (Map<String, Object>) serializer.deserializeFromBytes(serializer.serializeToBytes(profiles));
+        assertEquals(List.of(MY_CLIENT_NAME, NAME), List.copyOf(map.keySet()));
+        assertSameProfile(profile1, map.get(MY_CLIENT_NAME));
+        assertSameProfile(profile2, map.get(NAME));
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() {
+        val profile = buildProfile(10);
+        val size = serializer.serializeToBytes(profile).length;
+        assertTrue(size < new JavaSerializer().serializeToBytes(profile).length / 2);
+    }
+
+    @Test
+    public void testCompression() {
+        val profile = buildProfile(200);
+        val compressed = serializer.serializeToBytes(profile);
+        serializer.setCompressionThreshold(0);
+        val uncompressed = serializer.serializeToBytes(profile);
+        assertTrue(compressed.length < uncompressed.length);
+        assertSameProfile(profile, serializer.deserializeFromBytes(compressed));
+        assertSameProfile(profile, serializer.deserializeFromBytes(uncompressed));
+        serializer.setMaxSize(compressed.length + 1);
+        assertNull(serializer.deserializeFromBytes(compressed));
+    }
+
+    @Test
+    public void testUntrustedProfileClass() {
+        val bytes = serializer.serializeToBytes(buildProfile(0));
+        serializer.getJavaSerializer().clearTrustedPackages();
+        assertNull(serializer.deserializeFromBytes(bytes));
+        serializer.getJavaSerializer().addTrustedClass(CommonProfile.class);
+        // the Locale attribute is Java serialized
+        assertNull(serializer.deserializeFromBytes(bytes));
+        serializer.getJavaSerializer().addTrustedPackage("java.");
+        assertNotNull(serializer.deserializeFromBytes(bytes));
+    }
+
+    @Test
+    public void testInvalidBytes() {
+        val bytes = serializer.serializeToBytes(buildProfile(0));
+        assertNull(serializer.deserializeFromBytes(new byte[0]));
+        assertNull(serializer.deserializeFromBytes(VALUE.getBytes(StandardCharsets.UTF_8)));
+        for (var i = 3; i < bytes.length; i += 7) {
+            val truncated = new byte[i];
+            System.arraycopy(bytes, 0, truncated, 0, i);
+            assertNull(serializer.deserializeFromBytes(truncated));
+        }
+    }
+
+    @Test
+    public void testMaxDepth() {
+        Object value = VALUE;
+        for (var i = 0; i < 10; i++) {
+            value = List.of(value);
+        }
+        serializer.setMaxDepth(5);
+        assertNull(serializer.serializeToBytes(value));
+        serializer.setMaxDepth(10);
+        assertEquals(value, serializer.deserializeFromBytes(serializer.serializeToBytes(value)));
+    }
+
+    @Test
+    public void testNonDictionaryProfileClassWithRepeatedNames() {
+        serializer.getJavaSerializer().addTrustedClass(MyProfile.class);
+        final Map<String, UserProfile> profiles = new LinkedHashMap<>();
+        for (val name : List.of(NAME, VALUE)) {
+            val profile = new MyProfile();
+            profile.setId(name);
+            profile.addAttribute("foo", name);
+            profile.addAuthenticationAttribute("foo", KEY);
+            profiles.put(name, profile);
+        }
+
+        @SuppressWarnings("unchecked")
+        val result = (Map<String, UserProfile>) serializer.deserializeFromBytes(serializer.serializeToBytes(profiles));
+        assertNotNull(result);
+        assertEquals(profiles.keySet(), result.keySet());
+        for (val entry : profiles.entrySet()) {
+            val profile = result.get(entry.getKey());
+            assertTrue(profile instanceof MyProfile);
+            assertSameProfile((CommonProfile) entry.getValue(), profile);
+        }
+    }
+}
@@ -10,11 +10,18 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * This implementation uses the JEE {@link HttpServletRequest} and {@link HttpServletResponse}.
@@ -24,12 +31,23 @@ import java.util.Optional;
  */
 public class JEEContext implements WebContext {
 
+    /** The default maximum size of the request content: 1 MB. */
+    public static final int DEFAULT_MAX_REQUEST_CONTENT_SIZE = 1024 * 1024;
+
     private final HttpServletRequest request;
 
     private final HttpServletResponse response;
 
+    private int maxRequestContentSize = DEFAULT_MAX_REQUEST_CONTENT_SIZE;
+
+    private byte[] content;
+
     private String body;
 
+    private Map<String, String> headers;
+
+    private Collection<Cookie> cookies;
+
     /**
      * Build a JEE context from the current HTTP request and response.
      *
@@ -65,16 +83,32 @@ public class JEEContext implements WebContext {
 
     @Override
     public Optional<String> getRequestHeader(final String name) {
+        if (headers == null) {
+            headers = buildRequestHeaders();
+        }
+        return Optional.ofNullable(headers.get(name));
+    }
+
+    /**
+     * Build the case-insensitive view of the request headers (the first value of each header), once per request.
+     *
+     * @return the request headers
+     */
+    protected Map<String, String> buildRequestHeaders() {
+        final Map<String, String> requestHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
         val names = request.getHeaderNames();
         if (names != null) {
             while (names.hasMoreElements()) {
                 val headerName = names.nextElement();
-                if (headerName != null && headerName.equalsIgnoreCase(name)) {
-                    return Optional.ofNullable(this.request.getHeader(headerName));
+                if (headerName != null && !requestHeaders.containsKey(headerName)) {
+                    val value = request.getHeader(headerName);
+                    if (value != null) {
+                        requestHeaders.put(headerName, value);
+                    }
                 }
             }
         }
-        return Optional.empty();
+        return requestHeaders;
     }
 
     @Override
@@ -162,11 +196,23 @@ public class JEEContext implements WebContext {
 
     @Override
     public Collection<Cookie> getRequestCookies() {
+        if (cookies == null) {
+            cookies = Collections.unmodifiableCollection(buildRequestCookies());
+        }
+        return cookies;
+    }
+
+    /**
+     * Convert the request cookies into pac4j cookies, once per request.
+     *
+     * @return the request cookies
+     */
+    protected Collection<Cookie> buildRequestCookies() {
         final Collection<Cookie> pac4jCookies = new LinkedHashSet<>();
-        val cookies = this.request.getCookies();
+        val requestCookies = this.request.getCookies();
 
-        if (cookies != null) {
-            for (val c : cookies) {
+        if (requestCookies != null) {
+            for (val c : requestCookies) {
                 val cookie = new Cookie(c.getName(), c.getValue());
                 cookie.setDomain(c.getDomain());
                 cookie.setHttpOnly(c.isHttpOnly());
@@ -211,15 +257,45 @@ public class JEEContext implements WebContext {
     @Override
     public String getRequestContent() {
         if (body == null) {
+            val encoding = request.getCharacterEncoding();
+            body = new String(readRequestContent(), encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8);
+        }
+        return body;
+    }
+
+    @Override
+    public ByteBuffer getRequestContentBuffer() {
+        return ByteBuffer.wrap(readRequestContent()).asReadOnlyBuffer();
+    }
+
+    @Override
+    public InputStream getRequestContentStream() {
+        return new ByteArrayInputStream(readRequestContent());
+    }
+
+    /**
+     * Read the request content once, up to the {@link #getMaxRequestContentSize()}.
+     *
+     * @return the request content
+     */
+    protected byte[] readRequestContent() {
+        if (content == null) {
             try {
-                body = request.getReader()
-                    .lines()
-                    .reduce(Pac4jConstants.EMPTY_STRING, String::concat);
+                content = WebContextHelper.readRequestContent(request.getInputStream(), request.getContentLengthLong(),
+                    maxRequestContentSize);
             } catch (final IOException e) {
                 throw new TechnicalException(e);
             }
         }
-        return body;
+        return content;
+    }
+
+    public int getMaxRequestContentSize() {
+        return maxRequestContentSize;
+    }
+
+    public void setMaxRequestContentSize(final int maxRequestContentSize) {
+        this.maxRequestContentSize = maxRequestContentSize;
     }
 
     @Override
@@ -6,17 +6,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.val;
+import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.jee.config.AbstractConfigFilter;
 import org.pac4j.saml.client.SAML2Client;
+import org.pac4j.saml.metadata.SAML2RenderedMetadata;
+import org.pac4j.saml.metadata.SAML2ServiceProviderMetadataResolver;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This filter prints the SP metadata for SAML.
  *
+ * The metadata are served with <code>ETag</code> and <code>Last-Modified</code> headers: the conditional requests
+ * are answered with a 304 status code when the metadata have not changed, and the metadata are gzipped if the client
+ * accepts it.
+ *
  * Example shiro.ini configuration:
  *
  * saml2MetadataFilter = org.pac4j.saml.metadata.Saml2MetadataFilter
@@ -55,8 +63,77 @@ public class Saml2MetadataFilter extends AbstractConfigFilter {
             throw new TechnicalException("No SAML2 client: " + this.clientName);
         }
         client.init();
-        response.getWriter().write(client.getServiceProviderMetadataResolver().getMetadata());
-        response.getWriter().flush();
+        val metadataResolver = client.getServiceProviderMetadataResolver();
+        if (metadataResolver instanceof SAML2ServiceProviderMetadataResolver serviceProviderMetadataResolver) {
+            writeMetadata(request, response, serviceProviderMetadataResolver.getRenderedMetadata());
+        } else {
+            response.getWriter().write(metadataResolver.getMetadata());
+            response.getWriter().flush();
+        }
+    }
+
+    protected void writeMetadata(final HttpServletRequest request, final HttpServletResponse response,
+                                 final SAML2RenderedMetadata metadata) throws IOException {
+        val gzip = acceptsGzip(request);
+        // the gzipped representation has its own entity tag
+        val etag = gzip ? metadata.getEtag().substring(0, metadata.getEtag().length() - 1) + "-gzip\"" : metadata.getEtag();
+        response.setHeader(HttpConstants.ETAG_HEADER, etag);
+        response.setDateHeader(HttpConstants.LAST_MODIFIED_HEADER, metadata.getLastModified());
+        response.setHeader(HttpConstants.VARY_HEADER, HttpConstants.ACCEPT_ENCODING_HEADER);
+        if (isNotModified(request, etag, metadata.getLastModified())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType("application/xml");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        final byte[] bytes;
+        if (gzip) {
+            response.setHeader(HttpConstants.CONTENT_ENCODING_HEADER, "gzip");
+            bytes = metadata.getGzippedBytes();
+        } else {
+            bytes = metadata.getBytes();
+        }
+        response.setContentLength(bytes.length);
+        if (!"HEAD".equalsIgnoreCase(request.getMethod())) {
+            response.getOutputStream().write(bytes);
+        }
+        response.flushBuffer();
+    }
+
+    protected boolean isNotModified(final HttpServletRequest request, final String etag, final long lastModified) {
+        val ifNoneMatch = request.getHeader(HttpConstants.IF_NONE_MATCH_HEADER);
+        if (ifNoneMatch != null) {
+            if ("*".equals(ifNoneMatch.trim())) {
+                return true;
+            }
+            for (val candidate : ifNoneMatch.split(",")) {
+                if (etag.equals(candidate.trim())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        try {
+            val ifModifiedSince = request.getDateHeader(HttpConstants.IF_MODIFIED_SINCE_HEADER);
+            return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+        } catch (final IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    protected boolean acceptsGzip(final HttpServletRequest request) {
+        val acceptEncoding = request.getHeader(HttpConstants.ACCEPT_ENCODING_HEADER);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (val encoding : acceptEncoding.split(",")) {
+            val parts = encoding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     @Override
@@ -5,15 +5,20 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.val;
 import org.junit.Before;
 import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 
-import static org.junit.Assert.assertEquals;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Tests {@link JEEContext}.
@@ -56,6 +61,76 @@ public final class JEEContextTest implements TestsConstants {
         assertEquals(VALUE, context.getRequestHeader(key).get());
     }
 
+    @Test
+    public void testGetHeadersBuiltOnce() {
+        when(request.getHeaderNames()).thenReturn(Collections.enumeration(Arrays.asList(KEY, NAME, "KEY")));
+        when(request.getHeader(KEY)).thenReturn(VALUE);
+        when(request.getHeader(NAME)).thenReturn(ID);
+        val context = new JEEContext(request, response);
+        assertEquals(VALUE, context.getRequestHeader("KEY").get());
+        assertEquals(ID, context.getRequestHeader(NAME).get());
+        assertFalse(context.getRequestHeader(SECRET).isPresent());
+        verify(request, times(1)).getHeaderNames();
+        verify(request, never()).getHeader("KEY");
+    }
+
+    @Test
+    public void testGetCookiesBuiltOnce() {
+        when(request.getCookies()).thenReturn(new jakarta.servlet.http.Cookie[] {
+            new jakarta.servlet.http.Cookie(KEY, VALUE), new jakarta.servlet.http.Cookie(NAME, ID)});
+        val context = new JEEContext(request, response);
+        val cookies = context.getRequestCookies();
+        assertEquals(2, cookies.size());
+        assertEquals(VALUE, cookies.iterator().next().getValue());
+        assertSame(cookies, context.getRequestCookies());
+        verify(request, times(1)).getCookies();
+    }
+
+    @Test
+    public void testGetRequestContent() throws IOException {
+        val content = "<xml>\n  " + VALUE + "\u00e9\n</xml>";
+        mockContent(content.getBytes(StandardCharsets.UTF_8));
+        val context = new JEEContext(request, response);
+        assertEquals(content, context.getRequestContent());
+        assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), context.getRequestContentStream().readAllBytes());
+        assertEquals(content.getBytes(StandardCharsets.UTF_8).length, context.getRequestContentBuffer().remaining());
+        verify(request, times(1)).getInputStream();
+    }
+
+    @Test
+    public void testGetRequestContentTooLarge() throws IOException {
+        mockContent(new byte[100]);
+        val context = new JEEContext(request, response);
+        context.setMaxRequestContentSize(99);
+        val e = TestsHelper.expectException(context::getRequestContent);
+        assertTrue(e instanceof TechnicalException);
+    }
+
+    private void mockContent(final byte[] content) throws IOException {
+        val in = new ByteArrayInputStream(content);
+        when(request.getContentLengthLong()).thenReturn(-1L);
+        when(request.getInputStream()).thenReturn(new jakarta.servlet.ServletInputStream() {
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(final jakarta.servlet.ReadListener readListener) {
+            }
+        });
+    }
+
     @Test
     public void testGetPathNullFullPath() {
         when(request.getRequestURI()).thenReturn(null);
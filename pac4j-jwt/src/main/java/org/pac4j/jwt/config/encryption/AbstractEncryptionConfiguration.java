@@ -4,6 +4,7 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jwt.EncryptedJWT;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.SignedJWT;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -12,10 +13,13 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
 
 import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Abstract encryption configuration.
  *
+ * The encrypter and the decrypter are thread-safe: they are built once and reused until the keys change.
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -28,6 +32,21 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     protected EncryptionMethod method;
 
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile JWEEncrypter encrypter;
+
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile JWEDecrypter decrypter;
+
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong keysVersion = new AtomicLong();
+
     @Override
     public String encrypt(final JWT jwt) {
         init();
@@ -40,7 +59,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
             try {
                 // Perform encryption
-                jweObject.encrypt(buildEncrypter());
+                jweObject.encrypt(getEncrypter());
             } catch (final JOSEException e) {
                 throw new TechnicalException(e);
             }
@@ -56,7 +75,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
                 val encryptedJwt = new EncryptedJWT(header, jwt.getJWTClaimsSet());
 
                 // Perform encryption
-                encryptedJwt.encrypt(buildEncrypter());
+                encryptedJwt.encrypt(getEncrypter());
 
                 // serialize
                 return encryptedJwt.serialize();
@@ -66,6 +85,20 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         }
     }
 
+    /**
+     * Return the encrypter, built once.
+     *
+     * @return the encrypter
+     */
+    protected JWEEncrypter getEncrypter() {
+        var currentEncrypter = this.encrypter;
+        if (currentEncrypter == null) {
+            currentEncrypter = buildEncrypter();
+            this.encrypter = currentEncrypter;
+        }
+        return currentEncrypter;
+    }
+
     /**
      * Build the appropriate encrypter.
      *
@@ -78,7 +111,21 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         init();
 
         // decrypt
-        encryptedJWT.decrypt(buildDecrypter());
+        encryptedJWT.decrypt(getDecrypter());
+    }
+
+    /**
+     * Return the decrypter, built once.
+     *
+     * @return the decrypter
+     */
+    protected JWEDecrypter getDecrypter() {
+        var currentDecrypter = this.decrypter;
+        if (currentDecrypter == null) {
+            currentDecrypter = buildDecrypter();
+            this.decrypter = currentDecrypter;
+        }
+        return currentDecrypter;
     }
 
     /**
@@ -87,4 +134,33 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
      * @return the appropriate decrypter
      */
     protected abstract JWEDecrypter buildDecrypter();
+
+    /**
+     * Discard the encrypter and the decrypter (when the keys change): they will be re-built on the next use.
+     */
+    protected void resetEncrypterAndDecrypter() {
+        this.encrypter = null;
+        this.decrypter = null;
+        keysVersion.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The version changes each time the keys, the algorithm or the method change.
+     */
+    @Override
+    public long getKeysVersion() {
+        return keysVersion.get();
+    }
+
+    public void setAlgorithm(final JWEAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        resetEncrypterAndDecrypter();
+    }
+
+    public void setMethod(final EncryptionMethod method) {
+        this.method = method;
+        resetEncrypterAndDecrypter();
+    }
 }
@@ -50,6 +50,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        resetEncrypterAndDecrypter();
         CommonHelper.assertNotNull("algorithm", algorithm);
         CommonHelper.assertNotNull("method", method);
 
@@ -85,6 +86,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetEncrypterAndDecrypter();
     }
 
     public ECPublicKey getPublicKey() {
@@ -93,6 +95,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPublicKey(final ECPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetEncrypterAndDecrypter();
     }
 
     public ECPrivateKey getPrivateKey() {
@@ -101,11 +104,13 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPrivateKey(final ECPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetEncrypterAndDecrypter();
     }
 
     public void setKeysFromJwk(final String json) {
         val pair = JWKHelper.buildECKeyPairFromJwk(json);
         this.publicKey = (ECPublicKey) pair.getPublic();
         this.privateKey = (ECPrivateKey) pair.getPrivate();
+        resetEncrypterAndDecrypter();
     }
 }
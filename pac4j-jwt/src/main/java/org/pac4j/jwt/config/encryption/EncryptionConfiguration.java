@@ -38,4 +38,14 @@ public interface EncryptionConfiguration {
      * @throws JOSEException exception when decrypting the JWT
      */
     void decrypt(EncryptedJWT encryptedJWT) throws JOSEException;
+
+    /**
+     * The version of the keys of this encryption configuration, changed when the keys are rotated
+     * (the JWT decrypted with the previous keys are not trusted anymore).
+     *
+     * @return the version of the keys
+     */
+    default long getKeysVersion() {
+        return 0;
+    }
 }
@@ -7,7 +7,6 @@ import com.nimbusds.jose.JWEEncrypter;
 import com.nimbusds.jose.crypto.RSADecrypter;
 import com.nimbusds.jose.crypto.RSAEncrypter;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
@@ -24,7 +23,6 @@ import java.security.interfaces.RSAPublicKey;
  * @since 1.9.2
  */
 @Getter
-@Setter
 public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     private RSAPublicKey publicKey;
@@ -53,6 +51,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        resetEncrypterAndDecrypter();
         CommonHelper.assertNotNull("algorithm", algorithm);
         CommonHelper.assertNotNull("method", method);
 
@@ -79,11 +78,23 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetEncrypterAndDecrypter();
+    }
+
+    public void setPublicKey(final RSAPublicKey publicKey) {
+        this.publicKey = publicKey;
+        resetEncrypterAndDecrypter();
+    }
+
+    public void setPrivateKey(final RSAPrivateKey privateKey) {
+        this.privateKey = privateKey;
+        resetEncrypterAndDecrypter();
     }
 
     public void setKeysFromJwk(final String json) {
         val pair = JWKHelper.buildRSAKeyPairFromJwk(json);
         this.publicKey = (RSAPublicKey) pair.getPublic();
         this.privateKey = (RSAPrivateKey) pair.getPrivate();
+        resetEncrypterAndDecrypter();
     }
 }
@@ -62,6 +62,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        resetEncrypterAndDecrypter();
         CommonHelper.assertNotNull("secret", secret);
         CommonHelper.assertNotNull("algorithm", algorithm);
         CommonHelper.assertNotNull("method", method);
@@ -103,6 +104,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecret(final String secret) {
         this.secret = secret.getBytes(UTF_8);
+        resetEncrypterAndDecrypter();
     }
 
     public byte[] getSecretBytes() {
@@ -111,6 +113,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecretBytes(final byte[] secretBytes) {
         this.secret = Arrays.copyOf(secretBytes,secretBytes.length);
+        resetEncrypterAndDecrypter();
     }
 
     public String getSecretBase64() {
@@ -119,5 +122,6 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecretBase64(final String secret) {
         this.secret = new Base64(secret).decode();
+        resetEncrypterAndDecrypter();
     }
 }
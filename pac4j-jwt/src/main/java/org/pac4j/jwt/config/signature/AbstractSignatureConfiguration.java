@@ -1,11 +1,21 @@
 package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.*;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Abstract signature configuration.
  *
+ * The signer and the verifier are thread-safe: they are built once (by {@link #buildSigner()} and {@link #buildVerifier()})
+ * and reused until the keys change. A subclass which signs and verifies per call by overriding {@link #sign(JWTClaimsSet)}
+ * and {@link #verify(SignedJWT)} does not need to implement these builders.
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -13,11 +23,119 @@ public abstract class AbstractSignatureConfiguration extends InitializableObject
 
     protected JWSAlgorithm algorithm = JWSAlgorithm.HS256;
 
+    protected String keyId;
+
+    private volatile JWSSigner signer;
+
+    private volatile JWSVerifier verifier;
+
+    private final AtomicLong keysVersion = new AtomicLong();
+
+    @Override
+    public SignedJWT sign(final JWTClaimsSet claims) {
+        init();
+
+        try {
+            val signedJWT = new SignedJWT(new JWSHeader.Builder(algorithm).keyID(keyId).build(), claims);
+            signedJWT.sign(getSigner());
+            return signedJWT;
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    @Override
+    public boolean verify(final SignedJWT jwt) throws JOSEException {
+        init();
+
+        return jwt.verify(getVerifier());
+    }
+
+    /**
+     * Return the signer, built once.
+     *
+     * @return the signer
+     * @throws JOSEException exception when building the signer
+     */
+    protected JWSSigner getSigner() throws JOSEException {
+        var currentSigner = this.signer;
+        if (currentSigner == null) {
+            currentSigner = buildSigner();
+            this.signer = currentSigner;
+        }
+        return currentSigner;
+    }
+
+    /**
+     * Return the verifier, built once.
+     *
+     * @return the verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected JWSVerifier getVerifier() throws JOSEException {
+        var currentVerifier = this.verifier;
+        if (currentVerifier == null) {
+            currentVerifier = buildVerifier();
+            this.verifier = currentVerifier;
+        }
+        return currentVerifier;
+    }
+
+    /**
+     * Build the appropriate signer (to be overridden unless {@link #sign(JWTClaimsSet)} is).
+     *
+     * @return the appropriate signer
+     * @throws JOSEException exception when building the signer
+     */
+    protected JWSSigner buildSigner() throws JOSEException {
+        throw new JOSEException(getClass().getName() + " must override buildSigner() or sign(JWTClaimsSet)");
+    }
+
+    /**
+     * Build the appropriate verifier (to be overridden unless {@link #verify(SignedJWT)} is).
+     *
+     * @return the appropriate verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        throw new JOSEException(getClass().getName() + " must override buildVerifier() or verify(SignedJWT)");
+    }
+
+    /**
+     * Discard the signer and the verifier (when the keys change): they will be re-built on the next use.
+     */
+    protected void resetSignerAndVerifier() {
+        this.signer = null;
+        this.verifier = null;
+        keysVersion.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The version changes each time the keys, the algorithm or the key identifier change.
+     */
+    @Override
+    public long getKeysVersion() {
+        return keysVersion.get();
+    }
+
     public JWSAlgorithm getAlgorithm() {
         return algorithm;
     }
 
     public void setAlgorithm(final JWSAlgorithm algorithm) {
         this.algorithm = algorithm;
+        resetSignerAndVerifier();
+    }
+
+    @Override
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(final String keyId) {
+        this.keyId = keyId;
+        keysVersion.incrementAndGet();
     }
 }
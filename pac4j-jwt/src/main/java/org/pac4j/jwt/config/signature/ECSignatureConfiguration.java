@@ -2,13 +2,11 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
@@ -25,7 +23,6 @@ import java.security.interfaces.ECPublicKey;
  * @since 1.9.2
  */
 @Getter
-@Setter
 public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
 
     private ECPublicKey publicKey;
@@ -48,6 +45,7 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        resetSignerAndVerifier();
         CommonHelper.assertNotNull("algorithm", algorithm);
 
         if (!supports(this.algorithm)) {
@@ -62,38 +60,40 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
     }
 
     @Override
-    public SignedJWT sign(JWTClaimsSet claims) {
-        init();
+    protected JWSSigner buildSigner() throws JOSEException {
         CommonHelper.assertNotNull("privateKey", privateKey);
 
-        try {
-            val signer = new ECDSASigner(this.privateKey);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
-            return signedJWT;
-        } catch (final JOSEException e) {
-            throw new TechnicalException(e);
-        }
+        return new ECDSASigner(this.privateKey);
     }
 
     @Override
-    public boolean verify(final SignedJWT jwt) throws JOSEException {
-        init();
+    protected JWSVerifier buildVerifier() throws JOSEException {
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        val verifier = new ECDSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return new ECDSAVerifier(this.publicKey);
     }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetSignerAndVerifier();
+    }
+
+    public void setPublicKey(final ECPublicKey publicKey) {
+        this.publicKey = publicKey;
+        resetSignerAndVerifier();
+    }
+
+    public void setPrivateKey(final ECPrivateKey privateKey) {
+        this.privateKey = privateKey;
+        resetSignerAndVerifier();
     }
 
     public void setKeysFromJwk(final String json) {
         val pair = JWKHelper.buildECKeyPairFromJwk(json);
         this.publicKey = (ECPublicKey) pair.getPublic();
         this.privateKey = (ECPrivateKey) pair.getPrivate();
+        resetSignerAndVerifier();
     }
 }
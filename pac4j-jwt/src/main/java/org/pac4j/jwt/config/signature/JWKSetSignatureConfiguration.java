@@ -0,0 +1,296 @@
+package org.pac4j.jwt.config.signature;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.crypto.factories.DefaultJWSVerifierFactory;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.*;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.JWSVerifierFactory;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.SharedExecutor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Signature configuration based on a JSON Web Key set (JWKS), loaded from a local file ({@link #jwksPath})
+ * or from a URL ({@link #jwksUrl}) with a {@link ResourceRetriever}. It can only verify signed JWT.
+ *
+ * The keys are provided by a Nimbus {@link JWKSource} and selected by a {@link JWSVerificationKeySelector} for the
+ * <code>kid</code> header and the algorithm of the JWT (among the accepted {@link #algorithms}).
+ *
+ * The keys are cached for {@link #refreshInterval} seconds and reloaded ahead of their expiration in the background
+ * (on the {@link #refreshExecutor}), the current keys being still used during the reload. They are also reloaded when
+ * a JWT with an unknown <code>kid</code> is received, at most twice every {@link #minRefreshInterval} seconds.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString(of = {"jwksPath", "jwksUrl", "algorithms", "refreshInterval", "minRefreshInterval"})
+public class JWKSetSignatureConfiguration extends InitializableObject implements SignatureConfiguration {
+
+    /**
+     * The time to live of the keys kept until an unknown key identifier is received (finite: the cache adds it to the current time).
+     */
+    private static final long NO_EXPIRATION = Long.MAX_VALUE / 2;
+
+    private String jwksPath;
+
+    private String jwksUrl;
+
+    private ResourceRetriever resourceRetriever = new DefaultResourceRetriever(5000, 5000);
+
+    /**
+     * The accepted signature algorithms (the RSA and EC ones by default).
+     */
+    private Set<JWSAlgorithm> algorithms = defaultAlgorithms();
+
+    /**
+     * The time to live of the keys (in seconds, 0 to keep them until an unknown key identifier is received).
+     */
+    private int refreshInterval = 3600;
+
+    /**
+     * The minimum interval of the rate limit of the reloads triggered by unknown key identifiers (in seconds, 0 for no limit).
+     */
+    private int minRefreshInterval = 30;
+
+    private ExecutorService refreshExecutor = SharedExecutor.getInstance();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final JWKSet staticJwkSet;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JWKSetSource<SecurityContext> jwkSetSource;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JWKSource<SecurityContext> jwkSource;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JWSVerificationKeySelector<SecurityContext> keySelector;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final JWSVerifierFactory verifierFactory = new DefaultJWSVerifierFactory();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final AtomicLong keysVersion = new AtomicLong();
+
+    public JWKSetSignatureConfiguration() {
+        this.staticJwkSet = null;
+    }
+
+    /**
+     * Define the configuration with static keys (never reloaded).
+     *
+     * @param jwkSet the keys
+     */
+    public JWKSetSignatureConfiguration(final JWKSet jwkSet) {
+        CommonHelper.assertNotNull("jwkSet", jwkSet);
+        this.staticJwkSet = jwkSet;
+    }
+
+    private static Set<JWSAlgorithm> defaultAlgorithms() {
+        final Set<JWSAlgorithm> algorithms = new LinkedHashSet<>(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+        return algorithms;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        keysVersion.incrementAndGet();
+        CommonHelper.assertTrue(algorithms != null && !algorithms.isEmpty(), "algorithms cannot be empty");
+        if (staticJwkSet != null) {
+            jwkSetSource = null;
+            jwkSource = new ImmutableJWKSet<>(staticJwkSet);
+        } else {
+            CommonHelper.assertTrue(CommonHelper.isNotBlank(jwksPath) ^ CommonHelper.isNotBlank(jwksUrl),
+                "either jwksPath or jwksUrl must be defined");
+            CommonHelper.assertNotNull("resourceRetriever", resourceRetriever);
+            CommonHelper.assertNotNull("refreshExecutor", refreshExecutor);
+            CommonHelper.assertTrue(refreshInterval >= 0, "refreshInterval cannot be negative");
+            CommonHelper.assertTrue(minRefreshInterval >= 0, "minRefreshInterval cannot be negative");
+            try {
+                jwkSetSource = buildJwkSetSource();
+            } catch (final IOException e) {
+                throw new TechnicalException(e);
+            }
+            jwkSource = new JWKSetBasedJWKSource<>(jwkSetSource);
+        }
+        keySelector = new JWSVerificationKeySelector<>(Set.copyOf(algorithms), jwkSource);
+    }
+
+    /**
+     * Build the cached source of the keys.
+     *
+     * @return the source of the keys
+     * @throws IOException if the location of the keys is invalid
+     */
+    protected JWKSetSource<SecurityContext> buildJwkSetSource() throws IOException {
+        final JWKSetSource<SecurityContext> source;
+        if (CommonHelper.isNotBlank(jwksPath)) {
+            val file = new File(jwksPath);
+            source = new URLBasedJWKSetSource<>(file.toURI().toURL(),
+                url -> new Resource(Files.readString(file.toPath(), StandardCharsets.UTF_8), "application/json"));
+        } else {
+            source = new URLBasedJWKSetSource<>(new URL(jwksUrl), resourceRetriever);
+        }
+        val versionedSource = new VersionedJWKSetSource(source);
+        val rateLimitedSource = minRefreshInterval > 0
+            ? new RateLimitedJWKSetSource<>(versionedSource, TimeUnit.SECONDS.toMillis(minRefreshInterval), null)
+            : versionedSource;
+        if (refreshInterval == 0) {
+            return new CachingJWKSetSource<>(rateLimitedSource, NO_EXPIRATION,
+                JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT, null);
+        }
+        val timeToLive = TimeUnit.SECONDS.toMillis(refreshInterval);
+        val refreshTimeout = Math.min(JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT, timeToLive / 4);
+        val refreshAheadTime = Math.min(JWKSourceBuilder.DEFAULT_REFRESH_AHEAD_TIME, timeToLive / 2);
+        return new RefreshAheadCachingJWKSetSource<>(rateLimitedSource, timeToLive, refreshTimeout, refreshAheadTime, false,
+            refreshExecutor, false, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The version changes when the configuration is initialized and when the loaded keys differ from the previous ones.
+     */
+    @Override
+    public long getKeysVersion() {
+        return keysVersion.get();
+    }
+
+    @Override
+    public boolean supports(final JWSAlgorithm algorithm) {
+        return algorithm != null && algorithms.contains(algorithm);
+    }
+
+    @Override
+    public SignedJWT sign(final JWTClaimsSet claims) {
+        throw new TechnicalException("The JWKSetSignatureConfiguration can only verify JWT");
+    }
+
+    @Override
+    public boolean verify(final SignedJWT jwt) throws JOSEException {
+        init();
+
+        val header = jwt.getHeader();
+        final List<? extends java.security.Key> keys;
+        try {
+            keys = keySelector.selectJWSKeys(header, null);
+        } catch (final KeySourceException e) {
+            LOGGER.warn("Cannot get the keys for kid: {} ({})", header.getKeyID(), e.getMessage());
+            LOGGER.debug("Cannot get the keys", e);
+            return false;
+        }
+        for (val key : keys) {
+            if (jwt.verify(verifierFactory.createJWSVerifier(header, key))) {
+                return true;
+            }
+        }
+        LOGGER.debug("No key verifies the JWT for kid: {}", header.getKeyID());
+        return false;
+    }
+
+    /**
+     * Return the identifiers of the current keys (loading them if necessary).
+     *
+     * @return the key identifiers
+     */
+    public Set<String> getKeyIds() {
+        init();
+
+        try {
+            final Set<String> keyIds = new HashSet<>();
+            for (val jwk : jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null)) {
+                if (jwk.getKeyID() != null) {
+                    keyIds.add(jwk.getKeyID());
+                }
+            }
+            return keyIds;
+        } catch (final KeySourceException e) {
+            throw new TechnicalException("Cannot load the JWKS", e);
+        }
+    }
+
+    /**
+     * Reload the keys synchronously (the current keys are kept if the reload fails).
+     */
+    public void refresh() {
+        init();
+
+        if (jwkSetSource != null) {
+            try {
+                jwkSetSource.getJWKSet(JWKSetCacheRefreshEvaluator.forceRefresh(), System.currentTimeMillis(), null);
+            } catch (final KeySourceException e) {
+                LOGGER.warn("Cannot reload the JWKS, keeping the current keys", e);
+            }
+        }
+    }
+
+    /**
+     * The source loading the keys, which changes the version of the keys when they differ from the previous ones.
+     */
+    private final class VersionedJWKSetSource implements JWKSetSource<SecurityContext> {
+
+        private final JWKSetSource<SecurityContext> source;
+
+        private String lastContent;
+
+        private VersionedJWKSetSource(final JWKSetSource<SecurityContext> source) {
+            this.source = source;
+        }
+
+        @Override
+        public JWKSet getJWKSet(final JWKSetCacheRefreshEvaluator refreshEvaluator, final long currentTime,
+                                final SecurityContext context) throws KeySourceException {
+            val jwkSet = source.getJWKSet(refreshEvaluator, currentTime, context);
+            val content = jwkSet.toString();
+            synchronized (this) {
+                if (lastContent != null && !lastContent.equals(content)) {
+                    keysVersion.incrementAndGet();
+                }
+                lastContent = content;
+            }
+            return jwkSet;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -2,13 +2,11 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import lombok.Getter;
-import lombok.Setter;
 import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
@@ -25,7 +23,6 @@ import java.security.interfaces.RSAPublicKey;
  * @since 1.9.2
  */
 @Getter
-@Setter
 public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
     private RSAPublicKey publicKey;
@@ -48,6 +45,7 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        resetSignerAndVerifier();
         CommonHelper.assertNotNull("algorithm", algorithm);
 
         if (!supports(this.algorithm)) {
@@ -61,38 +59,40 @@ public class RSASignatureConfiguration extends AbstractSignatureConfiguration {
     }
 
     @Override
-    public SignedJWT sign(JWTClaimsSet claims) {
-        init();
+    protected JWSSigner buildSigner() throws JOSEException {
         CommonHelper.assertNotNull("privateKey", privateKey);
 
-        try {
-            val signer = new RSASSASigner(this.privateKey);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
-            return signedJWT;
-        } catch (final JOSEException e) {
-            throw new TechnicalException(e);
-        }
+        return new RSASSASigner(this.privateKey);
     }
 
     @Override
-    public boolean verify(final SignedJWT jwt) throws JOSEException {
-        init();
+    protected JWSVerifier buildVerifier() throws JOSEException {
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        val verifier = new RSASSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return new RSASSAVerifier(this.publicKey);
     }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetSignerAndVerifier();
+    }
+
+    public void setPublicKey(final RSAPublicKey publicKey) {
+        this.publicKey = publicKey;
+        resetSignerAndVerifier();
+    }
+
+    public void setPrivateKey(final RSAPrivateKey privateKey) {
+        this.privateKey = privateKey;
+        resetSignerAndVerifier();
     }
 
     public void setKeysFromJwk(final String json) {
         val pair = JWKHelper.buildRSAKeyPairFromJwk(json);
         this.publicKey = (RSAPublicKey) pair.getPublic();
         this.privateKey = (RSAPrivateKey) pair.getPrivate();
+        resetSignerAndVerifier();
     }
 }
@@ -2,13 +2,11 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jose.util.Base64;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
-import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 
@@ -50,6 +48,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        resetSignerAndVerifier();
         CommonHelper.assertNotNull("algorithm", algorithm);
         CommonHelper.assertNotNull("secret", secret);
 
@@ -64,25 +63,13 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
     }
 
     @Override
-    public SignedJWT sign(final JWTClaimsSet claims) {
-        init();
-
-        try {
-            val signer = new MACSigner(this.secret);
-            val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
-            return signedJWT;
-        } catch (final JOSEException e) {
-            throw new TechnicalException(e);
-        }
+    protected JWSSigner buildSigner() throws JOSEException {
+        return new MACSigner(this.secret);
     }
 
     @Override
-    public boolean verify(final SignedJWT jwt) throws JOSEException {
-        init();
-
-        val verifier = new MACVerifier(this.secret);
-        return jwt.verify(verifier);
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new MACVerifier(this.secret);
     }
 
     public String getSecret() {
@@ -91,6 +78,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecret(final String secret) {
         this.secret = secret.getBytes(UTF_8);
+        resetSignerAndVerifier();
     }
 
     public byte[] getSecretBytes() {
@@ -99,6 +87,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecretBytes(final byte[] secretBytes) {
         this.secret = Arrays.copyOf(secretBytes,secretBytes.length);
+        resetSignerAndVerifier();
     }
 
     public String getSecretBase64() {
@@ -107,5 +96,6 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecretBase64(final String secret) {
         this.secret = new Base64(secret).decode();
+        resetSignerAndVerifier();
     }
 }
@@ -37,4 +37,23 @@ public interface SignatureConfiguration {
      * @throws JOSEException exception when verifying the JWT
      */
     boolean verify(SignedJWT jwt) throws JOSEException;
+
+    /**
+     * The identifier of the key of this signature configuration (<code>kid</code> header).
+     *
+     * @return the key identifier (<code>null</code> if the key is not identified)
+     */
+    default String getKeyId() {
+        return null;
+    }
+
+    /**
+     * The version of the keys of this signature configuration, changed when the keys are rotated
+     * (the JWT verified with the previous keys are not trusted anymore).
+     *
+     * @return the version of the keys
+     */
+    default long getKeysVersion() {
+        return 0;
+    }
 }
@@ -2,6 +2,7 @@ package org.pac4j.jwt.credentials.authenticator;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jwt.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -20,6 +21,7 @@ import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
 import org.pac4j.core.profile.definition.ProfileDefinitionAware;
 import org.pac4j.core.profile.jwt.JwtClaims;
+import org.pac4j.core.util.InitializableObject;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.generator.ValueGenerator;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
@@ -59,6 +61,18 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
 
     private ValueGenerator identifierGenerator;
 
+    private VerifiedJwtCache verifiedJwtCache;
+
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile SignatureConfigurationsIndex signatureConfigurationsIndex;
+
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile long keysVersion;
+
     public JwtAuthenticator() {}
 
     public JwtAuthenticator(final List<SignatureConfiguration> signatureConfigurations) {
@@ -83,6 +97,19 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     @Override
     protected void internalInit(final boolean forceReinit) {
         assertNotBlank("realmName", this.realmName);
+        // the configurations are initialized now so that their own initialization is not seen as a key rotation
+        for (val config : signatureConfigurations) {
+            if (config instanceof InitializableObject initializableObject) {
+                initializableObject.init();
+            }
+        }
+        for (val config : encryptionConfigurations) {
+            if (config instanceof InitializableObject initializableObject) {
+                initializableObject.init();
+            }
+        }
+        keysVersion = computeKeysVersion();
+        configurationsChanged();
         setProfileDefinitionIfUndefined(new JwtProfileDefinition());
 
         if (signatureConfigurations.isEmpty()) {
@@ -137,6 +164,48 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
             context.setResponseHeader(HttpConstants.AUTHENTICATE_HEADER, "Bearer realm=\"" + realmName + "\"");
         }
 
+        invalidateVerifiedJwtsIfKeysRotated();
+        final String cacheKey;
+        if (verifiedJwtCache != null) {
+            cacheKey = verifiedJwtCache.key(token);
+            val entry = verifiedJwtCache.get(cacheKey);
+            if (entry != null) {
+                if (entry.isFailure()) {
+                    throw new CredentialsException(entry.getFailure());
+                }
+                logger.debug("JWT already verified");
+                createProfile(credentials, entry.getJwt(), context, sessionStore);
+                return Optional.of(credentials);
+            }
+        } else {
+            cacheKey = null;
+        }
+
+        final JWT jwt;
+        try {
+            jwt = verifyJwt(token);
+        } catch (final CredentialsException e) {
+            if (cacheKey != null) {
+                verifiedJwtCache.putFailure(cacheKey, e.getMessage());
+            }
+            throw e;
+        }
+        if (cacheKey != null) {
+            verifiedJwtCache.putVerified(cacheKey, token, jwt);
+        }
+
+        createProfile(credentials, jwt, context, sessionStore);
+
+        return Optional.of(credentials);
+    }
+
+    /**
+     * Parse, decrypt and verify the token.
+     *
+     * @param token the raw token
+     * @return the verified JWT
+     */
+    protected JWT verifyJwt(final String token) {
         try {
             // Parse the token
             var jwt = JWTParser.parse(token);
@@ -191,7 +260,7 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
                     var verified = false;
                     var found = false;
                     val algorithm = signedJWT.getHeader().getAlgorithm();
-                    for (val config : signatureConfigurations) {
+                    for (val config : findSignatureConfigurations(signedJWT.getHeader().getKeyID())) {
                         if (config.supports(algorithm)) {
                             logger.debug("Using signature configuration: {}", config);
                             try {
@@ -214,13 +283,74 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
                 }
             }
 
-            createJwtProfile(credentials, jwt, context, sessionStore);
-
+            return jwt;
         } catch (final ParseException e) {
             throw new CredentialsException("Cannot decrypt / verify JWT", e);
         }
+    }
 
-        return Optional.of(credentials);
+    /**
+     * Find the signature configurations to use for a key identifier (<code>kid</code> header): the configurations
+     * defined for this key identifier if any, the configurations without key identifier otherwise.
+     *
+     * @param keyId the key identifier (may be <code>null</code>)
+     * @return the signature configurations
+     */
+    protected List<SignatureConfiguration> findSignatureConfigurations(final String keyId) {
+        var index = this.signatureConfigurationsIndex;
+        if (index == null) {
+            index = new SignatureConfigurationsIndex(signatureConfigurations);
+            this.signatureConfigurationsIndex = index;
+        }
+        if (keyId == null) {
+            return index.all;
+        }
+        val configurations = index.byKeyId.get(keyId);
+        return configurations != null ? configurations : index.withoutKeyId;
+    }
+
+    /**
+     * Rebuild the key identifier index and invalidate the cache of the verified JWT when the keys (or key identifiers)
+     * of a signature or encryption configuration have changed (the versions only increase: their sum changes).
+     */
+    protected void invalidateVerifiedJwtsIfKeysRotated() {
+        val version = computeKeysVersion();
+        if (version != this.keysVersion) {
+            logger.debug("Keys rotated: rebuilding the key identifier index and invalidating the verified JWT");
+            this.keysVersion = version;
+            configurationsChanged();
+        }
+    }
+
+    private long computeKeysVersion() {
+        var version = 0L;
+        for (val config : signatureConfigurations) {
+            version += config.getKeysVersion();
+        }
+        for (val config : encryptionConfigurations) {
+            version += config.getKeysVersion();
+        }
+        return version;
+    }
+
+    /**
+     * The signature or encryption configurations have changed: the key identifier index is rebuilt
+     * and the JWT verified with the previous configurations are not trusted anymore.
+     */
+    protected void configurationsChanged() {
+        signatureConfigurationsIndex = null;
+        if (verifiedJwtCache != null) {
+            verifiedJwtCache.invalidateAll();
+        }
+    }
+
+    protected void createProfile(final TokenCredentials credentials, final JWT jwt, final WebContext context,
+                                 final SessionStore sessionStore) {
+        try {
+            createJwtProfile(credentials, jwt, context, sessionStore);
+        } catch (final ParseException e) {
+            throw new CredentialsException("Cannot decrypt / verify JWT", e);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -278,11 +408,13 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addSignatureConfiguration(final SignatureConfiguration signatureConfiguration) {
         assertNotNull("signatureConfiguration", signatureConfiguration);
         signatureConfigurations.add(signatureConfiguration);
+        configurationsChanged();
     }
 
     public void setSignatureConfigurations(final List<SignatureConfiguration> signatureConfigurations) {
         assertNotNull("signatureConfigurations", signatureConfigurations);
         this.signatureConfigurations = signatureConfigurations;
+        configurationsChanged();
     }
 
     public void setEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
@@ -292,11 +424,13 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public void addEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
         assertNotNull("encryptionConfiguration", encryptionConfiguration);
         encryptionConfigurations.add(encryptionConfiguration);
+        configurationsChanged();
     }
 
     public void setEncryptionConfigurations(final List<EncryptionConfiguration> encryptionConfigurations) {
         assertNotNull("encryptionConfigurations", encryptionConfigurations);
         this.encryptionConfigurations = encryptionConfigurations;
+        configurationsChanged();
     }
 
     public void setExpirationTime(final Date expirationTime) {
@@ -306,4 +440,34 @@ public class JwtAuthenticator extends ProfileDefinitionAware implements Authenti
     public Date getExpirationTime() {
         return new Date(expirationTime.getTime());
     }
+
+    /**
+     * The signature configurations indexed by key identifier.
+     */
+    private static final class SignatureConfigurationsIndex {
+
+        private final List<SignatureConfiguration> all;
+
+        private final List<SignatureConfiguration> withoutKeyId;
+
+        private final Map<String, List<SignatureConfiguration>> byKeyId;
+
+        private SignatureConfigurationsIndex(final List<SignatureConfiguration> configurations) {
+            this.all = List.copyOf(configurations);
+            final List<SignatureConfiguration> unidentified = new ArrayList<>();
+            final Map<String, List<SignatureConfiguration>> identified = new HashMap<>();
+            for (val configuration : configurations) {
+                val keyId = configuration.getKeyId();
+                if (keyId != null) {
+                    identified.computeIfAbsent(keyId, k -> new ArrayList<>()).add(configuration);
+                } else {
+                    unidentified.add(configuration);
+                }
+            }
+            this.withoutKeyId = List.copyOf(unidentified);
+            final Map<String, List<SignatureConfiguration>> byKeyId = new HashMap<>();
+            identified.forEach((keyId, configs) -> byKeyId.put(keyId, List.copyOf(configs)));
+            this.byKeyId = Map.copyOf(byKeyId);
+        }
+    }
 }
@@ -0,0 +1,255 @@
+package org.pac4j.jwt.credentials.authenticator;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nimbusds.jwt.JWT;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the JWT already verified (decrypted and signature checked) by the {@link JwtAuthenticator},
+ * indexed by a SHA-256 digest of the raw token.
+ *
+ * A verified JWT is cached until its expiration time (<code>exp</code> claim) or the {@link #timeToLive},
+ * whichever comes first. A JWT which failed the verification is cached for {@link #failureTimeToLive} seconds
+ * so that the same forged token is not verified again and again.
+ *
+ * The cache is bounded by a number of entries ({@link #maximumSize}) or, if defined,
+ * by an estimated memory size ({@link #maximumMemory}).
+ *
+ * Add the <code>guava</code> dependency to use this class.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@ToString(of = {"maximumSize", "maximumMemory", "timeToLive", "failureTimeToLive"})
+public class VerifiedJwtCache extends InitializableObject {
+
+    /**
+     * Fixed estimated memory size of a cache entry (key, entry, internal nodes).
+     */
+    private static final int ENTRY_OVERHEAD = 256;
+
+    private long maximumSize = 10_000;
+
+    /**
+     * The maximum estimated memory size of the cache in bytes (0 to only bound the cache by its number of entries).
+     */
+    private long maximumMemory;
+
+    /**
+     * The maximum time to live of a verified JWT in the cache (in seconds).
+     */
+    private int timeToLive = 300;
+
+    /**
+     * The time to live of a failed verification in the cache (in seconds, 0 to disable negative caching).
+     */
+    private int failureTimeToLive = 5;
+
+    private Clock clock = Clock.systemUTC();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Cache<String, Entry> cache;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder hits = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder failureHits = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder misses = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedJwtCache() {}
+
+    public VerifiedJwtCache(final long maximumSize, final int timeToLive) {
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertTrue(this.maximumSize > 0 || this.maximumMemory > 0, "maximumSize or maximumMemory must be greater than zero");
+        CommonHelper.assertTrue(this.timeToLive > 0, "timeToLive must be greater than zero");
+        CommonHelper.assertTrue(this.failureTimeToLive >= 0, "failureTimeToLive cannot be negative");
+        CommonHelper.assertNotNull("clock", this.clock);
+
+        final CacheBuilder<String, Entry> builder = CacheBuilder.newBuilder()
+            .expireAfterWrite(Math.max(this.timeToLive, this.failureTimeToLive), TimeUnit.SECONDS)
+            .removalListener(notification -> {
+                if (notification.wasEvicted()) {
+                    evictions.increment();
+                }
+            });
+        if (this.maximumMemory > 0) {
+            builder.maximumWeight(this.maximumMemory).weigher((key, entry) -> key.length() * 2 + entry.weight);
+        } else {
+            builder.maximumSize(this.maximumSize);
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Compute the cache key of a raw token.
+     *
+     * @param token the raw token
+     * @return the cache key
+     */
+    public String key(final String token) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Return the cached verification for a key.
+     *
+     * @param key the cache key
+     * @return the cached entry (<code>null</code> if the token has not been verified yet or if it has expired)
+     */
+    public Entry get(final String key) {
+        init();
+
+        val entry = cache.getIfPresent(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            cache.invalidate(key);
+            misses.increment();
+            return null;
+        }
+        if (entry.isFailure()) {
+            failureHits.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Cache a successfully verified JWT.
+     *
+     * @param key the cache key
+     * @param token the raw token
+     * @param jwt the verified JWT
+     */
+    public void putVerified(final String key, final String token, final JWT jwt) {
+        init();
+
+        var expiresAt = clock.millis() + TimeUnit.SECONDS.toMillis(this.timeToLive);
+        try {
+            val expirationTime = jwt.getJWTClaimsSet().getExpirationTime();
+            if (expirationTime != null) {
+                expiresAt = Math.min(expiresAt, expirationTime.getTime());
+            }
+        } catch (final ParseException e) {
+            return;
+        }
+        // the claims are kept twice: in the raw token and in the parsed JWT
+        cache.put(key, new Entry(jwt, null, expiresAt, ENTRY_OVERHEAD + token.length() * 4));
+    }
+
+    /**
+     * Cache a failed verification.
+     *
+     * @param key the cache key
+     * @param message the failure message
+     */
+    public void putFailure(final String key, final String message) {
+        init();
+
+        if (this.failureTimeToLive > 0) {
+            val expiresAt = clock.millis() + TimeUnit.SECONDS.toMillis(this.failureTimeToLive);
+            cache.put(key, new Entry(null, message, expiresAt, ENTRY_OVERHEAD + (message != null ? message.length() * 2 : 0)));
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public long getSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getFailureHits() {
+        return failureHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * A cached verification: either a verified JWT or a failure message.
+     */
+    @Getter
+    public static final class Entry {
+
+        private final JWT jwt;
+
+        private final String failure;
+
+        private final long expiresAt;
+
+        @Getter(AccessLevel.NONE)
+        private final int weight;
+
+        Entry(final JWT jwt, final String failure, final long expiresAt, final int weight) {
+            this.jwt = jwt;
+            this.failure = failure;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+
+        public boolean isFailure() {
+            return jwt == null;
+        }
+
+        public Date getExpirationDate() {
+            return new Date(expiresAt);
+        }
+    }
+}
@@ -13,7 +13,7 @@ import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 
 import java.text.ParseException;
 
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  * Tests {@link RSAEncryptionConfiguration}.
@@ -105,4 +105,31 @@ public final class RSAEncryptionConfigurationTests extends AbstractKeyEncryption
         config2.setMethod(EncryptionMethod.A128GCM);
         TestsHelper.expectException(() -> config2.decrypt(encryptedJwt), TechnicalException.class, "privateKey cannot be null");
     }
+
+    @Test
+    public void testEncrypterAndDecrypterReused() throws ParseException, JOSEException {
+        val config = new RSAEncryptionConfiguration(buildKeyPair(), JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM);
+        val token = config.encrypt(new PlainJWT(buildClaims()));
+        config.decrypt((EncryptedJWT) JWTParser.parse(token));
+        val encrypter = config.getEncrypter();
+        val decrypter = config.getDecrypter();
+
+        val token2 = config.encrypt(new PlainJWT(buildClaims()));
+        val encryptedJwt2 = (EncryptedJWT) JWTParser.parse(token2);
+        config.decrypt(encryptedJwt2);
+        assertEquals(VALUE, encryptedJwt2.getJWTClaimsSet().getSubject());
+        assertSame(encrypter, config.getEncrypter());
+        assertSame(decrypter, config.getDecrypter());
+    }
+
+    @Test
+    public void testKeyChange() throws ParseException {
+        val config = new RSAEncryptionConfiguration(buildKeyPair(), JWEAlgorithm.RSA_OAEP_256, EncryptionMethod.A256GCM);
+        val token = config.encrypt(new PlainJWT(buildClaims()));
+        val decrypter = config.getDecrypter();
+        config.setKeyPair(buildKeyPair());
+        assertNotSame(decrypter, config.getDecrypter());
+        val encryptedJwt = (EncryptedJWT) JWTParser.parse(token);
+        TestsHelper.expectException(() -> config.decrypt(encryptedJwt));
+    }
 }
@@ -0,0 +1,307 @@
+package org.pac4j.jwt.config.signature;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.AbstractKeyEncryptionConfigurationTests;
+import org.pac4j.jwt.credentials.authenticator.JwtAuthenticator;
+import org.pac4j.jwt.credentials.authenticator.VerifiedJwtCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JWKSetSignatureConfiguration} and the selection of the signature configurations by key identifier.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class JWKSetSignatureConfigurationTests extends AbstractKeyEncryptionConfigurationTests {
+
+    @Override
+    protected String getAlgorithm() {
+        return "RSA";
+    }
+
+    private static JWK toJwk(final KeyPair keyPair, final String keyId) {
+        return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic()).keyID(keyId).build();
+    }
+
+    private static SignedJWT sign(final KeyPair keyPair, final String keyId) {
+        val config = new RSASignatureConfiguration(keyPair, JWSAlgorithm.RS256);
+        config.setKeyId(keyId);
+        return config.sign(new JWTClaimsSet.Builder().subject(VALUE).build());
+    }
+
+    private static File writeJwks(final File file, final JWK... keys) throws IOException {
+        Files.writeString(file.toPath(), new JWKSet(List.of(keys)).toString(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    @Test
+    public void testVerifyByKeyId() throws JOSEException {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val config = new JWKSetSignatureConfiguration(new JWKSet(List.of(toJwk(keyPair1, "k1"), toJwk(keyPair2, "k2"))));
+        assertTrue(config.supports(JWSAlgorithm.RS256));
+        assertFalse(config.supports(JWSAlgorithm.HS256));
+        assertTrue(config.verify(sign(keyPair2, "k2")));
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+        assertTrue(config.verify(sign(keyPair1, null)));
+        assertFalse(config.verify(sign(keyPair1, "k2")));
+        assertFalse(config.verify(sign(keyPair1, "k3")));
+    }
+
+    @Test
+    public void testNoSource() {
+        val config = new JWKSetSignatureConfiguration();
+        TestsHelper.expectException(config::init, TechnicalException.class, "either jwksPath or jwksUrl must be defined");
+    }
+
+    @Test
+    public void testCannotSign() {
+        val config = new JWKSetSignatureConfiguration(new JWKSet());
+        TestsHelper.expectException(() -> config.sign(new JWTClaimsSet.Builder().build()), TechnicalException.class,
+            "The JWKSetSignatureConfiguration can only verify JWT");
+    }
+
+    @Test
+    public void testRefreshOnUnknownKeyId() throws Exception {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val file = writeJwks(File.createTempFile("jwks", ".json"), toJwk(keyPair1, "k1"));
+        file.deleteOnExit();
+
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksPath(file.getAbsolutePath());
+        config.setMinRefreshInterval(0);
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+
+        val keysVersion = config.getKeysVersion();
+
+        writeJwks(file, toJwk(keyPair1, "k1"), toJwk(keyPair2, "k2"));
+        assertTrue(config.verify(sign(keyPair2, "k2")));
+        assertEquals(2, config.getKeyIds().size());
+        assertEquals(keysVersion + 1, config.getKeysVersion());
+    }
+
+    @Test
+    public void testKeysKeptUntilUnknownKeyId() throws Exception {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val file = writeJwks(File.createTempFile("jwks", ".json"), toJwk(keyPair1, "k1"));
+        file.deleteOnExit();
+
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksPath(file.getAbsolutePath());
+        config.setRefreshInterval(0);
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+
+        writeJwks(file, toJwk(keyPair1, "k1"), toJwk(keyPair2, "k2"));
+        assertEquals(1, config.getKeyIds().size());
+        assertTrue(config.verify(sign(keyPair2, "k2")));
+        assertEquals(2, config.getKeyIds().size());
+    }
+
+    @Test
+    public void testRefreshOnUnknownKeyIdIsRateLimited() throws Exception {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val keyPair3 = buildKeyPair();
+        val file = writeJwks(File.createTempFile("jwks", ".json"), toJwk(keyPair1, "k1"));
+        file.deleteOnExit();
+
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksPath(file.getAbsolutePath());
+        assertEquals(1, config.getKeyIds().size());
+
+        // two loads per interval
+        writeJwks(file, toJwk(keyPair1, "k1"), toJwk(keyPair2, "k2"));
+        assertTrue(config.verify(sign(keyPair2, "k2")));
+        writeJwks(file, toJwk(keyPair1, "k1"), toJwk(keyPair2, "k2"), toJwk(keyPair3, "k3"));
+        assertFalse(config.verify(sign(keyPair3, "k3")));
+        assertEquals(2, config.getKeyIds().size());
+    }
+
+    @Test
+    public void testSupportsAlgorithmsBeforeLoading() {
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksUrl("http://localhost:1/jwks");
+        assertTrue(config.supports(JWSAlgorithm.RS256));
+        assertTrue(config.supports(JWSAlgorithm.ES256));
+        assertFalse(config.supports(JWSAlgorithm.HS256));
+
+        config.setAlgorithms(Set.of(JWSAlgorithm.RS512));
+        assertFalse(config.supports(JWSAlgorithm.RS256));
+        assertTrue(config.supports(JWSAlgorithm.RS512));
+    }
+
+    private static final class RecordingExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public void shutdown() {}
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return tasks;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testBackgroundRefresh() throws Exception {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val file = writeJwks(File.createTempFile("jwks", ".json"), toJwk(keyPair1, "k1"));
+        file.deleteOnExit();
+
+        val executor = new RecordingExecutor();
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksPath(file.getAbsolutePath());
+        config.setRefreshInterval(2);
+        config.setRefreshExecutor(executor);
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+        writeJwks(file, toJwk(keyPair2, "k2"));
+
+        // within the last second before the expiration: the reload runs in the background
+        Thread.sleep(1300);
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+        assertEquals(1, executor.tasks.size());
+
+        executor.tasks.get(0).run();
+        assertEquals(Set.of("k2"), config.getKeyIds());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsKeys() throws Exception {
+        val keyPair1 = buildKeyPair();
+        val file = writeJwks(File.createTempFile("jwks", ".json"), toJwk(keyPair1, "k1"));
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksPath(file.getAbsolutePath());
+        assertEquals(1, config.getKeyIds().size());
+        assertTrue(file.delete());
+
+        config.refresh();
+        assertTrue(config.verify(sign(keyPair1, "k1")));
+    }
+
+    private static final class CountingSignatureConfiguration extends RSASignatureConfiguration {
+
+        private final AtomicInteger nbVerifications = new AtomicInteger();
+
+        private CountingSignatureConfiguration(final KeyPair keyPair, final String keyId) {
+            super(keyPair);
+            setKeyId(keyId);
+        }
+
+        @Override
+        public boolean verify(final SignedJWT jwt) throws JOSEException {
+            nbVerifications.incrementAndGet();
+            return super.verify(jwt);
+        }
+    }
+
+    @Test
+    public void testAuthenticatorSelectsByKeyId() {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val config1 = new CountingSignatureConfiguration(keyPair1, "k1");
+        val config2 = new CountingSignatureConfiguration(keyPair2, "k2");
+        val authenticator = new JwtAuthenticator(List.of(config1, config2));
+
+        val credentials = new TokenCredentials(sign(keyPair2, "k2").serialize());
+        authenticator.validate(credentials, null, null);
+        assertEquals(VALUE, credentials.getUserProfile().getId());
+        assertEquals(0, config1.nbVerifications.get());
+        assertEquals(1, config2.nbVerifications.get());
+
+        // unknown key identifier: only the configurations without key identifier are used
+        assertTrue(TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(sign(keyPair1, "k3").serialize()),
+            null, null)) instanceof CredentialsException);
+        assertEquals(0, config1.nbVerifications.get());
+
+        // no key identifier: all the configurations are used
+        authenticator.validate(new TokenCredentials(sign(keyPair1, null).serialize()), null, null);
+        assertEquals(1, config1.nbVerifications.get());
+    }
+
+    @Test
+    public void testAuthenticatorRebuildsKeyIdIndexOnKeyIdChange() {
+        val keyPair1 = buildKeyPair();
+        val config1 = new CountingSignatureConfiguration(keyPair1, "k1");
+        val authenticator = new JwtAuthenticator(List.of(config1));
+        authenticator.validate(new TokenCredentials(sign(keyPair1, "k1").serialize()), null, null);
+
+        config1.setKeyId("k3");
+        authenticator.validate(new TokenCredentials(sign(keyPair1, "k3").serialize()), null, null);
+        assertTrue(TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(sign(keyPair1, "k1").serialize()),
+            null, null)) instanceof CredentialsException);
+    }
+
+    @Test
+    public void testAuthenticatorRejectsCachedTokenAfterJwksRotation() throws Exception {
+        val keyPair1 = buildKeyPair();
+        val keyPair2 = buildKeyPair();
+        val file = writeJwks(File.createTempFile("jwks", ".json"), toJwk(keyPair1, "k1"));
+        file.deleteOnExit();
+        val config = new JWKSetSignatureConfiguration();
+        config.setJwksPath(file.getAbsolutePath());
+        config.setMinRefreshInterval(0);
+        val authenticator = new JwtAuthenticator(config);
+        authenticator.setVerifiedJwtCache(new VerifiedJwtCache());
+
+        val token = sign(keyPair1, "k1").serialize();
+        authenticator.validate(new TokenCredentials(token), null, null);
+        authenticator.validate(new TokenCredentials(token), null, null);
+
+        // the key k1 is revoked and replaced
+        writeJwks(file, toJwk(keyPair2, "k1"));
+        config.refresh();
+        assertTrue(TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials(token), null, null))
+            instanceof CredentialsException);
+    }
+}
@@ -14,7 +14,7 @@ import org.pac4j.jwt.util.JWKHelper;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Tests {@link RSASignatureConfiguration}.
@@ -73,4 +73,28 @@ public final class RSASignatureConfigurationTests extends AbstractKeyEncryptionC
         val signedJwt = config.sign(claims);
         assertTrue(config.verify(signedJwt));
     }
+
+    @Test
+    public void testSignerAndVerifierReused() throws JOSEException {
+        val config = new RSASignatureConfiguration(buildKeyPair());
+        val signedJwt = config.sign(buildClaims());
+        assertTrue(config.verify(signedJwt));
+        val signer = config.getSigner();
+        val verifier = config.getVerifier();
+        assertSame(signer, config.getSigner());
+        assertSame(verifier, config.getVerifier());
+        assertTrue(config.verify(config.sign(buildClaims())));
+        assertSame(signer, config.getSigner());
+    }
+
+    @Test
+    public void testKeyChange() throws JOSEException {
+        val config = new RSASignatureConfiguration(buildKeyPair());
+        val signedJwt = config.sign(buildClaims());
+        val signer = config.getSigner();
+        config.setKeyPair(buildKeyPair());
+        assertNotSame(signer, config.getSigner());
+        assertFalse(config.verify(signedJwt));
+        assertTrue(config.verify(config.sign(buildClaims())));
+    }
 }
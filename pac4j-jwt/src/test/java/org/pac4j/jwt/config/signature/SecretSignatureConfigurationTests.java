@@ -2,9 +2,13 @@ package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import lombok.val;
 import org.junit.Test;
 import org.pac4j.core.exception.TechnicalException;
@@ -99,4 +103,41 @@ public final class SecretSignatureConfigurationTests implements TestsConstants {
         assertTrue(config.verify(signedJwt));
     }
 
+    /**
+     * A signature configuration signing and verifying per call, without signer and verifier builders.
+     */
+    private static final class PerCallSignatureConfiguration extends AbstractSignatureConfiguration {
+
+        @Override
+        protected void internalInit(final boolean forceReinit) {}
+
+        @Override
+        public boolean supports(final JWSAlgorithm algorithm) {
+            return JWSAlgorithm.HS256.equals(algorithm);
+        }
+
+        @Override
+        public SignedJWT sign(final JWTClaimsSet claims) {
+            try {
+                val signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
+                signedJWT.sign(new MACSigner(MAC_SECRET));
+                return signedJWT;
+            } catch (final JOSEException e) {
+                throw new TechnicalException(e);
+            }
+        }
+
+        @Override
+        public boolean verify(final SignedJWT jwt) throws JOSEException {
+            return jwt.verify(new MACVerifier(MAC_SECRET));
+        }
+    }
+
+    @Test
+    public void testPerCallSubclass() throws JOSEException {
+        val config = new PerCallSignatureConfiguration();
+        val signedJwt = config.sign(new JWTClaimsSet.Builder().subject(VALUE).build());
+        assertTrue(config.verify(signedJwt));
+        assertTrue(new SecretSignatureConfiguration(MAC_SECRET).verify(signedJwt));
+    }
 }
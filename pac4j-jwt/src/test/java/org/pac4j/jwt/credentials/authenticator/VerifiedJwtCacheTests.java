@@ -0,0 +1,234 @@
+package org.pac4j.jwt.credentials.authenticator;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
+import org.pac4j.jwt.profile.JwtGenerator;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link VerifiedJwtCache} used by the {@link JwtAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class VerifiedJwtCacheTests implements TestsConstants {
+
+    private static final String OTHER_SECRET = "02ez4f7dsq==drrdz54z---++-6ef78=02ez4f7dsq==drrdz54z---++-6ef78=";
+
+    private static final class CountingSignatureConfiguration extends SecretSignatureConfiguration {
+
+        private int nbVerifications;
+
+        private long keysVersion;
+
+        CountingSignatureConfiguration(final String secret) {
+            super(secret);
+        }
+
+        @Override
+        public long getKeysVersion() {
+            return keysVersion;
+        }
+
+        @Override
+        public boolean verify(final SignedJWT jwt) throws JOSEException {
+            nbVerifications++;
+            return super.verify(jwt);
+        }
+    }
+
+    private static String generateToken(final String secret, final Date expirationTime) {
+        val generator = new JwtGenerator(new SecretSignatureConfiguration(secret));
+        if (expirationTime != null) {
+            generator.setExpirationTime(expirationTime);
+        }
+        val profile = new CommonProfile();
+        profile.setId(ID);
+        profile.addAttribute(NAME, VALUE);
+        profile.addRole("role1");
+        return generator.generate(profile);
+    }
+
+    private static CommonProfile validate(final JwtAuthenticator authenticator, final String token) {
+        val credentials = new TokenCredentials(token);
+        authenticator.validate(credentials, null, null);
+        return (CommonProfile) credentials.getUserProfile();
+    }
+
+    @Test
+    public void testVerifiedTokenIsCached() {
+        val signature = new CountingSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        val cache = new VerifiedJwtCache();
+        authenticator.setVerifiedJwtCache(cache);
+        val token = generateToken(MAC_SECRET, null);
+
+        val profile1 = validate(authenticator, token);
+        val profile2 = validate(authenticator, token);
+        assertEquals(1, signature.nbVerifications);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getSize());
+
+        assertNotSame(profile1, profile2);
+        assertEquals(ID, profile2.getId());
+        assertEquals(VALUE, profile2.getAttribute(NAME));
+        assertTrue(profile2.getRoles().contains("role1"));
+    }
+
+    @Test
+    public void testFailedVerificationIsCached() {
+        val signature = new CountingSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        val cache = new VerifiedJwtCache();
+        authenticator.setVerifiedJwtCache(cache);
+        val forgedToken = generateToken(OTHER_SECRET, null);
+
+        TestsHelper.expectException(() -> validate(authenticator, forgedToken), CredentialsException.class,
+            "JWT verification failed: " + forgedToken);
+        TestsHelper.expectException(() -> validate(authenticator, forgedToken), CredentialsException.class,
+            "JWT verification failed: " + forgedToken);
+        assertEquals(1, signature.nbVerifications);
+        assertEquals(1, cache.getFailureHits());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testNoFailureCaching() {
+        val signature = new CountingSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        val cache = new VerifiedJwtCache();
+        cache.setFailureTimeToLive(0);
+        authenticator.setVerifiedJwtCache(cache);
+        val forgedToken = generateToken(OTHER_SECRET, null);
+
+        TestsHelper.expectException(() -> validate(authenticator, forgedToken));
+        TestsHelper.expectException(() -> validate(authenticator, forgedToken));
+        assertEquals(2, signature.nbVerifications);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void testCachedTokenExpires() {
+        val signature = new CountingSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        val cache = new VerifiedJwtCache();
+        authenticator.setVerifiedJwtCache(cache);
+        val now = Instant.now();
+        val token = generateToken(MAC_SECRET, Date.from(now.plusSeconds(60)));
+
+        assertNotNull(validate(authenticator, token));
+        assertNotNull(validate(authenticator, token));
+        assertEquals(1, signature.nbVerifications);
+
+        // after the exp claim, the cached entry is rejected and the token verified again
+        cache.setClock(Clock.fixed(now.plusSeconds(61), ZoneOffset.UTC));
+        validate(authenticator, token);
+        assertEquals(2, signature.nbVerifications);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testCachedTokenTimeToLive() {
+        val signature = new CountingSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        val cache = new VerifiedJwtCache(100, 10);
+        authenticator.setVerifiedJwtCache(cache);
+        val token = generateToken(MAC_SECRET, Date.from(Instant.now().plus(Duration.ofHours(1))));
+
+        validate(authenticator, token);
+        cache.setClock(Clock.offset(Clock.systemUTC(), Duration.ofSeconds(11)));
+        validate(authenticator, token);
+        assertEquals(2, signature.nbVerifications);
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testMaximumSize() {
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        val cache = new VerifiedJwtCache(2, 60);
+        authenticator.setVerifiedJwtCache(cache);
+        for (var i = 0; i < 5; i++) {
+            validate(authenticator, generateToken(MAC_SECRET, new Date(System.currentTimeMillis() + 60_000 + i * 1000)));
+        }
+        assertTrue(cache.getSize() <= 2);
+        assertEquals(5, cache.getSize() + cache.getEvictions());
+    }
+
+    @Test
+    public void testMaximumMemory() {
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        val cache = new VerifiedJwtCache();
+        cache.setMaximumMemory(4 * 1024);
+        authenticator.setVerifiedJwtCache(cache);
+        for (var i = 0; i < 50; i++) {
+            validate(authenticator, generateToken(MAC_SECRET, new Date(System.currentTimeMillis() + 60_000 + i * 1000)));
+        }
+        assertTrue(cache.getSize() < 50);
+        assertTrue(cache.getEvictions() > 0);
+    }
+
+    @Test
+    public void testConfigurationsChangeInvalidatesCache() {
+        val authenticator = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET));
+        val cache = new VerifiedJwtCache();
+        authenticator.setVerifiedJwtCache(cache);
+        val token = generateToken(MAC_SECRET, null);
+        validate(authenticator, token);
+        assertEquals(1, cache.getSize());
+
+        authenticator.setSignatureConfigurations(List.of(new SecretSignatureConfiguration(OTHER_SECRET)));
+        assertEquals(0, cache.getSize());
+        TestsHelper.expectException(() -> validate(authenticator, token), CredentialsException.class,
+            "JWT verification failed: " + token);
+    }
+
+    @Test
+    public void testKeysRotationInvalidatesCache() {
+        val signature = new CountingSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        val cache = new VerifiedJwtCache();
+        authenticator.setVerifiedJwtCache(cache);
+        val token = generateToken(MAC_SECRET, null);
+        validate(authenticator, token);
+        validate(authenticator, token);
+        assertEquals(1, signature.nbVerifications);
+
+        signature.keysVersion++;
+        validate(authenticator, token);
+        assertEquals(2, signature.nbVerifications);
+        validate(authenticator, token);
+        assertEquals(2, signature.nbVerifications);
+    }
+
+    @Test
+    public void testSecretRotationRejectsCachedToken() {
+        val signature = new SecretSignatureConfiguration(MAC_SECRET);
+        val authenticator = new JwtAuthenticator(signature);
+        authenticator.setVerifiedJwtCache(new VerifiedJwtCache());
+        val token = generateToken(MAC_SECRET, null);
+        assertEquals(ID, validate(authenticator, token).getId());
+        assertEquals(ID, validate(authenticator, token).getId());
+
+        signature.setSecret(OTHER_SECRET);
+        TestsHelper.expectException(() -> validate(authenticator, token), CredentialsException.class,
+            "JWT verification failed: " + token);
+        assertEquals(ID, validate(authenticator, generateToken(OTHER_SECRET, null)).getId());
+    }
+}
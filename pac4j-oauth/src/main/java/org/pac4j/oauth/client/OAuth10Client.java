@@ -32,6 +32,9 @@ public class OAuth10Client extends IndirectClient {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        // the configuration may have changed
+        configuration.clearServices();
+
         setRedirectionActionBuilderIfUndefined(new OAuth10RedirectionActionBuilder(configuration, this));
         setCredentialsExtractorIfUndefined(new OAuth10CredentialsExtractor(configuration, this));
         setAuthenticatorIfUndefined(new OAuth10Authenticator(configuration, this));
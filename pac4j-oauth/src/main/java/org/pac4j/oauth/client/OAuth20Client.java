@@ -32,6 +32,9 @@ public class OAuth20Client extends IndirectClient {
 
     @Override
     protected void internalInit(final boolean forceReinit) {
+        // the configuration may have changed
+        configuration.clearServices();
+
         setRedirectionActionBuilderIfUndefined(new OAuth20RedirectionActionBuilder(configuration, this));
         setCredentialsExtractorIfUndefined(new OAuth20CredentialsExtractor(configuration, this));
         setAuthenticatorIfUndefined(new OAuth20Authenticator(configuration, this));
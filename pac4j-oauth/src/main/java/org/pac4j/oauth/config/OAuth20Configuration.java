@@ -1,7 +1,5 @@
 package org.pac4j.oauth.config;
 
-import com.github.scribejava.core.builder.api.DefaultApi20;
-import com.github.scribejava.core.oauth.OAuthService;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,9 +7,6 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.With;
 import lombok.experimental.Accessors;
-import lombok.val;
-import org.pac4j.core.client.IndirectClient;
-import org.pac4j.core.context.WebContext;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.generator.RandomValueGenerator;
 import org.pac4j.core.util.generator.ValueGenerator;
@@ -45,23 +40,6 @@ public class OAuth20Configuration extends OAuthConfiguration {
 
     private ValueGenerator stateGenerator = new RandomValueGenerator();
 
-    /**
-     * Build an OAuth service from the web context.
-     *
-     * @param context the web context
-     * @param client the client
-     * @return the OAuth service
-     */
-    @Override
-    public OAuthService buildService(final WebContext context, final IndirectClient client) {
-        init();
-
-        val finalCallbackUrl = client.computeFinalCallbackUrl(context);
-
-        return ((DefaultApi20) api).createService(this.key, this.secret, finalCallbackUrl, this.scope,
-            this.responseType, null, null, this.httpClientConfig, null);
-    }
-
     public void setStateGenerator(final ValueGenerator stateGenerator) {
         CommonHelper.assertNotNull("stateGenerator", stateGenerator);
         this.stateGenerator = stateGenerator;
@@ -1,26 +1,47 @@
 package org.pac4j.oauth.config;
 
+import com.github.scribejava.core.builder.api.DefaultApi10a;
+import com.github.scribejava.core.builder.api.DefaultApi20;
+import com.github.scribejava.core.httpclient.HttpClient;
 import com.github.scribejava.core.httpclient.HttpClientConfig;
 import com.github.scribejava.core.oauth.OAuthService;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.client.config.BaseClientConfiguration;
 import org.pac4j.core.context.WebContext;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * The base OAuth configuration.
  *
+ * The OAuth services are built once per final callback URL and cached (at most {@link #serviceCacheSize} services,
+ * the least recently used ones being evicted). A shared HTTP client (for example, a pooled keep-alive one) can be defined
+ * via the {@link #httpClient} property, otherwise each service creates its own HTTP client from the {@link #httpClientConfig}.
+ * The cache is cleared when the configuration is re-initialized or when a property used to build the services changes.
+ * The evicted and cleared services are closed, unless they use the shared HTTP client (closed by the application).
+ *
  * @author Jerome Leleu
  * @since 2.0.0
  */
+@Slf4j
 @Getter
 @Setter
-@ToString(exclude = "secret")
+@ToString(exclude = {"secret", "services", "serviceCacheHits", "serviceCacheMisses", "serviceCacheEvictions"})
 @Accessors(chain = true)
 public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
@@ -44,8 +65,34 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     protected HttpClientConfig httpClientConfig;
 
+    /**
+     * The HTTP client shared by all the OAuth services (never closed by pac4j).
+     */
+    protected HttpClient httpClient;
+
     protected Object api;
 
+    /**
+     * The maximum number of cached OAuth services (one per final callback URL).
+     */
+    protected int serviceCacheSize = 100;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final Map<String, OAuthService> services = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder serviceCacheHits = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder serviceCacheMisses = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder serviceCacheEvictions = new LongAdder();
+
     @Override
     protected void internalInit(final boolean forceReinit) {
         CommonHelper.assertNotNull("api", api);
@@ -53,7 +100,151 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
         CommonHelper.assertNotBlank("secret", this.secret);
         CommonHelper.assertNotNull("hasBeenCancelledFactory", hasBeenCancelledFactory);
         CommonHelper.assertNotNull("profileDefinition", profileDefinition);
+        CommonHelper.assertTrue(serviceCacheSize > 0, "serviceCacheSize must be greater than zero");
+
+        clearServices();
+    }
+
+    /**
+     * Return the OAuth service for the web context (built once per final callback URL).
+     *
+     * @param context the web context
+     * @param client the client
+     * @return the OAuth service
+     */
+    public OAuthService buildService(final WebContext context, final IndirectClient client) {
+        init();
+
+        val finalCallbackUrl = client.computeFinalCallbackUrl(context);
+        val cacheKey = finalCallbackUrl != null ? finalCallbackUrl : "";
+
+        final OAuthService service;
+        final List<OAuthService> evictedServices = new ArrayList<>();
+        synchronized (services) {
+            var cachedService = services.get(cacheKey);
+            if (cachedService != null) {
+                serviceCacheHits.increment();
+                return cachedService;
+            }
+            serviceCacheMisses.increment();
+            service = createService(finalCallbackUrl);
+            services.put(cacheKey, service);
+            // the iteration order is the access order: the least recently used services come first
+            val iterator = services.values().iterator();
+            while (services.size() > serviceCacheSize) {
+                evictedServices.add(iterator.next());
+                iterator.remove();
+                serviceCacheEvictions.increment();
+            }
+        }
+        closeServices(evictedServices);
+        return service;
+    }
+
+    /**
+     * Create a new OAuth service from the {@link #api} (OAuth 1.0a or 2.0).
+     *
+     * @param callbackUrl the final callback URL
+     * @return the OAuth service
+     */
+    protected OAuthService createService(final String callbackUrl) {
+        if (api instanceof DefaultApi20 api20) {
+            return api20.createService(this.key, this.secret, callbackUrl, this.scope, this.responseType, null, null,
+                this.httpClientConfig, this.httpClient);
+        } else if (api instanceof DefaultApi10a api10a) {
+            return api10a.createService(this.key, this.secret, callbackUrl, this.scope, null, null, this.httpClientConfig,
+                this.httpClient);
+        }
+        throw new TechnicalException("Unsupported api: " + api + " (createService must be overridden)");
+    }
+
+    /**
+     * Remove all the cached OAuth services and close them (unless they use the shared HTTP client).
+     */
+    public void clearServices() {
+        final List<OAuthService> clearedServices;
+        synchronized (services) {
+            clearedServices = new ArrayList<>(services.values());
+            services.clear();
+        }
+        closeServices(clearedServices);
+    }
+
+    /**
+     * Close the services removed from the cache (unless they use the shared HTTP client).
+     *
+     * @param removedServices the removed services
+     */
+    protected void closeServices(final List<OAuthService> removedServices) {
+        if (httpClient != null) {
+            return;
+        }
+        for (val service : removedServices) {
+            try {
+                service.close();
+            } catch (final IOException | RuntimeException e) {
+                LOGGER.warn("Cannot close the OAuth service: {}", service, e);
+            }
+        }
+    }
+
+    public OAuthConfiguration setKey(final String key) {
+        this.key = key;
+        clearServices();
+        return this;
+    }
+
+    public OAuthConfiguration setSecret(final String secret) {
+        this.secret = secret;
+        clearServices();
+        return this;
+    }
+
+    public OAuthConfiguration setScope(final String scope) {
+        this.scope = scope;
+        clearServices();
+        return this;
+    }
+
+    public OAuthConfiguration setResponseType(final String responseType) {
+        this.responseType = responseType;
+        clearServices();
+        return this;
+    }
+
+    public OAuthConfiguration setHttpClientConfig(final HttpClientConfig httpClientConfig) {
+        this.httpClientConfig = httpClientConfig;
+        clearServices();
+        return this;
+    }
+
+    public OAuthConfiguration setHttpClient(final HttpClient httpClient) {
+        clearServices();
+        this.httpClient = httpClient;
+        return this;
+    }
+
+    public OAuthConfiguration setApi(final Object api) {
+        this.api = api;
+        clearServices();
+        return this;
+    }
+
+    public int getServiceCacheCurrentSize() {
+        synchronized (services) {
+            return services.size();
+        }
     }
 
-    public abstract OAuthService buildService(final WebContext context, final IndirectClient client);
+    public long getServiceCacheHits() {
+        return serviceCacheHits.sum();
+    }
+
+    public long getServiceCacheMisses() {
+        return serviceCacheMisses.sum();
+    }
+
+    public long getServiceCacheEvictions() {
+        return serviceCacheEvictions.sum();
+    }
 }
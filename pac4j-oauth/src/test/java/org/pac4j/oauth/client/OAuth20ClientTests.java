@@ -165,4 +165,71 @@ public final class OAuth20ClientTests implements TestsConstants {
         client.setScope(null);
         TestsHelper.initShouldFail(client, "scope cannot be blank");
     }
+
+    @Test
+    public void testServiceIsCachedByCallbackUrl() {
+        val client = getClient();
+        client.init();
+        val configuration = client.getConfiguration();
+        val context = MockWebContext.create();
+        val service = configuration.buildService(context, client);
+        assertSame(service, configuration.buildService(context, client));
+        assertEquals(1, configuration.getServiceCacheMisses());
+        assertEquals(1, configuration.getServiceCacheHits());
+
+        client.setCallbackUrl(CALLBACK_URL + "/other");
+        assertNotSame(service, configuration.buildService(context, client));
+        assertEquals(2, configuration.getServiceCacheCurrentSize());
+
+        client.reinit();
+        assertEquals(0, configuration.getServiceCacheCurrentSize());
+    }
+
+    @Test
+    public void testServiceCacheIsBounded() {
+        val client = getClient();
+        client.init();
+        val configuration = client.getConfiguration();
+        configuration.setServiceCacheSize(2);
+        val context = MockWebContext.create();
+        for (var i = 0; i < 5; i++) {
+            client.setCallbackUrl(CALLBACK_URL + "/" + i);
+            assertNotNull(configuration.buildService(context, client));
+        }
+        assertEquals(2, configuration.getServiceCacheCurrentSize());
+        assertEquals(3, configuration.getServiceCacheEvictions());
+    }
+
+    @Test
+    public void testServiceCacheEvictsLeastRecentlyUsed() {
+        val client = getClient();
+        client.init();
+        val configuration = client.getConfiguration();
+        configuration.setServiceCacheSize(2);
+        val context = MockWebContext.create();
+        client.setCallbackUrl(CALLBACK_URL + "/0");
+        val first = configuration.buildService(context, client);
+        client.setCallbackUrl(CALLBACK_URL + "/1");
+        configuration.buildService(context, client);
+        client.setCallbackUrl(CALLBACK_URL + "/0");
+        configuration.buildService(context, client);
+        client.setCallbackUrl(CALLBACK_URL + "/2");
+        configuration.buildService(context, client);
+
+        client.setCallbackUrl(CALLBACK_URL + "/0");
+        assertSame(first, configuration.buildService(context, client));
+        assertEquals(1, configuration.getServiceCacheEvictions());
+    }
+
+    @Test
+    public void testServiceCacheIsClearedBySetters() {
+        val client = getClient();
+        client.init();
+        val configuration = client.getConfiguration();
+        val context = MockWebContext.create();
+        val service = configuration.buildService(context, client);
+        configuration.setScope("other");
+        assertEquals(0, configuration.getServiceCacheCurrentSize());
+        assertNotSame(service, configuration.buildService(context, client));
+    }
 }
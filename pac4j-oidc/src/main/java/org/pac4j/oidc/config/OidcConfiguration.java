@@ -7,9 +7,11 @@ import com.nimbusds.oauth2.sdk.ParseException;
 import com.nimbusds.oauth2.sdk.ResponseType;
 import com.nimbusds.oauth2.sdk.auth.ClientAuthenticationMethod;
 import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod;
 import com.nimbusds.openid.connect.sdk.OIDCResponseTypeValue;
 import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -26,14 +28,25 @@ import org.pac4j.core.logout.handler.LogoutHandler;
 import org.pac4j.core.util.generator.RandomValueGenerator;
 import org.pac4j.core.util.generator.ValueGenerator;
 import org.pac4j.oidc.profile.creator.TokenValidator;
+import org.pac4j.oidc.util.HttpRequestHelper;
+import org.pac4j.oidc.util.JWKSetCache;
 import org.pac4j.oidc.util.SessionStoreValueRetriever;
 import org.pac4j.oidc.util.ValueRetriever;
 
 import javax.net.ssl.SSLSocketFactory;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.pac4j.core.util.CommonHelper.assertNotBlank;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -46,13 +59,16 @@ import static org.pac4j.core.util.CommonHelper.assertNotNull;
  */
 @Getter
 @Setter
-@ToString(exclude = {"secret", "providerMetadata"})
+@ToString(exclude = {"secret", "providerMetadata", "jwkSetCache", "httpClient", "httpExecutor", "pendingHttpRequests"})
 @Accessors(chain = true)
 @With
 @AllArgsConstructor
 @NoArgsConstructor
 public class OidcConfiguration extends BaseClientConfiguration {
 
+    /** The default maximum number of threads sending the asynchronous HTTP requests by the Nimbus SDK. */
+    public static final int DEFAULT_MAX_HTTP_THREADS = 50;
+
     public static final String SCOPE = "scope";
     public static final String CUSTOM_PARAMS = "custom_params";
     public static final String RESPONSE_TYPE = "response_type";
@@ -154,6 +170,9 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private TokenValidator tokenValidator;
 
+    /** The cache of the provider keys (built from the <code>jwks_uri</code> and the resource retriever if not defined). */
+    private JWKSetCache jwkSetCache;
+
     private boolean allowUnsignedIdTokens;
 
     /** If enabled, try to process the access token as a JWT and include its claims in the profile.
@@ -167,6 +186,25 @@ public class OidcConfiguration extends BaseClientConfiguration {
 
     private String SSLFactory;
 
+    /**
+     * The (pooled, non-blocking) JDK HTTP client used to call the token and user info endpoints asynchronously (opt-in:
+     * the requests are sent by the Nimbus SDK if not defined).
+     */
+    private HttpClient httpClient;
+
+    /** The maximum number of concurrent HTTP requests to the provider (0 for no limit). */
+    private int maxConcurrentHttpRequests;
+
+    /**
+     * The executor sending the asynchronous HTTP requests which cannot be sent by the {@link #httpClient} (they are sent
+     * by the Nimbus SDK). By default, a pool of {@link #maxConcurrentHttpRequests} daemon threads
+     * (or {@link #DEFAULT_MAX_HTTP_THREADS} if there is no limit) rejecting the requests when all the threads are busy.
+     */
+    private ExecutorService httpExecutor;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger pendingHttpRequests = new AtomicInteger();
+
     @Override
     protected void internalInit(final boolean forceReinit) {
         // checks
@@ -208,6 +246,21 @@ public class OidcConfiguration extends BaseClientConfiguration {
         if (this.logoutHandler == null) {
             this.logoutHandler = new DefaultLogoutHandler();
         }
+        if (this.httpExecutor == null) {
+            this.httpExecutor = buildHttpExecutor();
+        }
+    }
+
+    private ExecutorService buildHttpExecutor() {
+        val maxThreads = maxConcurrentHttpRequests > 0 ? maxConcurrentHttpRequests : DEFAULT_MAX_HTTP_THREADS;
+        val counter = new AtomicInteger();
+        val executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), task -> {
+            val thread = new Thread(task, "pac4j-oidc-http-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     public OIDCProviderMetadata findProviderMetadata() {
@@ -270,6 +323,68 @@ public class OidcConfiguration extends BaseClientConfiguration {
         request.setReadTimeout(getReadTimeout());
     }
 
+    /**
+     * Send an HTTP request to the provider asynchronously, within the limit of concurrent requests.
+     *
+     * @param request the HTTP request
+     * @return the HTTP response
+     */
+    public CompletableFuture<HTTPResponse> sendHttpRequestAsync(final HTTPRequest request) {
+        return sendHttpRequest(request, true);
+    }
+
+    /**
+     * Send an HTTP request to the provider, within the limit of concurrent requests. The request is sent by the Nimbus SDK
+     * (with its SSL, proxy and client certificate settings), unless it can be sent asynchronously and the JDK
+     * {@link #httpClient} is defined. The asynchronous requests sent by the Nimbus SDK are sent on the {@link #httpExecutor}
+     * and all the asynchronous requests fail after the connect and read timeouts.
+     *
+     * @param request the HTTP request
+     * @param async whether the request must be sent asynchronously (otherwise, it is sent on the current thread)
+     * @return the HTTP response (already completed if the request is sent synchronously)
+     */
+    public CompletableFuture<HTTPResponse> sendHttpRequest(final HTTPRequest request, final boolean async) {
+        init();
+
+        val pending = pendingHttpRequests.incrementAndGet();
+        if (maxConcurrentHttpRequests > 0 && pending > maxConcurrentHttpRequests) {
+            pendingHttpRequests.decrementAndGet();
+            return CompletableFuture.failedFuture(new TechnicalException("Too many concurrent HTTP requests to: "
+                + request.getURI().getHost()));
+        }
+
+        CompletableFuture<HTTPResponse> future;
+        try {
+            if (!async) {
+                future = CompletableFuture.completedFuture(request.send());
+            } else {
+                if (httpClient != null && !HttpRequestHelper.requiresNimbusSending(request)) {
+                    future = httpClient.sendAsync(HttpRequestHelper.toJavaRequest(request), HttpResponse.BodyHandlers.ofString())
+                        .thenApply(HttpRequestHelper::toNimbusResponse);
+                } else {
+                    future = CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return request.send();
+                        } catch (final IOException e) {
+                            throw new TechnicalException(e);
+                        }
+                    }, httpExecutor);
+                }
+                val timeout = getConnectTimeout() + getReadTimeout();
+                if (timeout > 0) {
+                    future = future.orTimeout(timeout, TimeUnit.MILLISECONDS);
+                }
+            }
+        } catch (final IOException | RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.whenComplete((r, t) -> pendingHttpRequests.decrementAndGet());
+    }
+
+    public int getPendingHttpRequests() {
+        return pendingHttpRequests.get();
+    }
+
     public ResourceRetriever findResourceRetriever() {
         init();
 
@@ -318,6 +433,17 @@ public class OidcConfiguration extends BaseClientConfiguration {
         return logoutHandler;
     }
 
+    public JWKSetCache findJwkSetCache() {
+        if (this.jwkSetCache == null) {
+            try {
+                setJwkSetCache(new JWKSetCache(findProviderMetadata().getJWKSetURI().toURL(), findResourceRetriever()));
+            } catch (final MalformedURLException e) {
+                throw new TechnicalException(e);
+            }
+        }
+        return jwkSetCache;
+    }
+
     public TokenValidator findTokenValidator() {
         if (this.tokenValidator == null) {
             setTokenValidator(new TokenValidator(this));
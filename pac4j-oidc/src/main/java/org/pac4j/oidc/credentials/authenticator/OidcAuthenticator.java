@@ -19,14 +19,15 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.oidc.client.OidcClient;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
+import org.pac4j.oidc.util.HttpRequestHelper;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
 import static org.pac4j.core.util.CommonHelper.isNotEmpty;
@@ -34,6 +35,10 @@ import static org.pac4j.core.util.CommonHelper.isNotEmpty;
 /**
  * The OpenID Connect authenticator.
  *
+ * The token request can be sent asynchronously ({@link #validateAsync(Credentials, WebContext, SessionStore)}) by the JDK
+ * HTTP client of the configuration if defined (or by the Nimbus SDK on the HTTP executor of the configuration),
+ * {@link #validate(Credentials, WebContext, SessionStore)} always sends it synchronously by the Nimbus SDK.
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -152,6 +157,33 @@ public class OidcAuthenticator implements Authenticator {
 
     @Override
     public Optional<Credentials> validate(final Credentials cred, final WebContext context, final SessionStore sessionStore) {
+        return HttpRequestHelper.join(validate(cred, context, sessionStore, false));
+    }
+
+    /**
+     * Validate the credentials asynchronously: the token request is sent without blocking the current thread.
+     *
+     * @param cred the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return the validated credentials
+     */
+    public CompletableFuture<Optional<Credentials>> validateAsync(final Credentials cred, final WebContext context,
+                                                                  final SessionStore sessionStore) {
+        return validate(cred, context, sessionStore, true);
+    }
+
+    /**
+     * Validate the credentials.
+     *
+     * @param cred the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param async whether the token request can be sent asynchronously
+     * @return the validated credentials
+     */
+    protected CompletableFuture<Optional<Credentials>> validate(final Credentials cred, final WebContext context,
+                                                                final SessionStore sessionStore, final boolean async) {
         val credentials = (OidcCredentials) cred;
         val code = credentials.getCode();
         // if we have a code
@@ -162,24 +194,35 @@ public class OidcAuthenticator implements Authenticator {
                     .retrieve(client.getCodeVerifierSessionAttributeName(), client, context, sessionStore).orElse(null);
                 // Token request
                 val request = createTokenRequest(new AuthorizationCodeGrant(code, new URI(computedCallbackUrl), verifier));
-                executeTokenRequest(request, credentials);
-            } catch (final URISyntaxException | IOException | ParseException e) {
-                throw new TechnicalException(e);
+                return executeTokenRequest(request, credentials, async).thenApply(v -> Optional.of(credentials));
+            } catch (final URISyntaxException e) {
+                return CompletableFuture.failedFuture(new TechnicalException(e));
+            } catch (final RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
             }
         }
-        return Optional.of(credentials);
+        return CompletableFuture.completedFuture(Optional.of(credentials));
     }
 
     public void refresh(final OidcCredentials credentials) {
+        HttpRequestHelper.join(refresh(credentials, false));
+    }
+
+    public CompletableFuture<Void> refreshAsync(final OidcCredentials credentials) {
+        return refresh(credentials, true);
+    }
+
+    protected CompletableFuture<Void> refresh(final OidcCredentials credentials, final boolean async) {
         val refreshToken = credentials.getRefreshToken();
         if (refreshToken != null) {
             try {
                 val request = createTokenRequest(new RefreshTokenGrant(refreshToken));
-                executeTokenRequest(request, credentials);
-            } catch (final IOException | ParseException e) {
-                throw new TechnicalException(e);
+                return executeTokenRequest(request, credentials, async);
+            } catch (final RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
             }
         }
+        return CompletableFuture.completedFuture(null);
     }
 
     protected TokenRequest createTokenRequest(final AuthorizationGrant grant) {
@@ -192,28 +235,35 @@ public class OidcAuthenticator implements Authenticator {
         }
     }
 
-    private void executeTokenRequest(TokenRequest request, OidcCredentials credentials) throws IOException, ParseException {
+    private CompletableFuture<Void> executeTokenRequest(final TokenRequest request, final OidcCredentials credentials,
+                                                        final boolean async) {
         val tokenHttpRequest = request.toHTTPRequest();
         configuration.configureHttpRequest(tokenHttpRequest);
 
-        val httpResponse = tokenHttpRequest.send();
-        LOGGER.debug("Token response: status={}, content={}", httpResponse.getStatusCode(),
-            httpResponse.getContent());
+        return configuration.sendHttpRequest(tokenHttpRequest, async).thenAccept(httpResponse -> {
+            LOGGER.debug("Token response: status={}, content={}", httpResponse.getStatusCode(),
+                httpResponse.getContent());
 
-        val response = OIDCTokenResponseParser.parse(httpResponse);
-        if (response instanceof TokenErrorResponse tokenErrorResponse) {
-            val errorObject = tokenErrorResponse.getErrorObject();
-            throw new TechnicalException("Bad token response, error=" + errorObject.getCode() + "," +
-                " description=" + errorObject.getDescription() + ", status=" + errorObject.getHTTPStatusCode());
-        }
-        LOGGER.debug("Token response successful");
-        val tokenSuccessResponse = (OIDCTokenResponse) response;
-
-        val oidcTokens = tokenSuccessResponse.getOIDCTokens();
-        credentials.setAccessToken(oidcTokens.getAccessToken());
-        credentials.setRefreshToken(oidcTokens.getRefreshToken());
-        if (oidcTokens.getIDToken() != null) {
-            credentials.setIdToken(oidcTokens.getIDToken());
-        }
+            final TokenResponse response;
+            try {
+                response = OIDCTokenResponseParser.parse(httpResponse);
+            } catch (final ParseException e) {
+                throw new TechnicalException(e);
+            }
+            if (response instanceof TokenErrorResponse tokenErrorResponse) {
+                val errorObject = tokenErrorResponse.getErrorObject();
+                throw new TechnicalException("Bad token response, error=" + errorObject.getCode() + "," +
+                    " description=" + errorObject.getDescription() + ", status=" + errorObject.getHTTPStatusCode());
+            }
+            LOGGER.debug("Token response successful");
+            val tokenSuccessResponse = (OIDCTokenResponse) response;
+
+            val oidcTokens = tokenSuccessResponse.getOIDCTokens();
+            credentials.setAccessToken(oidcTokens.getAccessToken());
+            credentials.setRefreshToken(oidcTokens.getRefreshToken());
+            if (oidcTokens.getIDToken() != null) {
+                credentials.setIdToken(oidcTokens.getIDToken());
+            }
+        });
     }
 }
@@ -5,6 +5,7 @@ import com.nimbusds.jose.proc.BadJOSEException;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.JWTParser;
 import com.nimbusds.oauth2.sdk.ParseException;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
 import com.nimbusds.oauth2.sdk.token.AccessToken;
 import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
 import com.nimbusds.openid.connect.sdk.*;
@@ -26,9 +27,10 @@ import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
 import org.pac4j.oidc.profile.OidcProfile;
 import org.pac4j.oidc.profile.OidcProfileDefinition;
+import org.pac4j.oidc.util.HttpRequestHelper;
 
-import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
 import static org.pac4j.core.util.CommonHelper.assertNotNull;
@@ -60,8 +62,35 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public Optional<UserProfile> create(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
+        return HttpRequestHelper.join(create(credentials, context, sessionStore, false));
+    }
+
+    /**
+     * Create the user profile asynchronously: the user info request is sent without blocking the current thread.
+     * The web context and the session store are only used before the user info request.
+     *
+     * @param credentials the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return the user profile
+     */
+    public CompletableFuture<Optional<UserProfile>> createAsync(final Credentials credentials, final WebContext context,
+                                                                final SessionStore sessionStore) {
+        return create(credentials, context, sessionStore, true);
+    }
+
+    /**
+     * Create the user profile.
+     *
+     * @param credentials the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param async whether the user info request can be sent asynchronously
+     * @return the user profile
+     */
+    protected CompletableFuture<Optional<UserProfile>> create(final Credentials credentials, final WebContext context,
+                                                              final SessionStore sessionStore, final boolean async) {
         init();
 
         OidcCredentials oidcCredentials = null;
@@ -113,57 +142,80 @@ public class OidcProfileCreator extends ProfileDefinitionAware implements Profil
             }
 
             // User Info request
+            final CompletableFuture<HTTPResponse> userInfo;
             if (configuration.findProviderMetadata().getUserInfoEndpointURI() != null && accessToken != null) {
                 val userInfoRequest = new UserInfoRequest(configuration.findProviderMetadata().getUserInfoEndpointURI(), accessToken);
                 val userInfoHttpRequest = userInfoRequest.toHTTPRequest();
                 configuration.configureHttpRequest(userInfoHttpRequest);
-                val httpResponse = userInfoHttpRequest.send();
-                LOGGER.debug("User info response: status={}, content={}", httpResponse.getStatusCode(),
-                    httpResponse.getContent());
-
-                val userInfoResponse = UserInfoResponse.parse(httpResponse);
-                if (userInfoResponse instanceof UserInfoErrorResponse) {
-                    LOGGER.error("Bad User Info response, error={}",
-                        ((UserInfoErrorResponse) userInfoResponse).getErrorObject());
-                } else {
-                    val userInfoSuccessResponse = (UserInfoSuccessResponse) userInfoResponse;
-                    final JWTClaimsSet userInfoClaimsSet;
-                    if (userInfoSuccessResponse.getUserInfo() != null) {
-                        userInfoClaimsSet = userInfoSuccessResponse.getUserInfo().toJWTClaimsSet();
-                    } else {
-                        userInfoClaimsSet = userInfoSuccessResponse.getUserInfoJWT().getJWTClaimsSet();
-                    }
-                    if (userInfoClaimsSet != null) {
-                        getProfileDefinition().convertAndAdd(profile, userInfoClaimsSet.getClaims(), null);
-                    } else {
-                        LOGGER.warn("Cannot retrieve claims from user info");
-                    }
-                }
+                userInfo = configuration.sendHttpRequest(userInfoHttpRequest, async);
+            } else {
+                userInfo = CompletableFuture.completedFuture(null);
             }
 
-            // add attributes of the ID token if they don't already exist
-            if (oidcCredentials != null) {
-                for (val entry : oidcCredentials.getIdToken().getJWTClaimsSet().getClaims().entrySet()) {
-                    val key = entry.getKey();
-                    val value = entry.getValue();
-                    // it's not the subject and this attribute does not already exist, add it
-                    if (!JwtClaims.SUBJECT.equals(key) && profile.getAttribute(key) == null) {
-                        getProfileDefinition().convertAndAdd(profile, PROFILE_ATTRIBUTE, key, value);
+            val finalOidcCredentials = oidcCredentials;
+            return userInfo.thenApply(httpResponse -> {
+                try {
+                    if (httpResponse != null) {
+                        addUserInfoClaims(profile, httpResponse);
                     }
+                    completeProfile(profile, finalOidcCredentials, nonce);
+                    return Optional.of(profile);
+                } catch (final ParseException | java.text.ParseException e) {
+                    throw new TechnicalException(e);
                 }
-            }
+            });
+        } catch (final JOSEException | BadJOSEException e) {
+            return CompletableFuture.failedFuture(new TechnicalException(e));
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    protected void addUserInfoClaims(final OidcProfile profile, final HTTPResponse httpResponse)
+        throws ParseException, java.text.ParseException {
+        LOGGER.debug("User info response: status={}, content={}", httpResponse.getStatusCode(),
+            httpResponse.getContent());
 
-            if (configuration.isIncludeAccessTokenClaimsInProfile()) {
-                collectClaimsFromAccessTokenIfAny(oidcCredentials, nonce, profile);
+        val userInfoResponse = UserInfoResponse.parse(httpResponse);
+        if (userInfoResponse instanceof UserInfoErrorResponse) {
+            LOGGER.error("Bad User Info response, error={}",
+                ((UserInfoErrorResponse) userInfoResponse).getErrorObject());
+        } else {
+            val userInfoSuccessResponse = (UserInfoSuccessResponse) userInfoResponse;
+            final JWTClaimsSet userInfoClaimsSet;
+            if (userInfoSuccessResponse.getUserInfo() != null) {
+                userInfoClaimsSet = userInfoSuccessResponse.getUserInfo().toJWTClaimsSet();
+            } else {
+                userInfoClaimsSet = userInfoSuccessResponse.getUserInfoJWT().getJWTClaimsSet();
             }
+            if (userInfoClaimsSet != null) {
+                getProfileDefinition().convertAndAdd(profile, userInfoClaimsSet.getClaims(), null);
+            } else {
+                LOGGER.warn("Cannot retrieve claims from user info");
+            }
+        }
+    }
 
-            // session expiration with token behavior
-            profile.setTokenExpirationAdvance(configuration.getTokenExpirationAdvance());
+    protected void completeProfile(final OidcProfile profile, final OidcCredentials oidcCredentials, final Nonce nonce)
+        throws java.text.ParseException {
+        // add attributes of the ID token if they don't already exist
+        if (oidcCredentials != null) {
+            for (val entry : oidcCredentials.getIdToken().getJWTClaimsSet().getClaims().entrySet()) {
+                val key = entry.getKey();
+                val value = entry.getValue();
+                // it's not the subject and this attribute does not already exist, add it
+                if (!JwtClaims.SUBJECT.equals(key) && profile.getAttribute(key) == null) {
+                    getProfileDefinition().convertAndAdd(profile, PROFILE_ATTRIBUTE, key, value);
+                }
+            }
+        }
 
-            return Optional.of(profile);
-        } catch (final IOException | ParseException | JOSEException | BadJOSEException | java.text.ParseException e) {
-            throw new TechnicalException(e);
+        if (configuration.isIncludeAccessTokenClaimsInProfile()) {
+            collectClaimsFromAccessTokenIfAny(oidcCredentials, nonce, profile);
         }
+
+        // session expiration with token behavior
+        profile.setTokenExpirationAdvance(configuration.getTokenExpirationAdvance());
     }
 
     private void collectClaimsFromAccessTokenIfAny(final OidcCredentials credentials,
@@ -3,6 +3,7 @@ package org.pac4j.oidc.profile.creator;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.oauth2.sdk.auth.Secret;
 import com.nimbusds.oauth2.sdk.id.ClientID;
@@ -15,21 +16,32 @@ import lombok.val;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.util.JWKSetCache;
 
-import java.net.MalformedURLException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * ID Token validator.
  *
+ * The validator is selected from the <code>alg</code> header of the token (all the validators are only tried
+ * if no validator matches this algorithm). The keys of the provider are loaded from the {@link JWKSetCache}
+ * of the configuration.
+ *
  * @author Jerome Leleu
  * @since 3.4.0
  */
 @Slf4j
 public class TokenValidator {
 
-    private final List<IDTokenValidator> idTokenValidators;
+    private final Map<String, IDTokenValidator> idTokenValidators;
+
+    private final LongAdder directSelections = new LongAdder();
+
+    private final LongAdder fallbackSelections = new LongAdder();
 
     protected final OidcConfiguration configuration;
 
@@ -50,7 +62,7 @@ public class TokenValidator {
                 preferredAlgorithm, metadataAlgorithms);
         }
 
-        idTokenValidators = new ArrayList<>();
+        idTokenValidators = new LinkedHashMap<>();
         val _clientID = new ClientID(configuration.getClientId());
 
         for (var jwsAlgorithm : jwsAlgorithms) {
@@ -76,7 +88,7 @@ public class TokenValidator {
             }
             idTokenValidator.setMaxClockSkew(configuration.getMaxClockSkew());
 
-            idTokenValidators.add(idTokenValidator);
+            idTokenValidators.put(jwsAlgorithm.getName(), idTokenValidator);
         }
 
         this.configuration = configuration;
@@ -84,12 +96,8 @@ public class TokenValidator {
 
     protected IDTokenValidator createRSATokenValidator(final OidcConfiguration configuration,
                                                        final JWSAlgorithm jwsAlgorithm, final ClientID clientID) {
-        try {
-            return new IDTokenValidator(configuration.findProviderMetadata().getIssuer(), clientID, jwsAlgorithm,
-                configuration.findProviderMetadata().getJWKSetURI().toURL(), configuration.findResourceRetriever());
-        } catch (final MalformedURLException e) {
-            throw new TechnicalException(e);
-        }
+        return new IDTokenValidator(configuration.findProviderMetadata().getIssuer(), clientID,
+            new JWSVerificationKeySelector<>(jwsAlgorithm, configuration.findJwkSetCache()), null);
     }
 
     protected IDTokenValidator createHMACTokenValidator(final OidcConfiguration configuration, final JWSAlgorithm jwsAlgorithm,
@@ -100,9 +108,18 @@ public class TokenValidator {
     public IDTokenClaimsSet validate(final JWT idToken, final Nonce expectedNonce)
         throws BadJOSEException, JOSEException {
 
+        val algorithm = idToken.getHeader().getAlgorithm();
+        val selectedValidator = algorithm != null ? idTokenValidators.get(algorithm.getName()) : null;
+        if (selectedValidator != null) {
+            directSelections.increment();
+            LOGGER.debug("Using IDToken validator: {}", selectedValidator);
+            return selectedValidator.validate(idToken, expectedNonce);
+        }
+        fallbackSelections.increment();
+
         BadJOSEException badJOSEException = null;
         JOSEException joseException = null;
-        for (val idTokenValidator : idTokenValidators) {
+        for (val idTokenValidator : idTokenValidators.values()) {
             LOGGER.debug("Trying IDToken validator: {}", idTokenValidator);
             try {
                 return idTokenValidator.validate(idToken, expectedNonce);
@@ -124,8 +141,26 @@ public class TokenValidator {
         }
     }
 
+    /**
+     * The number of tokens validated by the validator selected from their algorithm.
+     *
+     * @return the number of direct selections
+     */
+    public long getDirectSelections() {
+        return directSelections.sum();
+    }
+
+    /**
+     * The number of tokens for which all the validators have been tried.
+     *
+     * @return the number of fallback selections
+     */
+    public long getFallbackSelections() {
+        return fallbackSelections.sum();
+    }
+
     // for tests
     List<IDTokenValidator> getIdTokenValidators() {
-        return idTokenValidators;
+        return new ArrayList<>(idTokenValidators.values());
     }
 }
@@ -0,0 +1,126 @@
+package org.pac4j.oidc.util;
+
+import com.nimbusds.oauth2.sdk.http.HTTPRequest;
+import com.nimbusds.oauth2.sdk.http.HTTPResponse;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helper to send the Nimbus HTTP requests with the JDK HTTP client and to wait for asynchronous results.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class HttpRequestHelper {
+
+    private static final Set<String> RESTRICTED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        RESTRICTED_HEADERS.addAll(List.of("Connection", "Content-Length", "Expect", "Host", "Upgrade"));
+    }
+
+    private HttpRequestHelper() {}
+
+    /**
+     * Whether the Nimbus HTTP request defines settings (SSL, proxy, client certificate) which cannot be applied
+     * to the JDK HTTP client.
+     *
+     * @param request the Nimbus HTTP request
+     * @return whether the request must be sent by the Nimbus SDK
+     */
+    public static boolean requiresNimbusSending(final HTTPRequest request) {
+        return request.getSSLSocketFactory() != null || request.getHostnameVerifier() != null || request.getProxy() != null
+            || request.getClientX509Certificate() != null;
+    }
+
+    /**
+     * Convert a Nimbus HTTP request into a JDK HTTP request.
+     *
+     * @param request the Nimbus HTTP request
+     * @return the JDK HTTP request
+     */
+    public static HttpRequest toJavaRequest(final HTTPRequest request) {
+        val method = request.getMethod();
+        val query = request.getQuery();
+        val hasQuery = query != null && !query.isEmpty();
+        val withBody = method == HTTPRequest.Method.POST || method == HTTPRequest.Method.PUT;
+
+        var uri = request.getURI();
+        if (hasQuery && !withBody) {
+            uri = URI.create(uri.toString() + (uri.getRawQuery() == null ? "?" : "&") + query);
+        }
+
+        val builder = HttpRequest.newBuilder(uri)
+            .method(method.name(), withBody && hasQuery ? HttpRequest.BodyPublishers.ofString(query)
+                : HttpRequest.BodyPublishers.noBody());
+        for (val header : request.getHeaderMap().entrySet()) {
+            if (!RESTRICTED_HEADERS.contains(header.getKey()) && header.getValue() != null) {
+                for (val value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+        }
+        if (request.getReadTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(request.getReadTimeout()));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a JDK HTTP response into a Nimbus HTTP response.
+     *
+     * @param response the JDK HTTP response
+     * @return the Nimbus HTTP response
+     */
+    public static HTTPResponse toNimbusResponse(final HttpResponse<String> response) {
+        val httpResponse = new HTTPResponse(response.statusCode());
+        for (val header : response.headers().map().entrySet()) {
+            httpResponse.setHeader(header.getKey(), header.getValue().toArray(new String[0]));
+        }
+        val body = response.body();
+        if (body != null && !body.isEmpty()) {
+            httpResponse.setContent(body);
+        }
+        return httpResponse;
+    }
+
+    /**
+     * Wait for an asynchronous result, rethrowing its failure as a runtime exception.
+     *
+     * @param future the asynchronous result
+     * @param <T> the type of the result
+     * @return the result
+     */
+    public static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException(e);
+        } catch (final ExecutionException e) {
+            throw toRuntimeException(e.getCause());
+        }
+    }
+
+    private static RuntimeException toRuntimeException(final Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            return toRuntimeException(t.getCause());
+        } else if (t instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        } else if (t instanceof Error error) {
+            throw error;
+        }
+        return new TechnicalException(t);
+    }
+}
@@ -0,0 +1,201 @@
+package org.pac4j.oidc.util;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.*;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.ResourceRetriever;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.SharedExecutor;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A JWKS loaded from a URL and cached, held by the OpenID Connect configuration
+ * (see {@link org.pac4j.oidc.config.OidcConfiguration#findJwkSetCache()}).
+ *
+ * The keys are provided by the Nimbus JWK set sources: they are cached for {@link #refreshInterval} seconds and
+ * reloaded ahead of their expiration in the background (on the {@link #refreshExecutor}), the current keys being still
+ * used during the reload. They are also reloaded once when a key identifier (<code>kid</code>) is not found.
+ * All the loads (including the failed first ones) are limited to two every {@link #minRefreshInterval} seconds.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString(of = {"url", "refreshInterval", "minRefreshInterval"})
+public class JWKSetCache extends InitializableObject implements JWKSource<SecurityContext> {
+
+    /**
+     * The time to live of the keys kept until an unknown key identifier is received (finite: the cache adds it to the current time).
+     */
+    private static final long NO_EXPIRATION = Long.MAX_VALUE / 2;
+
+    private final URL url;
+
+    private final ResourceRetriever resourceRetriever;
+
+    /**
+     * The time to live of the keys (in seconds, 0 to keep them until an unknown key identifier is received).
+     */
+    private int refreshInterval = 300;
+
+    /**
+     * The minimum interval of the rate limit of the loads (in seconds, 0 for no limit).
+     */
+    private int minRefreshInterval = 30;
+
+    private ExecutorService refreshExecutor = SharedExecutor.getInstance();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JWKSetSource<SecurityContext> jwkSetSource;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder refreshes = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder failedRefreshes = new LongAdder();
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final LongAdder unknownKeyIdRefreshes = new LongAdder();
+
+    public JWKSetCache(final URL url, final ResourceRetriever resourceRetriever) {
+        CommonHelper.assertNotNull("url", url);
+        this.url = url;
+        this.resourceRetriever = resourceRetriever != null ? resourceRetriever : new DefaultResourceRetriever();
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("refreshExecutor", refreshExecutor);
+        CommonHelper.assertTrue(refreshInterval >= 0, "refreshInterval cannot be negative");
+        CommonHelper.assertTrue(minRefreshInterval >= 0, "minRefreshInterval cannot be negative");
+
+        final JWKSetSource<SecurityContext> source = new CountingJWKSetSource(new URLBasedJWKSetSource<>(url, resourceRetriever));
+        val rateLimitedSource = minRefreshInterval > 0
+            ? new RateLimitedJWKSetSource<>(source, TimeUnit.SECONDS.toMillis(minRefreshInterval), null)
+            : source;
+        if (refreshInterval == 0) {
+            jwkSetSource = new CachingJWKSetSource<>(rateLimitedSource, NO_EXPIRATION,
+                JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT, null);
+        } else {
+            val timeToLive = TimeUnit.SECONDS.toMillis(refreshInterval);
+            val refreshTimeout = Math.min(JWKSourceBuilder.DEFAULT_CACHE_REFRESH_TIMEOUT, timeToLive / 4);
+            val refreshAheadTime = Math.min(JWKSourceBuilder.DEFAULT_REFRESH_AHEAD_TIME, timeToLive / 2);
+            jwkSetSource = new RefreshAheadCachingJWKSetSource<>(rateLimitedSource, timeToLive, refreshTimeout, refreshAheadTime,
+                false, refreshExecutor, false, null);
+        }
+    }
+
+    @Override
+    public List<JWK> get(final JWKSelector jwkSelector, final SecurityContext context) throws KeySourceException {
+        init();
+
+        val current = jwkSetSource.getJWKSet(JWKSetCacheRefreshEvaluator.noRefresh(), System.currentTimeMillis(), context);
+        val keys = jwkSelector.select(current);
+        val keyIds = jwkSelector.getMatcher().getKeyIDs();
+        if (!keys.isEmpty() || keyIds == null || keyIds.isEmpty()) {
+            return keys;
+        }
+        try {
+            // the keys already reloaded by another thread are not reloaded again
+            val reloaded = jwkSetSource.getJWKSet(JWKSetCacheRefreshEvaluator.referenceComparison(current),
+                System.currentTimeMillis(), context);
+            if (reloaded != current) {
+                unknownKeyIdRefreshes.increment();
+            }
+            return jwkSelector.select(reloaded);
+        } catch (final RateLimitReachedException e) {
+            LOGGER.debug("JWKS reload from: {} rate limited for the unknown key identifiers: {}", url, keyIds);
+            return keys;
+        }
+    }
+
+    /**
+     * Reload the keys synchronously (the current keys are kept if the reload fails).
+     */
+    public void refresh() {
+        init();
+
+        try {
+            jwkSetSource.getJWKSet(JWKSetCacheRefreshEvaluator.forceRefresh(), System.currentTimeMillis(), null);
+        } catch (final KeySourceException e) {
+            LOGGER.warn("Cannot reload the JWKS from: {}, keeping the current keys", url, e);
+        }
+    }
+
+    /**
+     * Close the JWK set sources.
+     */
+    public void destroy() {
+        if (jwkSetSource != null) {
+            try {
+                jwkSetSource.close();
+            } catch (final IOException e) {
+                LOGGER.debug("Cannot close the JWKS source", e);
+            }
+        }
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getFailedRefreshes() {
+        return failedRefreshes.sum();
+    }
+
+    public long getUnknownKeyIdRefreshes() {
+        return unknownKeyIdRefreshes.sum();
+    }
+
+    private final class CountingJWKSetSource implements JWKSetSource<SecurityContext> {
+
+        private final JWKSetSource<SecurityContext> source;
+
+        private CountingJWKSetSource(final JWKSetSource<SecurityContext> source) {
+            this.source = source;
+        }
+
+        @Override
+        public JWKSet getJWKSet(final JWKSetCacheRefreshEvaluator refreshEvaluator, final long currentTime,
+                                final SecurityContext context) throws KeySourceException {
+            try {
+                val jwkSet = source.getJWKSet(refreshEvaluator, currentTime, context);
+                refreshes.increment();
+                LOGGER.debug("JWKS loaded from: {}", url);
+                return jwkSet;
+            } catch (final KeySourceException | RuntimeException e) {
+                failedRefreshes.increment();
+                LOGGER.warn("Cannot load the JWKS from: {}", url, e);
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package org.pac4j.oidc.credentials.authenticator;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import com.nimbusds.oauth2.sdk.id.Issuer;
+import com.nimbusds.openid.connect.sdk.SubjectType;
+import com.nimbusds.openid.connect.sdk.op.OIDCProviderMetadata;
+import com.sun.net.httpserver.HttpServer;
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oidc.client.OidcClient;
+import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.credentials.OidcCredentials;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link OidcAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class OidcAuthenticatorTests implements TestsConstants {
+
+    private static final String ID_TOKEN = new PlainJWT(new JWTClaimsSet.Builder().subject(ID).build()).serialize();
+
+    private HttpServer server;
+
+    private volatile int status = 200;
+
+    private volatile String body = "{\"access_token\":\"at\",\"token_type\":\"Bearer\",\"id_token\":\"" + ID_TOKEN + "\"}";
+
+    private volatile CountDownLatch latch;
+
+    private OidcConfiguration configuration;
+
+    private OidcClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/token", exchange -> {
+            try {
+                if (latch != null && !latch.await(5, TimeUnit.SECONDS)) {
+                    status = 504;
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            val bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+
+        val baseUrl = "http://localhost:" + server.getAddress().getPort();
+        val metadata = new OIDCProviderMetadata(new Issuer(baseUrl), List.of(SubjectType.PUBLIC), new URI(baseUrl + "/jwks"));
+        metadata.setTokenEndpointURI(new URI(baseUrl + "/token"));
+        configuration = new OidcConfiguration();
+        configuration.setClientId(ID);
+        configuration.setSecret(SECRET);
+        configuration.setProviderMetadata(metadata);
+        client = new OidcClient(configuration);
+        client.setCallbackUrl(CALLBACK_URL);
+        client.init();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private OidcCredentials newCredentials() {
+        val credentials = new OidcCredentials();
+        credentials.setCode(new AuthorizationCode(VALUE));
+        return credentials;
+    }
+
+    @Test
+    public void testValidate() {
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val credentials = (OidcCredentials) authenticator.validate(newCredentials(), MockWebContext.create(),
+            new MockSessionStore()).get();
+        assertEquals("at", credentials.getAccessToken().getValue());
+        assertEquals(ID_TOKEN, credentials.getIdToken().getParsedString());
+    }
+
+    @Test
+    public void testValidateAsync() throws Exception {
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val future = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        val credentials = (OidcCredentials) future.get(5, TimeUnit.SECONDS).get();
+        assertEquals("at", credentials.getAccessToken().getValue());
+        assertEquals(0, configuration.getPendingHttpRequests());
+    }
+
+    @Test
+    public void testValidateAsyncDoesNotBlockWithoutHttpClient() throws Exception {
+        latch = new CountDownLatch(1);
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val future = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        assertFalse(future.isDone());
+        latch.countDown();
+        val credentials = (OidcCredentials) future.get(5, TimeUnit.SECONDS).get();
+        assertEquals("at", credentials.getAccessToken().getValue());
+        assertEquals(0, configuration.getPendingHttpRequests());
+    }
+
+    @Test
+    public void testValidateAsyncTimeout() throws Exception {
+        latch = new CountDownLatch(1);
+        configuration.setConnectTimeout(100);
+        configuration.setReadTimeout(100);
+        configuration.setHttpExecutor(Executors.newSingleThreadExecutor());
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val future = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("The request should have timed out");
+        } catch (final ExecutionException e) {
+            assertNotNull(e.getCause());
+        } finally {
+            latch.countDown();
+        }
+        assertEquals(0, configuration.getPendingHttpRequests());
+    }
+
+    @Test
+    public void testValidateIsSentByNimbus() {
+        val httpClient = mock(HttpClient.class);
+        configuration.setHttpClient(httpClient);
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val credentials = (OidcCredentials) authenticator.validate(newCredentials(), MockWebContext.create(),
+            new MockSessionStore()).get();
+        assertEquals("at", credentials.getAccessToken().getValue());
+        verifyNoInteractions(httpClient);
+    }
+
+    @Test
+    public void testValidateAsyncWithHttpClient() throws Exception {
+        configuration.setHttpClient(HttpClient.newHttpClient());
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val future = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        val credentials = (OidcCredentials) future.get(5, TimeUnit.SECONDS).get();
+        assertEquals("at", credentials.getAccessToken().getValue());
+        assertEquals(0, configuration.getPendingHttpRequests());
+    }
+
+    @Test
+    public void testBadTokenResponse() {
+        status = 400;
+        body = "{\"error\":\"invalid_grant\"}";
+        val authenticator = new OidcAuthenticator(configuration, client);
+        TestsHelper.expectException(() -> authenticator.validate(newCredentials(), MockWebContext.create(), new MockSessionStore()),
+            TechnicalException.class, "Bad token response, error=invalid_grant, description=null, status=400");
+    }
+
+    @Test
+    public void testMaxConcurrentHttpRequests() throws Exception {
+        latch = new CountDownLatch(1);
+        configuration.setMaxConcurrentHttpRequests(1);
+        configuration.setHttpClient(HttpClient.newHttpClient());
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val first = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        val second = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        assertTrue(second.isCompletedExceptionally());
+        latch.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(0, configuration.getPendingHttpRequests());
+    }
+
+    @Test
+    public void testMaxConcurrentHttpRequestsWithoutHttpClient() throws Exception {
+        latch = new CountDownLatch(1);
+        configuration.setMaxConcurrentHttpRequests(1);
+        val authenticator = new OidcAuthenticator(configuration, client);
+        val first = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        val second = authenticator.validateAsync(newCredentials(), MockWebContext.create(), new MockSessionStore());
+        assertTrue(second.isCompletedExceptionally());
+        latch.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(0, configuration.getPendingHttpRequests());
+    }
+}
@@ -1,6 +1,14 @@
 package org.pac4j.oidc.profile.creator;
 
 import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.id.Issuer;
 import com.nimbusds.openid.connect.sdk.Nonce;
@@ -15,10 +23,14 @@ import org.pac4j.core.util.TestsHelper;
 import org.pac4j.jwt.config.signature.SecretSignatureConfiguration;
 import org.pac4j.jwt.profile.JwtGenerator;
 import org.pac4j.oidc.config.OidcConfiguration;
+import org.pac4j.oidc.util.JWKSetCache;
 
+import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
@@ -38,12 +50,13 @@ public final class TokenValidatorTests implements TestsConstants {
     private List<JWSAlgorithm> algorithms;
 
     @Before
-    public void setUp() throws URISyntaxException {
+    public void setUp() throws URISyntaxException, MalformedURLException {
         configuration = mock(OidcConfiguration.class);
         final OIDCProviderMetadata metadata = mock(OIDCProviderMetadata.class);
         when(metadata.getIssuer()).thenReturn(new Issuer(PAC4J_URL));
         when(metadata.getJWKSetURI()).thenReturn(new URI(PAC4J_BASE_URL));
         when(configuration.findProviderMetadata()).thenReturn(metadata);
+        when(configuration.findJwkSetCache()).thenReturn(new JWKSetCache(new URL(PAC4J_BASE_URL), null));
         when(configuration.getClientId()).thenReturn(ID);
         when(configuration.getSecret()).thenReturn(CLIENT_SECRET);
         algorithms = new ArrayList<>();
@@ -127,5 +140,49 @@ public final class TokenValidatorTests implements TestsConstants {
         assertNotNull(claimsSet.getExpirationTime());
         assertNotNull(claimsSet.getIssueTime());
         assertEquals(nonce, claimsSet.getNonce());
+        assertEquals(1, validator.getDirectSelections());
+        assertEquals(0, validator.getFallbackSelections());
+    }
+
+    private String signIdToken(final RSAKey key, final Nonce nonce) throws Exception {
+        final long now = new Date().getTime();
+        final JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer(PAC4J_URL)
+            .subject(KEY)
+            .audience(ID)
+            .expirationTime(new Date(now + 1000000))
+            .issueTime(new Date(now))
+            .claim("nonce", nonce.toString())
+            .build();
+        final SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+    @Test
+    public void testValidateIdTokenWithRefreshedJwks() throws Exception {
+        final RSAKey key1 = new RSAKeyGenerator(2048).keyID("key1").generate();
+        final RSAKey key2 = new RSAKeyGenerator(2048).keyID("key2").generate();
+        final AtomicReference<JWKSet> jwks = new AtomicReference<>(new JWKSet(key1.toPublicJWK()));
+        final ResourceRetriever retriever = url -> new Resource(jwks.get().toString(), "application/json");
+        final URI jwksUri = new URI(PAC4J_BASE_URL + "jwks/" + UUID.randomUUID());
+        final JWKSetCache jwkSetCache = new JWKSetCache(jwksUri.toURL(), retriever);
+        jwkSetCache.setMinRefreshInterval(0);
+        when(configuration.findJwkSetCache()).thenReturn(jwkSetCache);
+        algorithms.add(JWSAlgorithm.HS256);
+        algorithms.add(JWSAlgorithm.RS256);
+        algorithms.add(JWSAlgorithm.ES256);
+        final TokenValidator validator = new TokenValidator(configuration);
+
+        final Nonce nonce = new Nonce();
+        assertEquals(KEY, validator.validate(SignedJWT.parse(signIdToken(key1, nonce)), nonce).getSubject().toString());
+        assertEquals(1, jwkSetCache.getRefreshes());
+
+        jwks.set(new JWKSet(List.of(key1.toPublicJWK(), key2.toPublicJWK())));
+        assertEquals(KEY, validator.validate(SignedJWT.parse(signIdToken(key2, nonce)), nonce).getSubject().toString());
+        assertEquals(2, jwkSetCache.getRefreshes());
+        assertEquals(1, jwkSetCache.getUnknownKeyIdRefreshes());
+        assertEquals(2, validator.getDirectSelections());
+        assertEquals(0, validator.getFallbackSelections());
     }
 }
@@ -0,0 +1,86 @@
+package org.pac4j.oidc.util;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JWKSetCache}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class JWKSetCacheTests implements TestsConstants {
+
+    private static JWKSelector selectKeyId(final String keyId) {
+        return new JWKSelector(new JWKMatcher.Builder().keyID(keyId).build());
+    }
+
+    @Test
+    public void testReloadOnUnknownKeyIdIsRateLimited() throws Exception {
+        final RSAKey key1 = new RSAKeyGenerator(2048).keyID("key1").generate();
+        final RSAKey key2 = new RSAKeyGenerator(2048).keyID("key2").generate();
+        final RSAKey key3 = new RSAKeyGenerator(2048).keyID("key3").generate();
+        final AtomicReference<JWKSet> jwks = new AtomicReference<>(new JWKSet(key1.toPublicJWK()));
+        final ResourceRetriever retriever = url -> new Resource(jwks.get().toString(), "application/json");
+        val cache = new JWKSetCache(new URL(PAC4J_BASE_URL), retriever);
+
+        assertEquals(1, cache.get(selectKeyId("key1"), null).size());
+        jwks.set(new JWKSet(List.of(key1.toPublicJWK(), key2.toPublicJWK())));
+        assertEquals(1, cache.get(selectKeyId("key2"), null).size());
+        jwks.set(new JWKSet(List.of(key1.toPublicJWK(), key2.toPublicJWK(), key3.toPublicJWK())));
+        assertTrue(cache.get(selectKeyId("key3"), null).isEmpty());
+        assertEquals(2, cache.getRefreshes());
+        assertEquals(1, cache.getUnknownKeyIdRefreshes());
+    }
+
+    @Test
+    public void testKeysKeptUntilUnknownKeyId() throws Exception {
+        final RSAKey key1 = new RSAKeyGenerator(2048).keyID("key1").generate();
+        final RSAKey key2 = new RSAKeyGenerator(2048).keyID("key2").generate();
+        final AtomicReference<JWKSet> jwks = new AtomicReference<>(new JWKSet(key1.toPublicJWK()));
+        final ResourceRetriever retriever = url -> new Resource(jwks.get().toString(), "application/json");
+        val cache = new JWKSetCache(new URL(PAC4J_BASE_URL), retriever);
+        cache.setRefreshInterval(0);
+
+        assertEquals(1, cache.get(selectKeyId("key1"), null).size());
+        jwks.set(new JWKSet(List.of(key1.toPublicJWK(), key2.toPublicJWK())));
+        assertEquals(1, cache.get(selectKeyId("key1"), null).size());
+        assertEquals(1, cache.getRefreshes());
+        assertEquals(1, cache.get(selectKeyId("key2"), null).size());
+        assertEquals(2, cache.getRefreshes());
+    }
+
+    @Test
+    public void testFailedFirstLoadIsRateLimited() throws Exception {
+        val calls = new AtomicInteger();
+        final ResourceRetriever retriever = url -> {
+            calls.incrementAndGet();
+            throw new IOException("unavailable");
+        };
+        val cache = new JWKSetCache(new URL(PAC4J_BASE_URL), retriever);
+
+        for (var i = 0; i < 5; i++) {
+            assertTrue(TestsHelper.expectException(() -> cache.get(selectKeyId("key1"), null)) instanceof KeySourceException);
+        }
+        assertEquals(2, calls.get());
+        assertEquals(2, cache.getFailedRefreshes());
+    }
+}
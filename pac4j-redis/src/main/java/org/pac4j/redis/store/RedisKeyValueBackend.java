@@ -0,0 +1,260 @@
+package org.pac4j.redis.store;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.KeyValueBackend;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link KeyValueBackend} storing the values in a Redis server (or any server speaking the Redis protocol),
+ * to be used by the {@link org.pac4j.core.store.KeyValueStore}.
+ *
+ * The connections are pooled and the bulk operations are pipelined (<code>MGET</code>, <code>SET</code>
+ * and <code>DEL</code> commands sent together).
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString(of = {"host", "port", "database", "poolSize"})
+public class RedisKeyValueBackend extends InitializableObject implements KeyValueBackend {
+
+    private static final byte[] GET = bytes("GET");
+    private static final byte[] MGET = bytes("MGET");
+    private static final byte[] SET = bytes("SET");
+    private static final byte[] PX = bytes("PX");
+    private static final byte[] DEL = bytes("DEL");
+
+    private String host = "localhost";
+
+    private int port = 6379;
+
+    private String password;
+
+    private int database;
+
+    /**
+     * The connect and read timeout (in milliseconds).
+     */
+    private int timeout = 2000;
+
+    /**
+     * The maximum number of connections.
+     */
+    private int poolSize = 8;
+
+    /**
+     * The maximum number of keys per command.
+     */
+    private int batchSize = 100;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private BlockingQueue<RespConnection> idleConnections;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Semaphore permits;
+
+    public RedisKeyValueBackend() {}
+
+    public RedisKeyValueBackend(final String host, final int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("host", this.host);
+        CommonHelper.assertTrue(this.poolSize > 0, "poolSize must be greater than zero");
+        CommonHelper.assertTrue(this.batchSize > 0, "batchSize must be greater than zero");
+        destroy();
+        this.idleConnections = new LinkedBlockingQueue<>();
+        this.permits = new Semaphore(poolSize);
+    }
+
+    /**
+     * Close the idle connections.
+     */
+    public void destroy() {
+        if (idleConnections != null) {
+            RespConnection connection;
+            while ((connection = idleConnections.poll()) != null) {
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    @Override
+    public Optional<byte[]> get(final String key) {
+        return Optional.ofNullable((byte[]) execute(connection -> connection.call(GET, bytes(key))));
+    }
+
+    @Override
+    public Map<String, byte[]> getAll(final Collection<String> keys) {
+        val chunks = CommonHelper.partition(keys, batchSize);
+        return execute(connection -> {
+            for (val chunk : chunks) {
+                connection.write(command(MGET, chunk));
+            }
+            connection.flush();
+            final Map<String, byte[]> values = new HashMap<>();
+            for (val chunk : chunks) {
+                val replies = (List<?>) connection.read();
+                for (var i = 0; i < chunk.size(); i++) {
+                    if (replies.get(i) != null) {
+                        values.put(chunk.get(i), (byte[]) replies.get(i));
+                    }
+                }
+            }
+            return values;
+        });
+    }
+
+    @Override
+    public void set(final String key, final byte[] value, final long timeToLive) {
+        setAll(Collections.singletonMap(key, value), timeToLive);
+    }
+
+    @Override
+    public void setAll(final Map<String, byte[]> values, final long timeToLive) {
+        execute(connection -> {
+            for (val entry : values.entrySet()) {
+                if (timeToLive > 0) {
+                    connection.write(SET, bytes(entry.getKey()), entry.getValue(), PX, bytes(String.valueOf(timeToLive)));
+                } else {
+                    connection.write(SET, bytes(entry.getKey()), entry.getValue());
+                }
+            }
+            connection.flush();
+            for (var i = 0; i < values.size(); i++) {
+                connection.read();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void remove(final String key) {
+        removeAll(Collections.singletonList(key));
+    }
+
+    @Override
+    public void removeAll(final Collection<String> keys) {
+        val chunks = CommonHelper.partition(keys, batchSize);
+        execute(connection -> {
+            for (val chunk : chunks) {
+                connection.write(command(DEL, chunk));
+            }
+            connection.flush();
+            for (var i = 0; i < chunks.size(); i++) {
+                connection.read();
+            }
+            return null;
+        });
+    }
+
+    protected <T> T execute(final Command<T> command) {
+        init();
+
+        try {
+            if (!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new TechnicalException("No Redis connection available after " + timeout + " ms");
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException(e);
+        }
+        RespConnection connection = null;
+        try {
+            connection = idleConnections.poll();
+            if (connection == null) {
+                connection = openConnection();
+            }
+            val result = command.execute(connection);
+            if (!idleConnections.offer(connection)) {
+                closeQuietly(connection);
+            }
+            return result;
+        } catch (final IOException | RuntimeException e) {
+            // the state of the connection is unknown: do not reuse it
+            if (connection != null) {
+                closeQuietly(connection);
+            }
+            if (e instanceof TechnicalException technicalException) {
+                throw technicalException;
+            }
+            throw new TechnicalException("Redis command failed on " + host + ":" + port, e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    protected RespConnection openConnection() throws IOException {
+        val connection = new RespConnection(host, port, timeout);
+        try {
+            if (CommonHelper.isNotBlank(password)) {
+                connection.call(bytes("AUTH"), bytes(password));
+            }
+            if (database != 0) {
+                connection.call(bytes("SELECT"), bytes(String.valueOf(database)));
+            }
+        } catch (final IOException | RuntimeException e) {
+            closeQuietly(connection);
+            throw e;
+        }
+        return connection;
+    }
+
+    private static byte[][] command(final byte[] name, final List<String> keys) {
+        val args = new byte[keys.size() + 1][];
+        args[0] = name;
+        for (var i = 0; i < keys.size(); i++) {
+            args[i + 1] = bytes(keys.get(i));
+        }
+        return args;
+    }
+
+    private static byte[] bytes(final String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(final RespConnection connection) {
+        try {
+            connection.close();
+        } catch (final IOException e) {
+            LOGGER.debug("Cannot close the Redis connection", e);
+        }
+    }
+
+    /**
+     * A command executed on a connection.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    protected interface Command<T> {
+        T execute(RespConnection connection) throws IOException;
+    }
+}
@@ -0,0 +1,156 @@
+package org.pac4j.redis.store;
+
+import lombok.val;
+import org.pac4j.core.exception.TechnicalException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A connection to a server speaking the Redis serialization protocol (RESP2).
+ *
+ * The commands can be pipelined: several {@link #write(byte[]...)} followed by one {@link #flush()}
+ * and the same number of {@link #read()}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public class RespConnection implements Closeable {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final Socket socket;
+
+    private final InputStream in;
+
+    private final OutputStream out;
+
+    public RespConnection(final String host, final int port, final int timeout) throws IOException {
+        this.socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), timeout);
+            socket.setSoTimeout(timeout);
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        } catch (final IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Execute a command and read its reply.
+     *
+     * @param args the command and its arguments
+     * @return the reply
+     * @throws IOException if the connection fails
+     */
+    public Object call(final byte[]... args) throws IOException {
+        write(args);
+        flush();
+        return read();
+    }
+
+    /**
+     * Write a command (without sending it).
+     *
+     * @param args the command and its arguments
+     * @throws IOException if the connection fails
+     */
+    public void write(final byte[]... args) throws IOException {
+        out.write('*');
+        writeNumber(args.length);
+        for (val arg : args) {
+            out.write('$');
+            writeNumber(arg.length);
+            out.write(arg);
+            out.write(CRLF);
+        }
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Read a reply: a {@link String} for a simple string, a {@link Long} for an integer, a <code>byte[]</code>
+     * for a bulk string, a {@link List} for an array and <code>null</code> for a null bulk string or array.
+     *
+     * @return the reply
+     * @throws IOException if the connection fails
+     */
+    public Object read() throws IOException {
+        val type = in.read();
+        if (type == -1) {
+            throw new EOFException("Connection closed by the server");
+        }
+        val line = readLine();
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                throw new TechnicalException("Redis error: " + line);
+            case ':':
+                return Long.parseLong(line);
+            case '$':
+                val length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                val bytes = in.readNBytes(length);
+                if (bytes.length != length || in.read() != '\r' || in.read() != '\n') {
+                    throw new EOFException("Truncated bulk string");
+                }
+                return bytes;
+            case '*':
+                val size = Integer.parseInt(line);
+                if (size < 0) {
+                    return null;
+                }
+                final List<Object> elements = new ArrayList<>(size);
+                for (var i = 0; i < size; i++) {
+                    elements.add(read());
+                }
+                return elements;
+            default:
+                throw new IOException("Unexpected reply type: " + (char) type);
+        }
+    }
+
+    private String readLine() throws IOException {
+        val line = new ByteArrayOutputStream(16);
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException("Connection closed by the server");
+            }
+            line.write(b);
+        }
+        if (in.read() != '\n') {
+            throw new IOException("Invalid line terminator");
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    private void writeNumber(final int number) throws IOException {
+        out.write(Integer.toString(number).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
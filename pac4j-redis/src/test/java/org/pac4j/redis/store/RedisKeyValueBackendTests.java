@@ -0,0 +1,90 @@
+package org.pac4j.redis.store;
+
+import lombok.val;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.AbstractStoreTests;
+import org.pac4j.core.store.KeyValueStore;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.redis.test.tools.RespServer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link KeyValueStore} with the {@link RedisKeyValueBackend}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class RedisKeyValueBackendTests extends AbstractStoreTests<KeyValueStore<String>> {
+
+    private static RespServer server;
+
+    @BeforeClass
+    public static void startServer() throws Exception {
+        server = new RespServer();
+    }
+
+    @AfterClass
+    public static void stopServer() throws Exception {
+        server.close();
+    }
+
+    private static RedisKeyValueBackend newBackend() {
+        val backend = new RedisKeyValueBackend("localhost", server.getPort());
+        backend.setPassword(PASSWORD);
+        backend.setDatabase(1);
+        backend.setBatchSize(2);
+        return backend;
+    }
+
+    @Override
+    protected KeyValueStore<String> buildStore() {
+        final KeyValueStore<String> store = new KeyValueStore<>(newBackend(), 1);
+        store.setNearCacheTimeout(0);
+        return store;
+    }
+
+    @Test
+    public void testPipelinedBulkOperations() {
+        val backend = newBackend();
+        final Map<String, byte[]> values = new HashMap<>();
+        for (var i = 0; i < 5; i++) {
+            values.put(KEY + i, (VALUE + i).getBytes(StandardCharsets.UTF_8));
+        }
+        backend.setAll(values, 0);
+
+        val loaded = backend.getAll(List.of(KEY + 0, KEY + 2, KEY + 4, ID));
+        assertEquals(3, loaded.size());
+        assertEquals(VALUE + 2, new String(loaded.get(KEY + 2), StandardCharsets.UTF_8));
+
+        backend.removeAll(values.keySet());
+        assertTrue(backend.getAll(values.keySet()).isEmpty());
+    }
+
+    @Test
+    public void testConnectionsAreReused() {
+        val backend = newBackend();
+        backend.set(NAME, VALUE.getBytes(StandardCharsets.UTF_8), 0);
+        val commands = server.getCommands();
+        for (var i = 0; i < 3; i++) {
+            assertTrue(backend.get(NAME).isPresent());
+        }
+        // no AUTH / SELECT commands for new connections
+        assertEquals(commands + 3, server.getCommands());
+    }
+
+    @Test
+    public void testServerUnavailable() {
+        val backend = new RedisKeyValueBackend("localhost", 1);
+        backend.setTimeout(500);
+        TestsHelper.expectException(() -> backend.get(KEY), TechnicalException.class, "Redis command failed on localhost:1");
+    }
+}
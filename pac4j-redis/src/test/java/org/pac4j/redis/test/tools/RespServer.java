@@ -0,0 +1,183 @@
+package org.pac4j.redis.test.tools;
+
+import lombok.val;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An in-process server speaking the Redis protocol for the <code>PING</code>, <code>AUTH</code>, <code>SELECT</code>,
+ * <code>GET</code>, <code>MGET</code>, <code>SET</code> (with <code>PX</code>) and <code>DEL</code> commands.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class RespServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+
+    private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+
+    private final AtomicInteger commands = new AtomicInteger();
+
+    public RespServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        val thread = new Thread(this::accept, "resp-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getCommands() {
+        return commands.get();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                val socket = serverSocket.accept();
+                val thread = new Thread(() -> serve(socket), "resp-server-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (final IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (socket; InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (true) {
+                val command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                commands.incrementAndGet();
+                reply(command, out);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void reply(final List<byte[]> command, final OutputStream out) throws IOException {
+        val name = new String(command.get(0), StandardCharsets.UTF_8).toUpperCase();
+        switch (name) {
+            case "PING", "AUTH", "SELECT" -> write(out, "+OK\r\n");
+            case "GET" -> writeBulk(out, get(key(command, 1)));
+            case "MGET" -> {
+                write(out, "*" + (command.size() - 1) + "\r\n");
+                for (var i = 1; i < command.size(); i++) {
+                    writeBulk(out, get(key(command, i)));
+                }
+            }
+            case "SET" -> {
+                val key = key(command, 1);
+                values.put(key, command.get(2));
+                if (command.size() == 5) {
+                    expirations.put(key, System.currentTimeMillis() + Long.parseLong(key(command, 4)));
+                } else {
+                    expirations.remove(key);
+                }
+                write(out, "+OK\r\n");
+            }
+            case "DEL" -> {
+                var deleted = 0;
+                for (var i = 1; i < command.size(); i++) {
+                    if (get(key(command, i)) != null) {
+                        deleted++;
+                    }
+                    values.remove(key(command, i));
+                    expirations.remove(key(command, i));
+                }
+                write(out, ":" + deleted + "\r\n");
+            }
+            default -> write(out, "-ERR unknown command '" + name + "'\r\n");
+        }
+    }
+
+    private byte[] get(final String key) {
+        val expiresAt = expirations.get(key);
+        if (expiresAt != null && expiresAt <= System.currentTimeMillis()) {
+            values.remove(key);
+            expirations.remove(key);
+        }
+        return values.get(key);
+    }
+
+    private static String key(final List<byte[]> command, final int index) {
+        return new String(command.get(index), StandardCharsets.UTF_8);
+    }
+
+    private static List<byte[]> readCommand(final InputStream in) throws IOException {
+        val type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        val size = Integer.parseInt(readLine(in));
+        final List<byte[]> args = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+            in.read();
+            val length = Integer.parseInt(readLine(in));
+            args.add(in.readNBytes(length));
+            in.readNBytes(2);
+        }
+        return args;
+    }
+
+    private static String readLine(final InputStream in) throws IOException {
+        val line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private static void write(final OutputStream out, final String s) throws IOException {
+        out.write(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeBulk(final OutputStream out, final byte[] value) throws IOException {
+        if (value == null) {
+            write(out, "$-1\r\n");
+        } else {
+            write(out, "$" + value.length + "\r\n");
+            out.write(value);
+            write(out, "\r\n");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -31,6 +31,7 @@ import org.pac4j.saml.profile.api.SAML2ProfileHandler;
 import org.pac4j.saml.profile.api.SAML2ResponseValidator;
 import org.pac4j.saml.redirect.SAML2RedirectionActionBuilder;
 import org.pac4j.saml.replay.InMemoryReplayCacheProvider;
+import org.pac4j.saml.replay.JdbcReplayCacheProvider;
 import org.pac4j.saml.replay.ReplayCacheProvider;
 import org.pac4j.saml.sso.artifact.DefaultSOAPPipelineProvider;
 import org.pac4j.saml.sso.artifact.SAML2ArtifactBindingMessageReceiver;
@@ -94,6 +95,7 @@ public class SAML2Client extends IndirectClient {
     protected ValueGenerator stateGenerator = new SAML2StateGenerator(this);
 
     @Getter
+    @Setter
     protected ReplayCacheProvider replayCache;
 
     protected SOAPPipelineProvider soapPipelineProvider;
@@ -218,7 +220,13 @@ public class SAML2Client extends IndirectClient {
     }
 
     protected void initIdentityProviderMetadataResolver() {
+        val previousResolver = this.identityProviderMetadataResolver;
         this.identityProviderMetadataResolver = this.configuration.getIdentityProviderMetadataResolver();
+        // a new resolver is built at each (forced) initialization: stop the refreshes of the previous one
+        if (previousResolver != this.identityProviderMetadataResolver
+            && previousResolver instanceof SAML2IdentityProviderMetadataResolver) {
+            ((SAML2IdentityProviderMetadataResolver) previousResolver).destroy();
+        }
         ((SAML2IdentityProviderMetadataResolver) this.identityProviderMetadataResolver).init();
     }
 
@@ -231,11 +239,19 @@ public class SAML2Client extends IndirectClient {
     }
 
     protected void initSAMLReplayCache() {
-        replayCache = new InMemoryReplayCacheProvider();
+        if (replayCache == null) {
+            replayCache = new InMemoryReplayCacheProvider();
+        }
     }
 
     public void destroy() {
         ((SAML2ServiceProviderMetadataResolver) serviceProviderMetadataResolver).destroy();
+        if (identityProviderMetadataResolver instanceof SAML2IdentityProviderMetadataResolver) {
+            ((SAML2IdentityProviderMetadataResolver) identityProviderMetadataResolver).destroy();
+        }
+        if (replayCache instanceof JdbcReplayCacheProvider) {
+            ((JdbcReplayCacheProvider) replayCache).destroy();
+        }
     }
 
     @Override
@@ -38,6 +38,7 @@ import org.pac4j.saml.profile.converter.SimpleSAML2AttributeConverter;
 import org.pac4j.saml.sso.impl.SAML2ScopingIdentityProvider;
 import org.pac4j.saml.store.EmptyStoreFactory;
 import org.pac4j.saml.store.SAMLMessageStoreFactory;
+import org.pac4j.saml.transport.DeflateSupport;
 import org.pac4j.saml.util.SAML2HttpClientBuilder;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
@@ -225,6 +226,15 @@ public class SAML2Configuration extends BaseClientConfiguration {
 
     private int identityProviderMetadataReadTimeout = 2500;
 
+    /**
+     * The interval (in seconds) between two checks for changes of the identity provider metadata, done in the background
+     * (0, the default, to check for changes on each metadata lookup).
+     */
+    private long identityProviderMetadataRefreshInterval = 0;
+
+    /** The maximum size (in bytes) of an inflated message received via the HTTP-Redirect binding. */
+    private int maxInflatedMessageSize = DeflateSupport.DEFAULT_MAX_INFLATED_SIZE;
+
     public SAML2Configuration(final String keystorePath, final String keystorePassword, final String privateKeyPassword,
                               final String identityProviderMetadataPath) {
         this(null, null, mapPathToResource(keystorePath), keystorePassword, privateKeyPassword,
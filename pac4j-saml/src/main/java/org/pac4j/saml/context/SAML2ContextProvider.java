@@ -9,6 +9,7 @@ import org.opensaml.messaging.context.BaseContext;
 import org.opensaml.messaging.context.MessageContext;
 import org.opensaml.saml.common.messaging.context.SAMLMetadataContext;
 import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
 import org.opensaml.saml.saml2.metadata.EntityDescriptor;
 import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
 import org.opensaml.saml.saml2.metadata.RoleDescriptor;
@@ -25,10 +26,15 @@ import org.pac4j.saml.transport.Pac4jSAMLResponse;
 import org.pac4j.saml.util.SAML2Utils;
 
 import javax.xml.namespace.QName;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Responsible for building a {@link SAML2MessageContext} from given SAML2 properties (idpEntityId and metadata
  * manager) and current {@link WebContext}.
+ * <p>
+ * The chaining metadata resolver and the entity and role descriptors resolved from it are kept as long as the idp
+ * and sp metadata resolvers return the same underlying {@link MetadataResolver}s (until the metadata are reloaded).
  *
  * @author Michael Remond
  * @author Misagh Moayyed
@@ -45,6 +51,8 @@ public class SAML2ContextProvider implements SAMLContextProvider {
 
     protected final SAMLMessageStoreFactory samlMessageStoreFactory;
 
+    private volatile ResolvedMetadata resolvedMetadata;
+
     public SAML2ContextProvider(final SAML2MetadataResolver idpEntityId,
                                 final SAML2MetadataResolver spEntityId,
                                 final SAMLMessageStoreFactory samlMessageStoreFactory) {
@@ -97,28 +105,68 @@ public class SAML2ContextProvider implements SAMLContextProvider {
 
     protected final void addSPContext(final SAML2MessageContext context) {
         val selfContext = context.getSAMLSelfEntityContext();
-        selfContext.setEntityId(this.spEntityId.getEntityId());
+        val descriptors = resolveDescriptors(this.spEntityId, SPSSODescriptor.DEFAULT_ELEMENT_NAME);
+        selfContext.setEntityId(descriptors.entityId());
         selfContext.setRole(SPSSODescriptor.DEFAULT_ELEMENT_NAME);
-        addContext(this.spEntityId, selfContext, SPSSODescriptor.DEFAULT_ELEMENT_NAME);
+        addMetadataContext(selfContext, descriptors);
     }
 
     protected final void addIDPContext(final SAML2MessageContext context) {
         val peerContext = context.getSAMLPeerEntityContext();
-        peerContext.setEntityId(this.idpEntityId.getEntityId());
+        val descriptors = resolveDescriptors(this.idpEntityId, IDPSSODescriptor.DEFAULT_ELEMENT_NAME);
+        peerContext.setEntityId(descriptors.entityId());
         peerContext.setRole(IDPSSODescriptor.DEFAULT_ELEMENT_NAME);
-        addContext(this.idpEntityId, peerContext, IDPSSODescriptor.DEFAULT_ELEMENT_NAME);
+        addMetadataContext(peerContext, descriptors);
     }
 
     protected final void addContext(final SAML2MetadataResolver metadata, final BaseContext parentContext,
                                     final QName elementName) {
+        addMetadataContext(parentContext, resolveDescriptors(metadata, elementName));
+    }
+
+    private static void addMetadataContext(final BaseContext parentContext, final Descriptors descriptors) {
+        val mdCtx = parentContext.getSubcontext(SAMLMetadataContext.class, true);
+        mdCtx.setEntityDescriptor(descriptors.entityDescriptor());
+        mdCtx.setRoleDescriptor(descriptors.roleDescriptor());
+    }
+
+    /**
+     * Get the entity and role descriptors of an entity, resolved once per version of the metadata.
+     *
+     * @param metadata the metadata of the entity
+     * @param elementName the role
+     * @return the descriptors
+     */
+    protected final Descriptors resolveDescriptors(final SAML2MetadataResolver metadata, final QName elementName) {
+        val idpResolver = this.idpEntityId.resolve();
+        val spResolver = this.spEntityId.resolve();
+        var current = resolvedMetadata;
+        if (current == null || current.idpResolver() != idpResolver || current.spResolver() != spResolver) {
+            synchronized (this) {
+                current = resolvedMetadata;
+                if (current == null || current.idpResolver() != idpResolver || current.spResolver() != spResolver) {
+                    LOGGER.debug("Building the chaining metadata resolver");
+                    current = new ResolvedMetadata(idpResolver, spResolver,
+                        SAML2Utils.buildChainingMetadataResolver(idpResolver, spResolver), new ConcurrentHashMap<>());
+                    resolvedMetadata = current;
+                }
+            }
+        }
+        val chainingResolver = current.chainingResolver();
+        return current.descriptors().computeIfAbsent(new DescriptorsKey(metadata, elementName),
+            key -> resolveDescriptors(chainingResolver, metadata, elementName));
+    }
+
+    private static Descriptors resolveDescriptors(final MetadataResolver chainingResolver, final SAML2MetadataResolver metadata,
+                                                  final QName elementName) {
         final EntityDescriptor entityDescriptor;
         final RoleDescriptor roleDescriptor;
+        val entityId = metadata.getEntityId();
         try {
             val set = new CriteriaSet();
-            val entityId = metadata.getEntityId();
             set.add(new EntityIdCriterion(entityId));
 
-            entityDescriptor = SAML2Utils.buildChainingMetadataResolver(this.idpEntityId, this.spEntityId).resolveSingle(set);
+            entityDescriptor = chainingResolver.resolveSingle(set);
             if (entityDescriptor == null) {
                 throw new SAMLException("Cannot find entity " + entityId + " in metadata provider");
             }
@@ -134,8 +182,20 @@ public class SAML2ContextProvider implements SAMLContextProvider {
         } catch (final ResolverException e) {
             throw new SAMLException("An error occurred while getting IDP descriptors", e);
         }
-        val mdCtx = parentContext.getSubcontext(SAMLMetadataContext.class, true);
-        mdCtx.setEntityDescriptor(entityDescriptor);
-        mdCtx.setRoleDescriptor(roleDescriptor);
+        return new Descriptors(entityId, entityDescriptor, roleDescriptor);
     }
+
+    /**
+     * The entity and role descriptors of an entity.
+     *
+     * @param entityId the entity identifier
+     * @param entityDescriptor the entity descriptor
+     * @param roleDescriptor the role descriptor
+     */
+    protected record Descriptors(String entityId, EntityDescriptor entityDescriptor, RoleDescriptor roleDescriptor) {}
+
+    private record DescriptorsKey(SAML2MetadataResolver metadata, QName elementName) {}
+
+    private record ResolvedMetadata(MetadataResolver idpResolver, MetadataResolver spResolver,
+                                    MetadataResolver chainingResolver, Map<DescriptorsKey, Descriptors> descriptors) {}
 }
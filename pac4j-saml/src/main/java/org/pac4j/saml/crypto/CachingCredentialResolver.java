@@ -0,0 +1,112 @@
+package org.pac4j.saml.crypto;
+
+import lombok.val;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import net.shibboleth.shared.resolver.Criterion;
+import net.shibboleth.shared.resolver.ResolverException;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.criterion.ProtocolCriterion;
+import org.opensaml.security.credential.Credential;
+import org.opensaml.security.credential.CredentialResolver;
+import org.opensaml.security.criteria.UsageCriterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link CredentialResolver} caching the credentials resolved by another resolver (usually from the metadata)
+ * for the criteria used to validate the signatures: entity identifier, entity role, protocol and usage.
+ *
+ * The credentials resolved for other criteria are not cached. The cache must be dropped when the metadata change,
+ * which is done by the {@link ExplicitSignatureTrustEngineProvider} by building a new resolver.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public class CachingCredentialResolver implements CredentialResolver {
+
+    private static final Set<Class<? extends Criterion>> CACHEABLE_CRITERIA =
+        Set.of(EntityIdCriterion.class, EntityRoleCriterion.class, ProtocolCriterion.class, UsageCriterion.class);
+
+    private final CredentialResolver delegate;
+
+    private final int maxSize;
+
+    private final Map<List<Object>, List<Credential>> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits;
+
+    private final LongAdder misses;
+
+    public CachingCredentialResolver(final CredentialResolver delegate, final int maxSize,
+                                     final LongAdder hits, final LongAdder misses) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    @Override
+    public Iterable<Credential> resolve(final CriteriaSet criteria) throws ResolverException {
+        val key = cacheKey(criteria);
+        if (key == null) {
+            return delegate.resolve(criteria);
+        }
+        val cached = cache.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        final List<Credential> credentials = new ArrayList<>();
+        for (val credential : delegate.resolve(criteria)) {
+            credentials.add(credential);
+        }
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+        val result = Collections.unmodifiableList(credentials);
+        cache.put(key, result);
+        return result;
+    }
+
+    @Override
+    public Credential resolveSingle(final CriteriaSet criteria) throws ResolverException {
+        val credentials = resolve(criteria).iterator();
+        return credentials.hasNext() ? credentials.next() : null;
+    }
+
+    /**
+     * Build the cache key from the criteria.
+     *
+     * @param criteria the criteria
+     * @return the key or <code>null</code> if the credentials cannot be cached for these criteria
+     */
+    protected List<Object> cacheKey(final CriteriaSet criteria) {
+        if (criteria == null || criteria.isEmpty()) {
+            return null;
+        }
+        for (val criterion : criteria) {
+            if (!CACHEABLE_CRITERIA.contains(criterion.getClass())) {
+                return null;
+            }
+        }
+        val entityId = criteria.get(EntityIdCriterion.class);
+        val role = criteria.get(EntityRoleCriterion.class);
+        val protocol = criteria.get(ProtocolCriterion.class);
+        val usage = criteria.get(UsageCriterion.class);
+        return Arrays.asList(entityId != null ? entityId.getEntityId() : null, role != null ? role.getRole() : null,
+            protocol != null ? protocol.getProtocol() : null, usage != null ? usage.getUsage() : null);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -3,6 +3,7 @@ package org.pac4j.saml.crypto;
 import lombok.val;
 import net.shibboleth.shared.component.ComponentInitializationException;
 import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.metadata.resolver.RefreshableMetadataResolver;
 import org.opensaml.saml.metadata.resolver.impl.PredicateRoleDescriptorResolver;
 import org.opensaml.saml.security.impl.MetadataCredentialResolver;
 import org.opensaml.xmlsec.config.impl.DefaultSecurityConfigurationBootstrap;
@@ -11,19 +12,46 @@ import org.opensaml.xmlsec.signature.support.impl.ExplicitKeySignatureTrustEngin
 import org.pac4j.saml.exceptions.SAMLException;
 import org.pac4j.saml.metadata.SAML2MetadataResolver;
 import org.pac4j.saml.util.SAML2Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Provider returning well configured {@link SignatureTrustEngine} instances.
+ * <p>
+ * The trust engine is built once and reused as long as the idp and sp metadata resolvers return the same
+ * underlying {@link MetadataResolver}s: it is rebuilt when one of them is swapped (metadata reloaded), when a
+ * {@link RefreshableMetadataResolver} reports a new last update (metadata reloaded in place) and, in any case,
+ * after a time to live (to drop the revoked credentials of the resolvers which can't report their reloads).
+ * The trusted credentials resolved from the metadata are cached in the trust engine
+ * (see {@link CachingCredentialResolver}).
  *
  * @author Misagh Moayyed
  * @since 1.8.0
  */
 public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrustEngineProvider {
 
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
     private final SAML2MetadataResolver idpMetadataResolver;
 
     private final SAML2MetadataResolver spMetadataResolver;
 
+    private final LongAdder engineBuilds = new LongAdder();
+
+    private final LongAdder credentialCacheHits = new LongAdder();
+
+    private final LongAdder credentialCacheMisses = new LongAdder();
+
+    private int credentialCacheSize = 1000;
+
+    private long engineTimeToLive = 3600;
+
+    private volatile CachedEngine cachedEngine;
+
     public ExplicitSignatureTrustEngineProvider(final SAML2MetadataResolver idpMetadataResolver,
                                                 final SAML2MetadataResolver spMetadataResolver) {
         this.idpMetadataResolver = idpMetadataResolver;
@@ -32,8 +60,50 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
 
     @Override
     public SignatureTrustEngine build() {
+        val idpResolver = idpMetadataResolver.resolve();
+        val spResolver = spMetadataResolver.resolve();
+        val idpLastUpdate = getLastUpdate(idpResolver);
+        val spLastUpdate = getLastUpdate(spResolver);
+        var current = cachedEngine;
+        if (current == null || !current.isValidFor(idpResolver, idpLastUpdate, spResolver, spLastUpdate, engineTimeToLive)) {
+            synchronized (this) {
+                current = cachedEngine;
+                if (current == null || !current.isValidFor(idpResolver, idpLastUpdate, spResolver, spLastUpdate, engineTimeToLive)) {
+                    current = new CachedEngine(idpResolver, idpLastUpdate, spResolver, spLastUpdate,
+                        buildEngine(idpResolver, spResolver), Instant.now());
+                    cachedEngine = current;
+                }
+            }
+        }
+        return current.engine;
+    }
+
+    /**
+     * Return the last update of the metadata, if the resolver is able to report it.
+     *
+     * @param resolver the metadata resolver
+     * @return the last update or <code>null</code>
+     */
+    protected Instant getLastUpdate(final MetadataResolver resolver) {
+        if (resolver instanceof RefreshableMetadataResolver refreshableResolver) {
+            return refreshableResolver.getLastUpdate();
+        }
+        return null;
+    }
+
+    /**
+     * Build a new trust engine on the given metadata.
+     *
+     * @param idpResolver the idp metadata resolver
+     * @param spResolver the sp metadata resolver
+     * @return the trust engine
+     */
+    protected SignatureTrustEngine buildEngine(final MetadataResolver idpResolver, final MetadataResolver spResolver) {
+        engineBuilds.increment();
+        logger.debug("Building the signature trust engine (build #{})", engineBuilds.sum());
+
         val metadataCredentialResolver = new MetadataCredentialResolver();
-        final MetadataResolver metadataResolver = SAML2Utils.buildChainingMetadataResolver(idpMetadataResolver, spMetadataResolver);
+        final MetadataResolver metadataResolver = SAML2Utils.buildChainingMetadataResolver(idpResolver, spResolver);
         val roleResolver = new PredicateRoleDescriptorResolver(metadataResolver);
 
         val keyResolver =
@@ -49,6 +119,52 @@ public class ExplicitSignatureTrustEngineProvider implements SAML2SignatureTrust
             throw new SAMLException(e);
         }
 
-        return new ExplicitKeySignatureTrustEngine(metadataCredentialResolver, keyResolver);
+        val credentialResolver = new CachingCredentialResolver(metadataCredentialResolver, credentialCacheSize,
+            credentialCacheHits, credentialCacheMisses);
+        return new ExplicitKeySignatureTrustEngine(credentialResolver, keyResolver);
+    }
+
+    public long getEngineBuilds() {
+        return engineBuilds.sum();
+    }
+
+    public long getCredentialCacheHits() {
+        return credentialCacheHits.sum();
+    }
+
+    public long getCredentialCacheMisses() {
+        return credentialCacheMisses.sum();
+    }
+
+    public int getCredentialCacheSize() {
+        return credentialCacheSize;
+    }
+
+    public void setCredentialCacheSize(final int credentialCacheSize) {
+        this.credentialCacheSize = credentialCacheSize;
+    }
+
+    public long getEngineTimeToLive() {
+        return engineTimeToLive;
+    }
+
+    /**
+     * Define the time to live (in seconds) of the trust engine. A non-positive value disables the expiration.
+     *
+     * @param engineTimeToLive the time to live in seconds
+     */
+    public void setEngineTimeToLive(final long engineTimeToLive) {
+        this.engineTimeToLive = engineTimeToLive;
+    }
+
+    private record CachedEngine(MetadataResolver idpResolver, Instant idpLastUpdate, MetadataResolver spResolver,
+                                Instant spLastUpdate, SignatureTrustEngine engine, Instant builtAt) {
+
+        boolean isValidFor(final MetadataResolver idp, final Instant idpUpdate, final MetadataResolver sp, final Instant spUpdate,
+                           final long timeToLive) {
+            return idpResolver == idp && spResolver == sp
+                && Objects.equals(idpLastUpdate, idpUpdate) && Objects.equals(spLastUpdate, spUpdate)
+                && (timeToLive <= 0 || Instant.now().isBefore(builtAt.plusSeconds(timeToLive)));
+        }
     }
 }
@@ -1,5 +1,6 @@
 package org.pac4j.saml.logout.impl;
 
+import lombok.val;
 import org.opensaml.saml.saml2.core.StatusResponseType;
 import org.opensaml.saml.saml2.metadata.Endpoint;
 import org.pac4j.core.context.WebContextHelper;
@@ -45,7 +46,9 @@ public class SAML2LogoutMessageReceiver extends AbstractSAML2MessageReceiver {
                 throw new SAMLException("Error decoding POST SAML message", e);
             }
         } else if (WebContextHelper.isGet(webContext)) {
-            decoder = new Pac4jHTTPRedirectDeflateDecoder(webContext);
+            val redirectDecoder = new Pac4jHTTPRedirectDeflateDecoder(webContext);
+            redirectDecoder.setMaxInflatedSize(saml2Configuration.getMaxInflatedMessageSize());
+            decoder = redirectDecoder;
 
             try {
                 decoder.setParserPool(Configuration.getParserPool());
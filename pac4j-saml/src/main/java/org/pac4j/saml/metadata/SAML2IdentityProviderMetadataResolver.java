@@ -31,12 +31,19 @@ import java.net.HttpURLConnection;
 import java.net.Proxy;
 import java.net.URLConnection;
 import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Resolve and download idp metadata to form a metadata resolver.
  * <p>
  * The resolver supports proxies using {@link Proxy} when fetching metadata over URL resources.
+ * <p>
+ * If a refresh interval is defined ({@link SAML2Configuration#getIdentityProviderMetadataRefreshInterval()}),
+ * the changes of the metadata are checked in the background (with a conditional GET for URL resources)
+ * and the lookups only read the current metadata resolver. If a refresh fails, the last good metadata are kept.
  *
  * @author Misagh Moayyed
  * @since 1.7
@@ -47,8 +54,12 @@ public class SAML2IdentityProviderMetadataResolver implements SAML2MetadataResol
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     private final ReentrantLock lock = new ReentrantLock();
-    private MetadataResolver metadataResolver;
+    private volatile MetadataResolver metadataResolver;
     private long lastModified = NO_LAST_MODIFIED;
+    private String etag;
+    private long httpLastModified;
+    private volatile ScheduledExecutorService refreshScheduler;
+    private InputStream fetchedMetadata;
     private Proxy proxy = Proxy.NO_PROXY;
 
     private HostnameVerifier hostnameVerifier;
@@ -69,10 +80,86 @@ public class SAML2IdentityProviderMetadataResolver implements SAML2MetadataResol
     public void init() {
         this.metadataResolver = resolve(true);
         hasChanged();
+        startRefreshScheduler();
+    }
+
+    protected synchronized void startRefreshScheduler() {
+        val interval = configuration.getIdentityProviderMetadataRefreshInterval();
+        if (interval > 0 && refreshScheduler == null) {
+            refreshScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                val thread = new Thread(task, "pac4j-saml-idp-metadata-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refreshScheduler.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void destroy() {
+        if (refreshScheduler != null) {
+            refreshScheduler.shutdownNow();
+            refreshScheduler = null;
+        }
+    }
+
+    /**
+     * Check if the metadata have changed and reload them if so. The current metadata are kept in case of failure.
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            val idpMetadataResource = configuration.getIdentityProviderMetadataResource();
+            if (idpMetadataResource instanceof UrlResource
+                && openMetadataConnection() instanceof HttpURLConnection httpConnection) {
+                refreshFromHttpConnection(httpConnection);
+            } else if (hasChanged()) {
+                this.metadataResolver = buildMetadataResolver();
+            }
+        } catch (final Exception e) {
+            logger.warn("Cannot refresh the idp metadata, keeping the current ones", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected void refreshFromHttpConnection(final HttpURLConnection connection) throws IOException {
+        try {
+            if (etag != null) {
+                connection.setRequestProperty("If-None-Match", etag);
+            }
+            if (httpLastModified > 0) {
+                connection.setIfModifiedSince(httpLastModified);
+            }
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                logger.debug("The idp metadata have not changed");
+                return;
+            }
+            // the fetched metadata are handed to buildMetadataResolver() via getMetadataResourceInputStream()
+            this.fetchedMetadata = connection.getInputStream();
+            final MetadataResolver newMetadataResolver;
+            try {
+                newMetadataResolver = buildMetadataResolver();
+            } finally {
+                this.fetchedMetadata = null;
+            }
+            rememberValidators(connection);
+            this.metadataResolver = newMetadataResolver;
+            logger.debug("The idp metadata have been reloaded");
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    protected void rememberValidators(final URLConnection connection) {
+        this.etag = connection.getHeaderField("ETag");
+        this.httpLastModified = connection.getLastModified();
     }
 
     @Override
     public final MetadataResolver resolve(final boolean force) {
+        if (!force && refreshScheduler != null && metadataResolver != null) {
+            return metadataResolver;
+        }
         if (lock.tryLock()) {
             try {
                 var reload = force || hasChanged();
@@ -131,6 +218,16 @@ public class SAML2IdentityProviderMetadataResolver implements SAML2MetadataResol
 
     protected DOMMetadataResolver initializeMetadataResolver() {
         try (var in = getMetadataResourceInputStream()) {
+            return initializeMetadataResolver(in);
+        } catch (final FileNotFoundException e) {
+            throw new TechnicalException("Error loading idp metadata", e);
+        } catch (final IOException e) {
+            throw new TechnicalException("Error getting idp metadata resource", e);
+        }
+    }
+
+    protected DOMMetadataResolver initializeMetadataResolver(final InputStream in) {
+        try {
             var parsedInput = Configuration.getParserPool().parse(in);
             var metadataRoot = parsedInput.getDocumentElement();
             var resolver = new DOMMetadataResolver(metadataRoot);
@@ -141,34 +238,42 @@ public class SAML2IdentityProviderMetadataResolver implements SAML2MetadataResol
             resolver.setId(resolver.getClass().getCanonicalName());
             resolver.initialize();
             return resolver;
-        } catch (final FileNotFoundException e) {
-            throw new TechnicalException("Error loading idp metadata", e);
         } catch (final ComponentInitializationException e) {
             throw new TechnicalException("Error initializing idp metadata resolver", e);
         } catch (final XMLParserException e) {
             throw new TechnicalException("Error parsing idp metadata", e);
-        } catch (final IOException e) {
-            throw new TechnicalException("Error getting idp metadata resource", e);
         }
     }
 
-    protected InputStream getMetadataResourceInputStream() throws IOException {
+    protected URLConnection openMetadataConnection() throws IOException {
         var idpMetadataResource = configuration.getIdentityProviderMetadataResource();
-        if (idpMetadataResource instanceof UrlResource) {
-            var con = idpMetadataResource.getURL().openConnection(proxy);
-            if (con instanceof HttpsURLConnection) {
-                HttpsURLConnection connection = (HttpsURLConnection) con;
-                if (this.sslSocketFactory != null) {
-                    connection.setSSLSocketFactory(this.sslSocketFactory);
-                }
-                if (this.hostnameVerifier != null) {
-                    connection.setHostnameVerifier(this.hostnameVerifier);
-                }
+        var con = idpMetadataResource.getURL().openConnection(proxy);
+        if (con instanceof HttpsURLConnection) {
+            HttpsURLConnection connection = (HttpsURLConnection) con;
+            if (this.sslSocketFactory != null) {
+                connection.setSSLSocketFactory(this.sslSocketFactory);
+            }
+            if (this.hostnameVerifier != null) {
+                connection.setHostnameVerifier(this.hostnameVerifier);
             }
+        }
+        prepareMetadataRemoteConnection(con);
+        return con;
+    }
 
+    protected InputStream getMetadataResourceInputStream() throws IOException {
+        if (fetchedMetadata != null) {
+            val in = fetchedMetadata;
+            fetchedMetadata = null;
+            return in;
+        }
+        var idpMetadataResource = configuration.getIdentityProviderMetadataResource();
+        if (idpMetadataResource instanceof UrlResource) {
+            var con = openMetadataConnection();
             try {
-                prepareMetadataRemoteConnection(con);
-                return con.getInputStream();
+                val in = con.getInputStream();
+                rememberValidators(con);
+                return in;
             } catch (final Exception e) {
                 if (con instanceof HttpURLConnection) {
                     ((HttpURLConnection) con).disconnect();
@@ -0,0 +1,63 @@
+package org.pac4j.saml.metadata;
+
+import lombok.Getter;
+import lombok.val;
+import org.pac4j.saml.exceptions.SAMLException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The rendered (and signed if required) metadata of the service provider, with their HTTP validators
+ * (strong <code>ETag</code> and <code>Last-Modified</code> date) and their gzipped form.
+ *
+ * The byte arrays are shared: they must not be modified.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+public final class SAML2RenderedMetadata {
+
+    private final String metadata;
+
+    private final byte[] bytes;
+
+    private final byte[] gzippedBytes;
+
+    private final String etag;
+
+    private final long lastModified;
+
+    public SAML2RenderedMetadata(final String metadata, final long lastModified) {
+        this.metadata = metadata;
+        this.bytes = metadata.getBytes(StandardCharsets.UTF_8);
+        this.gzippedBytes = gzip(bytes);
+        this.etag = '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(sha256(bytes)) + '"';
+        // the HTTP dates have a precision of one second
+        this.lastModified = lastModified / 1000 * 1000;
+    }
+
+    private static byte[] sha256(final byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new SAMLException(e);
+        }
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        val out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (val gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (final IOException e) {
+            throw new SAMLException(e);
+        }
+        return out.toByteArray();
+    }
+}
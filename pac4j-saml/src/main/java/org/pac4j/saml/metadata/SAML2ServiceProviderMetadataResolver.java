@@ -10,7 +10,18 @@ import org.opensaml.saml.metadata.resolver.impl.FilesystemMetadataResolver;
 import org.pac4j.saml.config.SAML2Configuration;
 import org.pac4j.saml.exceptions.SAMLException;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 /**
+ * Resolve (and generate if necessary) the metadata of the service provider.
+ * <p>
+ * The metadata returned by {@link #getMetadata()} are rendered (and signed) once and cached until the configuration
+ * or the keystore change (see {@link #metadataFingerprint()}) or {@link #invalidateMetadata()} is called.
+ *
  * @author Misagh Moayyed
  * @since 1.7
  */
@@ -18,6 +29,7 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
 
     protected final SAML2Configuration configuration;
     private MetadataResolver metadataResolver;
+    private volatile CachedMetadata cachedMetadata;
 
     public SAML2ServiceProviderMetadataResolver(final SAML2Configuration configuration) {
         this.configuration = configuration;
@@ -59,6 +71,37 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
 
     @Override
     public String getMetadata() {
+        return getRenderedMetadata().getMetadata();
+    }
+
+    /**
+     * Get the rendered metadata, only re-generated (and re-signed) when the configuration or the keystore change.
+     *
+     * @return the rendered metadata
+     */
+    public SAML2RenderedMetadata getRenderedMetadata() {
+        val fingerprint = metadataFingerprint();
+        var current = cachedMetadata;
+        if (current == null || !current.fingerprint().equals(fingerprint)) {
+            synchronized (this) {
+                current = cachedMetadata;
+                if (current == null || !current.fingerprint().equals(fingerprint)) {
+                    current = new CachedMetadata(fingerprint, new SAML2RenderedMetadata(renderMetadata(), System.currentTimeMillis()));
+                    cachedMetadata = current;
+                }
+            }
+        }
+        return current.rendered();
+    }
+
+    /**
+     * Drop the rendered metadata (for changes not detected by the {@link #metadataFingerprint()}).
+     */
+    public void invalidateMetadata() {
+        cachedMetadata = null;
+    }
+
+    protected String renderMetadata() {
         try {
             val metadataGenerator = configuration.toMetadataGenerator();
             val entity = metadataGenerator.buildEntityDescriptor();
@@ -68,6 +111,35 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
         }
     }
 
+    /**
+     * The values the metadata are generated from: the metadata are rendered again when one of them changes.
+     *
+     * @return the fingerprint of the metadata
+     */
+    protected List<Object> metadataFingerprint() {
+        val keystoreResource = configuration.getKeystoreResource();
+        long keystoreLastModified;
+        try {
+            keystoreLastModified = keystoreResource != null && keystoreResource.isFile() ? keystoreResource.lastModified() : -1;
+        } catch (final IOException e) {
+            keystoreLastModified = -1;
+        }
+        return Arrays.asList(configuration.getServiceProviderEntityId(), configuration.getCallbackUrl(),
+            configuration.getAssertionConsumerServiceUrl(), configuration.getRequestInitiatorUrl(),
+            configuration.getSingleSignOutServiceUrl(), configuration.getResponseBindingType(),
+            configuration.getNameIdPolicyFormat(), configuration.isSignMetadata(), configuration.isAuthnRequestSigned(),
+            configuration.isWantsAssertionsSigned(), copy(configuration.getSignatureAlgorithms()),
+            copy(configuration.getSignatureReferenceDigestMethods()),
+            copy(configuration.getBlackListedSignatureSigningAlgorithms()), copy(configuration.getSupportedProtocols()),
+            copy(configuration.getRequestedServiceProviderAttributes()), copy(configuration.getContactPersons()),
+            copy(configuration.getMetadataUIInfos()), configuration.getMetadataGenerator(), configuration.getMetadataSigner(),
+            keystoreResource, keystoreLastModified, configuration.getKeyStoreAlias());
+    }
+
+    private static List<Object> copy(final Collection<?> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
     @Override
     public XMLObject getEntityDescriptorElement() {
         try {
@@ -76,4 +148,6 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
             throw new SAMLException("Unable to resolve metadata", e);
         }
     }
+
+    private record CachedMetadata(List<Object> fingerprint, SAML2RenderedMetadata rendered) {}
 }
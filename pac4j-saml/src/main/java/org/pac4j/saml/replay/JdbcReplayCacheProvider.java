@@ -0,0 +1,363 @@
+package org.pac4j.saml.replay;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.opensaml.storage.ReplayCache;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.saml.exceptions.SAMLException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replay cache provider storing the identifiers in a relational database shared by the nodes of a cluster.
+ * <p>
+ * The table (named <code>sp_replay_cache</code> by default) must be created beforehand:
+ * <pre>
+ * CREATE TABLE sp_replay_cache (id VARCHAR(64) PRIMARY KEY, expires BIGINT NOT NULL, part INT NOT NULL);
+ * CREATE INDEX sp_replay_cache_expiry ON sp_replay_cache (part, expires);
+ * </pre>
+ * The uniqueness of the identifiers (SHA-256 hashes of the context and the key) is guaranteed by the primary key:
+ * a new identifier is inserted, a duplicate is a replay unless the stored one has expired (the expiration date is
+ * driven by the <code>NotOnOrAfter</code> of the assertion).
+ * <ul>
+ *     <li>The inserts of the concurrent checks are batched in one transaction (a batch with a duplicate identifier
+ *     is rolled back and its inserts are done one by one).</li>
+ *     <li>A local Bloom filter of the identifiers checked on this node avoids the lookup for the identifiers which
+ *     were never seen here: they are directly inserted.</li>
+ *     <li>The expired identifiers are deleted periodically, one partition of the table at a time.</li>
+ * </ul>
+ * No global lock is involved. If the database fails, the check fails unless <code>strict</code> is disabled.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Slf4j
+public class JdbcReplayCacheProvider extends InitializableObject implements ReplayCacheProvider, ReplayCache {
+
+    private final JdbcTemplate template;
+
+    @Getter
+    @Setter
+    private String tableName = "sp_replay_cache";
+
+    @Getter
+    @Setter
+    private int batchSize = 100;
+
+    @Getter
+    @Setter
+    private int partitions = 16;
+
+    /** Interval between two sweeps of expired identifiers (in seconds, 0 to disable the scheduled sweeps). */
+    @Getter
+    @Setter
+    private int sweepInterval = 60;
+
+    /** Number of identifiers kept in the Bloom filter before it is renewed. */
+    @Getter
+    @Setter
+    private int expectedIdentifiers = 100_000;
+
+    @Getter
+    @Setter
+    private double falsePositiveProbability = 0.01;
+
+    /** Whether a database failure rejects the message. */
+    @Getter
+    @Setter
+    private boolean strict = true;
+
+    private final Queue<PendingInsert> pendingInserts = new ConcurrentLinkedQueue<>();
+
+    private final AtomicReference<SeenIdentifiers> seenIdentifiers = new AtomicReference<>();
+
+    private final AtomicInteger sweptPartition = new AtomicInteger(ThreadLocalRandom.current().nextInt(1024));
+
+    private final LongAdder lookups = new LongAdder();
+
+    private final LongAdder skippedLookups = new LongAdder();
+
+    private final LongAdder batches = new LongAdder();
+
+    private volatile ScheduledExecutorService sweepScheduler;
+
+    public JdbcReplayCacheProvider(final JdbcTemplate template) {
+        CommonHelper.assertNotNull("template", template);
+        this.template = template;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("tableName", tableName);
+        CommonHelper.assertTrue(batchSize > 0, "batchSize must be greater than 0");
+        CommonHelper.assertTrue(partitions > 0, "partitions must be greater than 0");
+
+        seenIdentifiers.set(new SeenIdentifiers(newBloomFilter(), null));
+        startSweepScheduler();
+    }
+
+    protected synchronized void startSweepScheduler() {
+        if (sweepInterval > 0 && sweepScheduler == null) {
+            sweepScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                val thread = new Thread(task, "pac4j-saml-replay-cache-sweep");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweepScheduler.scheduleWithFixedDelay(this::safeSweep, sweepInterval, sweepInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void destroy() {
+        if (sweepScheduler != null) {
+            sweepScheduler.shutdownNow();
+            sweepScheduler = null;
+        }
+    }
+
+    @Override
+    public ReplayCache get() {
+        init();
+        return this;
+    }
+
+    @Override
+    public boolean check(final String context, final String key, final Instant expires) {
+        init();
+        val id = hash(context, key);
+        val expiration = expires.toEpochMilli();
+        try {
+            final boolean accepted;
+            if (mightHaveSeen(id)) {
+                accepted = checkSeenIdentifier(id, expiration);
+            } else {
+                skippedLookups.increment();
+                accepted = insert(id, expiration);
+            }
+            remember(id);
+            if (!accepted) {
+                LOGGER.warn("Replay detected of value '{}' in context '{}'", key, context);
+            }
+            return accepted;
+        } catch (final DataAccessException | CompletionException e) {
+            LOGGER.error("Cannot check the value '{}' in context '{}' against the replay cache", key, context, e);
+            return !strict;
+        }
+    }
+
+    /**
+     * Check an identifier which may have been seen: look it up and renew it if it has expired.
+     *
+     * @param id the identifier
+     * @param expiration the expiration date (in milliseconds)
+     * @return whether the identifier is accepted
+     */
+    protected boolean checkSeenIdentifier(final String id, final long expiration) {
+        lookups.increment();
+        val storedExpiration = template.query("SELECT expires FROM " + tableName + " WHERE id = ?",
+            rs -> rs.next() ? rs.getLong(1) : null, id);
+        if (storedExpiration == null) {
+            // false positive of the Bloom filter or swept identifier
+            return insert(id, expiration);
+        }
+        return storedExpiration <= System.currentTimeMillis() && renewExpired(id, expiration);
+    }
+
+    /**
+     * Insert a new identifier, batched with the concurrent inserts.
+     *
+     * @param id the identifier
+     * @param expiration the expiration date (in milliseconds)
+     * @return whether the identifier is accepted
+     */
+    protected boolean insert(final String id, final long expiration) {
+        val pending = new PendingInsert(id, expiration, new CompletableFuture<>());
+        pendingInserts.add(pending);
+        // flush until our insert is done or taken by another thread (which will complete it)
+        while (!pending.result().isDone() && flushPendingInserts()) {
+            // next batch
+        }
+        return pending.result().join();
+    }
+
+    /**
+     * Flush one batch of pending inserts.
+     *
+     * @return whether there was pending inserts
+     */
+    protected boolean flushPendingInserts() {
+        final List<PendingInsert> batch = new ArrayList<>();
+        PendingInsert pending;
+        while (batch.size() < batchSize && (pending = pendingInserts.poll()) != null) {
+            batch.add(pending);
+        }
+        if (batch.isEmpty()) {
+            return false;
+        }
+        batches.increment();
+        try {
+            if (batch.size() > 1) {
+                try {
+                    insertBatch(batch);
+                    batch.forEach(p -> p.result().complete(true));
+                    return true;
+                } catch (final DataAccessException e) {
+                    LOGGER.debug("Cannot insert a batch of {} identifiers, inserting them one by one", batch.size(), e);
+                }
+            }
+            for (val p : batch) {
+                try {
+                    p.result().complete(insertOne(p.id(), p.expiration()));
+                } catch (final RuntimeException e) {
+                    p.result().completeExceptionally(e);
+                }
+            }
+            return true;
+        } finally {
+            // never leave the threads waiting for these inserts blocked, whatever the failure
+            for (val p : batch) {
+                if (!p.result().isDone()) {
+                    p.result().completeExceptionally(new SAMLException("Cannot insert the identifier in " + tableName));
+                }
+            }
+        }
+    }
+
+    protected void insertBatch(final List<PendingInsert> batch) {
+        template.execute((ConnectionCallback<Void>) connection -> {
+            val autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (val statement = connection.prepareStatement(insertSql())) {
+                for (val p : batch) {
+                    statement.setString(1, p.id());
+                    statement.setLong(2, p.expiration());
+                    statement.setInt(3, partition(p.id()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+            } catch (final SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    protected boolean insertOne(final String id, final long expiration) {
+        try {
+            return template.update(insertSql(), id, expiration, partition(id)) == 1;
+        } catch (final DataIntegrityViolationException e) {
+            // already stored: accepted only if expired
+            return renewExpired(id, expiration);
+        }
+    }
+
+    protected boolean renewExpired(final String id, final long expiration) {
+        return template.update("UPDATE " + tableName + " SET expires = ? WHERE id = ? AND expires <= ?",
+            expiration, id, System.currentTimeMillis()) == 1;
+    }
+
+    /**
+     * Delete the expired identifiers of the next partition.
+     *
+     * @return the number of deleted identifiers
+     */
+    public int sweep() {
+        val partition = Math.floorMod(sweptPartition.getAndIncrement(), partitions);
+        val deleted = template.update("DELETE FROM " + tableName + " WHERE part = ? AND expires <= ?",
+            partition, System.currentTimeMillis());
+        LOGGER.debug("Swept {} expired identifiers from partition {} of {}", deleted, partition, tableName);
+        return deleted;
+    }
+
+    private void safeSweep() {
+        try {
+            sweep();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Cannot sweep the replay cache {}", tableName, e);
+        }
+    }
+
+    private String insertSql() {
+        return "INSERT INTO " + tableName + " (id, expires, part) VALUES (?, ?, ?)";
+    }
+
+    private int partition(final String id) {
+        return Math.floorMod(id.hashCode(), partitions);
+    }
+
+    private boolean mightHaveSeen(final String id) {
+        val seen = seenIdentifiers.get();
+        return seen.current().mightContain(id) || seen.previous() != null && seen.previous().mightContain(id);
+    }
+
+    private void remember(final String id) {
+        val seen = seenIdentifiers.get();
+        seen.current().put(id);
+        // a full filter becomes the previous one (the identifiers are still found for one generation)
+        if (seen.current().approximateElementCount() >= expectedIdentifiers) {
+            seenIdentifiers.compareAndSet(seen, new SeenIdentifiers(newBloomFilter(), seen.current()));
+        }
+    }
+
+    private BloomFilter<CharSequence> newBloomFilter() {
+        return BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedIdentifiers, falsePositiveProbability);
+    }
+
+    private static String hash(final String context, final String key) {
+        try {
+            val digest = MessageDigest.getInstance("SHA-256");
+            digest.update(context.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(key.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (final NoSuchAlgorithmException e) {
+            throw new SAMLException(e);
+        }
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public long getSkippedLookups() {
+        return skippedLookups.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    protected record PendingInsert(String id, long expiration, CompletableFuture<Boolean> result) {}
+
+    private record SeenIdentifiers(BloomFilter<CharSequence> current, BloomFilter<CharSequence> previous) {}
+}
@@ -0,0 +1,63 @@
+package org.pac4j.saml.replay;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.opensaml.storage.ReplayCache;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+
+import java.time.Instant;
+
+/**
+ * Replay cache provider storing the identifiers in a pac4j {@link Store} (shared by the nodes of a cluster if the
+ * store is: <code>KeyValueStore</code>, Hazelcast, Redis...).
+ * <p>
+ * The expiration date of an identifier (driven by the <code>NotOnOrAfter</code> of the assertion) is stored as the
+ * value: an expired identifier is accepted again. The store must keep its entries at least as long as the assertions
+ * are valid (its timeout) and it may evict them afterwards.
+ * <p>
+ * The check and the storage are atomic for the current node (locks striped by identifier, no global lock).
+ * As the {@link Store} has no atomic "set if absent" operation, the same assertion sent to two nodes at the very
+ * same time may be accepted twice: use the {@link JdbcReplayCacheProvider} if this window is not acceptable.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Slf4j
+public class StoreReplayCacheProvider implements ReplayCacheProvider, ReplayCache {
+
+    private static final int LOCK_STRIPES = 64;
+
+    @Getter
+    private final Store<String, Long> store;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public StoreReplayCacheProvider(final Store<String, Long> store) {
+        CommonHelper.assertNotNull("store", store);
+        this.store = store;
+        for (var i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public ReplayCache get() {
+        return this;
+    }
+
+    @Override
+    public boolean check(final String context, final String key, final Instant expires) {
+        val id = context + '!' + key;
+        synchronized (locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)]) {
+            val expiration = store.get(id);
+            if (expiration.isPresent() && expiration.get() > System.currentTimeMillis()) {
+                LOGGER.warn("Replay detected of value '{}' in context '{}'", key, context);
+                return false;
+            }
+            store.set(id, expires.toEpochMilli());
+            return true;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.opensaml.core.xml.XMLObject;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.saml.util.Configuration;
+import org.pac4j.saml.util.SAML2Utils;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
@@ -52,8 +53,7 @@ public class HazelcastSAMLMessageStore implements SAMLMessageStore {
         LOGGER.debug("Message {} found in Hazelcast map {}, clearing", messageID, MAP_NAME);
         map.remove(messageID);
 
-        return Configuration.deserializeSamlObject(
-                new String(Base64.getDecoder().decode(message), StandardCharsets.UTF_8));
+        return Configuration.deserializeSamlObject(SAML2Utils.base64DecodingStream(message));
     }
 
     @Override
@@ -3,7 +3,6 @@ package org.pac4j.saml.transport;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import lombok.val;
-import net.shibboleth.shared.codec.Base64Support;
 import net.shibboleth.shared.component.ComponentInitializationException;
 import net.shibboleth.shared.logic.Constraint;
 import net.shibboleth.shared.xml.ParserPool;
@@ -19,10 +18,13 @@ import org.opensaml.saml.common.messaging.context.SAMLBindingContext;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.saml.context.SAML2MessageContext;
+import org.pac4j.saml.util.SAML2MessageBuffer;
+import org.pac4j.saml.util.SAML2Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
@@ -48,7 +50,50 @@ public abstract class AbstractPac4jDecoder extends AbstractMessageDecoder {
         this.context = context;
     }
 
+    /**
+     * Get the SAML message from the request parameters or content, Base64 decoded if necessary.
+     *
+     * @return the decoded message
+     * @throws MessageDecodingException if the request does not contain a SAML message
+     * @deprecated only called by the decoders when it is overridden (the message is otherwise decoded into a pooled buffer
+     * without copy), override {@link #getDecodedMessage()} instead
+     */
+    @Deprecated
     protected byte[] getBase64DecodedMessage() throws MessageDecodingException {
+        try (val message = getDecodedMessage()) {
+            return message.toByteArray();
+        }
+    }
+
+    /**
+     * Whether a method declared by a class of the decoders is overridden by the current decoder (to keep calling
+     * the deprecated byte array hooks overridden by the subclasses).
+     *
+     * @param declaringClass the class declaring the method
+     * @param name the name of the method
+     * @param parameterTypes the parameter types of the method
+     * @return whether the method is overridden
+     */
+    protected boolean isOverridden(final Class<?> declaringClass, final String name, final Class<?>... parameterTypes) {
+        for (Class<?> clazz = getClass(); clazz != null && clazz != declaringClass; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod(name, parameterTypes);
+                return true;
+            } catch (final NoSuchMethodException e) {
+                // check the superclass
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the SAML message from the request parameters or content, Base64 decoded if necessary, in a pooled buffer
+     * (to be released by the caller once the message is parsed).
+     *
+     * @return the buffer containing the decoded message
+     * @throws MessageDecodingException if the request does not contain a SAML message
+     */
+    protected SAML2MessageBuffer getDecodedMessage() throws MessageDecodingException {
         Optional<String> encodedMessage = Optional.empty();
         for (val parameter : SAML_PARAMETERS) {
             encodedMessage = this.context.getRequestParameter(parameter);
@@ -57,9 +102,22 @@ public abstract class AbstractPac4jDecoder extends AbstractMessageDecoder {
             }
         }
         if (!encodedMessage.isPresent()) {
-            encodedMessage = Optional.ofNullable(this.context.getRequestContent());
-            // we have a body, it may be the SAML request/response directly
+            // we have a body, it may be the SAML request/response directly (passed as is to the parser)
+            val content = this.context.getRequestContentBuffer();
+            if (containsXml(content)) {
+                val message = SAML2MessageBuffer.acquire();
+                if (content.hasArray()) {
+                    message.write(content.array(), content.arrayOffset() + content.position(), content.remaining());
+                } else {
+                    while (content.hasRemaining()) {
+                        message.write(content.get());
+                    }
+                }
+                logger.trace("Raw SAML message of {} bytes in the request content", message.size());
+                return message;
+            }
             // but we also try to parse it as a list key=value where the value is the SAML request/response
+            encodedMessage = Optional.ofNullable(this.context.getRequestContent());
             if (encodedMessage.isPresent()) {
                 val a = URLEncodedUtils.parse(encodedMessage.get(), StandardCharsets.UTF_8);
                 final Multimap<String, String>  paramMap = HashMultimap.create();
@@ -80,20 +138,35 @@ public abstract class AbstractPac4jDecoder extends AbstractMessageDecoder {
             throw new MessageDecodingException("Request did not contain either a SAMLRequest parameter, a SAMLResponse parameter, "
                 + "a logoutRequest parameter or a body content");
         } else {
-            if (encodedMessage.get().contains("<")) {
-                logger.trace("Raw SAML message:\n{}", encodedMessage);
-                return encodedMessage.get().getBytes(StandardCharsets.UTF_8);
-            } else {
-
-                try {
-                    val decodedBytes = Base64Support.decode(encodedMessage.get());
-                    logger.trace("Decoded SAML message:\n{}", new String(decodedBytes, StandardCharsets.UTF_8));
-                    return decodedBytes;
-                } catch (final Exception e) {
-                    throw new MessageDecodingException(e);
+            val message = SAML2MessageBuffer.acquire();
+            try {
+                if (encodedMessage.get().indexOf('<') >= 0) {
+                    logger.trace("Raw SAML message:\n{}", encodedMessage);
+                    message.writeBytes(encodedMessage.get().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    // the Base64 decoding is streamed into the buffer, without intermediate byte array
+                    try (val in = SAML2Utils.base64DecodingStream(encodedMessage.get())) {
+                        in.transferTo(message);
+                    }
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Decoded SAML message:\n{}", message.toString(StandardCharsets.UTF_8));
+                    }
                 }
+                return message;
+            } catch (final Exception e) {
+                message.close();
+                throw new MessageDecodingException(e);
+            }
+        }
+    }
+
+    private static boolean containsXml(final ByteBuffer content) {
+        for (var i = content.position(); i < content.limit(); i++) {
+            if (content.get(i) == '<') {
+                return true;
             }
         }
+        return false;
     }
 
     @Override
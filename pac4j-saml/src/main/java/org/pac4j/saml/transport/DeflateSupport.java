@@ -0,0 +1,174 @@
+package org.pac4j.saml.transport;
+
+import lombok.val;
+import net.shibboleth.shared.xml.SerializeSupport;
+import org.pac4j.saml.util.SAML2MessageBuffer;
+import org.w3c.dom.Node;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * DEFLATE (RFC1951) support for the HTTP-Redirect binding.
+ * <p>
+ * The {@link Deflater} and {@link Inflater} (and their native zlib memory) are pooled per thread and reset
+ * after each use instead of being created for each message. A DOM node is serialized directly into the deflater
+ * and the Base64 encoder, without intermediate string, and the messages are inflated into the pooled
+ * {@link SAML2MessageBuffer}s.
+ * <p>
+ * The size of an inflated message is limited ({@link #DEFAULT_MAX_INFLATED_SIZE} bytes by default) to reject
+ * the decompression bombs.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class DeflateSupport {
+
+    /** The default maximum size of an inflated message (in bytes). */
+    public static final int DEFAULT_MAX_INFLATED_SIZE = 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 1024;
+
+    private static final ThreadLocal<Deflater> DEFLATERS = ThreadLocal.withInitial(() -> new Deflater(Deflater.DEFLATED, true));
+
+    private static final ThreadLocal<Inflater> NOWRAP_INFLATERS = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private static final ThreadLocal<Inflater> INFLATERS = ThreadLocal.withInitial(Inflater::new);
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    private DeflateSupport() {}
+
+    /**
+     * Serialize, DEFLATE compress and Base64 encode (unchunked) a DOM node.
+     *
+     * @param node the DOM node
+     * @return the encoded message
+     * @throws IOException if the node cannot be serialized or compressed
+     */
+    public static String deflateAndBase64Encode(final Node node) throws IOException {
+        val deflater = DEFLATERS.get();
+        deflater.reset();
+        try (val bytesOut = SAML2MessageBuffer.acquire()) {
+            // closing the deflater stream does not end the provided deflater
+            try (var out = new DeflaterOutputStream(Base64.getEncoder().wrap(bytesOut.asOutputStream()), deflater, BUFFER_SIZE)) {
+                SerializeSupport.writeNode(node, out);
+            }
+            return bytesOut.toString(StandardCharsets.US_ASCII);
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message.
+     *
+     * @param input the compressed message
+     * @param nowrap whether the message is compressed without the ZLIB header and checksum (compatible with GZIP and PKZIP)
+     * @return the inflated message
+     * @throws IOException if the message cannot be inflated
+     */
+    public static InputStream inflate(final byte[] input, final boolean nowrap) throws IOException {
+        return new ByteArrayInputStream(inflateToBytes(input, nowrap));
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message.
+     *
+     * @param input the compressed message
+     * @param nowrap whether the message is compressed without the ZLIB header and checksum (compatible with GZIP and PKZIP)
+     * @return the inflated bytes
+     * @throws IOException if the message cannot be inflated
+     */
+    public static byte[] inflateToBytes(final byte[] input, final boolean nowrap) throws IOException {
+        val bytesOut = new ByteArrayOutputStream(initialSize(input.length));
+        inflate(input, 0, input.length, nowrap, bytesOut);
+        return bytesOut.toByteArray();
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message with a specific inflater.
+     *
+     * @param input the compressed message
+     * @param inflater the inflater
+     * @return the inflated bytes
+     * @throws IOException if the message cannot be inflated
+     */
+    public static byte[] inflateToBytes(final byte[] input, final Inflater inflater) throws IOException {
+        val bytesOut = new ByteArrayOutputStream(initialSize(input.length));
+        inflate(input, 0, input.length, inflater, bytesOut, DEFAULT_MAX_INFLATED_SIZE);
+        return bytesOut.toByteArray();
+    }
+
+    private static int initialSize(final int inputLength) {
+        return (int) Math.min(DEFAULT_MAX_INFLATED_SIZE, Math.max(BUFFER_SIZE, inputLength * 4L));
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message into a stream, within the default maximum size.
+     *
+     * @param input the array containing the compressed message
+     * @param offset the offset of the compressed message in the array
+     * @param length the length of the compressed message
+     * @param nowrap whether the message is compressed without the ZLIB header and checksum (compatible with GZIP and PKZIP)
+     * @param out the stream receiving the inflated bytes
+     * @throws IOException if the message cannot be inflated or is too large
+     */
+    public static void inflate(final byte[] input, final int offset, final int length, final boolean nowrap,
+                               final OutputStream out) throws IOException {
+        inflate(input, offset, length, nowrap, out, DEFAULT_MAX_INFLATED_SIZE);
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message into a stream.
+     *
+     * @param input the array containing the compressed message
+     * @param offset the offset of the compressed message in the array
+     * @param length the length of the compressed message
+     * @param nowrap whether the message is compressed without the ZLIB header and checksum (compatible with GZIP and PKZIP)
+     * @param out the stream receiving the inflated bytes
+     * @param maxSize the maximum size of the inflated message (in bytes)
+     * @throws IOException if the message cannot be inflated or is too large
+     */
+    public static void inflate(final byte[] input, final int offset, final int length, final boolean nowrap,
+                               final OutputStream out, final int maxSize) throws IOException {
+        val inflater = nowrap ? NOWRAP_INFLATERS.get() : INFLATERS.get();
+        inflater.reset();
+        try {
+            inflate(input, offset, length, inflater, out, maxSize);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    private static void inflate(final byte[] input, final int offset, final int length, final Inflater inflater,
+                                final OutputStream out, final int maxSize) throws IOException {
+        try {
+            inflater.setInput(input, offset, length);
+            val buffer = BUFFERS.get();
+            long total = 0;
+            while (!inflater.finished()) {
+                val inflated = inflater.inflate(buffer);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated or invalid DEFLATE data");
+                }
+                total += inflated;
+                if (total > maxSize) {
+                    throw new IOException("Inflated message too large (more than " + maxSize + " bytes)");
+                }
+                out.write(buffer, 0, inflated);
+            }
+        } catch (final DataFormatException e) {
+            throw new IOException("Invalid DEFLATE data", e);
+        }
+    }
+}
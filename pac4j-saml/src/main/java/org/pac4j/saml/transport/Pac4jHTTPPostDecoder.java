@@ -1,6 +1,7 @@
 package org.pac4j.saml.transport;
 
 import lombok.val;
+import org.opensaml.core.xml.XMLObject;
 import org.opensaml.messaging.decoder.MessageDecodingException;
 import org.opensaml.messaging.handler.MessageHandlerException;
 import org.opensaml.saml.common.SAMLObject;
@@ -36,8 +37,15 @@ public class Pac4jHTTPPostDecoder extends AbstractPac4jDecoder {
             val relayState = this.context.getRequestParameter("RelayState").orElse(null);
             logger.debug("Decoded SAML relay state of: {}", relayState);
             SAMLBindingSupport.setRelayState(messageContext.getMessageContext(), relayState);
-            val base64DecodedMessage = this.getBase64DecodedMessage();
-            val xmlObject = this.unmarshallMessage(new ByteArrayInputStream(base64DecodedMessage));
+            final XMLObject xmlObject;
+            if (isOverridden(AbstractPac4jDecoder.class, "getBase64DecodedMessage")) {
+                xmlObject = this.unmarshallMessage(new ByteArrayInputStream(this.getBase64DecodedMessage()));
+            } else {
+                // the message is parsed from the pooled buffer, without copy
+                try (val decodedMessage = this.getDecodedMessage()) {
+                    xmlObject = this.unmarshallMessage(decodedMessage.toInputStream());
+                }
+            }
             SAML2Utils.logProtocolMessage(xmlObject);
             final SAMLObject inboundMessage;
             if (xmlObject instanceof Envelope) {
@@ -3,7 +3,6 @@ package org.pac4j.saml.transport;
 
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
-import net.shibboleth.shared.codec.Base64Support;
 import net.shibboleth.shared.codec.HTMLEncoder;
 import net.shibboleth.shared.component.ComponentInitializationException;
 import net.shibboleth.shared.component.ComponentSupport;
@@ -22,10 +21,12 @@ import org.opensaml.saml.common.binding.SAMLBindingSupport;
 import org.opensaml.saml.common.xml.SAMLConstants;
 import org.opensaml.saml.saml2.core.RequestAbstractType;
 import org.opensaml.saml.saml2.core.StatusResponseType;
+import org.pac4j.saml.util.SAML2MessageBuffer;
 import org.w3c.dom.Element;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 
 /**
  * Pac4j implementation extending directly the {@link AbstractMessageEncoder} as intermediate classes use the JEE HTTP response.
@@ -190,11 +191,16 @@ public class Pac4jHTTPPostEncoder extends AbstractMessageEncoder {
         LOGGER.debug("Marshalling and Base64 encoding SAML message");
         val domMessage = marshallMessage(outboundMessage);
 
-        val messageXML = SerializeSupport.nodeToString(domMessage);
-        LOGGER.trace("Output XML message: {}", messageXML);
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Output XML message: {}", SerializeSupport.nodeToString(domMessage));
+        }
         final String encodedMessage;
-        try {
-            encodedMessage = Base64Support.encode(messageXML.getBytes(StandardCharsets.UTF_8), Base64Support.UNCHUNKED);
+        // the message is serialized directly into the Base64 encoder, without intermediate string
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            try (val out = Base64.getEncoder().wrap(buffer.asOutputStream())) {
+                SerializeSupport.writeNode(domMessage, out);
+            }
+            encodedMessage = buffer.toString(StandardCharsets.US_ASCII);
         } catch (final Exception e) {
             throw new MessageEncodingException(e);
         }
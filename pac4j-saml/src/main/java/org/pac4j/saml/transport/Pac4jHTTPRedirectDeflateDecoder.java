@@ -1,5 +1,7 @@
 package org.pac4j.saml.transport;
 
+import lombok.Getter;
+import lombok.Setter;
 import lombok.val;
 import org.opensaml.messaging.decoder.MessageDecodingException;
 import org.opensaml.saml.common.SAMLObject;
@@ -7,15 +9,14 @@ import org.opensaml.saml.common.xml.SAMLConstants;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.WebContextHelper;
 import org.pac4j.saml.context.SAML2MessageContext;
+import org.pac4j.saml.util.SAML2MessageBuffer;
 import org.pac4j.saml.util.SAML2Utils;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
 
 /**
  * Decoder for messages sent via HTTP-Redirect binding.
@@ -25,6 +26,11 @@ import java.util.zip.InflaterInputStream;
  */
 public class Pac4jHTTPRedirectDeflateDecoder extends AbstractPac4jDecoder {
 
+    /** The maximum size of the inflated message (in bytes). */
+    @Getter
+    @Setter
+    private int maxInflatedSize = DeflateSupport.DEFAULT_MAX_INFLATED_SIZE;
+
     public Pac4jHTTPRedirectDeflateDecoder(final WebContext context) {
         super(context);
     }
@@ -34,9 +40,15 @@ public class Pac4jHTTPRedirectDeflateDecoder extends AbstractPac4jDecoder {
         val messageContext = new SAML2MessageContext();
 
         if (WebContextHelper.isGet(context)) {
-            val base64DecodedMessage = this.getBase64DecodedMessage();
-            val inflatedMessage = inflate(base64DecodedMessage);
-            val inboundMessage = (SAMLObject) this.unmarshallMessage(inflatedMessage);
+            final SAMLObject inboundMessage;
+            if (usesByteArrayHooks()) {
+                inboundMessage = (SAMLObject) this.unmarshallMessage(inflate(this.getBase64DecodedMessage()));
+            } else {
+                // the message is inflated and parsed from the pooled buffers, without copy
+                try (val decodedMessage = this.getDecodedMessage(); val inflatedMessage = inflate(decodedMessage)) {
+                    inboundMessage = (SAMLObject) this.unmarshallMessage(inflatedMessage.toInputStream());
+                }
+            }
             SAML2Utils.logProtocolMessage(inboundMessage);
             messageContext.getMessageContext().setMessage(inboundMessage);
             logger.debug("Decoded SAML message");
@@ -47,6 +59,22 @@ public class Pac4jHTTPRedirectDeflateDecoder extends AbstractPac4jDecoder {
         }
     }
 
+    private boolean usesByteArrayHooks() {
+        return isOverridden(AbstractPac4jDecoder.class, "getBase64DecodedMessage")
+            || isOverridden(Pac4jHTTPRedirectDeflateDecoder.class, "inflate", byte[].class)
+            || isOverridden(Pac4jHTTPRedirectDeflateDecoder.class, "internalInflate", byte[].class, Inflater.class);
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message.
+     *
+     * @param input the compressed message
+     * @return the inflated message
+     * @throws MessageDecodingException if the message cannot be inflated
+     * @deprecated only called by the decoder when a byte array hook is overridden (the message is otherwise inflated into
+     * a pooled buffer without copy), override {@link #inflate(SAML2MessageBuffer)} instead
+     */
+    @Deprecated
     protected InputStream inflate(final byte[] input) throws MessageDecodingException {
         try {
             // compatible with GZIP and PKZIP
@@ -61,22 +89,54 @@ public class Pac4jHTTPRedirectDeflateDecoder extends AbstractPac4jDecoder {
         }
     }
 
+    /**
+     * Inflate a DEFLATE compressed message into a pooled buffer (to be released by the caller).
+     *
+     * @param input the buffer containing the compressed message
+     * @return the buffer containing the inflated message
+     * @throws MessageDecodingException if the message cannot be inflated
+     */
+    protected SAML2MessageBuffer inflate(final SAML2MessageBuffer input) throws MessageDecodingException {
+        val output = SAML2MessageBuffer.acquire();
+        try {
+            try {
+                // compatible with GZIP and PKZIP
+                DeflateSupport.inflate(input.getBuffer(), 0, input.size(), true, output, maxInflatedSize);
+            } catch (final IOException e) {
+                // deflate compression only
+                output.reset();
+                DeflateSupport.inflate(input.getBuffer(), 0, input.size(), false, output, maxInflatedSize);
+            }
+        } catch (final IOException e) {
+            output.close();
+            throw new MessageDecodingException("Cannot decode message", e);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Inflated SAML message: {}", output.toString(StandardCharsets.UTF_8));
+        }
+        return output;
+    }
+
+    /**
+     * Inflate a DEFLATE compressed message.
+     *
+     * @param input the compressed message
+     * @param inflater the inflater (ended once the message is inflated)
+     * @return the inflated message
+     * @throws IOException if the message cannot be inflated
+     * @deprecated only called by the decoder when a byte array hook is overridden, override
+     * {@link #inflate(SAML2MessageBuffer)} instead
+     */
+    @Deprecated
     protected InputStream internalInflate(final byte[] input, final Inflater inflater) throws IOException {
-        val baos = new ByteArrayOutputStream();
-        val iis = new InflaterInputStream(new ByteArrayInputStream(input), inflater);
         try {
-            val buffer = new byte[1000];
-            int length;
-            while ((length = iis.read(buffer)) > 0) {
-                baos.write(buffer, 0, length);
+            val decodedBytes = DeflateSupport.inflateToBytes(input, inflater);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Inflated SAML message: {}", new String(decodedBytes, StandardCharsets.UTF_8));
             }
-            val decodedBytes = baos.toByteArray();
-            val decodedMessage = new String(decodedBytes, StandardCharsets.UTF_8);
-            logger.debug("Inflated SAML message: {}", decodedMessage);
             return new ByteArrayInputStream(decodedBytes);
         } finally {
-            baos.close();
-            iis.close();
+            inflater.end();
         }
     }
 
@@ -26,12 +26,9 @@ import org.opensaml.xmlsec.SignatureSigningParameters;
 import org.opensaml.xmlsec.crypto.XMLSigningUtil;
 import org.w3c.dom.Element;
 
-import java.io.ByteArrayOutputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.util.zip.Deflater;
-import java.util.zip.DeflaterOutputStream;
 
 /**
  * Pac4j implementation extending directly the {@link AbstractMessageEncoder} as intermediate classes use the JEE HTTP response.
@@ -116,16 +113,11 @@ public class Pac4jHTTPRedirectDeflateEncoder extends AbstractMessageEncoder {
     String deflateAndBase64Encode(final SAMLObject message) throws MessageEncodingException {
         LOGGER.debug("Deflating and Base64 encoding SAML message");
         try {
-            val messageStr = SerializeSupport.nodeToString(marshallMessage(message));
-            LOGGER.trace("Output XML message: {}", messageStr);
-
-            val bytesOut = new ByteArrayOutputStream();
-            val deflater = new Deflater(Deflater.DEFLATED, true);
-            val deflaterStream = new DeflaterOutputStream(bytesOut, deflater);
-            deflaterStream.write(messageStr.getBytes(StandardCharsets.UTF_8));
-            deflaterStream.finish();
-
-            return Base64Support.encode(bytesOut.toByteArray(), Base64Support.UNCHUNKED);
+            val element = marshallMessage(message);
+            if (LOGGER.isTraceEnabled()) {
+                LOGGER.trace("Output XML message: {}", SerializeSupport.nodeToString(element));
+            }
+            return DeflateSupport.deflateAndBase64Encode(element);
         } catch (final Exception e) {
             throw new MessageEncodingException("Unable to DEFLATE and Base64 encode SAML message", e);
         }
@@ -3,6 +3,7 @@ package org.pac4j.saml.util;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import net.shibboleth.shared.xml.ParserPool;
+import net.shibboleth.shared.xml.SerializeSupport;
 import org.opensaml.core.xml.XMLObject;
 import org.opensaml.core.xml.XMLObjectBuilderFactory;
 import org.opensaml.core.xml.config.XMLObjectProviderRegistrySupport;
@@ -16,6 +17,8 @@ import javax.xml.transform.OutputKeys;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.ArrayList;
@@ -103,4 +106,27 @@ public final class Configuration {
             return Optional.empty();
         }
     }
+
+    /**
+     * Serialize a SAML object (UTF-8, not indented) directly into a stream.
+     *
+     * @param samlObject the SAML object
+     * @param out the stream
+     */
+    public static void serializeSamlObject(final XMLObject samlObject, final OutputStream out) {
+        try {
+            SerializeSupport.writeNode(XMLObjectSupport.marshall(samlObject), out);
+        } catch (final Exception e) {
+            throw new SAMLException(e.getMessage(), e);
+        }
+    }
+
+    public static Optional<XMLObject> deserializeSamlObject(final InputStream in) {
+        try {
+            return Optional.of(XMLObjectSupport.unmarshallFromInputStream(Configuration.getParserPool(), in));
+        } catch (final Exception e) {
+            LOGGER.error("Error unmarshalling message from input stream", e);
+            return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package org.pac4j.saml.util;
+
+import lombok.val;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A byte buffer for the serialized SAML messages (raw, inflated or Base64 encoded), reused per thread.
+ * <p>
+ * The buffers are acquired via {@link #acquire()} and released by {@link #close()}: each thread keeps
+ * {@link #POOL_SIZE} buffers (a decoded and an inflated message for the HTTP-Redirect binding) and new buffers are
+ * sized from the average size of the latest messages. A buffer grown above {@link #MAX_RETAINED_SIZE} is not kept
+ * (and its message is not taken into account for the sizing).
+ * <p>
+ * The content can be read without copy via {@link #toInputStream()} until the buffer is released.
+ * The content is cleared when the buffer is reset or released.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SAML2MessageBuffer extends ByteArrayOutputStream {
+
+    /** Number of buffers kept per thread. */
+    public static final int POOL_SIZE = 2;
+
+    /** Minimum size of a new buffer. */
+    public static final int MIN_SIZE = 4 * 1024;
+
+    /** Maximum size of a buffer kept for reuse. */
+    public static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<SAML2MessageBuffer[]> BUFFERS = ThreadLocal.withInitial(() -> new SAML2MessageBuffer[POOL_SIZE]);
+
+    private static volatile int averageSize = MIN_SIZE;
+
+    private final int slot;
+
+    private boolean inUse;
+
+    private SAML2MessageBuffer(final int size, final int slot) {
+        super(size);
+        this.slot = slot;
+    }
+
+    /**
+     * Acquire an empty buffer for the current thread.
+     *
+     * @return the buffer, to be released by {@link #close()} in the same thread
+     */
+    public static SAML2MessageBuffer acquire() {
+        val buffers = BUFFERS.get();
+        for (var i = 0; i < buffers.length; i++) {
+            var buffer = buffers[i];
+            if (buffer == null) {
+                buffer = new SAML2MessageBuffer(expectedSize(), i);
+                buffers[i] = buffer;
+            }
+            if (!buffer.inUse) {
+                buffer.inUse = true;
+                return buffer;
+            }
+        }
+        // all the pooled buffers are in use: a disposable one is returned
+        val buffer = new SAML2MessageBuffer(expectedSize(), -1);
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    /**
+     * The expected size of a message: the average size of the latest messages plus 25%.
+     *
+     * @return the expected size
+     */
+    public static int expectedSize() {
+        return Math.min(MAX_RETAINED_SIZE, Math.max(MIN_SIZE, averageSize + averageSize / 4));
+    }
+
+    /**
+     * Read the content without copy. The stream must not be used once the buffer is released.
+     *
+     * @return the input stream on the content
+     */
+    public InputStream toInputStream() {
+        return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    /**
+     * Return the internal array (the content is in the first {@link #size()} bytes).
+     *
+     * @return the internal array
+     */
+    public byte[] getBuffer() {
+        return buf;
+    }
+
+    /**
+     * Return a view of this buffer which does not release it when closed, to be wrapped by encoding streams
+     * (which must be closed to be flushed).
+     *
+     * @return the output stream
+     */
+    public OutputStream asOutputStream() {
+        return new OutputStream() {
+            @Override
+            public void write(final int b) {
+                SAML2MessageBuffer.this.write(b);
+            }
+
+            @Override
+            public void write(final byte[] b, final int off, final int len) {
+                SAML2MessageBuffer.this.write(b, off, len);
+            }
+        };
+    }
+
+    /**
+     * Empty the buffer and clear its previous content (which may be sensitive, like assertions).
+     */
+    @Override
+    public synchronized void reset() {
+        Arrays.fill(buf, 0, count, (byte) 0);
+        super.reset();
+    }
+
+    /**
+     * Release the buffer: record its size for the sizing of the next buffers, empty it and clear its content.
+     */
+    @Override
+    public void close() {
+        if (!inUse) {
+            return;
+        }
+        val oversized = buf.length > MAX_RETAINED_SIZE;
+        if (count > 0 && !oversized) {
+            // the average is approximate under concurrency, which is enough for sizing
+            val average = averageSize;
+            averageSize = average + (count - average) / 8;
+        }
+        inUse = false;
+        reset();
+        if (slot >= 0 && oversized) {
+            BUFFERS.get()[slot] = null;
+        }
+    }
+}
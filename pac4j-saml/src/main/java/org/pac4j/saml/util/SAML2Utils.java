@@ -17,9 +17,11 @@ import org.pac4j.saml.metadata.SAML2MetadataResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 /**
@@ -108,12 +110,17 @@ public final class SAML2Utils implements HttpConstants {
 
     public static ChainingMetadataResolver buildChainingMetadataResolver(final SAML2MetadataResolver idpMetadataProvider,
                                                                          final SAML2MetadataResolver spMetadataProvider) {
+        return buildChainingMetadataResolver(idpMetadataProvider.resolve(), spMetadataProvider.resolve());
+    }
+
+    public static ChainingMetadataResolver buildChainingMetadataResolver(final MetadataResolver idpMetadataResolver,
+                                                                         final MetadataResolver spMetadataResolver) {
         val metadataManager = new ChainingMetadataResolver();
         metadataManager.setId(ChainingMetadataResolver.class.getCanonicalName());
         try {
             final List<MetadataResolver> list = new ArrayList<>();
-            list.add(idpMetadataProvider.resolve());
-            list.add(spMetadataProvider.resolve());
+            list.add(idpMetadataResolver);
+            list.add(spMetadataResolver);
             metadataManager.setResolvers(list);
             metadataManager.initialize();
         } catch (final ResolverException e) {
@@ -134,4 +141,54 @@ public final class SAML2Utils implements HttpConstants {
             }
         }
     }
+
+    /**
+     * Decode a Base64 encoded message as a stream, without copying the encoded characters to a byte array.
+     * The whitespaces (like the line separators) are ignored, any other character outside of the Base64 alphabet
+     * makes the stream fail with an {@link java.io.IOException}.
+     *
+     * @param encodedMessage the Base64 encoded message
+     * @return the stream of decoded bytes
+     */
+    public static InputStream base64DecodingStream(final CharSequence encodedMessage) {
+        return Base64.getDecoder().wrap(new InputStream() {
+            private int position;
+
+            @Override
+            public int read() {
+                while (position < encodedMessage.length()) {
+                    val c = encodedMessage.charAt(position++);
+                    if (!isBase64Whitespace(c)) {
+                        return toBase64Byte(c);
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public int read(final byte[] b, final int off, final int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                var n = 0;
+                while (n < len && position < encodedMessage.length()) {
+                    val c = encodedMessage.charAt(position++);
+                    if (!isBase64Whitespace(c)) {
+                        b[off + n++] = (byte) toBase64Byte(c);
+                    }
+                }
+                return n > 0 ? n : -1;
+            }
+        });
+    }
+
+    private static boolean isBase64Whitespace(final char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static int toBase64Byte(final char c) {
+        // a non ASCII character is not part of the Base64 alphabet: it is replaced by an invalid ASCII character
+        // (and not truncated to a byte which may be valid)
+        return c < 128 ? c : '*';
+    }
 }
@@ -0,0 +1,53 @@
+package org.pac4j.saml.context;
+
+import lombok.val;
+import org.junit.Test;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.saml.client.AbstractSAML2ClientTests;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SAML2ContextProvider}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SAML2ContextProviderTests extends AbstractSAML2ClientTests {
+
+    @Test
+    public void testDescriptorsResolvedOncePerMetadata() {
+        val client = getClient();
+        client.init();
+        val provider = client.getContextProvider();
+
+        val context1 = provider.buildContext(client, MockWebContext.create(), new MockSessionStore());
+        val context2 = provider.buildContext(client, MockWebContext.create(), new MockSessionStore());
+        assertEquals("https://idp.testshib.org/idp/shibboleth", context1.getSAMLPeerEntityContext().getEntityId());
+        assertEquals("urn:mace:saml:pac4j.org", context1.getSAMLSelfEntityContext().getEntityId());
+        assertNotNull(context1.getIDPSSODescriptor());
+        assertSame(context1.getSAMLPeerMetadataContext().getEntityDescriptor(),
+            context2.getSAMLPeerMetadataContext().getEntityDescriptor());
+        assertSame(context1.getSAMLSelfMetadataContext().getRoleDescriptor(),
+            context2.getSAMLSelfMetadataContext().getRoleDescriptor());
+
+        // the idp metadata are reloaded
+        client.getIdentityProviderMetadataResolver().resolve(true);
+        val context3 = provider.buildContext(client, MockWebContext.create(), new MockSessionStore());
+        assertNotSame(context1.getSAMLPeerMetadataContext().getEntityDescriptor(),
+            context3.getSAMLPeerMetadataContext().getEntityDescriptor());
+        assertEquals(SAMLConstants.SAML20P_NS, context3.getSAMLProtocolContext().getProtocol());
+    }
+
+    @Override
+    protected String getCallbackUrl() {
+        return "http://localhost:8080/callback";
+    }
+
+    @Override
+    protected String getAuthnRequestBindingType() {
+        return SAMLConstants.SAML2_POST_BINDING_URI;
+    }
+}
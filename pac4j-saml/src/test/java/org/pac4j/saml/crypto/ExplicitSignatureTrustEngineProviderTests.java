@@ -0,0 +1,114 @@
+package org.pac4j.saml.crypto;
+
+import lombok.val;
+import net.shibboleth.shared.resolver.CriteriaSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
+import org.opensaml.saml.common.xml.SAMLConstants;
+import org.opensaml.saml.criterion.EntityRoleCriterion;
+import org.opensaml.saml.criterion.ProtocolCriterion;
+import org.opensaml.saml.saml2.metadata.IDPSSODescriptor;
+import org.opensaml.security.credential.UsageType;
+import org.opensaml.security.criteria.UsageCriterion;
+import org.opensaml.xmlsec.signature.support.impl.ExplicitKeySignatureTrustEngine;
+import org.pac4j.saml.config.SAML2Configuration;
+import org.pac4j.saml.metadata.SAML2IdentityProviderMetadataResolver;
+import org.pac4j.saml.metadata.SAML2ServiceProviderMetadataResolver;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.time.Instant;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ExplicitSignatureTrustEngineProvider}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class ExplicitSignatureTrustEngineProviderTests {
+
+    private SAML2IdentityProviderMetadataResolver idp;
+
+    private ExplicitSignatureTrustEngineProvider provider;
+
+    private SAML2ServiceProviderMetadataResolver sp;
+
+    @Before
+    public void setUp() {
+        val config = new SAML2Configuration();
+        config.setForceKeystoreGeneration(true);
+        config.setIdentityProviderMetadataResource(new ClassPathResource("idp-metadata.xml"));
+        config.setServiceProviderMetadataResource(new FileSystemResource("target/out.xml"));
+        config.setForceServiceProviderMetadataGeneration(true);
+        config.setKeystorePath("target/keystore.jks");
+        config.setKeystorePassword("pac4j");
+        config.setPrivateKeyPassword("pac4j");
+        config.init();
+
+        idp = new SAML2IdentityProviderMetadataResolver(config);
+        idp.init();
+        sp = new SAML2ServiceProviderMetadataResolver(config);
+        provider = new ExplicitSignatureTrustEngineProvider(idp, sp);
+    }
+
+    @Test
+    public void testEngineReusedUntilMetadataChange() {
+        val engine = provider.build();
+        assertSame(engine, provider.build());
+        assertEquals(1, provider.getEngineBuilds());
+
+        idp.resolve(true);
+        val newEngine = provider.build();
+        assertNotSame(engine, newEngine);
+        assertSame(newEngine, provider.build());
+        assertEquals(2, provider.getEngineBuilds());
+    }
+
+    @Test
+    public void testEngineRebuiltWhenMetadataReloadedInPlace() {
+        val lastUpdate = new Instant[] { Instant.now() };
+        provider = new ExplicitSignatureTrustEngineProvider(idp, sp) {
+            @Override
+            protected Instant getLastUpdate(final MetadataResolver resolver) {
+                return lastUpdate[0];
+            }
+        };
+        val engine = provider.build();
+        assertSame(engine, provider.build());
+
+        lastUpdate[0] = lastUpdate[0].plusSeconds(1);
+        assertNotSame(engine, provider.build());
+        assertEquals(2, provider.getEngineBuilds());
+    }
+
+    @Test
+    public void testEngineRebuiltAfterTimeToLive() throws Exception {
+        provider.setEngineTimeToLive(1);
+        val engine = provider.build();
+        assertSame(engine, provider.build());
+
+        Thread.sleep(1100);
+        assertNotSame(engine, provider.build());
+        assertEquals(2, provider.getEngineBuilds());
+    }
+
+    @Test
+    public void testCredentialCache() throws Exception {
+        val credentialResolver = ((ExplicitKeySignatureTrustEngine) provider.build()).getCredentialResolver();
+        val criteria = new CriteriaSet();
+        criteria.add(new UsageCriterion(UsageType.SIGNING));
+        criteria.add(new EntityRoleCriterion(IDPSSODescriptor.DEFAULT_ELEMENT_NAME));
+        criteria.add(new ProtocolCriterion(SAMLConstants.SAML20P_NS));
+        criteria.add(new EntityIdCriterion("mmoayyed.example.net"));
+
+        val credentials = credentialResolver.resolve(criteria);
+        assertTrue(credentials.iterator().hasNext());
+        assertSame(credentials, ((ExplicitKeySignatureTrustEngine) provider.build()).getCredentialResolver().resolve(criteria));
+        assertEquals(1, provider.getCredentialCacheMisses());
+        assertEquals(1, provider.getCredentialCacheHits());
+    }
+}
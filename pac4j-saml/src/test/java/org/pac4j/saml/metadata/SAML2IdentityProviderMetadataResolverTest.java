@@ -1,13 +1,17 @@
 package org.pac4j.saml.metadata;
 
+import com.sun.net.httpserver.HttpServer;
 import net.shibboleth.shared.resolver.CriteriaSet;
 import net.shibboleth.shared.xml.XMLParserException;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.opensaml.core.criterion.EntityIdCriterion;
+import org.opensaml.saml.metadata.resolver.MetadataResolver;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.saml.config.SAML2Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.UrlResource;
 
 import javax.net.ssl.SSLContext;
@@ -16,13 +20,17 @@ import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 
 @SuppressWarnings("PMD.TooManyStaticImports")
@@ -59,6 +67,11 @@ public class SAML2IdentityProviderMetadataResolverTest {
         metadataResolver.init();
     }
 
+    @After
+    public void tearDown() {
+        metadataResolver.destroy();
+    }
+
     @Test
     public void resolveMetadataEntityId() throws Exception {
         var resolver = metadataResolver.resolve();
@@ -136,4 +149,72 @@ public class SAML2IdentityProviderMetadataResolverTest {
         metadataResolver.init();
         assertNull(metadataResolver.getEntityDescriptorElement());
     }
+
+    @Test
+    public void refreshKeepsLastGoodMetadata() throws Exception {
+        var file = Files.createTempFile("idp-metadata", ".xml").toFile();
+        file.deleteOnExit();
+        try (var in = new ClassPathResource("idp-metadata.xml").getInputStream()) {
+            Files.write(file.toPath(), in.readAllBytes());
+        }
+        var configuration = new SAML2Configuration();
+        configuration.setIdentityProviderMetadataResource(new FileSystemResource(file));
+        metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration);
+        metadataResolver.init();
+
+        var resolver = metadataResolver.resolve();
+        assertNotNull(resolver);
+
+        Files.write(file.toPath(), "not metadata".getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(file.lastModified() + 10_000);
+        metadataResolver.refresh();
+        assertSame(resolver, metadataResolver.resolve());
+        assertEquals("mmoayyed.example.net", metadataResolver.getEntityId());
+    }
+
+    @Test
+    public void refreshOverHttpUsesBuildMetadataResolver() throws Exception {
+        byte[] metadata;
+        try (var in = new ClassPathResource("idp-metadata.xml").getInputStream()) {
+            metadata = in.readAllBytes();
+        }
+        var getRequests = new AtomicInteger();
+        var server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/metadata", exchange -> {
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+                return;
+            }
+            getRequests.incrementAndGet();
+            exchange.sendResponseHeaders(200, metadata.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(metadata);
+            }
+        });
+        server.start();
+        try {
+            var configuration = new SAML2Configuration();
+            configuration.setIdentityProviderMetadataResource(
+                new UrlResource("http://localhost:" + server.getAddress().getPort() + "/metadata"));
+            var builds = new AtomicInteger();
+            metadataResolver = new SAML2IdentityProviderMetadataResolver(configuration) {
+                @Override
+                protected MetadataResolver buildMetadataResolver() {
+                    builds.incrementAndGet();
+                    return super.buildMetadataResolver();
+                }
+            };
+            metadataResolver.init();
+            assertEquals(1, builds.get());
+            assertEquals(1, getRequests.get());
+
+            metadataResolver.refresh();
+            assertEquals(2, builds.get());
+            assertEquals(2, getRequests.get());
+            assertEquals("mmoayyed.example.net", metadataResolver.getEntityId());
+        } finally {
+            server.stop(0);
+        }
+    }
 }
@@ -17,7 +17,7 @@ import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.*;
 
 public class SAML2ServiceProviderMetadataResolverTest {
 
@@ -54,6 +54,27 @@ public class SAML2ServiceProviderMetadataResolverTest {
         assertNotNull(metadataResolver.resolve());
     }
 
+    @Test
+    public void renderedMetadataCachedUntilConfigurationChange() {
+        val configuration =
+            initializeConfiguration(new FileSystemResource("target/out.xml"), "target/keystore.jks");
+        val metadataResolver = new SAML2ServiceProviderMetadataResolver(configuration);
+        val rendered = metadataResolver.getRenderedMetadata();
+        assertSame(rendered, metadataResolver.getRenderedMetadata());
+        assertEquals(rendered.getMetadata(), metadataResolver.getMetadata());
+        assertTrue(rendered.getEtag().startsWith("\"") && rendered.getEtag().endsWith("\""));
+        assertTrue(rendered.getGzippedBytes().length < rendered.getBytes().length);
+
+        configuration.setCallbackUrl("https://www.pac4j.org/callback");
+        val newRendered = metadataResolver.getRenderedMetadata();
+        assertNotSame(rendered, newRendered);
+        assertNotEquals(rendered.getEtag(), newRendered.getEtag());
+        assertTrue(newRendered.getMetadata().contains("https://www.pac4j.org/callback"));
+
+        metadataResolver.invalidateMetadata();
+        assertNotSame(newRendered, metadataResolver.getRenderedMetadata());
+    }
+
     @Test
     public void resolveServiceProviderMetadataViaExistingClasspath() {
         val configuration =
@@ -0,0 +1,168 @@
+package org.pac4j.saml.replay;
+
+import lombok.val;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JdbcReplayCacheProvider}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class JdbcReplayCacheProviderTests {
+
+    private static final String CONTEXT = "context";
+
+    private EmbeddedDatabase dataSource;
+
+    private JdbcTemplate template;
+
+    @Before
+    public void setUp() {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE sp_replay_cache (id VARCHAR(64) PRIMARY KEY, expires BIGINT NOT NULL, part INT NOT NULL)");
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.shutdown();
+    }
+
+    private JdbcReplayCacheProvider newProvider() {
+        val provider = new JdbcReplayCacheProvider(template);
+        provider.setSweepInterval(0);
+        return provider;
+    }
+
+    @Test
+    public void testReplayRejected() {
+        val provider = newProvider();
+        val expires = Instant.now().plusSeconds(60);
+        assertTrue(provider.get().check(CONTEXT, "id1", expires));
+        assertFalse(provider.get().check(CONTEXT, "id1", expires));
+        assertTrue(provider.get().check(CONTEXT, "id2", expires));
+        assertEquals(2, provider.getSkippedLookups());
+        assertEquals(1, provider.getLookups());
+    }
+
+    @Test
+    public void testReplayOnAnotherNode() {
+        val expires = Instant.now().plusSeconds(60);
+        assertTrue(newProvider().get().check(CONTEXT, "id", expires));
+        val otherNode = newProvider();
+        assertFalse(otherNode.get().check(CONTEXT, "id", expires));
+        // never seen on this node: no lookup, the primary key detects the replay
+        assertEquals(0, otherNode.getLookups());
+    }
+
+    @Test
+    public void testExpiredIdentifierAcceptedAndSwept() {
+        val provider = newProvider();
+        provider.setPartitions(1);
+        assertTrue(provider.get().check(CONTEXT, "id1", Instant.now().minusSeconds(1)));
+        assertTrue(provider.get().check(CONTEXT, "id1", Instant.now().plusSeconds(60)));
+        assertFalse(provider.get().check(CONTEXT, "id1", Instant.now().plusSeconds(60)));
+
+        assertTrue(provider.get().check(CONTEXT, "id2", Instant.now().minusSeconds(1)));
+        assertEquals(1, provider.sweep());
+        assertEquals(Integer.valueOf(1), template.queryForObject("SELECT COUNT(*) FROM sp_replay_cache", Integer.class));
+        assertTrue(provider.get().check(CONTEXT, "id2", Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    public void testConcurrentChecks() throws Exception {
+        val provider = newProvider();
+        val expires = Instant.now().plusSeconds(60);
+        val executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (var i = 0; i < 2000; i++) {
+                // each identifier is sent twice
+                val id = "id" + (i / 2);
+                tasks.add(() -> provider.get().check(CONTEXT, id, expires));
+            }
+            var accepted = 0;
+            for (final Future<Boolean> result : executor.invokeAll(tasks)) {
+                if (result.get()) {
+                    accepted++;
+                }
+            }
+            assertEquals(1000, accepted);
+            assertEquals(Integer.valueOf(1000), template.queryForObject("SELECT COUNT(*) FROM sp_replay_cache", Integer.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testUnexpectedBatchFailureReleasesTheWaitingInserts() throws Exception {
+        val waiting = new AtomicInteger();
+        val gate = new CountDownLatch(1);
+        val provider = new JdbcReplayCacheProvider(template) {
+            @Override
+            protected boolean flushPendingInserts() {
+                waiting.incrementAndGet();
+                try {
+                    assertTrue(gate.await(5, TimeUnit.SECONDS));
+                } catch (final InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return super.flushPendingInserts();
+            }
+
+            @Override
+            protected void insertBatch(final List<PendingInsert> batch) {
+                throw new IllegalStateException("unexpected");
+            }
+        };
+        provider.setSweepInterval(0);
+        val expires = Instant.now().plusSeconds(60).toEpochMilli();
+        val executor = Executors.newFixedThreadPool(2);
+        try {
+            val result1 = executor.submit(() -> provider.insert("id1", expires));
+            val result2 = executor.submit(() -> provider.insert("id2", expires));
+            // both inserts are pending: they are flushed in the same batch
+            while (waiting.get() < 2) {
+                Thread.sleep(10);
+            }
+            gate.countDown();
+            for (val result : List.of(result1, result2)) {
+                val e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IllegalStateException || e.getCause() instanceof CompletionException);
+            }
+        } finally {
+            executor.shutdownNow();
+            provider.destroy();
+        }
+    }
+
+    @Test
+    public void testDatabaseFailure() {
+        val provider = newProvider();
+        provider.setTableName("missing_table");
+        assertFalse(provider.get().check(CONTEXT, "id", Instant.now().plusSeconds(60)));
+        provider.setStrict(false);
+        assertTrue(provider.get().check(CONTEXT, "id2", Instant.now().plusSeconds(60)));
+    }
+}
@@ -0,0 +1,48 @@
+package org.pac4j.saml.replay;
+
+import lombok.val;
+import org.junit.Test;
+import org.pac4j.core.store.GuavaStore;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link StoreReplayCacheProvider}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class StoreReplayCacheProviderTests {
+
+    private static final String CONTEXT = "context";
+
+    private final GuavaStore<String, Long> store = new GuavaStore<>(1000, 10, TimeUnit.MINUTES);
+
+    @Test
+    public void testReplayRejected() {
+        val cache = new StoreReplayCacheProvider(store).get();
+        val expires = Instant.now().plusSeconds(60);
+        assertTrue(cache.check(CONTEXT, "id1", expires));
+        assertFalse(cache.check(CONTEXT, "id1", expires));
+        assertTrue(cache.check(CONTEXT, "id2", expires));
+        assertTrue(cache.check("otherContext", "id1", expires));
+    }
+
+    @Test
+    public void testSharedStore() {
+        val expires = Instant.now().plusSeconds(60);
+        assertTrue(new StoreReplayCacheProvider(store).get().check(CONTEXT, "id", expires));
+        assertFalse(new StoreReplayCacheProvider(store).get().check(CONTEXT, "id", expires));
+    }
+
+    @Test
+    public void testExpiredIdentifierAccepted() {
+        val cache = new StoreReplayCacheProvider(store).get();
+        assertTrue(cache.check(CONTEXT, "id", Instant.now().minusSeconds(1)));
+        assertTrue(cache.check(CONTEXT, "id", Instant.now().plusSeconds(60)));
+        assertFalse(cache.check(CONTEXT, "id", Instant.now().plusSeconds(60)));
+    }
+}
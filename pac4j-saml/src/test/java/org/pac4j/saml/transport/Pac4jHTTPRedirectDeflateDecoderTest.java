@@ -3,16 +3,24 @@ package org.pac4j.saml.transport;
 import lombok.val;
 import org.junit.Test;
 import org.opensaml.core.xml.util.XMLObjectSupport;
+import org.opensaml.messaging.decoder.MessageDecodingException;
 import org.opensaml.messaging.context.MessageContext;
 import org.opensaml.saml.common.SAMLObject;
 import org.opensaml.saml.saml2.core.impl.AuthnRequestImpl;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.saml.util.Configuration;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests {@link Pac4jHTTPRedirectDeflateDecoder}.
@@ -55,6 +63,44 @@ public class Pac4jHTTPRedirectDeflateDecoderTest {
         assertTrue(decoder.getMessageContext().getMessage() instanceof AuthnRequestImpl);
     }
 
+    @Test
+    public void testInflateWithZlibHeader() throws Exception {
+        val bytesOut = new ByteArrayOutputStream();
+        try (var out = new DeflaterOutputStream(bytesOut, new Deflater())) {
+            out.write(AUTHN_REQUEST.getBytes(StandardCharsets.UTF_8));
+        }
+        val webContext = MockWebContext.create();
+        webContext.addRequestParameter("SAMLRequest", Base64.getEncoder().encodeToString(bytesOut.toByteArray()));
+
+        for (var i = 0; i < 2; i++) {
+            val decoder = new Pac4jHTTPRedirectDeflateDecoder(webContext);
+            decoder.setParserPool(Configuration.getParserPool());
+            decoder.initialize();
+            decoder.decode();
+            assertTrue(decoder.getMessageContext().getMessage() instanceof AuthnRequestImpl);
+        }
+    }
+
+    @Test
+    public void testInflatedMessageTooLarge() throws Exception {
+        val bytesOut = new ByteArrayOutputStream();
+        try (var out = new DeflaterOutputStream(bytesOut, new Deflater(Deflater.BEST_COMPRESSION, true))) {
+            out.write(new byte[DeflateSupport.DEFAULT_MAX_INFLATED_SIZE + 1]);
+        }
+        val webContext = MockWebContext.create();
+        webContext.addRequestParameter("SAMLRequest", Base64.getEncoder().encodeToString(bytesOut.toByteArray()));
+
+        val decoder = new Pac4jHTTPRedirectDeflateDecoder(webContext);
+        decoder.setParserPool(Configuration.getParserPool());
+        decoder.initialize();
+        try {
+            decoder.decode();
+            fail("The inflated message should be too large");
+        } catch (final MessageDecodingException e) {
+            assertEquals("Cannot decode message", e.getMessage());
+        }
+    }
+
     @Test
     public void testBuildRedirectUrlWithExistingQueryParameters() throws Exception {
         val webContext = MockWebContext.create();
@@ -0,0 +1,95 @@
+package org.pac4j.saml.util;
+
+import lombok.val;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SAML2MessageBuffer}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class SAML2MessageBufferTests {
+
+    private static final byte[] MESSAGE = "<samlp:Response/>".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testReusedPerThread() throws Exception {
+        final SAML2MessageBuffer first;
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            buffer.write(MESSAGE, 0, MESSAGE.length);
+            assertArrayEquals(MESSAGE, buffer.toInputStream().readAllBytes());
+            first = buffer;
+        }
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            assertSame(first, buffer);
+            assertEquals(0, buffer.size());
+        }
+    }
+
+    @Test
+    public void testNestedAcquisitions() {
+        try (val first = SAML2MessageBuffer.acquire(); val second = SAML2MessageBuffer.acquire();
+             val third = SAML2MessageBuffer.acquire()) {
+            assertNotSame(first, second);
+            assertNotSame(second, third);
+            assertNotSame(first, third);
+        }
+    }
+
+    @Test
+    public void testLargeBufferNotRetained() {
+        final SAML2MessageBuffer large;
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            buffer.write(new byte[SAML2MessageBuffer.MAX_RETAINED_SIZE + 1], 0, SAML2MessageBuffer.MAX_RETAINED_SIZE + 1);
+            large = buffer;
+        }
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            assertNotSame(large, buffer);
+            assertTrue(buffer.getBuffer().length <= SAML2MessageBuffer.MAX_RETAINED_SIZE);
+        }
+    }
+
+    @Test
+    public void testLargeBufferNotUsedForSizing() {
+        val expectedSize = SAML2MessageBuffer.expectedSize();
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            buffer.write(new byte[SAML2MessageBuffer.MAX_RETAINED_SIZE + 1], 0, SAML2MessageBuffer.MAX_RETAINED_SIZE + 1);
+        }
+        assertEquals(expectedSize, SAML2MessageBuffer.expectedSize());
+    }
+
+    @Test
+    public void testEncodingStreamDoesNotReleaseBuffer() throws Exception {
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            try (val out = Base64.getEncoder().wrap(buffer.asOutputStream())) {
+                out.write(MESSAGE);
+            }
+            assertEquals(Base64.getEncoder().encodeToString(MESSAGE), buffer.toString(StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void testExpectedSizeBounds() {
+        val size = SAML2MessageBuffer.expectedSize();
+        assertTrue(size >= SAML2MessageBuffer.MIN_SIZE);
+        assertTrue(size <= SAML2MessageBuffer.MAX_RETAINED_SIZE);
+    }
+
+    @Test
+    public void testContentClearedOnRelease() {
+        final byte[] array;
+        try (val buffer = SAML2MessageBuffer.acquire()) {
+            buffer.write(MESSAGE, 0, MESSAGE.length);
+            array = buffer.getBuffer();
+        }
+        for (var i = 0; i < MESSAGE.length; i++) {
+            assertEquals(0, array[i]);
+        }
+    }
+}
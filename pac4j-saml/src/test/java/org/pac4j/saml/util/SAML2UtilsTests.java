@@ -3,11 +3,17 @@ package org.pac4j.saml.util;
 import lombok.val;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Unit test for class {@link SAML2Utils}.
@@ -82,4 +88,25 @@ public final class SAML2UtilsTests {
         assertFalse(SAML2Utils.urisEqualAfterPortNormalization(uri1, uri2));
         assertFalse(SAML2Utils.urisEqualAfterPortNormalization(uri2, uri1));
     }
+
+    @Test
+    public void base64DecodingStreamIgnoresLineSeparators() throws Exception {
+        val message = "<samlp:Response ID=\"_1\"/>".getBytes(StandardCharsets.UTF_8);
+        val encoded = Base64.getMimeEncoder(8, "\r\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(message);
+        try (val in = SAML2Utils.base64DecodingStream(encoded)) {
+            assertArrayEquals(message, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void base64DecodingStreamRejectsInvalidCharacters() {
+        for (val invalid : List.of("PHNhbWxw!cDpS", "PHNhbWxw\u0141cDpS", "PHNhbWxw-cDpS")) {
+            try (val in = SAML2Utils.base64DecodingStream(invalid)) {
+                in.readAllBytes();
+                fail("Invalid Base64 decoded: " + invalid);
+            } catch (final IOException e) {
+                // expected
+            }
+        }
+    }
 }
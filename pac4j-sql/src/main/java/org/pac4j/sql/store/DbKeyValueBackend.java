@@ -0,0 +1,282 @@
+package org.pac4j.sql.store;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+import org.pac4j.core.store.KeyValueBackend;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link KeyValueBackend} storing the values in a relational database table, to be used by the
+ * {@link org.pac4j.core.store.KeyValueStore}:
+ * <pre>
+ * create table pac4j_store (store_key varchar(255) primary key, store_value blob, expires_at bigint not null);
+ * create index pac4j_store_expires_at on pac4j_store (expires_at);
+ * </pre>
+ *
+ * The bulk operations use batched statements (an update then an insert for the missing keys): a key inserted meanwhile
+ * by another node makes the insert fail on the primary key and is then updated. The expired values are deleted every
+ * {@link #sweepInterval} seconds in the background.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+@Getter
+@Setter
+@Slf4j
+@ToString(of = {"table", "batchSize", "sweepInterval"})
+public class DbKeyValueBackend extends InitializableObject implements KeyValueBackend {
+
+    private static final long NO_EXPIRATION = Long.MAX_VALUE;
+
+    private static final String INSERT_CHECKPOINT = "pac4j_store_insert";
+
+    private DataSource dataSource;
+
+    private String table = "pac4j_store";
+
+    /**
+     * The maximum number of keys per statement or batch.
+     */
+    private int batchSize = 100;
+
+    /**
+     * The interval between two deletions of the expired values (in seconds, 0 to disable).
+     */
+    private int sweepInterval = 60;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DBI dbi;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ScheduledExecutorService sweepScheduler;
+
+    public DbKeyValueBackend() {}
+
+    public DbKeyValueBackend(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("dataSource", this.dataSource);
+        CommonHelper.assertNotBlank("table", this.table);
+        CommonHelper.assertTrue(this.batchSize > 0, "batchSize must be greater than zero");
+        this.dbi = new DBI(this.dataSource);
+        startSweepScheduler();
+    }
+
+    protected synchronized void startSweepScheduler() {
+        if (sweepInterval > 0 && sweepScheduler == null) {
+            sweepScheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                val thread = new Thread(task, "pac4j-db-store-sweep");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweepScheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    sweep();
+                } catch (final RuntimeException e) {
+                    LOGGER.warn("Cannot delete the expired values from: {}", table, e);
+                }
+            }, sweepInterval, sweepInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized void destroy() {
+        if (sweepScheduler != null) {
+            sweepScheduler.shutdownNow();
+            sweepScheduler = null;
+        }
+    }
+
+    /**
+     * Delete the expired values.
+     *
+     * @return the number of deleted values
+     */
+    public int sweep() {
+        init();
+
+        try (var h = dbi.open()) {
+            val deleted = h.update("delete from " + table + " where expires_at <= ?", System.currentTimeMillis());
+            LOGGER.debug("{} expired values deleted from: {}", deleted, table);
+            return deleted;
+        }
+    }
+
+    @Override
+    public Optional<byte[]> get(final String key) {
+        return Optional.ofNullable(getAll(Collections.singletonList(key)).get(key));
+    }
+
+    @Override
+    public Map<String, byte[]> getAll(final Collection<String> keys) {
+        init();
+
+        final Map<String, byte[]> values = new HashMap<>();
+        try (var h = dbi.open()) {
+            for (val chunk : CommonHelper.partition(keys, batchSize)) {
+                val sql = "select store_key, store_value from " + table + " where expires_at > ? and store_key in ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+                val query = h.createQuery(sql).bind(0, System.currentTimeMillis());
+                for (var i = 0; i < chunk.size(); i++) {
+                    query.bind(i + 1, chunk.get(i));
+                }
+                for (val entry : query.map((index, r, ctx) -> Map.entry(r.getString(1), r.getBytes(2))).list()) {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void set(final String key, final byte[] value, final long timeToLive) {
+        setAll(Collections.singletonMap(key, value), timeToLive);
+    }
+
+    @Override
+    public void setAll(final Map<String, byte[]> values, final long timeToLive) {
+        init();
+
+        val expiresAt = timeToLive > 0 ? System.currentTimeMillis() + timeToLive : NO_EXPIRATION;
+        try (var h = dbi.open()) {
+            h.inTransaction((handle, status) -> {
+                for (val chunk : CommonHelper.partition(values.keySet(), batchSize)) {
+                    upsert(handle, chunk, values, expiresAt);
+                }
+                return null;
+            });
+        }
+    }
+
+    protected void upsert(final Handle h, final List<String> keys, final Map<String, byte[]> values, final long expiresAt) {
+        val update = h.prepareBatch("update " + table + " set store_value = ?, expires_at = ? where store_key = ?");
+        for (val key : keys) {
+            update.add(values.get(key), expiresAt, key);
+        }
+        val counts = update.execute();
+
+        final Map<String, byte[]> missing = new LinkedHashMap<>();
+        for (var i = 0; i < keys.size(); i++) {
+            // some drivers do not report the number of updated rows in batches
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                if (h.update("update " + table + " set store_value = ?, expires_at = ? where store_key = ?",
+                    values.get(keys.get(i)), expiresAt, keys.get(i)) == 0) {
+                    missing.put(keys.get(i), values.get(keys.get(i)));
+                }
+            } else if (counts[i] == 0) {
+                missing.put(keys.get(i), values.get(keys.get(i)));
+            }
+        }
+        if (!missing.isEmpty()) {
+            insert(h, missing, expiresAt);
+        }
+    }
+
+    /**
+     * Insert the missing keys. If another node has inserted some of them in the meantime, the keys are inserted one by one
+     * and the conflicting ones are updated.
+     *
+     * @param h the handle
+     * @param missing the missing keys and their values
+     * @param expiresAt the expiration date
+     */
+    protected void insert(final Handle h, final Map<String, byte[]> missing, final long expiresAt) {
+        h.checkpoint(INSERT_CHECKPOINT);
+        try {
+            val insert = h.prepareBatch("insert into " + table + " (store_key, store_value, expires_at) values (?, ?, ?)");
+            for (val entry : missing.entrySet()) {
+                insert.add(entry.getKey(), entry.getValue(), expiresAt);
+            }
+            insert.execute();
+            h.release(INSERT_CHECKPOINT);
+        } catch (final UnableToExecuteStatementException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            LOGGER.debug("Concurrent insert of the keys: {}", missing.keySet());
+            h.rollback(INSERT_CHECKPOINT);
+            for (val entry : missing.entrySet()) {
+                insertOrUpdate(h, entry.getKey(), entry.getValue(), expiresAt);
+            }
+        }
+    }
+
+    private void insertOrUpdate(final Handle h, final String key, final byte[] value, final long expiresAt) {
+        h.checkpoint(INSERT_CHECKPOINT + "_key");
+        try {
+            h.update("insert into " + table + " (store_key, store_value, expires_at) values (?, ?, ?)", key, value, expiresAt);
+            h.release(INSERT_CHECKPOINT + "_key");
+        } catch (final UnableToExecuteStatementException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            h.rollback(INSERT_CHECKPOINT + "_key");
+            h.update("update " + table + " set store_value = ?, expires_at = ? where store_key = ?", value, expiresAt, key);
+        }
+    }
+
+    /**
+     * Whether the statement has failed because of an already existing key (SQL state of the class 23).
+     *
+     * @param e the exception
+     * @return whether the key already exists
+     */
+    protected boolean isDuplicateKey(final RuntimeException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sqlException) {
+                for (var next = sqlException; next != null; next = next.getNextException()) {
+                    if (next instanceof SQLIntegrityConstraintViolationException
+                        || next.getSQLState() != null && next.getSQLState().startsWith("23")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void remove(final String key) {
+        removeAll(Collections.singletonList(key));
+    }
+
+    @Override
+    public void removeAll(final Collection<String> keys) {
+        init();
+
+        try (var h = dbi.open()) {
+            val delete = h.prepareBatch("delete from " + table + " where store_key = ?");
+            for (val key : keys) {
+                delete.add(key);
+            }
+            delete.execute();
+        }
+    }
+}
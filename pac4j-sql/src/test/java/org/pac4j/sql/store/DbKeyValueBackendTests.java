@@ -0,0 +1,108 @@
+package org.pac4j.sql.store;
+
+import lombok.val;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.Test;
+import org.pac4j.core.store.AbstractStoreTests;
+import org.pac4j.core.store.KeyValueStore;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link KeyValueStore} with the {@link DbKeyValueBackend}.
+ *
+ * @author Jerome Leleu
+ * @since 6.0.0
+ */
+public final class DbKeyValueBackendTests extends AbstractStoreTests<KeyValueStore<String>> {
+
+    private static final DataSource DATA_SOURCE = JdbcConnectionPool.create("jdbc:h2:mem:store", "sa", "");
+
+    static {
+        try (var h = new DBI(DATA_SOURCE).open()) {
+            h.execute("create table pac4j_store (store_key varchar(255) primary key, store_value blob, expires_at bigint not null)");
+        }
+    }
+
+    private static DbKeyValueBackend newBackend() {
+        val backend = new DbKeyValueBackend(DATA_SOURCE);
+        backend.setBatchSize(2);
+        backend.setSweepInterval(0);
+        return backend;
+    }
+
+    @Override
+    protected KeyValueStore<String> buildStore() {
+        final KeyValueStore<String> store = new KeyValueStore<>(newBackend(), 1);
+        store.setNearCacheTimeout(0);
+        return store;
+    }
+
+    @Test
+    public void testUpsertAndBulkOperations() {
+        val backend = newBackend();
+        final Map<String, byte[]> values = new HashMap<>();
+        for (var i = 0; i < 5; i++) {
+            values.put(KEY + i, (VALUE + i).getBytes(StandardCharsets.UTF_8));
+        }
+        backend.setAll(values, 0);
+        backend.set(KEY + 2, SECRET.getBytes(StandardCharsets.UTF_8), 0);
+
+        val loaded = backend.getAll(List.of(KEY + 0, KEY + 2, KEY + 4, ID));
+        assertEquals(3, loaded.size());
+        assertEquals(SECRET, new String(loaded.get(KEY + 2), StandardCharsets.UTF_8));
+
+        backend.removeAll(values.keySet());
+        assertTrue(backend.getAll(values.keySet()).isEmpty());
+    }
+
+    @Test
+    public void testConcurrentInsert() {
+        val backend = new DbKeyValueBackend(DATA_SOURCE) {
+            @Override
+            protected void insert(final Handle h, final Map<String, byte[]> missing, final long expiresAt) {
+                // another node inserts the first key between the update and the insert
+                try (var other = new DBI(DATA_SOURCE).open()) {
+                    other.update("insert into pac4j_store (store_key, store_value, expires_at) values (?, ?, ?)",
+                        KEY + 0, ID.getBytes(StandardCharsets.UTF_8), Long.MAX_VALUE);
+                }
+                super.insert(h, missing, expiresAt);
+            }
+        };
+        backend.setSweepInterval(0);
+        backend.setAll(Map.of(KEY + 0, VALUE.getBytes(StandardCharsets.UTF_8), KEY + 1, VALUE.getBytes(StandardCharsets.UTF_8)), 0);
+
+        val loaded = backend.getAll(List.of(KEY + 0, KEY + 1));
+        assertEquals(VALUE, new String(loaded.get(KEY + 0), StandardCharsets.UTF_8));
+        assertEquals(VALUE, new String(loaded.get(KEY + 1), StandardCharsets.UTF_8));
+        backend.removeAll(loaded.keySet());
+    }
+
+    @Test
+    public void testSweep() throws Exception {
+        val backend = newBackend();
+        backend.set(ID, VALUE.getBytes(StandardCharsets.UTF_8), 1);
+        Thread.sleep(10);
+        assertFalse(backend.get(ID).isPresent());
+        assertEquals(1, backend.sweep());
+    }
+
+    @Test
+    public void testClusterNodesShareValues() {
+        final KeyValueStore<String> node1 = new KeyValueStore<>(newBackend(), 60);
+        final KeyValueStore<String> node2 = new KeyValueStore<>(newBackend(), 60);
+        node1.set(NAME, VALUE);
+        assertEquals(VALUE, node2.get(NAME).get());
+        node2.remove(NAME);
+        node1.setNearCacheTimeout(0);
+        assertFalse(node1.get(NAME).isPresent());
+    }
+}